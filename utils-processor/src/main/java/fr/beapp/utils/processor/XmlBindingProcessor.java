@@ -0,0 +1,407 @@
+package fr.beapp.utils.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.tools.Diagnostic;
+
+/**
+ * Generate the <code>XmlBinding</code> of classes annotated with <code>@XmlMapped</code>, as a <code>ClassName_XmlBinding.BINDING</code> field.
+ * <p/>
+ * The generated binding assigns annotated fields directly, so no reflection is involved when parsing. Fields declared by superclasses are bound too.
+ * Annotations are matched by name, so this processor doesn't depend on the library.
+ */
+public class XmlBindingProcessor extends AbstractProcessor {
+
+	private static final String PACKAGE = "fr.beapp.utils.parser";
+	private static final String XML_MAPPED = PACKAGE + ".XmlMapped";
+	private static final String XML_ATTRIBUTE = PACKAGE + ".XmlAttribute";
+	private static final String XML_TEXT = PACKAGE + ".XmlText";
+	private static final String XML_CHILD = PACKAGE + ".XmlChild";
+	private static final String XML_BINDING = PACKAGE + ".XmlBinding";
+	private static final String PARSER_UTILS = PACKAGE + ".ParserUtils";
+	private static final String SUFFIX = "_XmlBinding";
+
+	@Override
+	public Set<String> getSupportedAnnotationTypes() {
+		return new HashSet<>(Arrays.asList(XML_MAPPED, XML_ATTRIBUTE, XML_TEXT, XML_CHILD));
+	}
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		TypeElement xmlMapped = processingEnv.getElementUtils().getTypeElement(XML_MAPPED);
+		if (xmlMapped == null)
+			return false;
+
+		for (Element element : roundEnv.getElementsAnnotatedWith(xmlMapped)) {
+			try {
+				TypeElement type = checkMappedType(element);
+				checkNotRecursive(type, new HashSet<TypeElement>());
+				writeBinding(type, generateBinding(type));
+			} catch (ProcessingException e) {
+				processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, e.getMessage(), e.element);
+			} catch (IOException e) {
+				processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Unable to write binding: " + e.getMessage(), element);
+			}
+		}
+		return true;
+	}
+
+	private TypeElement checkMappedType(Element element) throws ProcessingException {
+		if (element.getKind() != ElementKind.CLASS)
+			throw new ProcessingException(element, "@XmlMapped can only be used on classes");
+
+		TypeElement type = (TypeElement) element;
+		if (type.getModifiers().contains(Modifier.ABSTRACT))
+			throw new ProcessingException(type, "@XmlMapped classes must not be abstract");
+		if (!type.getTypeParameters().isEmpty())
+			throw new ProcessingException(type, "@XmlMapped classes must not be generic");
+
+		for (Element current = type; current instanceof TypeElement; current = current.getEnclosingElement()) {
+			TypeElement currentType = (TypeElement) current;
+			if (currentType.getModifiers().contains(Modifier.PRIVATE))
+				throw new ProcessingException(type, "@XmlMapped classes and their enclosing classes must not be private");
+			if (currentType.getNestingKind() == NestingKind.MEMBER && !currentType.getModifiers().contains(Modifier.STATIC))
+				throw new ProcessingException(type, "Nested @XmlMapped classes must be static");
+			if (currentType.getNestingKind() == NestingKind.LOCAL || currentType.getNestingKind() == NestingKind.ANONYMOUS)
+				throw new ProcessingException(type, "@XmlMapped classes must be top level or nested classes");
+		}
+
+		boolean hasConstructor = false;
+		for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+			if (constructor.getParameters().isEmpty() && !constructor.getModifiers().contains(Modifier.PRIVATE)) {
+				hasConstructor = true;
+			}
+		}
+		if (!hasConstructor)
+			throw new ProcessingException(type, "@XmlMapped classes must have a non-private constructor without parameters");
+		return type;
+	}
+
+	/**
+	 * Bindings reference the bindings of their children in their static initializer, so they can't be recursive
+	 */
+	private void checkNotRecursive(TypeElement type, Set<TypeElement> visiting) throws ProcessingException {
+		if (!visiting.add(type))
+			throw new ProcessingException(type, "@XmlMapped classes can't contain themselves through @XmlChild fields");
+
+		for (VariableElement field : getFields(type)) {
+			if (getAnnotationValue(field, XML_CHILD) != null) {
+				TypeElement childType = getChildType(field);
+				if (childType != null) {
+					checkNotRecursive(childType, visiting);
+				}
+			}
+		}
+		visiting.remove(type);
+	}
+
+	private String generateBinding(TypeElement type) throws ProcessingException {
+		String typeName = type.getQualifiedName().toString();
+		StringBuilder code = new StringBuilder();
+		code.append(XML_BINDING).append(".builder(new ").append(XML_BINDING).append(".Factory<").append(typeName).append(">() {\n")
+				.append("\t\t\t\t@Override\n")
+				.append("\t\t\t\tpublic ").append(typeName).append(" create() {\n")
+				.append("\t\t\t\t\treturn new ").append(typeName).append("();\n")
+				.append("\t\t\t\t}\n")
+				.append("\t\t\t})");
+
+		for (VariableElement field : getFields(type)) {
+			String attribute = getAnnotationValue(field, XML_ATTRIBUTE);
+			String text = getAnnotationValue(field, XML_TEXT);
+			String child = getAnnotationValue(field, XML_CHILD);
+			int annotationCount = (attribute != null ? 1 : 0) + (text != null ? 1 : 0) + (child != null ? 1 : 0);
+			if (annotationCount == 0)
+				continue;
+			if (annotationCount > 1)
+				throw new ProcessingException(field, "Fields can only have one of @XmlAttribute, @XmlText and @XmlChild");
+			checkField(type, field);
+
+			if (attribute != null) {
+				code.append("\n\t\t\t.attribute(").append(literal(attribute)).append(", ").append(setter(type, field)).append(")");
+			} else if (text != null) {
+				code.append("\n\t\t\t.text(").append(literal(text)).append(", ").append(setter(type, field)).append(")");
+			} else {
+				code.append("\n\t\t\t.child(").append(literal(child)).append(", ").append(childAdder(type, field)).append(")");
+			}
+		}
+		return code.append("\n\t\t\t.build()").toString();
+	}
+
+	/**
+	 * @return the fields of the given type and of its superclasses, superclass fields first
+	 */
+	private static List<VariableElement> getFields(TypeElement type) {
+		List<TypeElement> hierarchy = new ArrayList<>();
+		for (TypeElement current = type; current != null; current = getSuperclass(current)) {
+			hierarchy.add(0, current);
+		}
+
+		List<VariableElement> fields = new ArrayList<>();
+		for (TypeElement current : hierarchy) {
+			fields.addAll(ElementFilter.fieldsIn(current.getEnclosedElements()));
+		}
+		return fields;
+	}
+
+	/**
+	 * @return the superclass of the given type, or <code>null</code> if it directly extends {@link Object}
+	 */
+	private static TypeElement getSuperclass(TypeElement type) {
+		TypeMirror superclass = type.getSuperclass();
+		if (superclass.getKind() != TypeKind.DECLARED)
+			return null;
+
+		TypeElement element = (TypeElement) ((DeclaredType) superclass).asElement();
+		return element.getQualifiedName().contentEquals("java.lang.Object") ? null : element;
+	}
+
+	private void checkField(TypeElement type, VariableElement field) throws ProcessingException {
+		Set<Modifier> modifiers = field.getModifiers();
+		if (modifiers.contains(Modifier.PRIVATE) || modifiers.contains(Modifier.FINAL) || modifiers.contains(Modifier.STATIC))
+			throw new ProcessingException(field, "Bound fields must be neither private, final nor static");
+
+		TypeElement declaringType = (TypeElement) field.getEnclosingElement();
+		if (declaringType.equals(type))
+			return;
+
+		// Inherited fields are reported on the mapped class, as their superclass may come from a library without sources
+		String fieldName = declaringType.getQualifiedName() + "." + field.getSimpleName();
+		if (!declaringType.getTypeParameters().isEmpty())
+			throw new ProcessingException(type, "Inherited field " + fieldName + " can't be bound, as it is declared in a generic class");
+
+		Elements elements = processingEnv.getElementUtils();
+		if (!elements.getPackageOf(declaringType).equals(elements.getPackageOf(type))
+				&& (!modifiers.contains(Modifier.PUBLIC) || !declaringType.getModifiers().contains(Modifier.PUBLIC)))
+			throw new ProcessingException(type, "Inherited field " + fieldName + " can't be bound, as it isn't public and is declared in another package");
+	}
+
+	/**
+	 * @return the expression accessing the field on the <code>target</code>, inherited fields being accessed through their declaring type in case they are hidden
+	 */
+	private static String fieldAccess(TypeElement type, VariableElement field) {
+		TypeElement declaringType = (TypeElement) field.getEnclosingElement();
+		if (declaringType.equals(type))
+			return "target." + field.getSimpleName();
+		return "((" + declaringType.getQualifiedName() + ") target)." + field.getSimpleName();
+	}
+
+	private String setter(TypeElement type, VariableElement field) throws ProcessingException {
+		String typeName = type.getQualifiedName().toString();
+		return "new " + XML_BINDING + ".Setter<" + typeName + ">() {\n"
+				+ "\t\t\t\t@Override\n"
+				+ "\t\t\t\tpublic void set(" + typeName + " target, String value) {\n"
+				+ "\t\t\t\t\t" + fieldAccess(type, field) + " = " + conversion(type, field) + ";\n"
+				+ "\t\t\t\t}\n"
+				+ "\t\t\t}";
+	}
+
+	/**
+	 * @return the expression converting the <code>value</code> string to the type of the field, primitives keeping their current value if it can't be parsed
+	 */
+	private String conversion(TypeElement type, VariableElement field) throws ProcessingException {
+		String current = fieldAccess(type, field);
+		TypeMirror fieldType = field.asType();
+		switch (fieldType.getKind()) {
+			case INT:
+				return PARSER_UTILS + ".parseInteger(value, " + current + ")";
+			case LONG:
+				return PARSER_UTILS + ".parseLong(value, " + current + ")";
+			case FLOAT:
+				return PARSER_UTILS + ".parseFloat(value, " + current + ")";
+			case DOUBLE:
+				return PARSER_UTILS + ".parseDouble(value, " + current + ")";
+			case BOOLEAN:
+				return PARSER_UTILS + ".parseBoolean(value)";
+			case DECLARED:
+				String typeName = ((TypeElement) ((DeclaredType) fieldType).asElement()).getQualifiedName().toString();
+				if (typeName.equals("java.lang.String"))
+					return "value";
+				if (typeName.equals("java.lang.Integer"))
+					return PARSER_UTILS + ".parseInteger(value)";
+				if (typeName.equals("java.lang.Long"))
+					return PARSER_UTILS + ".parseLong(value)";
+				if (typeName.equals("java.lang.Float"))
+					return PARSER_UTILS + ".parseFloat(value)";
+				if (typeName.equals("java.lang.Double"))
+					return PARSER_UTILS + ".parseDouble(value)";
+				if (typeName.equals("java.lang.Boolean"))
+					return "Boolean.valueOf(" + PARSER_UTILS + ".parseBoolean(value))";
+				break;
+			default:
+				break;
+		}
+		throw new ProcessingException(field, "Unsupported type for a bound field: " + fieldType);
+	}
+
+	private String childAdder(TypeElement type, VariableElement field) throws ProcessingException {
+		TypeElement childType = getChildType(field);
+		if (childType == null)
+			throw new ProcessingException(field, "@XmlChild fields must be an @XmlMapped class, or a List or Collection of it");
+
+		String typeName = type.getQualifiedName().toString();
+		String fieldAccess = fieldAccess(type, field);
+		String childTypeName = childType.getQualifiedName().toString();
+		String assignment;
+		if (isCollection(field.asType())) {
+			assignment = "\t\t\t\t\tif (" + fieldAccess + " == null) {\n"
+					+ "\t\t\t\t\t\t" + fieldAccess + " = new java.util.ArrayList<>();\n"
+					+ "\t\t\t\t\t}\n"
+					+ "\t\t\t\t\t" + fieldAccess + ".add(child);\n";
+		} else {
+			assignment = "\t\t\t\t\t" + fieldAccess + " = child;\n";
+		}
+		return bindingName(childType) + ".BINDING, new " + XML_BINDING + ".ChildAdder<" + typeName + ", " + childTypeName + ">() {\n"
+				+ "\t\t\t\t@Override\n"
+				+ "\t\t\t\tpublic void add(" + typeName + " target, " + childTypeName + " child) {\n"
+				+ assignment
+				+ "\t\t\t\t}\n"
+				+ "\t\t\t}";
+	}
+
+	/**
+	 * @return the mapped type of a child field, either the field type or the element type of a collection, or <code>null</code> if it isn't mapped
+	 */
+	private TypeElement getChildType(VariableElement field) {
+		TypeMirror type = field.asType();
+		if (type.getKind() != TypeKind.DECLARED)
+			return null;
+
+		DeclaredType declaredType = (DeclaredType) type;
+		if (isCollection(type)) {
+			List<? extends TypeMirror> typeArguments = declaredType.getTypeArguments();
+			if (typeArguments.size() != 1 || typeArguments.get(0).getKind() != TypeKind.DECLARED)
+				return null;
+			declaredType = (DeclaredType) typeArguments.get(0);
+		}
+
+		TypeElement element = (TypeElement) declaredType.asElement();
+		return hasAnnotation(element, XML_MAPPED) ? element : null;
+	}
+
+	private boolean isCollection(TypeMirror type) {
+		if (type.getKind() != TypeKind.DECLARED)
+			return false;
+
+		String typeName = ((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName().toString();
+		return typeName.equals("java.util.List") || typeName.equals("java.util.Collection");
+	}
+
+	private void writeBinding(TypeElement type, String binding) throws IOException {
+		Elements elements = processingEnv.getElementUtils();
+		String packageName = elements.getPackageOf(type).getQualifiedName().toString();
+		String bindingName = simpleBindingName(type);
+		String modifier = type.getModifiers().contains(Modifier.PUBLIC) ? "public " : "";
+
+		Writer writer = processingEnv.getFiler().createSourceFile(packageName.isEmpty() ? bindingName : packageName + "." + bindingName, type).openWriter();
+		try {
+			if (!packageName.isEmpty()) {
+				writer.write("package " + packageName + ";\n\n");
+			}
+			writer.write("/**\n"
+					+ " * Generated by " + XmlBindingProcessor.class.getName() + " for {@link " + type.getQualifiedName() + "}, do not edit\n"
+					+ " */\n"
+					+ modifier + "final class " + bindingName + " {\n\n"
+					+ "\tpublic static final " + XML_BINDING + "<" + type.getQualifiedName() + "> BINDING = " + binding + ";\n\n"
+					+ "\tprivate " + bindingName + "() {\n"
+					+ "\t}\n\n"
+					+ "}\n");
+		} finally {
+			writer.close();
+		}
+	}
+
+	private String bindingName(TypeElement type) {
+		String packageName = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+		return packageName.isEmpty() ? simpleBindingName(type) : packageName + "." + simpleBindingName(type);
+	}
+
+	/**
+	 * @return the name of the binding class, prefixed by the names of the enclosing classes, like <code>Outer_Inner_XmlBinding</code>
+	 */
+	private String simpleBindingName(TypeElement type) {
+		StringBuilder name = new StringBuilder(type.getSimpleName());
+		for (Element current = type.getEnclosingElement(); current instanceof TypeElement; current = current.getEnclosingElement()) {
+			name.insert(0, current.getSimpleName() + "_");
+		}
+		return name.append(SUFFIX).toString();
+	}
+
+	private static boolean hasAnnotation(Element element, String annotationName) {
+		for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+			if (((TypeElement) annotation.getAnnotationType().asElement()).getQualifiedName().contentEquals(annotationName))
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * @return the <code>value</code> of the given annotation on the element, or <code>null</code> if the element isn't annotated
+	 */
+	private static String getAnnotationValue(Element element, String annotationName) {
+		for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+			if (((TypeElement) annotation.getAnnotationType().asElement()).getQualifiedName().contentEquals(annotationName)) {
+				for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : annotation.getElementValues().entrySet()) {
+					if (entry.getKey().getSimpleName().contentEquals("value"))
+						return String.valueOf(entry.getValue().getValue());
+				}
+				return "";
+			}
+		}
+		return null;
+	}
+
+	private static String literal(String value) {
+		StringBuilder literal = new StringBuilder(value.length() + 2).append('"');
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == '"' || c == '\\') {
+				literal.append('\\').append(c);
+			} else if (c < ' ') {
+				// Not a unicode escape, which would be translated before the literal is parsed
+				literal.append(String.format("\\%03o", (int) c));
+			} else {
+				literal.append(c);
+			}
+		}
+		return literal.append('"').toString();
+	}
+
+	private static class ProcessingException extends Exception {
+		final Element element;
+
+		ProcessingException(Element element, String message) {
+			super(message);
+			this.element = element;
+		}
+	}
+
+}
@@ -0,0 +1,280 @@
+package fr.beapp.utils.processor;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+public class XmlBindingProcessorTest {
+
+	/**
+	 * Signatures of the library classes used by generated code, so generated sources are compiled
+	 */
+	private static final JavaFileObject LIBRARY_XML_BINDING = source("fr.beapp.utils.parser.XmlBinding",
+			"package fr.beapp.utils.parser;\n" +
+					"public class XmlBinding<T> {\n" +
+					"  public interface Factory<T> { T create(); }\n" +
+					"  public interface Setter<T> { void set(T target, String value); }\n" +
+					"  public interface ChildAdder<T, C> { void add(T target, C child); }\n" +
+					"  public static <T> Builder<T> builder(Factory<T> factory) { return new Builder<>(); }\n" +
+					"  public static class Builder<T> {\n" +
+					"    public Builder<T> attribute(String name, Setter<T> setter) { return this; }\n" +
+					"    public Builder<T> text(String path, Setter<T> setter) { return this; }\n" +
+					"    public <C> Builder<T> child(String path, XmlBinding<C> binding, ChildAdder<T, C> adder) { return this; }\n" +
+					"    public XmlBinding<T> build() { return new XmlBinding<>(); }\n" +
+					"  }\n" +
+					"}\n");
+	private static final JavaFileObject LIBRARY_PARSER_UTILS = source("fr.beapp.utils.parser.ParserUtils",
+			"package fr.beapp.utils.parser;\n" +
+					"public class ParserUtils {\n" +
+					"  public static Integer parseInteger(String value) { return null; }\n" +
+					"  public static int parseInteger(String value, int defaultValue) { return defaultValue; }\n" +
+					"  public static Long parseLong(String value) { return null; }\n" +
+					"  public static long parseLong(String value, long defaultValue) { return defaultValue; }\n" +
+					"  public static Float parseFloat(String value) { return null; }\n" +
+					"  public static float parseFloat(String value, float defaultValue) { return defaultValue; }\n" +
+					"  public static Double parseDouble(String value) { return null; }\n" +
+					"  public static double parseDouble(String value, double defaultValue) { return defaultValue; }\n" +
+					"  public static boolean parseBoolean(String value) { return false; }\n" +
+					"}\n");
+
+	private File outputDir;
+	private DiagnosticCollector<JavaFileObject> diagnostics;
+
+	@Before
+	public void initTest() throws Exception {
+		outputDir = Files.createTempDirectory("beapp").toFile();
+		diagnostics = new DiagnosticCollector<>();
+	}
+
+	@Test
+	public void testProcess() throws Exception {
+		boolean success = process(source("test.Catalog",
+				"package test;\n" +
+						"import fr.beapp.utils.parser.*;\n" +
+						"import java.util.List;\n" +
+						"@XmlMapped\n" +
+						"public class Catalog {\n" +
+						"  @XmlAttribute(\"version\") int version = -1;\n" +
+						"  @XmlText(\"info/title\") String title;\n" +
+						"  @XmlChild(\"book\") List<Book> books;\n" +
+						"  @XmlChild(\"featured\") Book featured;\n" +
+						"  String ignored;\n" +
+						"  @XmlMapped\n" +
+						"  public static class Book {\n" +
+						"    @XmlAttribute(\"id\") String id;\n" +
+						"    @XmlText(\"price\") double price;\n" +
+						"    @XmlText(\"stock\") Integer stock;\n" +
+						"    @XmlText(\"available\") boolean available;\n" +
+						"  }\n" +
+						"}\n"));
+
+		Assert.assertTrue(diagnostics.getDiagnostics().toString(), success);
+
+		String catalogBinding = generated("test/Catalog_XmlBinding.java");
+		Assert.assertTrue(catalogBinding.contains("public final class Catalog_XmlBinding"));
+		Assert.assertTrue(catalogBinding.contains("public static final fr.beapp.utils.parser.XmlBinding<test.Catalog> BINDING"));
+		Assert.assertTrue(catalogBinding.contains(".attribute(\"version\", "));
+		Assert.assertTrue(catalogBinding.contains("target.version = fr.beapp.utils.parser.ParserUtils.parseInteger(value, target.version);"));
+		Assert.assertTrue(catalogBinding.contains(".text(\"info/title\", "));
+		Assert.assertTrue(catalogBinding.contains("target.title = value;"));
+		Assert.assertTrue(catalogBinding.contains(".child(\"book\", test.Catalog_Book_XmlBinding.BINDING, "));
+		Assert.assertTrue(catalogBinding.contains("target.books = new java.util.ArrayList<>();"));
+		Assert.assertTrue(catalogBinding.contains("target.books.add(child);"));
+		Assert.assertTrue(catalogBinding.contains("target.featured = child;"));
+		Assert.assertFalse(catalogBinding.contains("ignored"));
+
+		String bookBinding = generated("test/Catalog_Book_XmlBinding.java");
+		Assert.assertTrue(bookBinding.contains("return new test.Catalog.Book();"));
+		Assert.assertTrue(bookBinding.contains("target.price = fr.beapp.utils.parser.ParserUtils.parseDouble(value, target.price);"));
+		Assert.assertTrue(bookBinding.contains("target.stock = fr.beapp.utils.parser.ParserUtils.parseInteger(value);"));
+		Assert.assertTrue(bookBinding.contains("target.available = fr.beapp.utils.parser.ParserUtils.parseBoolean(value);"));
+	}
+
+	@Test
+	public void testProcess_inheritedFields() throws Exception {
+		boolean success = process(source("test.Entity",
+				"package test;\n" +
+						"import fr.beapp.utils.parser.*;\n" +
+						"public abstract class Entity {\n" +
+						"  @XmlAttribute(\"id\") String id;\n" +
+						"  @XmlText(\"name\") String name;\n" +
+						"}\n"), source("test.Book",
+				"package test;\n" +
+						"import fr.beapp.utils.parser.*;\n" +
+						"@XmlMapped\n" +
+						"public class Book extends Entity {\n" +
+						"  int name;\n" +
+						"  @XmlText(\"title\") String title;\n" +
+						"}\n"));
+
+		Assert.assertTrue(diagnostics.getDiagnostics().toString(), success);
+
+		String bookBinding = generated("test/Book_XmlBinding.java");
+		Assert.assertTrue(bookBinding.contains(".attribute(\"id\", "));
+		Assert.assertTrue(bookBinding.contains("((test.Entity) target).id = value;"));
+		// Hidden by the subclass field
+		Assert.assertTrue(bookBinding.contains("((test.Entity) target).name = value;"));
+		Assert.assertTrue(bookBinding.contains("target.title = value;"));
+	}
+
+	@Test
+	public void testProcess_inheritedFieldFromOtherPackage() throws Exception {
+		assertError("Inherited field base.Entity.id can't be bound, as it isn't public and is declared in another package", source("base.Entity",
+				"package base;\n" +
+						"import fr.beapp.utils.parser.*;\n" +
+						"public class Entity {\n" +
+						"  @XmlAttribute(\"id\") protected String id;\n" +
+						"}\n"), source("test.Book",
+				"package test;\n" +
+						"import fr.beapp.utils.parser.*;\n" +
+						"@XmlMapped\n" +
+						"public class Book extends base.Entity {\n" +
+						"}\n"));
+	}
+
+	@Test
+	public void testSupportedAnnotationTypes() throws Exception {
+		Assert.assertEquals(new HashSet<>(Arrays.asList("fr.beapp.utils.parser.XmlMapped", "fr.beapp.utils.parser.XmlAttribute",
+				"fr.beapp.utils.parser.XmlText", "fr.beapp.utils.parser.XmlChild")), new XmlBindingProcessor().getSupportedAnnotationTypes());
+	}
+
+	@Test
+	public void testProcess_privateField() throws Exception {
+		assertError("Bound fields must be neither private, final nor static", source("test.Book",
+				"package test;\n" +
+						"import fr.beapp.utils.parser.*;\n" +
+						"@XmlMapped\n" +
+						"class Book {\n" +
+						"  @XmlAttribute(\"id\") private String id;\n" +
+						"}\n"));
+	}
+
+	@Test
+	public void testProcess_unsupportedType() throws Exception {
+		assertError("Unsupported type for a bound field", source("test.Book",
+				"package test;\n" +
+						"import fr.beapp.utils.parser.*;\n" +
+						"@XmlMapped\n" +
+						"class Book {\n" +
+						"  @XmlText(\"date\") java.util.Date date;\n" +
+						"}\n"));
+	}
+
+	@Test
+	public void testProcess_notMappedChild() throws Exception {
+		assertError("@XmlChild fields must be an @XmlMapped class", source("test.Catalog",
+				"package test;\n" +
+						"import fr.beapp.utils.parser.*;\n" +
+						"@XmlMapped\n" +
+						"class Catalog {\n" +
+						"  @XmlChild(\"book\") java.util.List<String> books;\n" +
+						"}\n"));
+	}
+
+	@Test
+	public void testProcess_recursive() throws Exception {
+		assertError("can't contain themselves", source("test.Node",
+				"package test;\n" +
+						"import fr.beapp.utils.parser.*;\n" +
+						"@XmlMapped\n" +
+						"class Node {\n" +
+						"  @XmlChild(\"node\") java.util.List<Node> children;\n" +
+						"}\n"));
+	}
+
+	@Test
+	public void testProcess_innerClass() throws Exception {
+		assertError("Nested @XmlMapped classes must be static", source("test.Catalog",
+				"package test;\n" +
+						"import fr.beapp.utils.parser.*;\n" +
+						"class Catalog {\n" +
+						"  @XmlMapped\n" +
+						"  class Book {\n" +
+						"  }\n" +
+						"}\n"));
+	}
+
+	@Test
+	public void testProcess_noConstructor() throws Exception {
+		assertError("constructor without parameters", source("test.Book",
+				"package test;\n" +
+						"import fr.beapp.utils.parser.*;\n" +
+						"@XmlMapped\n" +
+						"class Book {\n" +
+						"  Book(String id) {\n" +
+						"  }\n" +
+						"}\n"));
+	}
+
+	private void assertError(String expectedMessage, JavaFileObject... sources) throws IOException {
+		Assert.assertFalse(process(sources));
+
+		for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+			if (diagnostic.getKind() == Diagnostic.Kind.ERROR && diagnostic.getMessage(null).contains(expectedMessage))
+				return;
+		}
+		Assert.fail("No error \"" + expectedMessage + "\" in " + diagnostics.getDiagnostics());
+	}
+
+	/**
+	 * Run the processor and compile the given sources with generated ones
+	 */
+	private boolean process(JavaFileObject... additionalSources) throws IOException {
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, null);
+		try {
+			File annotationsDir = new File(System.getProperty("annotationsDir"), "fr/beapp/utils/parser");
+			List<JavaFileObject> sources = new ArrayList<>();
+			for (JavaFileObject annotation : fileManager.getJavaFileObjects(
+					new File(annotationsDir, "XmlMapped.java"),
+					new File(annotationsDir, "XmlAttribute.java"),
+					new File(annotationsDir, "XmlText.java"),
+					new File(annotationsDir, "XmlChild.java"))) {
+				sources.add(annotation);
+			}
+			sources.add(LIBRARY_XML_BINDING);
+			sources.add(LIBRARY_PARSER_UTILS);
+			sources.addAll(Arrays.asList(additionalSources));
+
+			JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics,
+					Arrays.asList("-s", outputDir.getAbsolutePath(), "-d", outputDir.getAbsolutePath()), null, sources);
+			task.setProcessors(Collections.singletonList(new XmlBindingProcessor()));
+			return task.call();
+		} finally {
+			fileManager.close();
+		}
+	}
+
+	private String generated(String path) throws IOException {
+		return new String(Files.readAllBytes(new File(outputDir, path).toPath()), Charset.forName("UTF-8"));
+	}
+
+	private static JavaFileObject source(String className, final String code) {
+		return new SimpleJavaFileObject(URI.create("string:///" + className.replace('.', '/') + ".java"), JavaFileObject.Kind.SOURCE) {
+			@Override
+			public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+				return code;
+			}
+		};
+	}
+
+}
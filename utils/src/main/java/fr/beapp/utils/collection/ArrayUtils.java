@@ -1,5 +1,10 @@
 package fr.beapp.utils.collection;
 
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.Comparator;
+
 public class ArrayUtils {
 
 	private ArrayUtils() {
@@ -25,4 +30,79 @@ public class ArrayUtils {
 		return !isEmpty(array);
 	}
 
+	/**
+	 * Null-safe iteration over an array, with indexes.
+	 *
+	 * @param array    the array to iterate, may be null
+	 * @param consumer the consumer receiving each item
+	 */
+	public static <T> void forEachIndexed(@Nullable T[] array, @NonNull CollectionUtils.IndexedConsumer<? super T> consumer) {
+		if (array == null)
+			return;
+
+		for (int i = 0; i < array.length; i++) {
+			consumer.accept(i, array[i]);
+		}
+	}
+
+	/**
+	 * Null-safe iteration over the bounds of each chunk of an array, without allocation. The last chunk may be smaller.
+	 *
+	 * @param array     the array to split, may be null
+	 * @param chunkSize the maximum number of items of each chunk
+	 * @param consumer  the consumer receiving the bounds of each chunk
+	 */
+	public static void forEachChunk(@Nullable Object[] array, int chunkSize, @NonNull CollectionUtils.ChunkConsumer consumer) {
+		CollectionUtils.forEachChunk(array != null ? array.length : 0, chunkSize, consumer);
+	}
+
+	/**
+	 * Merge two sorted arrays into the given output array, without allocation. Merge is stable: on equal items, those of <code>first</code> come first.
+	 *
+	 * @param first      the first sorted array
+	 * @param second     the second sorted array
+	 * @param comparator the comparator both arrays are sorted with
+	 * @param output     the array receiving merged items, at least as long as both arrays
+	 * @return the output array
+	 */
+	@NonNull
+	public static <T> T[] mergeSorted(@NonNull T[] first, @NonNull T[] second, @NonNull Comparator<? super T> comparator, @NonNull T[] output) {
+		if (output.length < first.length + second.length)
+			throw new IllegalArgumentException("Output array too small: " + output.length);
+
+		int i = 0;
+		int j = 0;
+		int k = 0;
+		while (i < first.length && j < second.length) {
+			output[k++] = comparator.compare(second[j], first[i]) < 0 ? second[j++] : first[i++];
+		}
+		System.arraycopy(first, i, output, k, first.length - i);
+		System.arraycopy(second, j, output, k + first.length - i, second.length - j);
+		return output;
+	}
+
+	/**
+	 * Merge two sorted <code>int</code> arrays into the given output array, without allocation.
+	 *
+	 * @param first  the first sorted array
+	 * @param second the second sorted array
+	 * @param output the array receiving merged items, at least as long as both arrays
+	 * @return the output array
+	 */
+	@NonNull
+	public static int[] mergeSorted(@NonNull int[] first, @NonNull int[] second, @NonNull int[] output) {
+		if (output.length < first.length + second.length)
+			throw new IllegalArgumentException("Output array too small: " + output.length);
+
+		int i = 0;
+		int j = 0;
+		int k = 0;
+		while (i < first.length && j < second.length) {
+			output[k++] = second[j] < first[i] ? second[j++] : first[i++];
+		}
+		System.arraycopy(first, i, output, k, first.length - i);
+		System.arraycopy(second, j, output, k + first.length - i, second.length - j);
+		return output;
+	}
+
 }
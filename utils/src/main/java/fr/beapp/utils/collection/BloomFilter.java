@@ -0,0 +1,257 @@
+package fr.beapp.utils.collection;
+
+import androidx.annotation.NonNull;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+import fr.beapp.utils.io.IOUtils;
+
+/**
+ * Probabilistic set answering "has this element possibly been added?" using a fixed bit array, whatever the elements size.
+ * <p/>
+ * {@link #mightContain(CharSequence)} never returns <code>false</code> for an added element, but may return <code>true</code> for an element never added,
+ * with the false positive probability given at creation. Elements can't be removed.
+ * <p/>
+ * Bits are addressed by double hashing from a 64-bit hash, computed without allocation. This class is not thread-safe.
+ */
+public class BloomFilter {
+
+	private static final int MAGIC = 0x424C4F4D;
+	private static final int VERSION = 1;
+	private static final int MAXIMUM_WORDS = Integer.MAX_VALUE - 8;
+	private static final int MAXIMUM_HASH_FUNCTIONS = 30;
+	// The number of words is read from the stream, so the bit array grows as words are actually read
+	private static final int MAX_INITIAL_WORDS = 1 << 13;
+
+	private final long[] bits;
+	private final long bitCount;
+	private final int hashFunctionCount;
+
+	private BloomFilter(@NonNull long[] bits, int hashFunctionCount) {
+		this.bits = bits;
+		this.bitCount = (long) bits.length * Long.SIZE;
+		this.hashFunctionCount = hashFunctionCount;
+	}
+
+	/**
+	 * @param expectedInsertions the number of elements expected to be added
+	 * @param falsePositiveRate  the wanted false positive probability once all expected elements are added, between 0 and 1 (exclusive)
+	 * @return a new empty filter, sized for the given parameters
+	 */
+	@NonNull
+	public static BloomFilter create(long expectedInsertions, double falsePositiveRate) {
+		if (expectedInsertions < 0)
+			throw new IllegalArgumentException("Expected insertions can't be negative: " + expectedInsertions);
+		if (falsePositiveRate <= 0 || falsePositiveRate >= 1)
+			throw new IllegalArgumentException("False positive rate must be between 0 and 1: " + falsePositiveRate);
+
+		long insertions = Math.max(1, expectedInsertions);
+		long optimalBits = (long) Math.ceil(-insertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+		int words = (int) Math.min(MAXIMUM_WORDS, Math.max(1, (optimalBits + Long.SIZE - 1) / Long.SIZE));
+		int hashFunctionCount = Math.max(1, (int) Math.round((double) words * Long.SIZE / insertions * Math.log(2)));
+		return new BloomFilter(new long[words], Math.min(hashFunctionCount, MAXIMUM_HASH_FUNCTIONS));
+	}
+
+	/**
+	 * @return <code>true</code> if the filter changed, meaning the element was definitely not added before
+	 */
+	public boolean put(@NonNull CharSequence value) {
+		return putHash(hash(value));
+	}
+
+	/**
+	 * @return <code>true</code> if the filter changed, meaning the element was definitely not added before
+	 */
+	public boolean put(long value) {
+		return putHash(mix(value));
+	}
+
+	/**
+	 * @return <code>false</code> if the element was definitely never added, <code>true</code> if it probably was
+	 */
+	public boolean mightContain(@NonNull CharSequence value) {
+		return mightContainHash(hash(value));
+	}
+
+	/**
+	 * @return <code>false</code> if the element was definitely never added, <code>true</code> if it probably was
+	 */
+	public boolean mightContain(long value) {
+		return mightContainHash(mix(value));
+	}
+
+	/**
+	 * @return the false positive probability for the current content
+	 */
+	public double expectedFalsePositiveRate() {
+		long setBits = 0;
+		for (long word : bits) {
+			setBits += Long.bitCount(word);
+		}
+		return Math.pow((double) setBits / bitCount, hashFunctionCount);
+	}
+
+	public int getHashFunctionCount() {
+		return hashFunctionCount;
+	}
+
+	/**
+	 * @return the memory used by the bit array, in bytes
+	 */
+	public long getSizeInBytes() {
+		return (long) bits.length * 8;
+	}
+
+	/**
+	 * Write this filter to a stream. The stream is flushed but not closed.
+	 *
+	 * @param outputStream the OutputStream to write to
+	 * @throws IOException if an I/O error occurs
+	 */
+	public void writeTo(@NonNull OutputStream outputStream) throws IOException {
+		DataOutputStream dataOutputStream = new DataOutputStream(new BufferedOutputStream(outputStream, IOUtils.DEFAULT_BUFFER_SIZE * 4));
+		dataOutputStream.writeInt(MAGIC);
+		dataOutputStream.writeInt(VERSION);
+		dataOutputStream.writeInt(hashFunctionCount);
+		dataOutputStream.writeInt(bits.length);
+		for (long word : bits) {
+			dataOutputStream.writeLong(word);
+		}
+		dataOutputStream.flush();
+	}
+
+	/**
+	 * Write this filter to a file, creating parent folders if needed.
+	 *
+	 * @param outputFile the file to write to
+	 * @throws IOException if an I/O error occurs
+	 */
+	public void writeTo(@NonNull File outputFile) throws IOException {
+		File parentFile = outputFile.getParentFile();
+		if (parentFile != null) {
+			parentFile.mkdirs();
+		}
+
+		FileOutputStream fileOutputStream = null;
+		try {
+			fileOutputStream = new FileOutputStream(outputFile);
+			writeTo(fileOutputStream);
+		} finally {
+			IOUtils.closeQuietly(fileOutputStream);
+		}
+	}
+
+	/**
+	 * Read a filter written by {@link #writeTo(OutputStream)}. The stream is not closed.
+	 * <p/>
+	 * The stream is not buffered, so no byte is read past the encoded filter and the stream can be read further by the caller.
+	 * Give a {@link BufferedInputStream} if the stream is costly to read byte by byte.
+	 *
+	 * @param inputStream the InputStream to read from
+	 * @return the read filter
+	 * @throws IOException if an I/O error occurs or the content is not a valid filter
+	 */
+	@NonNull
+	public static BloomFilter readFrom(@NonNull InputStream inputStream) throws IOException {
+		DataInputStream dataInputStream = new DataInputStream(inputStream);
+		if (dataInputStream.readInt() != MAGIC)
+			throw new IOException("Not an encoded BloomFilter");
+		int version = dataInputStream.readInt();
+		if (version != VERSION)
+			throw new IOException("Unsupported BloomFilter encoding version " + version);
+
+		int hashFunctionCount = dataInputStream.readInt();
+		int words = dataInputStream.readInt();
+		if (hashFunctionCount < 1 || hashFunctionCount > MAXIMUM_HASH_FUNCTIONS || words < 1 || words > MAXIMUM_WORDS)
+			throw new IOException("Invalid BloomFilter header");
+
+		// A corrupted or truncated stream fails with an EOFException before the announced size is allocated
+		long[] bits = new long[Math.min(words, MAX_INITIAL_WORDS)];
+		for (int i = 0; i < words; i++) {
+			if (i == bits.length) {
+				bits = Arrays.copyOf(bits, (int) Math.min(words, bits.length * 2L));
+			}
+			bits[i] = dataInputStream.readLong();
+		}
+		return new BloomFilter(bits, hashFunctionCount);
+	}
+
+	/**
+	 * Read a filter written by {@link #writeTo(File)}.
+	 *
+	 * @param inputFile the file to read from
+	 * @return the read filter
+	 * @throws IOException if an I/O error occurs or the content is not a valid filter
+	 */
+	@NonNull
+	public static BloomFilter readFrom(@NonNull File inputFile) throws IOException {
+		FileInputStream fileInputStream = null;
+		try {
+			fileInputStream = new FileInputStream(inputFile);
+			return readFrom(new BufferedInputStream(fileInputStream, IOUtils.DEFAULT_BUFFER_SIZE * 4));
+		} finally {
+			IOUtils.closeQuietly(fileInputStream);
+		}
+	}
+
+	private boolean putHash(long hash) {
+		long hash2 = mix(hash) | 1;
+		boolean changed = false;
+		for (int i = 1; i <= hashFunctionCount; i++) {
+			long index = bitIndex(hash + i * hash2);
+			long mask = 1L << index;
+			int word = (int) (index >>> 6);
+			if ((bits[word] & mask) == 0) {
+				bits[word] |= mask;
+				changed = true;
+			}
+		}
+		return changed;
+	}
+
+	private boolean mightContainHash(long hash) {
+		long hash2 = mix(hash) | 1;
+		for (int i = 1; i <= hashFunctionCount; i++) {
+			long index = bitIndex(hash + i * hash2);
+			if ((bits[(int) (index >>> 6)] & (1L << index)) == 0)
+				return false;
+		}
+		return true;
+	}
+
+	private long bitIndex(long combinedHash) {
+		return (combinedHash & Long.MAX_VALUE) % bitCount;
+	}
+
+	/**
+	 * FNV-1a over chars, finalized with {@link #mix(long)} to spread bits
+	 */
+	private static long hash(@NonNull CharSequence value) {
+		long hash = 0xcbf29ce484222325L;
+		for (int i = 0, length = value.length(); i < length; i++) {
+			hash ^= value.charAt(i);
+			hash *= 0x100000001b3L;
+		}
+		return mix(hash);
+	}
+
+	private static long mix(long value) {
+		value ^= value >>> 33;
+		value *= 0xff51afd7ed558ccdL;
+		value ^= value >>> 33;
+		value *= 0xc4ceb9fe1a85ec53L;
+		value ^= value >>> 33;
+		return value;
+	}
+
+}
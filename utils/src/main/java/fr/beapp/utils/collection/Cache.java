@@ -0,0 +1,759 @@
+package fr.beapp.utils.collection;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded in-memory cache, safe for concurrent access.
+ * <p/>
+ * Entries are spread over independent segments, each with its own lock, so threads accessing different segments never contend.
+ * Each segment enforces its share of the maximum weight with the chosen {@link Policy}:
+ * <ul>
+ * <li>{@link Policy#LRU} evicts the least recently used entries</li>
+ * <li>{@link Policy#W_TINY_LFU} keeps the most frequently used entries, estimated with a count-min sketch, while a small LRU window absorbs bursts of new entries.
+ * It resists scans and usually gives a better hit rate than LRU</li>
+ * </ul>
+ * As eviction is done per segment, the cache may evict entries slightly before reaching its global maximum weight.
+ * <p/>
+ * Entries can expire after a per-entry or default time-to-live. Expired entries are removed when accessed or when {@link #cleanUp()} is called.
+ * Neither keys nor values can be <code>null</code>.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public class Cache<K, V> {
+
+	public enum Policy {
+		LRU,
+		W_TINY_LFU
+	}
+
+	/**
+	 * Compute the weight of an entry, counted against the cache maximum weight
+	 */
+	public interface Weigher<K, V> {
+
+		int weigh(@NonNull K key, @NonNull V value);
+
+	}
+
+	/**
+	 * Time source, in nanoseconds
+	 */
+	public interface Ticker {
+
+		Ticker SYSTEM = new Ticker() {
+			@Override
+			public long read() {
+				return System.nanoTime();
+			}
+		};
+
+		long read();
+
+	}
+
+	private static final int MAXIMUM_SEGMENTS = 1 << 16;
+	private static final int MAXIMUM_SKETCH_CAPACITY = 1 << 20;
+	/**
+	 * Entries count assumed to size the frequency sketch of a cache bounded by weight, when {@link Builder#expectedEntryCount(long)} isn't given
+	 */
+	private static final long DEFAULT_WEIGHTED_ENTRY_COUNT = 1024;
+
+	private final Segment<K, V>[] segments;
+	private final int segmentShift;
+	private final Weigher<? super K, ? super V> weigher;
+	private final Ticker ticker;
+	private final long defaultTtlNanos;
+
+	@SuppressWarnings("unchecked")
+	private Cache(@NonNull Builder<K, V> builder) {
+		weigher = builder.weigher;
+		ticker = builder.ticker;
+		defaultTtlNanos = builder.defaultTtlNanos;
+
+		int segmentCount = 1;
+		int shift = 0;
+		while (segmentCount < builder.concurrencyLevel && segmentCount * 2L <= builder.maximumWeight && segmentCount < MAXIMUM_SEGMENTS) {
+			segmentCount <<= 1;
+			shift++;
+		}
+		segmentShift = 32 - shift;
+
+		// The sketch counts accesses per entry, so it is sized from the number of entries, never from their weight
+		long entryCount = builder.expectedEntryCount >= 0 ? builder.expectedEntryCount
+				: builder.weighted ? DEFAULT_WEIGHTED_ENTRY_COUNT : builder.maximumWeight;
+		int sketchCapacity = (int) Math.min(entryCount / segmentCount + 1, MAXIMUM_SKETCH_CAPACITY);
+
+		segments = (Segment<K, V>[]) new Segment<?, ?>[segmentCount];
+		long segmentWeight = builder.maximumWeight / segmentCount;
+		long remainder = builder.maximumWeight % segmentCount;
+		for (int i = 0; i < segmentCount; i++) {
+			segments[i] = new Segment<>(builder.policy, segmentWeight + (i < remainder ? 1 : 0), sketchCapacity);
+		}
+	}
+
+	@NonNull
+	public static <K, V> Builder<K, V> builder() {
+		return new Builder<>();
+	}
+
+	/**
+	 * @param key the key to look for
+	 * @return the cached value, or <code>null</code> if absent or expired
+	 */
+	@Nullable
+	public V get(@NonNull K key) {
+		int hash = hash(key);
+		return segmentFor(hash).get(key, hash, ticker.read());
+	}
+
+	/**
+	 * Cache the given value, expiring after the default time-to-live, if any
+	 *
+	 * @return the previous value, or <code>null</code>
+	 */
+	@Nullable
+	public V put(@NonNull K key, @NonNull V value) {
+		return put(key, value, defaultTtlNanos, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Cache the given value, expiring after the given time-to-live
+	 *
+	 * @param ttl  the time-to-live, 0 for no expiration
+	 * @param unit the time-to-live unit
+	 * @return the previous value, or <code>null</code>
+	 */
+	@Nullable
+	public V put(@NonNull K key, @NonNull V value, long ttl, @NonNull TimeUnit unit) {
+		if (ttl < 0)
+			throw new IllegalArgumentException("TTL can't be negative: " + ttl);
+
+		int weight = weigher.weigh(key, value);
+		if (weight < 0)
+			throw new IllegalArgumentException("Weight can't be negative: " + weight);
+
+		long now = ticker.read();
+		long expireAt = ttl == 0 ? 0 : now + unit.toNanos(ttl);
+		int hash = hash(key);
+		return segmentFor(hash).put(key, hash, value, weight, expireAt, now);
+	}
+
+	/**
+	 * @return the removed value, or <code>null</code>
+	 */
+	@Nullable
+	public V remove(@NonNull K key) {
+		int hash = hash(key);
+		return segmentFor(hash).remove(key);
+	}
+
+	public boolean containsKey(@NonNull K key) {
+		int hash = hash(key);
+		return segmentFor(hash).containsKey(key, ticker.read());
+	}
+
+	/**
+	 * Remove all entries. Statistics are kept.
+	 */
+	public void invalidateAll() {
+		for (Segment<K, V> segment : segments) {
+			segment.clear();
+		}
+	}
+
+	/**
+	 * Remove all expired entries
+	 */
+	public void cleanUp() {
+		long now = ticker.read();
+		for (Segment<K, V> segment : segments) {
+			segment.expireEntries(now);
+		}
+	}
+
+	/**
+	 * @return the number of entries, including expired ones not cleaned up yet
+	 */
+	public int size() {
+		int size = 0;
+		for (Segment<K, V> segment : segments) {
+			size += segment.size();
+		}
+		return size;
+	}
+
+	/**
+	 * @return the sum of the weights of all entries
+	 */
+	public long weightedSize() {
+		long weightedSize = 0;
+		for (Segment<K, V> segment : segments) {
+			weightedSize += segment.weightedSize();
+		}
+		return weightedSize;
+	}
+
+	/**
+	 * @return a snapshot of the statistics since the cache creation
+	 */
+	@NonNull
+	public Stats stats() {
+		long hitCount = 0;
+		long missCount = 0;
+		long evictionCount = 0;
+		long expirationCount = 0;
+		for (Segment<K, V> segment : segments) {
+			synchronized (segment) {
+				hitCount += segment.hitCount;
+				missCount += segment.missCount;
+				evictionCount += segment.evictionCount;
+				expirationCount += segment.expirationCount;
+			}
+		}
+		return new Stats(hitCount, missCount, evictionCount, expirationCount);
+	}
+
+	/**
+	 * @return the memory used by the frequency sketches, in bytes
+	 */
+	long sketchSizeInBytes() {
+		long size = 0;
+		for (Segment<K, V> segment : segments) {
+			if (segment.sketch != null) {
+				size += segment.sketch.table.length * 8L;
+			}
+		}
+		return size;
+	}
+
+	private Segment<K, V> segmentFor(int hash) {
+		return segments.length == 1 ? segments[0] : segments[hash >>> segmentShift];
+	}
+
+	private static int hash(@NonNull Object key) {
+		int h = key.hashCode() * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+	public static class Builder<K, V> {
+
+		private Policy policy = Policy.W_TINY_LFU;
+		private long maximumWeight = -1;
+		private boolean weighted;
+		private long expectedEntryCount = -1;
+		private Weigher<? super K, ? super V> weigher = SingletonWeigher.INSTANCE;
+		private long defaultTtlNanos;
+		private int concurrencyLevel = 4;
+		private Ticker ticker = Ticker.SYSTEM;
+
+		Builder() {
+		}
+
+		@NonNull
+		public Builder<K, V> policy(@NonNull Policy policy) {
+			this.policy = policy;
+			return this;
+		}
+
+		/**
+		 * Bound the cache by number of entries
+		 */
+		@NonNull
+		public Builder<K, V> maximumSize(long maximumSize) {
+			maximumWeight(maximumSize);
+			weighted = false;
+			return this;
+		}
+
+		/**
+		 * Bound the cache by the sum of entries weights, computed by the {@link #weigher(Weigher)}
+		 */
+		@NonNull
+		public Builder<K, V> maximumWeight(long maximumWeight) {
+			if (maximumWeight < 0)
+				throw new IllegalArgumentException("Maximum weight can't be negative: " + maximumWeight);
+			this.maximumWeight = maximumWeight;
+			this.weighted = true;
+			return this;
+		}
+
+		/**
+		 * Expected number of entries, used to size the frequency sketch of {@link Policy#W_TINY_LFU}.
+		 * <p/>
+		 * Defaults to the maximum size, or to 1024 entries for a cache bounded by {@link #maximumWeight(long)}.
+		 */
+		@NonNull
+		public Builder<K, V> expectedEntryCount(long expectedEntryCount) {
+			if (expectedEntryCount < 0)
+				throw new IllegalArgumentException("Expected entry count can't be negative: " + expectedEntryCount);
+			this.expectedEntryCount = expectedEntryCount;
+			return this;
+		}
+
+		@NonNull
+		public Builder<K, V> weigher(@NonNull Weigher<? super K, ? super V> weigher) {
+			this.weigher = weigher;
+			return this;
+		}
+
+		/**
+		 * Default time-to-live of entries, when not given to {@link Cache#put(Object, Object, long, TimeUnit)}
+		 */
+		@NonNull
+		public Builder<K, V> expireAfterWrite(long ttl, @NonNull TimeUnit unit) {
+			if (ttl < 0)
+				throw new IllegalArgumentException("TTL can't be negative: " + ttl);
+			this.defaultTtlNanos = unit.toNanos(ttl);
+			return this;
+		}
+
+		/**
+		 * @param concurrencyLevel the estimated number of concurrently accessing threads, used to define the number of segments
+		 */
+		@NonNull
+		public Builder<K, V> concurrencyLevel(int concurrencyLevel) {
+			if (concurrencyLevel < 1)
+				throw new IllegalArgumentException("Concurrency level must be positive: " + concurrencyLevel);
+			this.concurrencyLevel = concurrencyLevel;
+			return this;
+		}
+
+		@NonNull
+		public Builder<K, V> ticker(@NonNull Ticker ticker) {
+			this.ticker = ticker;
+			return this;
+		}
+
+		@NonNull
+		public Cache<K, V> build() {
+			if (maximumWeight < 0)
+				throw new IllegalStateException("Maximum size or weight must be defined");
+			return new Cache<>(this);
+		}
+	}
+
+	/**
+	 * Immutable snapshot of cache statistics
+	 */
+	public static class Stats {
+
+		private final long hitCount;
+		private final long missCount;
+		private final long evictionCount;
+		private final long expirationCount;
+
+		Stats(long hitCount, long missCount, long evictionCount, long expirationCount) {
+			this.hitCount = hitCount;
+			this.missCount = missCount;
+			this.evictionCount = evictionCount;
+			this.expirationCount = expirationCount;
+		}
+
+		public long getHitCount() {
+			return hitCount;
+		}
+
+		public long getMissCount() {
+			return missCount;
+		}
+
+		public long getRequestCount() {
+			return hitCount + missCount;
+		}
+
+		/**
+		 * @return the ratio of requests that were hits, 1 if there was no request
+		 */
+		public double getHitRate() {
+			long requestCount = getRequestCount();
+			return requestCount == 0 ? 1.0 : (double) hitCount / requestCount;
+		}
+
+		/**
+		 * @return the number of entries evicted to respect the maximum weight
+		 */
+		public long getEvictionCount() {
+			return evictionCount;
+		}
+
+		/**
+		 * @return the number of entries removed because their time-to-live expired
+		 */
+		public long getExpirationCount() {
+			return expirationCount;
+		}
+
+		@Override
+		public String toString() {
+			return "Stats{hitCount=" + hitCount + ", missCount=" + missCount + ", evictionCount=" + evictionCount + ", expirationCount=" + expirationCount + '}';
+		}
+	}
+
+	private enum SingletonWeigher implements Weigher<Object, Object> {
+		INSTANCE;
+
+		@Override
+		public int weigh(@NonNull Object key, @NonNull Object value) {
+			return 1;
+		}
+	}
+
+	private static final int WINDOW = 0;
+	private static final int PROBATION = 1;
+	private static final int PROTECTED = 2;
+
+	private static final class Node<K, V> {
+
+		final K key;
+		final int hash;
+		V value;
+		int weight;
+		long expireAt;
+		int queue;
+		Node<K, V> previous;
+		Node<K, V> next;
+
+		Node(K key, int hash) {
+			this.key = key;
+			this.hash = hash;
+		}
+
+		boolean isExpired(long now) {
+			return expireAt != 0 && now - expireAt >= 0;
+		}
+	}
+
+	/**
+	 * Doubly linked list of nodes in access order, most recent at the head
+	 */
+	private static final class AccessQueue<K, V> {
+
+		final Node<K, V> sentinel = new Node<>(null, 0);
+		long weight;
+
+		AccessQueue() {
+			sentinel.previous = sentinel;
+			sentinel.next = sentinel;
+		}
+
+		void addFirst(Node<K, V> node) {
+			node.next = sentinel.next;
+			node.previous = sentinel;
+			sentinel.next.previous = node;
+			sentinel.next = node;
+			weight += node.weight;
+		}
+
+		void unlink(Node<K, V> node) {
+			node.previous.next = node.next;
+			node.next.previous = node.previous;
+			node.previous = null;
+			node.next = null;
+			weight -= node.weight;
+		}
+
+		@Nullable
+		Node<K, V> last() {
+			return sentinel.previous != sentinel ? sentinel.previous : null;
+		}
+
+		void clear() {
+			sentinel.previous = sentinel;
+			sentinel.next = sentinel;
+			weight = 0;
+		}
+	}
+
+	/**
+	 * Part of the cache guarded by its own lock.
+	 * <p/>
+	 * With {@link Policy#LRU}, all entries stay in the window queue. With {@link Policy#W_TINY_LFU}, entries evicted from the window
+	 * are only admitted in the main space (a segmented LRU made of probation and protected queues) if they are more frequently used than the main space victim.
+	 */
+	private static final class Segment<K, V> {
+
+		private final HashMap<Object, Node<K, V>> nodes = new HashMap<>();
+		private final long maximumWeight;
+		private final long windowMaximum;
+		private final long protectedMaximum;
+		@Nullable
+		private final FrequencySketch sketch;
+
+		private final AccessQueue<K, V> window = new AccessQueue<>();
+		private final AccessQueue<K, V> probation = new AccessQueue<>();
+		private final AccessQueue<K, V> protectedQueue = new AccessQueue<>();
+
+		long hitCount;
+		long missCount;
+		long evictionCount;
+		long expirationCount;
+
+		Segment(@NonNull Policy policy, long maximumWeight, int sketchCapacity) {
+			this.maximumWeight = maximumWeight;
+			if (policy == Policy.LRU) {
+				windowMaximum = maximumWeight;
+				protectedMaximum = 0;
+				sketch = null;
+			} else {
+				windowMaximum = Math.max(1, maximumWeight / 100);
+				protectedMaximum = (long) ((maximumWeight - windowMaximum) * 0.8);
+				sketch = new FrequencySketch(sketchCapacity);
+			}
+		}
+
+		synchronized V get(Object key, int hash, long now) {
+			if (sketch != null) {
+				sketch.increment(hash);
+			}
+
+			Node<K, V> node = nodes.get(key);
+			if (node == null) {
+				missCount++;
+				return null;
+			}
+			if (node.isExpired(now)) {
+				removeNode(node);
+				expirationCount++;
+				missCount++;
+				return null;
+			}
+
+			hitCount++;
+			onAccess(node);
+			return node.value;
+		}
+
+		synchronized boolean containsKey(Object key, long now) {
+			Node<K, V> node = nodes.get(key);
+			return node != null && !node.isExpired(now);
+		}
+
+		synchronized V put(K key, int hash, V value, int weight, long expireAt, long now) {
+			if (sketch != null) {
+				sketch.increment(hash);
+			}
+
+			Node<K, V> node = nodes.get(key);
+			V previous = null;
+			if (node != null) {
+				previous = node.isExpired(now) ? null : node.value;
+				queueOf(node).unlink(node);
+				node.value = value;
+				node.weight = weight;
+				node.expireAt = expireAt;
+				queueOf(node).addFirst(node);
+				if (node.queue == PROTECTED) {
+					demoteProtected();
+				}
+			} else {
+				node = new Node<>(key, hash);
+				node.value = value;
+				node.weight = weight;
+				node.expireAt = expireAt;
+				node.queue = WINDOW;
+				nodes.put(key, node);
+				window.addFirst(node);
+			}
+
+			evict();
+			return previous;
+		}
+
+		synchronized V remove(Object key) {
+			Node<K, V> node = nodes.get(key);
+			if (node == null)
+				return null;
+			removeNode(node);
+			return node.value;
+		}
+
+		synchronized void clear() {
+			nodes.clear();
+			window.clear();
+			probation.clear();
+			protectedQueue.clear();
+		}
+
+		synchronized void expireEntries(long now) {
+			Iterator<Node<K, V>> iterator = nodes.values().iterator();
+			while (iterator.hasNext()) {
+				Node<K, V> node = iterator.next();
+				if (node.isExpired(now)) {
+					iterator.remove();
+					queueOf(node).unlink(node);
+					expirationCount++;
+				}
+			}
+		}
+
+		synchronized int size() {
+			return nodes.size();
+		}
+
+		synchronized long weightedSize() {
+			return window.weight + probation.weight + protectedQueue.weight;
+		}
+
+		private AccessQueue<K, V> queueOf(Node<K, V> node) {
+			switch (node.queue) {
+				case PROBATION:
+					return probation;
+				case PROTECTED:
+					return protectedQueue;
+				default:
+					return window;
+			}
+		}
+
+		private void removeNode(Node<K, V> node) {
+			nodes.remove(node.key);
+			queueOf(node).unlink(node);
+		}
+
+		private void evictNode(Node<K, V> node) {
+			removeNode(node);
+			evictionCount++;
+		}
+
+		private void onAccess(Node<K, V> node) {
+			AccessQueue<K, V> queue = queueOf(node);
+			queue.unlink(node);
+			if (node.queue == PROBATION) {
+				node.queue = PROTECTED;
+				protectedQueue.addFirst(node);
+				demoteProtected();
+			} else {
+				queue.addFirst(node);
+			}
+		}
+
+		private void demoteProtected() {
+			while (protectedQueue.weight > protectedMaximum) {
+				Node<K, V> demoted = protectedQueue.last();
+				if (demoted == null)
+					break;
+				protectedQueue.unlink(demoted);
+				demoted.queue = PROBATION;
+				probation.addFirst(demoted);
+			}
+		}
+
+		private void evict() {
+			if (sketch == null) {
+				while (window.weight > maximumWeight) {
+					evictNode(window.last());
+				}
+				return;
+			}
+
+			// Move window overflow to the main space, through the admission filter
+			while (window.weight > windowMaximum) {
+				Node<K, V> candidate = window.last();
+				window.unlink(candidate);
+				candidate.queue = PROBATION;
+				probation.addFirst(candidate);
+
+				while (probation.weight + protectedQueue.weight > maximumWeight - window.weight) {
+					Node<K, V> victim = probation.last();
+					if (victim == candidate) {
+						// Candidate is the only probation entry, compare with the protected victim
+						victim = protectedQueue.last();
+						if (victim == null || candidate.weight > maximumWeight - window.weight) {
+							evictNode(candidate);
+							break;
+						}
+					}
+
+					if (sketch.frequency(candidate.hash) > sketch.frequency(victim.hash)) {
+						evictNode(victim);
+					} else {
+						evictNode(candidate);
+						break;
+					}
+				}
+			}
+
+			// Window entries heavier than the whole segment
+			while (weightedSizeUnlocked() > maximumWeight) {
+				Node<K, V> victim = probation.last();
+				if (victim == null) {
+					victim = protectedQueue.last();
+				}
+				if (victim == null) {
+					victim = window.last();
+				}
+				evictNode(victim);
+			}
+		}
+
+		private long weightedSizeUnlocked() {
+			return window.weight + probation.weight + protectedQueue.weight;
+		}
+	}
+
+	/**
+	 * Count-min sketch of 4-bit counters, estimating the access frequency of keys by hash. Counters are halved periodically so old popularity fades.
+	 */
+	private static final class FrequencySketch {
+
+		private static final long[] SEEDS = {0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+		private static final long RESET_MASK = 0x7777777777777777L;
+
+		private final long[] table;
+		private final int mask;
+		private final int sampleSize;
+		private int additions;
+
+		FrequencySketch(int capacity) {
+			int length = Integer.highestOneBit(Math.max(capacity, 16) - 1) << 1;
+			table = new long[length];
+			mask = length - 1;
+			sampleSize = 10 * length;
+		}
+
+		int frequency(int hash) {
+			int start = (hash & 3) << 2;
+			int frequency = Integer.MAX_VALUE;
+			for (int i = 0; i < 4; i++) {
+				int index = indexOf(hash, i);
+				int count = (int) ((table[index] >>> ((start + i) << 2)) & 0xfL);
+				frequency = Math.min(frequency, count);
+			}
+			return frequency;
+		}
+
+		void increment(int hash) {
+			int start = (hash & 3) << 2;
+			boolean added = false;
+			for (int i = 0; i < 4; i++) {
+				int index = indexOf(hash, i);
+				int offset = (start + i) << 2;
+				long counterMask = 0xfL << offset;
+				if ((table[index] & counterMask) != counterMask) {
+					table[index] += 1L << offset;
+					added = true;
+				}
+			}
+
+			if (added && ++additions == sampleSize) {
+				for (int i = 0; i < table.length; i++) {
+					table[i] = (table[i] >>> 1) & RESET_MASK;
+				}
+				additions /= 2;
+			}
+		}
+
+		private int indexOf(int hash, int i) {
+			long h = (hash + SEEDS[i]) * SEEDS[i];
+			h += h >>> 32;
+			return (int) h & mask;
+		}
+	}
+
+}
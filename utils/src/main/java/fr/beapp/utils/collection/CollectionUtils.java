@@ -1,14 +1,57 @@
 package fr.beapp.utils.collection;
 
+import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import android.util.SparseArray;
 
+import java.util.AbstractList;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.RandomAccess;
 
 public class CollectionUtils {
 
+	/**
+	 * Receive each item of a list or array, with its index
+	 *
+	 * @param <T> the item type
+	 */
+	public interface IndexedConsumer<T> {
+
+		void accept(int index, @Nullable T item);
+
+	}
+
+	/**
+	 * Receive each entry of a {@link SparseArray}
+	 *
+	 * @param <T> the value type
+	 */
+	public interface KeyedConsumer<T> {
+
+		void accept(int key, @Nullable T value);
+
+	}
+
+	/**
+	 * Receive the bounds of each chunk of a list or array
+	 */
+	public interface ChunkConsumer {
+
+		/**
+		 * @param chunkIndex the index of the chunk
+		 * @param fromIndex  the first index of the chunk, inclusive
+		 * @param toIndex    the last index of the chunk, exclusive
+		 */
+		void accept(int chunkIndex, int fromIndex, int toIndex);
+
+	}
+
 	private CollectionUtils() {
 	}
 
@@ -90,4 +133,190 @@ public class CollectionUtils {
 		return defaultValue;
 	}
 
+	/**
+	 * Null-safe iteration over a list, with indexes.
+	 * <p/>
+	 * {@link RandomAccess} lists (like {@link ArrayList}) are iterated by index, without allocating an {@link Iterator}.
+	 * Other lists, like {@link java.util.LinkedList}, are iterated with an {@link Iterator} to avoid O(n²) lookups.
+	 *
+	 * @param items    the list to iterate, may be null
+	 * @param consumer the consumer receiving each item
+	 */
+	public static <T> void forEachIndexed(@Nullable List<T> items, @NonNull IndexedConsumer<? super T> consumer) {
+		if (items == null)
+			return;
+
+		if (items instanceof RandomAccess) {
+			for (int i = 0, size = items.size(); i < size; i++) {
+				consumer.accept(i, items.get(i));
+			}
+		} else {
+			int index = 0;
+			for (T item : items) {
+				consumer.accept(index++, item);
+			}
+		}
+	}
+
+	/**
+	 * Null-safe iteration over a {@link SparseArray}, in ascending key order, without allocation.
+	 *
+	 * @param items    the sparse array to iterate, may be null
+	 * @param consumer the consumer receiving each entry
+	 */
+	public static <T> void forEach(@Nullable SparseArray<T> items, @NonNull KeyedConsumer<? super T> consumer) {
+		if (items == null)
+			return;
+
+		for (int i = 0, size = items.size(); i < size; i++) {
+			consumer.accept(items.keyAt(i), items.valueAt(i));
+		}
+	}
+
+	/**
+	 * @return the number of chunks needed to hold <code>size</code> items by chunks of <code>chunkSize</code>
+	 */
+	public static int chunkCount(int size, int chunkSize) {
+		if (chunkSize < 1)
+			throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+		return size == 0 ? 0 : (size - 1) / chunkSize + 1;
+	}
+
+	/**
+	 * Null-safe iteration over the bounds of each chunk of a list, without allocation. The last chunk may be smaller.
+	 *
+	 * @param items     the list to split, may be null
+	 * @param chunkSize the maximum number of items of each chunk
+	 * @param consumer  the consumer receiving the bounds of each chunk
+	 */
+	public static void forEachChunk(@Nullable Collection<?> items, int chunkSize, @NonNull ChunkConsumer consumer) {
+		forEachChunk(items != null ? items.size() : 0, chunkSize, consumer);
+	}
+
+	static void forEachChunk(int size, int chunkSize, @NonNull ChunkConsumer consumer) {
+		int count = chunkCount(size, chunkSize);
+		for (int chunk = 0; chunk < count; chunk++) {
+			int fromIndex = chunk * chunkSize;
+			consumer.accept(chunk, fromIndex, Math.min(size, fromIndex + chunkSize));
+		}
+	}
+
+	/**
+	 * Split a list into consecutive chunks, without copying items: each chunk is a {@link List#subList(int, int)} view,
+	 * so changes in the list are reflected in chunks. The last chunk may be smaller.
+	 *
+	 * @param items     the list to split, may be null
+	 * @param chunkSize the maximum number of items of each chunk
+	 * @return a read-only view of the chunks
+	 */
+	@NonNull
+	public static <T> List<List<T>> chunk(@Nullable List<T> items, int chunkSize) {
+		if (chunkSize < 1)
+			throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+		return new ChunkedList<>(items != null ? items : Collections.<T>emptyList(), chunkSize);
+	}
+
+	/**
+	 * Retrieve a page of a list, as a {@link List#subList(int, int)} view. Pages out of range are empty.
+	 *
+	 * @param items    the list to paginate, may be null
+	 * @param page     the page index, starting at 0
+	 * @param pageSize the number of items per page
+	 * @return a view of the page items
+	 */
+	@NonNull
+	public static <T> List<T> getPage(@Nullable List<T> items, int page, int pageSize) {
+		if (pageSize < 1)
+			throw new IllegalArgumentException("Page size must be positive: " + pageSize);
+
+		int size = items != null ? items.size() : 0;
+		long fromIndex = (long) page * pageSize;
+		if (items == null || page < 0 || fromIndex >= size)
+			return Collections.emptyList();
+		return items.subList((int) fromIndex, (int) Math.min(size, fromIndex + pageSize));
+	}
+
+	/**
+	 * Merge two sorted lists into the given output list. Merge is stable: on equal items, those of <code>first</code> come first.
+	 * <p/>
+	 * No allocation occurs if both lists are {@link RandomAccess} and the output has enough capacity.
+	 *
+	 * @param first      the first sorted list, may be null
+	 * @param second     the second sorted list, may be null
+	 * @param comparator the comparator both lists are sorted with
+	 * @param output     the list receiving merged items, appended after its current items
+	 * @return the output list
+	 */
+	@NonNull
+	public static <T, L extends List<? super T>> L mergeSorted(@Nullable List<? extends T> first, @Nullable List<? extends T> second,
+															   @NonNull Comparator<? super T> comparator, @NonNull L output) {
+		if (!(first == null || first instanceof RandomAccess) || !(second == null || second instanceof RandomAccess)) {
+			first = first != null ? new ArrayList<>(first) : null;
+			second = second != null ? new ArrayList<>(second) : null;
+		}
+
+		int firstSize = first != null ? first.size() : 0;
+		int secondSize = second != null ? second.size() : 0;
+		int i = 0;
+		int j = 0;
+		while (i < firstSize && j < secondSize) {
+			T firstItem = first.get(i);
+			T secondItem = second.get(j);
+			if (comparator.compare(secondItem, firstItem) < 0) {
+				output.add(secondItem);
+				j++;
+			} else {
+				output.add(firstItem);
+				i++;
+			}
+		}
+		while (i < firstSize) {
+			output.add(first.get(i++));
+		}
+		while (j < secondSize) {
+			output.add(second.get(j++));
+		}
+		return output;
+	}
+
+	/**
+	 * Merge two sorted lists into a new list. Merge is stable: on equal items, those of <code>first</code> come first.
+	 *
+	 * @param first      the first sorted list, may be null
+	 * @param second     the second sorted list, may be null
+	 * @param comparator the comparator both lists are sorted with
+	 * @return a new list holding all items
+	 */
+	@NonNull
+	public static <T> List<T> mergeSorted(@Nullable List<? extends T> first, @Nullable List<? extends T> second, @NonNull Comparator<? super T> comparator) {
+		int size = (first != null ? first.size() : 0) + (second != null ? second.size() : 0);
+		return mergeSorted(first, second, comparator, new ArrayList<T>(size));
+	}
+
+	private static class ChunkedList<T> extends AbstractList<List<T>> implements RandomAccess {
+
+		private final List<T> items;
+		private final int chunkSize;
+
+		ChunkedList(@NonNull List<T> items, int chunkSize) {
+			this.items = items;
+			this.chunkSize = chunkSize;
+		}
+
+		@Override
+		public List<T> get(int index) {
+			int size = size();
+			if (index < 0 || index >= size)
+				throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+
+			int fromIndex = index * chunkSize;
+			return items.subList(fromIndex, Math.min(items.size(), fromIndex + chunkSize));
+		}
+
+		@Override
+		public int size() {
+			return chunkCount(items.size(), chunkSize);
+		}
+	}
+
 }
@@ -0,0 +1,480 @@
+package fr.beapp.utils.collection;
+
+import androidx.annotation.NonNull;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+import fr.beapp.utils.io.IOUtils;
+
+/**
+ * Compact set of <code>int</code>, in the spirit of Roaring bitmaps.
+ * <p/>
+ * Values are grouped by their 16 high bits in containers kept sorted by key. Each container stores the 16 low bits of its values
+ * either in a sorted <code>char[]</code> (2 bytes per value) or, above 4096 values, in a fixed 8KB bitmap.
+ * Dense or clustered ids thus use a few bits each, instead of the ~50 bytes of a boxed {@link Integer} in a {@link java.util.HashSet}.
+ * <p/>
+ * Lookups are two binary searches at most, without allocation. This class is not thread-safe.
+ */
+public class CompactIntSet {
+
+	private static final int MAGIC = 0x43495354;
+	private static final int VERSION = 1;
+	private static final int ARRAY_MAXIMUM = 4096;
+	private static final int BITMAP_WORDS = 1 << 10;
+
+	private char[] keys = new char[4];
+	private Container[] containers = new Container[4];
+	private int containerCount;
+	private int size;
+
+	@NonNull
+	public static CompactIntSet of(@NonNull int... values) {
+		CompactIntSet set = new CompactIntSet();
+		for (int value : values) {
+			set.add(value);
+		}
+		return set;
+	}
+
+	/**
+	 * @return <code>true</code> if the value was not already present
+	 */
+	public boolean add(int value) {
+		char key = keyOf(value);
+		int index = indexOfKey(key);
+		if (index < 0) {
+			index = -index - 1;
+			insertContainer(index, key, new ArrayContainer());
+		}
+
+		Container container = containers[index];
+		int cardinality = container.cardinality;
+		containers[index] = container.add((char) value);
+		if (containers[index].cardinality == cardinality)
+			return false;
+		size++;
+		return true;
+	}
+
+	/**
+	 * @return <code>true</code> if the value was present
+	 */
+	public boolean remove(int value) {
+		int index = indexOfKey(keyOf(value));
+		if (index < 0)
+			return false;
+
+		Container container = containers[index];
+		int cardinality = container.cardinality;
+		Container updated = container.remove((char) value);
+		if (updated.cardinality == cardinality)
+			return false;
+
+		size--;
+		if (updated.cardinality == 0) {
+			removeContainer(index);
+		} else {
+			containers[index] = updated;
+		}
+		return true;
+	}
+
+	public boolean contains(int value) {
+		int index = indexOfKey(keyOf(value));
+		return index >= 0 && containers[index].contains((char) value);
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public void clear() {
+		Arrays.fill(containers, 0, containerCount, null);
+		containerCount = 0;
+		size = 0;
+	}
+
+	/**
+	 * @return all values, in ascending order
+	 */
+	@NonNull
+	public int[] toArray() {
+		int[] values = new int[size];
+		int position = 0;
+		for (int i = 0; i < containerCount; i++) {
+			position = containers[i].copyTo(values, position, (keys[i] ^ 0x8000) << 16);
+		}
+		return values;
+	}
+
+	/**
+	 * @return an estimation of the memory used by the stored values, in bytes
+	 */
+	public long getSizeInBytes() {
+		long bytes = keys.length * 2L + containers.length * 4L;
+		for (int i = 0; i < containerCount; i++) {
+			bytes += containers[i].getSizeInBytes();
+		}
+		return bytes;
+	}
+
+	/**
+	 * Write this set to a stream. The stream is flushed but not closed.
+	 *
+	 * @param outputStream the OutputStream to write to
+	 * @throws IOException if an I/O error occurs
+	 */
+	public void writeTo(@NonNull OutputStream outputStream) throws IOException {
+		DataOutputStream dataOutputStream = new DataOutputStream(new BufferedOutputStream(outputStream, IOUtils.DEFAULT_BUFFER_SIZE * 4));
+		dataOutputStream.writeInt(MAGIC);
+		dataOutputStream.writeInt(VERSION);
+		dataOutputStream.writeInt(containerCount);
+		for (int i = 0; i < containerCount; i++) {
+			dataOutputStream.writeChar(keys[i]);
+			containers[i].writeTo(dataOutputStream);
+		}
+		dataOutputStream.flush();
+	}
+
+	/**
+	 * Write this set to a file, creating parent folders if needed.
+	 *
+	 * @param outputFile the file to write to
+	 * @throws IOException if an I/O error occurs
+	 */
+	public void writeTo(@NonNull File outputFile) throws IOException {
+		File parentFile = outputFile.getParentFile();
+		if (parentFile != null) {
+			parentFile.mkdirs();
+		}
+
+		FileOutputStream fileOutputStream = null;
+		try {
+			fileOutputStream = new FileOutputStream(outputFile);
+			writeTo(fileOutputStream);
+		} finally {
+			IOUtils.closeQuietly(fileOutputStream);
+		}
+	}
+
+	/**
+	 * Read a set written by {@link #writeTo(OutputStream)}. The stream is not closed.
+	 * <p/>
+	 * The stream is not buffered, so no byte is read past the encoded set and the stream can be read further by the caller.
+	 * Give a {@link BufferedInputStream} if the stream is costly to read byte by byte.
+	 *
+	 * @param inputStream the InputStream to read from
+	 * @return the read set
+	 * @throws IOException if an I/O error occurs or the content is not a valid set
+	 */
+	@NonNull
+	public static CompactIntSet readFrom(@NonNull InputStream inputStream) throws IOException {
+		DataInputStream dataInputStream = new DataInputStream(inputStream);
+		if (dataInputStream.readInt() != MAGIC)
+			throw new IOException("Not an encoded CompactIntSet");
+		int version = dataInputStream.readInt();
+		if (version != VERSION)
+			throw new IOException("Unsupported CompactIntSet encoding version " + version);
+
+		int containerCount = dataInputStream.readInt();
+		if (containerCount < 0 || containerCount > 1 << 16)
+			throw new IOException("Invalid CompactIntSet container count " + containerCount);
+
+		CompactIntSet set = new CompactIntSet();
+		set.keys = new char[Math.max(4, containerCount)];
+		set.containers = new Container[Math.max(4, containerCount)];
+		for (int i = 0; i < containerCount; i++) {
+			set.keys[i] = dataInputStream.readChar();
+			// Lookups binary search the keys, so they must be strictly increasing
+			if (i > 0 && set.keys[i] <= set.keys[i - 1])
+				throw new IOException("Invalid CompactIntSet container key order at " + i);
+			Container container = dataInputStream.readBoolean() ? BitmapContainer.readFrom(dataInputStream) : ArrayContainer.readFrom(dataInputStream);
+			set.containers[i] = container;
+			set.size += container.cardinality;
+		}
+		set.containerCount = containerCount;
+		return set;
+	}
+
+	/**
+	 * Read a set written by {@link #writeTo(File)}.
+	 *
+	 * @param inputFile the file to read from
+	 * @return the read set
+	 * @throws IOException if an I/O error occurs or the content is not a valid set
+	 */
+	@NonNull
+	public static CompactIntSet readFrom(@NonNull File inputFile) throws IOException {
+		FileInputStream fileInputStream = null;
+		try {
+			fileInputStream = new FileInputStream(inputFile);
+			return readFrom(new BufferedInputStream(fileInputStream, IOUtils.DEFAULT_BUFFER_SIZE * 4));
+		} finally {
+			IOUtils.closeQuietly(fileInputStream);
+		}
+	}
+
+	/**
+	 * High bits of the value, with the sign bit flipped so unsigned key order matches signed value order
+	 */
+	private static char keyOf(int value) {
+		return (char) ((value >>> 16) ^ 0x8000);
+	}
+
+	private int indexOfKey(char key) {
+		int low = 0;
+		int high = containerCount - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			char midKey = keys[mid];
+			if (midKey < key) {
+				low = mid + 1;
+			} else if (midKey > key) {
+				high = mid - 1;
+			} else {
+				return mid;
+			}
+		}
+		return -(low + 1);
+	}
+
+	private void insertContainer(int index, char key, Container container) {
+		if (containerCount == keys.length) {
+			keys = Arrays.copyOf(keys, containerCount * 2);
+			containers = Arrays.copyOf(containers, containerCount * 2);
+		}
+		System.arraycopy(keys, index, keys, index + 1, containerCount - index);
+		System.arraycopy(containers, index, containers, index + 1, containerCount - index);
+		keys[index] = key;
+		containers[index] = container;
+		containerCount++;
+	}
+
+	private void removeContainer(int index) {
+		System.arraycopy(keys, index + 1, keys, index, containerCount - index - 1);
+		System.arraycopy(containers, index + 1, containers, index, containerCount - index - 1);
+		containers[--containerCount] = null;
+	}
+
+	/**
+	 * Values sharing the same 16 high bits. Updates return the container to use from now on, which may have changed representation.
+	 */
+	private abstract static class Container {
+
+		int cardinality;
+
+		abstract Container add(char value);
+
+		abstract Container remove(char value);
+
+		abstract boolean contains(char value);
+
+		abstract int copyTo(int[] values, int position, int high);
+
+		abstract long getSizeInBytes();
+
+		abstract void writeTo(DataOutputStream dataOutputStream) throws IOException;
+
+	}
+
+	private static final class ArrayContainer extends Container {
+
+		private char[] values;
+
+		ArrayContainer() {
+			values = new char[4];
+		}
+
+		ArrayContainer(char[] values, int cardinality) {
+			this.values = values;
+			this.cardinality = cardinality;
+		}
+
+		@Override
+		Container add(char value) {
+			int index = Arrays.binarySearch(values, 0, cardinality, value);
+			if (index >= 0)
+				return this;
+
+			if (cardinality >= ARRAY_MAXIMUM) {
+				return toBitmap().add(value);
+			}
+
+			index = -index - 1;
+			if (cardinality == values.length) {
+				values = Arrays.copyOf(values, Math.min(ARRAY_MAXIMUM, cardinality + (cardinality >> 1) + 4));
+			}
+			System.arraycopy(values, index, values, index + 1, cardinality - index);
+			values[index] = value;
+			cardinality++;
+			return this;
+		}
+
+		@Override
+		Container remove(char value) {
+			int index = Arrays.binarySearch(values, 0, cardinality, value);
+			if (index >= 0) {
+				System.arraycopy(values, index + 1, values, index, cardinality - index - 1);
+				cardinality--;
+			}
+			return this;
+		}
+
+		@Override
+		boolean contains(char value) {
+			return Arrays.binarySearch(values, 0, cardinality, value) >= 0;
+		}
+
+		@Override
+		int copyTo(int[] result, int position, int high) {
+			for (int i = 0; i < cardinality; i++) {
+				result[position++] = high | values[i];
+			}
+			return position;
+		}
+
+		@Override
+		long getSizeInBytes() {
+			return 16 + values.length * 2L;
+		}
+
+		@Override
+		void writeTo(DataOutputStream dataOutputStream) throws IOException {
+			dataOutputStream.writeBoolean(false);
+			dataOutputStream.writeInt(cardinality);
+			for (int i = 0; i < cardinality; i++) {
+				dataOutputStream.writeChar(values[i]);
+			}
+		}
+
+		static ArrayContainer readFrom(DataInputStream dataInputStream) throws IOException {
+			int cardinality = dataInputStream.readInt();
+			if (cardinality < 1 || cardinality > ARRAY_MAXIMUM)
+				throw new IOException("Invalid CompactIntSet container cardinality " + cardinality);
+
+			char[] values = new char[cardinality];
+			for (int i = 0; i < cardinality; i++) {
+				values[i] = dataInputStream.readChar();
+				// Lookups binary search the values, so they must be sorted and unique
+				if (i > 0 && values[i] <= values[i - 1])
+					throw new IOException("Invalid CompactIntSet container value order at " + i);
+			}
+			return new ArrayContainer(values, cardinality);
+		}
+
+		private BitmapContainer toBitmap() {
+			BitmapContainer bitmap = new BitmapContainer(new long[BITMAP_WORDS], 0);
+			for (int i = 0; i < cardinality; i++) {
+				bitmap.add(values[i]);
+			}
+			return bitmap;
+		}
+	}
+
+	private static final class BitmapContainer extends Container {
+
+		private final long[] words;
+
+		BitmapContainer(long[] words, int cardinality) {
+			this.words = words;
+			this.cardinality = cardinality;
+		}
+
+		@Override
+		Container add(char value) {
+			long mask = 1L << value;
+			int index = value >>> 6;
+			if ((words[index] & mask) == 0) {
+				words[index] |= mask;
+				cardinality++;
+			}
+			return this;
+		}
+
+		@Override
+		Container remove(char value) {
+			long mask = 1L << value;
+			int index = value >>> 6;
+			if ((words[index] & mask) != 0) {
+				words[index] &= ~mask;
+				cardinality--;
+				if (cardinality <= ARRAY_MAXIMUM) {
+					return toArrayContainer();
+				}
+			}
+			return this;
+		}
+
+		@Override
+		boolean contains(char value) {
+			return (words[value >>> 6] & (1L << value)) != 0;
+		}
+
+		@Override
+		int copyTo(int[] result, int position, int high) {
+			for (int i = 0; i < BITMAP_WORDS; i++) {
+				long word = words[i];
+				while (word != 0) {
+					result[position++] = high | (i << 6) | Long.numberOfTrailingZeros(word);
+					word &= word - 1;
+				}
+			}
+			return position;
+		}
+
+		@Override
+		long getSizeInBytes() {
+			return 16 + BITMAP_WORDS * 8L;
+		}
+
+		@Override
+		void writeTo(DataOutputStream dataOutputStream) throws IOException {
+			dataOutputStream.writeBoolean(true);
+			dataOutputStream.writeInt(cardinality);
+			for (long word : words) {
+				dataOutputStream.writeLong(word);
+			}
+		}
+
+		static BitmapContainer readFrom(DataInputStream dataInputStream) throws IOException {
+			int cardinality = dataInputStream.readInt();
+			long[] words = new long[BITMAP_WORDS];
+			int count = 0;
+			for (int i = 0; i < BITMAP_WORDS; i++) {
+				words[i] = dataInputStream.readLong();
+				count += Long.bitCount(words[i]);
+			}
+			if (count != cardinality || cardinality <= ARRAY_MAXIMUM)
+				throw new IOException("Invalid CompactIntSet container cardinality " + cardinality);
+			return new BitmapContainer(words, cardinality);
+		}
+
+		private ArrayContainer toArrayContainer() {
+			char[] values = new char[cardinality];
+			int position = 0;
+			for (int i = 0; i < BITMAP_WORDS; i++) {
+				long word = words[i];
+				while (word != 0) {
+					values[position++] = (char) ((i << 6) | Long.numberOfTrailingZeros(word));
+					word &= word - 1;
+				}
+			}
+			return new ArrayContainer(values, cardinality);
+		}
+	}
+
+}
@@ -0,0 +1,288 @@
+package fr.beapp.utils.collection;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thread-safe multi-valued map, designed for aggregating values from several producer threads.
+ * <p/>
+ * Keys are held in a {@link ConcurrentHashMap} and each key owns an append-only bucket with its own lock, so producers adding to different keys never contend.
+ * Readers never lock: lists returned by {@link #get(Object)} and {@link #snapshot()} are immutable views over the values appended so far,
+ * taken without copying values.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public class ConcurrentMultiValueMap<K, V> {
+
+	private final ConcurrentMap<K, Bucket<V>> buckets;
+	private final AtomicInteger fullSize = new AtomicInteger();
+
+	public ConcurrentMultiValueMap() {
+		this(16, 4);
+	}
+
+	/**
+	 * @param initialCapacity  the expected number of keys
+	 * @param concurrencyLevel the estimated number of concurrently updating threads
+	 */
+	public ConcurrentMultiValueMap(int initialCapacity, int concurrencyLevel) {
+		buckets = new ConcurrentHashMap<>(initialCapacity, 0.75f, concurrencyLevel);
+	}
+
+	/**
+	 * Append a new value at the given key.
+	 *
+	 * @param key   key with which the specified value is to be associated
+	 * @param value value to be associated with the specified key
+	 * @return the instance of ConcurrentMultiValueMap
+	 */
+	@NonNull
+	public ConcurrentMultiValueMap<K, V> add(@NonNull K key, @Nullable V value) {
+		// Count before publishing, so a concurrent removal never subtracts a value not counted yet
+		fullSize.incrementAndGet();
+		while (!getOrCreateBucket(key).append(value)) {
+			// Bucket was removed concurrently, retry with a new one
+		}
+		return this;
+	}
+
+	/**
+	 * Append all the given values at the given key.
+	 *
+	 * @param key    key with which the specified values are to be associated
+	 * @param values values to be associated with the specified key
+	 * @return the instance of ConcurrentMultiValueMap
+	 */
+	@NonNull
+	public ConcurrentMultiValueMap<K, V> addAll(@NonNull K key, @NonNull Collection<? extends V> values) {
+		if (values.isEmpty())
+			return this;
+
+		// Count before publishing, so a concurrent removal never subtracts values not counted yet
+		fullSize.addAndGet(values.size());
+		while (!getOrCreateBucket(key).appendAll(values)) {
+			// Bucket was removed concurrently, retry with a new one
+		}
+		return this;
+	}
+
+	/**
+	 * Retrieve an immutable view of the values associated to the given key, as of now.
+	 *
+	 * @param key key with which the values are associated
+	 * @return the values, or <code>null</code> if there is none
+	 */
+	@Nullable
+	public List<V> get(@Nullable Object key) {
+		if (key == null)
+			return null;
+
+		Bucket<V> bucket = buckets.get(key);
+		return bucket != null ? bucket.snapshot() : null;
+	}
+
+	/**
+	 * Remove all values associated to the given key.
+	 *
+	 * @param key key with which the values are associated
+	 * @return the removed values, or <code>null</code> if there was none
+	 */
+	@Nullable
+	public List<V> remove(@Nullable Object key) {
+		if (key == null)
+			return null;
+
+		Bucket<V> bucket = buckets.remove(key);
+		if (bucket == null)
+			return null;
+
+		List<V> values = bucket.close();
+		fullSize.addAndGet(-values.size());
+		return values;
+	}
+
+	public void clear() {
+		for (K key : buckets.keySet()) {
+			remove(key);
+		}
+	}
+
+	public boolean containsKey(@Nullable Object key) {
+		return key != null && buckets.containsKey(key);
+	}
+
+	/**
+	 * @return a live, unmodifiable view of keys. Use {@link #remove(Object)} to remove keys
+	 */
+	@NonNull
+	public Set<K> keySet() {
+		return Collections.unmodifiableSet(buckets.keySet());
+	}
+
+	/**
+	 * @return the number of keys
+	 */
+	public int size() {
+		return buckets.size();
+	}
+
+	public boolean isEmpty() {
+		return buckets.isEmpty();
+	}
+
+	/**
+	 * Retrieve the number of values for the given key
+	 *
+	 * @param key key to use to retrieve the values
+	 * @return number of values at the given key
+	 */
+	public int size(@Nullable Object key) {
+		if (key == null)
+			return 0;
+
+		Bucket<V> bucket = buckets.get(key);
+		return bucket != null ? bucket.size : 0;
+	}
+
+	/**
+	 * Retrieve the number of all values. Additions are counted as soon as they start and removals once completed,
+	 * so while producers are running this may briefly include values not visible yet, but it is never negative.
+	 *
+	 * @return number of values for all keys
+	 */
+	public int fullSize() {
+		return fullSize.get();
+	}
+
+	/**
+	 * Export an immutable snapshot of this map. Values are not copied, only a view over each bucket is taken.
+	 * <p/>
+	 * As producers may keep adding values while the snapshot is built, buckets are captured one after the other, not atomically.
+	 *
+	 * @return an unmodifiable map of unmodifiable lists
+	 */
+	@NonNull
+	public Map<K, List<V>> snapshot() {
+		Map<K, List<V>> snapshot = new HashMap<>((int) (buckets.size() / 0.75f) + 1);
+		for (Map.Entry<K, Bucket<V>> entry : buckets.entrySet()) {
+			snapshot.put(entry.getKey(), entry.getValue().snapshot());
+		}
+		return Collections.unmodifiableMap(snapshot);
+	}
+
+	/**
+	 * Copy the current content into a new, non thread-safe, {@link MultiValueMap}.
+	 *
+	 * @return a new MultiValueMap
+	 */
+	@NonNull
+	public MultiValueMap<K, V> toMultiValueMap() {
+		MultiValueMap<K, V> map = MultiValueMap.build();
+		for (Map.Entry<K, Bucket<V>> entry : buckets.entrySet()) {
+			map.put(entry.getKey(), entry.getValue().snapshot());
+		}
+		return map;
+	}
+
+	@NonNull
+	private Bucket<V> getOrCreateBucket(@NonNull K key) {
+		Bucket<V> bucket = buckets.get(key);
+		if (bucket == null) {
+			Bucket<V> newBucket = new Bucket<>();
+			bucket = buckets.putIfAbsent(key, newBucket);
+			if (bucket == null) {
+				bucket = newBucket;
+			}
+		}
+		return bucket;
+	}
+
+	/**
+	 * Append-only list: writers append under the bucket lock, readers capture <code>size</code> then <code>items</code> without locking.
+	 * Elements below a published size are never modified, and a grown array always contains them.
+	 */
+	private static class Bucket<V> {
+
+		private volatile Object[] items = new Object[4];
+		private volatile int size;
+		private boolean closed;
+
+		synchronized boolean append(V value) {
+			if (closed)
+				return false;
+
+			ensureCapacity(size + 1);
+			items[size] = value;
+			size = size + 1;
+			return true;
+		}
+
+		synchronized boolean appendAll(Collection<? extends V> values) {
+			if (closed)
+				return false;
+
+			ensureCapacity(size + values.size());
+			int newSize = size;
+			for (V value : values) {
+				items[newSize++] = value;
+			}
+			size = newSize;
+			return true;
+		}
+
+		synchronized List<V> close() {
+			closed = true;
+			return snapshot();
+		}
+
+		List<V> snapshot() {
+			int currentSize = size;
+			return new SnapshotList<>(items, currentSize);
+		}
+
+		private void ensureCapacity(int capacity) {
+			if (capacity > items.length) {
+				items = Arrays.copyOf(items, Math.max(capacity, items.length * 2));
+			}
+		}
+	}
+
+	private static class SnapshotList<V> extends AbstractList<V> implements RandomAccess {
+
+		private final Object[] items;
+		private final int size;
+
+		SnapshotList(Object[] items, int size) {
+			this.items = items;
+			this.size = size;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public V get(int index) {
+			if (index < 0 || index >= size)
+				throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+			return (V) items[index];
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+	}
+
+}
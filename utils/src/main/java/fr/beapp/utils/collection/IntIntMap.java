@@ -0,0 +1,297 @@
+package fr.beapp.utils.collection;
+
+import androidx.annotation.NonNull;
+
+import java.util.Arrays;
+
+/**
+ * Hash map with primitive {@code int} keys and values, avoiding boxing of keys and values.
+ * <p/>
+ * Entries are stored in flat arrays using open addressing with linear probing, and removals shift following entries back so no tombstone is left.
+ * Iteration doesn't allocate any iterator:
+ * <pre>
+ * for (int slot = map.firstSlot(); slot &gt;= 0; slot = map.nextSlot(slot)) {
+ *     int key = map.keyAt(slot);
+ *     int value = map.valueAt(slot);
+ * }
+ * </pre>
+ * The map must not be modified while iterating. This class is not thread-safe.
+ */
+public class IntIntMap {
+
+	private static final float LOAD_FACTOR = 0.75f;
+	private static final int MIN_CAPACITY = 8;
+	private static final int MAX_CAPACITY = 1 << 30;
+
+	private int[] keys;
+	private int[] values;
+	private final int noEntryValue;
+	private int mask;
+	private int size;
+	private int resizeThreshold;
+
+	/**
+	 * The empty slot marker is 0, so the entry for key 0 is stored aside
+	 */
+	private boolean hasZeroKey;
+	private int zeroValue;
+
+	public IntIntMap() {
+		this(16);
+	}
+
+	/**
+	 * @param expectedSize the number of entries the map should hold without resizing
+	 */
+	public IntIntMap(int expectedSize) {
+		this(expectedSize, 0);
+	}
+
+	/**
+	 * @param expectedSize the number of entries the map should hold without resizing
+	 * @param noEntryValue the value returned by {@link #get(int)}, {@link #put(int, int)} and {@link #remove(int)} when there is no entry
+	 */
+	public IntIntMap(int expectedSize, int noEntryValue) {
+		this.noEntryValue = noEntryValue;
+		allocate(capacityFor(expectedSize));
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public boolean containsKey(int key) {
+		return key == 0 ? hasZeroKey : findSlot(key) >= 0;
+	}
+
+	/**
+	 * @param key the key to look for
+	 * @return the value associated to the key, or the no entry value if there is none
+	 */
+	public int get(int key) {
+		return get(key, noEntryValue);
+	}
+
+	/**
+	 * @param key          the key to look for
+	 * @param defaultValue the value to return if the key is not in the map
+	 * @return the value associated to the key, or <code>defaultValue</code> if there is none
+	 */
+	public int get(int key, int defaultValue) {
+		if (key == 0)
+			return hasZeroKey ? zeroValue : defaultValue;
+
+		int slot = findSlot(key);
+		return slot >= 0 ? values[slot] : defaultValue;
+	}
+
+	/**
+	 * Associate the value to the key.
+	 *
+	 * @param key   the key
+	 * @param value the value
+	 * @return the previous value associated to the key, or the no entry value if there was none
+	 */
+	public int put(int key, int value) {
+		if (key == 0) {
+			int previous = hasZeroKey ? zeroValue : noEntryValue;
+			if (!hasZeroKey) {
+				hasZeroKey = true;
+				size++;
+			}
+			zeroValue = value;
+			return previous;
+		}
+
+		int slot = hash(key) & mask;
+		while (keys[slot] != 0) {
+			if (keys[slot] == key) {
+				int previous = values[slot];
+				values[slot] = value;
+				return previous;
+			}
+			slot = (slot + 1) & mask;
+		}
+
+		if (size == resizeThreshold && keys.length == MAX_CAPACITY)
+			throw new IllegalStateException("Map can't hold more than " + resizeThreshold + " entries");
+
+		keys[slot] = key;
+		values[slot] = value;
+		if (++size > resizeThreshold) {
+			rehash(keys.length * 2);
+		}
+		return noEntryValue;
+	}
+
+	/**
+	 * Add the given delta to the value associated to the key, starting from 0 if there is none.
+	 *
+	 * @param key   the key
+	 * @param delta the value to add
+	 * @return the new value
+	 */
+	public int increment(int key, int delta) {
+		int value = get(key, 0) + delta;
+		put(key, value);
+		return value;
+	}
+
+	/**
+	 * Remove the entry for the given key.
+	 *
+	 * @param key the key to remove
+	 * @return the removed value, or the no entry value if there was none
+	 */
+	public int remove(int key) {
+		if (key == 0) {
+			if (!hasZeroKey)
+				return noEntryValue;
+
+			int previous = zeroValue;
+			hasZeroKey = false;
+			zeroValue = 0;
+			size--;
+			return previous;
+		}
+
+		int slot = findSlot(key);
+		if (slot < 0)
+			return noEntryValue;
+
+		int previous = values[slot];
+		removeSlot(slot);
+		return previous;
+	}
+
+	public void clear() {
+		Arrays.fill(keys, 0);
+		hasZeroKey = false;
+		zeroValue = 0;
+		size = 0;
+	}
+
+	/**
+	 * @return the first occupied slot, or -1 if the map is empty
+	 */
+	public int firstSlot() {
+		return nextSlot(-1);
+	}
+
+	/**
+	 * @param slot the current slot
+	 * @return the next occupied slot after the given one, or -1 if there is none
+	 */
+	public int nextSlot(int slot) {
+		for (int i = slot + 1; i < keys.length; i++) {
+			if (keys[i] != 0)
+				return i;
+		}
+		return slot < keys.length && hasZeroKey ? keys.length : -1;
+	}
+
+	/**
+	 * @param slot an occupied slot, as returned by {@link #firstSlot()} or {@link #nextSlot(int)}
+	 * @return the key stored in the slot
+	 */
+	public int keyAt(int slot) {
+		return slot == keys.length ? 0 : keys[slot];
+	}
+
+	/**
+	 * @param slot an occupied slot, as returned by {@link #firstSlot()} or {@link #nextSlot(int)}
+	 * @return the value stored in the slot
+	 */
+	public int valueAt(int slot) {
+		return slot == keys.length ? zeroValue : values[slot];
+	}
+
+	/**
+	 * @return all keys, in no particular order
+	 */
+	@NonNull
+	public int[] keys() {
+		int[] result = new int[size];
+		int i = 0;
+		for (int slot = firstSlot(); slot >= 0; slot = nextSlot(slot)) {
+			result[i++] = keyAt(slot);
+		}
+		return result;
+	}
+
+	private int findSlot(int key) {
+		int slot = hash(key) & mask;
+		while (keys[slot] != 0) {
+			if (keys[slot] == key)
+				return slot;
+			slot = (slot + 1) & mask;
+		}
+		return -1;
+	}
+
+	private void removeSlot(int slot) {
+		size--;
+
+		// Shift back following entries of the probe sequence which would not be reachable anymore
+		int gap = slot;
+		int i = (slot + 1) & mask;
+		while (keys[i] != 0) {
+			int ideal = hash(keys[i]) & mask;
+			if (((i - ideal) & mask) >= ((i - gap) & mask)) {
+				keys[gap] = keys[i];
+				values[gap] = values[i];
+				gap = i;
+			}
+			i = (i + 1) & mask;
+		}
+		keys[gap] = 0;
+		values[gap] = 0;
+	}
+
+	private void rehash(int newCapacity) {
+		int[] oldKeys = keys;
+		int[] oldValues = values;
+		allocate(newCapacity);
+
+		for (int i = 0; i < oldKeys.length; i++) {
+			int key = oldKeys[i];
+			if (key != 0) {
+				int slot = hash(key) & mask;
+				while (keys[slot] != 0) {
+					slot = (slot + 1) & mask;
+				}
+				keys[slot] = key;
+				values[slot] = oldValues[i];
+			}
+		}
+	}
+
+	private void allocate(int capacity) {
+		keys = new int[capacity];
+		values = new int[capacity];
+		mask = capacity - 1;
+		// At the maximum capacity, the map is filled up to keeping one empty slot, so probing always ends
+		resizeThreshold = capacity == MAX_CAPACITY ? MAX_CAPACITY - 1 : (int) (capacity * LOAD_FACTOR);
+	}
+
+	private static int capacityFor(int expectedSize) {
+		if (expectedSize < 0 || expectedSize > MAX_CAPACITY * LOAD_FACTOR)
+			throw new IllegalArgumentException("Expected size must be between 0 and " + (int) (MAX_CAPACITY * LOAD_FACTOR) + ": " + expectedSize);
+
+		int capacity = MIN_CAPACITY;
+		while (capacity * LOAD_FACTOR < expectedSize) {
+			capacity <<= 1;
+		}
+		return capacity;
+	}
+
+	private static int hash(int key) {
+		int h = key * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+}
@@ -0,0 +1,181 @@
+package fr.beapp.utils.collection;
+
+import androidx.annotation.NonNull;
+
+import java.util.Arrays;
+
+/**
+ * Growable array of primitive {@code int} values, avoiding boxing.
+ * <p/>
+ * This class is not thread-safe.
+ */
+public class IntList {
+
+	private static final int[] EMPTY = new int[0];
+
+	private int[] values;
+	private int size;
+
+	public IntList() {
+		values = EMPTY;
+	}
+
+	public IntList(int initialCapacity) {
+		values = initialCapacity > 0 ? new int[initialCapacity] : EMPTY;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public int get(int index) {
+		checkIndex(index);
+		return values[index];
+	}
+
+	/**
+	 * @return the previous value at the given index
+	 */
+	public int set(int index, int value) {
+		checkIndex(index);
+		int previous = values[index];
+		values[index] = value;
+		return previous;
+	}
+
+	public void add(int value) {
+		ensureCapacity(size + 1);
+		values[size++] = value;
+	}
+
+	public void add(int index, int value) {
+		if (index < 0 || index > size)
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+
+		ensureCapacity(size + 1);
+		System.arraycopy(values, index, values, index + 1, size - index);
+		values[index] = value;
+		size++;
+	}
+
+	public void addAll(@NonNull int[] newValues) {
+		ensureCapacity(size + newValues.length);
+		System.arraycopy(newValues, 0, values, size, newValues.length);
+		size += newValues.length;
+	}
+
+	/**
+	 * @return the removed value
+	 */
+	public int removeAt(int index) {
+		checkIndex(index);
+		int removed = values[index];
+		System.arraycopy(values, index + 1, values, index, size - index - 1);
+		size--;
+		return removed;
+	}
+
+	/**
+	 * @return the index of the first occurrence of the value, or -1 if not found
+	 */
+	public int indexOf(int value) {
+		for (int i = 0; i < size; i++) {
+			if (values[i] == value)
+				return i;
+		}
+		return -1;
+	}
+
+	public boolean contains(int value) {
+		return indexOf(value) >= 0;
+	}
+
+	/**
+	 * Sort values in ascending order.
+	 */
+	public void sort() {
+		Arrays.sort(values, 0, size);
+	}
+
+	/**
+	 * Search the value using binary search, the list must be sorted.
+	 *
+	 * @return the index of the value if found, <code>-(insertion point) - 1</code> otherwise
+	 */
+	public int binarySearch(int value) {
+		return Arrays.binarySearch(values, 0, size, value);
+	}
+
+	public void clear() {
+		size = 0;
+	}
+
+	public void ensureCapacity(int capacity) {
+		if (capacity > values.length) {
+			values = Arrays.copyOf(values, Math.max(capacity, Math.max(8, values.length + (values.length >> 1))));
+		}
+	}
+
+	/**
+	 * Reduce the backing array to the exact size of the list.
+	 */
+	public void trimToSize() {
+		if (values.length > size) {
+			values = size == 0 ? EMPTY : Arrays.copyOf(values, size);
+		}
+	}
+
+	@NonNull
+	public int[] toArray() {
+		return Arrays.copyOf(values, size);
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o)
+			return true;
+		if (!(o instanceof IntList))
+			return false;
+
+		IntList other = (IntList) o;
+		if (size != other.size)
+			return false;
+		for (int i = 0; i < size; i++) {
+			if (values[i] != other.values[i])
+				return false;
+		}
+		return true;
+	}
+
+	@Override
+	public int hashCode() {
+		int hash = 1;
+		for (int i = 0; i < size; i++) {
+			hash = 31 * hash + values[i];
+		}
+		return hash;
+	}
+
+	@NonNull
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder("[");
+		for (int i = 0; i < size; i++) {
+			if (i > 0) {
+				builder.append(", ");
+			}
+			builder.append(values[i]);
+		}
+		return builder.append(']').toString();
+	}
+
+	private void checkIndex(int index) {
+		if (index < 0 || index >= size)
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+	}
+
+}
@@ -0,0 +1,747 @@
+package fr.beapp.utils.collection;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+import fr.beapp.logger.Logger;
+import fr.beapp.utils.android.ThreadUtils;
+
+/**
+ * Compute the operations transforming a list into another one, typically to notify a RecyclerView adapter of precise changes
+ * instead of calling <code>notifyDataSetChanged()</code>.
+ * <p/>
+ * Two strategies are available:
+ * <ul>
+ * <li>{@link #calculate(List, List, ItemCallback, boolean)} runs Myers' algorithm in linear space, only relying on item equality</li>
+ * <li>{@link #calculateKeyed(List, List, KeyExtractor, ItemCallback)} matches items through a unique key in a {@link HashMap}, in O(n log n)
+ * whatever the edit distance, and detects moves for free</li>
+ * </ul>
+ * Both can be quite long on large lists and should be run on a background thread, see {@link #calculateAsync(Executor, List, List, ItemCallback, ResultListener)}.
+ */
+public class ListDiff {
+
+	private ListDiff() {
+	}
+
+	/**
+	 * Compare items of the old and new lists
+	 *
+	 * @param <T> the item type
+	 */
+	public interface ItemCallback<T> {
+
+		/**
+		 * @return <code>true</code> if both items represent the same object, even if its content changed
+		 */
+		boolean areItemsTheSame(@Nullable T oldItem, @Nullable T newItem);
+
+		/**
+		 * Only called for items considered the same by {@link #areItemsTheSame(Object, Object)}
+		 *
+		 * @return <code>true</code> if the item content didn't change, <code>false</code> to emit a {@link Operation.Type#CHANGE} operation
+		 */
+		boolean areContentsTheSame(@Nullable T oldItem, @Nullable T newItem);
+
+	}
+
+	/**
+	 * Extract the identity of an item, used as {@link HashMap} key
+	 *
+	 * @param <T> the item type
+	 */
+	public interface KeyExtractor<T> {
+
+		@Nullable
+		Object getKey(@Nullable T item);
+
+	}
+
+	/**
+	 * Receive operations, with the same semantic than RecyclerView's <code>notifyItemRange*</code> methods
+	 */
+	public interface UpdateListener {
+
+		void onInserted(int position, int count);
+
+		void onRemoved(int position, int count);
+
+		void onMoved(int fromPosition, int toPosition);
+
+		void onChanged(int position, int count);
+
+	}
+
+	/**
+	 * Called on main thread once a diff is computed, or failed
+	 */
+	public interface ResultListener {
+
+		@MainThread
+		void onDiffCalculated(@NonNull DiffResult result);
+
+		/**
+		 * @param exception the exception thrown while computing the diff, usually by the {@link ItemCallback} or {@link KeyExtractor}
+		 */
+		@MainThread
+		void onDiffFailed(@NonNull RuntimeException exception);
+
+	}
+
+	/**
+	 * {@link ItemCallback} relying on {@link Object#equals(Object)} for both identity and content
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> ItemCallback<T> equalsCallback() {
+		return (ItemCallback<T>) EQUALS_CALLBACK;
+	}
+
+	private static final ItemCallback<Object> EQUALS_CALLBACK = new ItemCallback<Object>() {
+		@Override
+		public boolean areItemsTheSame(@Nullable Object oldItem, @Nullable Object newItem) {
+			return oldItem == null ? newItem == null : oldItem.equals(newItem);
+		}
+
+		@Override
+		public boolean areContentsTheSame(@Nullable Object oldItem, @Nullable Object newItem) {
+			return true;
+		}
+	};
+
+	/**
+	 * Compute the diff between two lists with Myers' algorithm, using its linear space refinement. Moves are not detected.
+	 *
+	 * @see #calculate(List, List, ItemCallback, boolean)
+	 */
+	@WorkerThread
+	@NonNull
+	public static <T> DiffResult calculate(@NonNull List<T> oldList, @NonNull List<T> newList, @NonNull ItemCallback<? super T> callback) {
+		return calculate(oldList, newList, callback, false);
+	}
+
+	/**
+	 * Compute the diff between two lists with Myers' algorithm, using its linear space refinement.
+	 * <p/>
+	 * Runs in O((N+M)D) time, D being the edit distance, so it stays fast for small changes on large lists.
+	 * Detecting moves compares each removed item to each inserted one, which costs O(D²) more.
+	 *
+	 * @param oldList     the current list
+	 * @param newList     the list to transform into
+	 * @param callback    the callback used to compare items
+	 * @param detectMoves <code>true</code> to pair removed and inserted items as moves
+	 * @return the computed operations
+	 */
+	@WorkerThread
+	@NonNull
+	public static <T> DiffResult calculate(@NonNull List<T> oldList, @NonNull List<T> newList, @NonNull ItemCallback<? super T> callback, boolean detectMoves) {
+		int oldSize = oldList.size();
+		int newSize = newList.size();
+		int[] oldToNew = newUnmatched(oldSize);
+		int[] newToOld = newUnmatched(newSize);
+
+		int max = (oldSize + newSize + 1) / 2;
+		int[] forward = new int[max * 2 + 1];
+		int[] backward = new int[max * 2 + 1];
+
+		List<int[]> ranges = new ArrayList<>();
+		ranges.add(new int[]{0, oldSize, 0, newSize});
+		while (!ranges.isEmpty()) {
+			int[] range = ranges.remove(ranges.size() - 1);
+			int[] snake = midPoint(oldList, newList, callback, range, forward, backward, max);
+			if (snake == null)
+				continue;
+
+			// Diagonal part of the snake: matched items
+			int startX = snake[0];
+			int startY = snake[1];
+			int endX = snake[2];
+			int endY = snake[3];
+			int diagonalSize = Math.min(endX - startX, endY - startY);
+			if (diagonalSize > 0) {
+				int x = startX;
+				int y = startY;
+				if (endY - startY != endX - startX && snake[4] == 0) {
+					if (endY - startY > endX - startX) {
+						y++;
+					} else {
+						x++;
+					}
+				}
+				for (int i = 0; i < diagonalSize; i++) {
+					oldToNew[x + i] = y + i;
+					newToOld[y + i] = x + i;
+				}
+			}
+
+			ranges.add(new int[]{range[0], startX, range[2], startY});
+			ranges.add(new int[]{endX, range[1], endY, range[3]});
+		}
+
+		if (detectMoves) {
+			for (int i = 0; i < oldSize; i++) {
+				if (oldToNew[i] >= 0)
+					continue;
+				for (int j = 0; j < newSize; j++) {
+					if (newToOld[j] < 0 && callback.areItemsTheSame(oldList.get(i), newList.get(j))) {
+						oldToNew[i] = j;
+						newToOld[j] = i;
+						break;
+					}
+				}
+			}
+		}
+
+		return DiffResult.build(oldList, newList, callback, oldToNew, newToOld);
+	}
+
+	/**
+	 * Compute the diff between two lists whose items are identified by a key.
+	 * <p/>
+	 * Old items are indexed in a {@link HashMap} by key, so items are matched in O(N+M) and moves are computed in O(n log n),
+	 * whatever the edit distance. When a key is present several times, occurrences are matched in order.
+	 *
+	 * @param oldList      the current list
+	 * @param newList      the list to transform into
+	 * @param keyExtractor the key of each item
+	 * @param callback     the callback used to compare contents of items sharing the same key, or <code>null</code> to never emit {@link Operation.Type#CHANGE}
+	 * @return the computed operations
+	 */
+	@WorkerThread
+	@NonNull
+	public static <T> DiffResult calculateKeyed(@NonNull List<T> oldList, @NonNull List<T> newList, @NonNull KeyExtractor<? super T> keyExtractor, @Nullable ItemCallback<? super T> callback) {
+		int oldSize = oldList.size();
+		int newSize = newList.size();
+		int[] oldToNew = newUnmatched(oldSize);
+		int[] newToOld = newUnmatched(newSize);
+
+		// Index old items, chaining duplicated keys through nextSameKey
+		Map<Object, Integer> firstIndexes = new HashMap<>((int) (oldSize / 0.75f) + 1);
+		int[] nextSameKey = newUnmatched(oldSize);
+		int[] lastSameKey = new int[oldSize];
+		for (int i = 0; i < oldSize; i++) {
+			Object key = keyExtractor.getKey(oldList.get(i));
+			Integer first = firstIndexes.get(key);
+			if (first == null) {
+				firstIndexes.put(key, i);
+				lastSameKey[i] = i;
+			} else {
+				nextSameKey[lastSameKey[first]] = i;
+				lastSameKey[first] = i;
+			}
+		}
+
+		for (int j = 0; j < newSize; j++) {
+			Object key = keyExtractor.getKey(newList.get(j));
+			Integer first = firstIndexes.get(key);
+			if (first == null)
+				continue;
+
+			int i = first;
+			oldToNew[i] = j;
+			newToOld[j] = i;
+			if (nextSameKey[i] >= 0) {
+				firstIndexes.put(key, nextSameKey[i]);
+			} else {
+				firstIndexes.remove(key);
+			}
+		}
+
+		return DiffResult.build(oldList, newList, callback, oldToNew, newToOld);
+	}
+
+	/**
+	 * Compute the diff with Myers' algorithm on the given executor, then deliver the result on main thread.
+	 *
+	 * @see #calculate(List, List, ItemCallback, boolean)
+	 */
+	public static <T> void calculateAsync(@NonNull Executor executor, @NonNull final List<T> oldList, @NonNull final List<T> newList,
+										  @NonNull final ItemCallback<? super T> callback, @NonNull final ResultListener listener) {
+		executor.execute(new DiffRunnable(listener) {
+			@Override
+			DiffResult calculate() {
+				return ListDiff.calculate(oldList, newList, callback, false);
+			}
+		});
+	}
+
+	/**
+	 * Compute the keyed diff on the given executor, then deliver the result on main thread.
+	 *
+	 * @see #calculateKeyed(List, List, KeyExtractor, ItemCallback)
+	 */
+	public static <T> void calculateKeyedAsync(@NonNull Executor executor, @NonNull final List<T> oldList, @NonNull final List<T> newList,
+											   @NonNull final KeyExtractor<? super T> keyExtractor, @Nullable final ItemCallback<? super T> callback,
+											   @NonNull final ResultListener listener) {
+		executor.execute(new DiffRunnable(listener) {
+			@Override
+			DiffResult calculate() {
+				return ListDiff.calculateKeyed(oldList, newList, keyExtractor, callback);
+			}
+		});
+	}
+
+	private static int[] newUnmatched(int size) {
+		int[] array = new int[size];
+		for (int i = 0; i < size; i++) {
+			array[i] = -1;
+		}
+		return array;
+	}
+
+	/**
+	 * Find the middle snake of the given range, as <code>{startX, startY, endX, endY, reverse}</code>
+	 */
+	@Nullable
+	private static <T> int[] midPoint(List<T> oldList, List<T> newList, ItemCallback<? super T> callback, int[] range, int[] forward, int[] backward, int center) {
+		int oldSize = range[1] - range[0];
+		int newSize = range[3] - range[2];
+		if (oldSize < 1 || newSize < 1)
+			return null;
+
+		int max = (oldSize + newSize + 1) / 2;
+		forward[center + 1] = range[0];
+		backward[center + 1] = range[1];
+		for (int d = 0; d < max; d++) {
+			int[] snake = forward(oldList, newList, callback, range, forward, backward, center, d);
+			if (snake != null)
+				return snake;
+			snake = backward(oldList, newList, callback, range, forward, backward, center, d);
+			if (snake != null)
+				return snake;
+		}
+		return null;
+	}
+
+	@Nullable
+	private static <T> int[] forward(List<T> oldList, List<T> newList, ItemCallback<? super T> callback, int[] range, int[] forward, int[] backward, int center, int d) {
+		int delta = (range[1] - range[0]) - (range[3] - range[2]);
+		boolean checkForSnake = Math.abs(delta) % 2 == 1;
+		for (int k = -d; k <= d; k += 2) {
+			int startX;
+			int x;
+			if (k == -d || (k != d && forward[center + k + 1] > forward[center + k - 1])) {
+				// Moving down: insertion
+				x = startX = forward[center + k + 1];
+			} else {
+				// Moving right: removal
+				startX = forward[center + k - 1];
+				x = startX + 1;
+			}
+			int y = range[2] + (x - range[0]) - k;
+			int startY = (d == 0 || x != startX) ? y : y - 1;
+			while (x < range[1] && y < range[3] && callback.areItemsTheSame(oldList.get(x), newList.get(y))) {
+				x++;
+				y++;
+			}
+			forward[center + k] = x;
+
+			if (checkForSnake) {
+				int backwardK = delta - k;
+				if (backwardK >= -d + 1 && backwardK <= d - 1 && backward[center + backwardK] <= x)
+					return new int[]{startX, startY, x, y, 0};
+			}
+		}
+		return null;
+	}
+
+	@Nullable
+	private static <T> int[] backward(List<T> oldList, List<T> newList, ItemCallback<? super T> callback, int[] range, int[] forward, int[] backward, int center, int d) {
+		int delta = (range[1] - range[0]) - (range[3] - range[2]);
+		boolean checkForSnake = delta % 2 == 0;
+		for (int k = -d; k <= d; k += 2) {
+			int startX;
+			int x;
+			if (k == -d || (k != d && backward[center + k + 1] < backward[center + k - 1])) {
+				// Moving up: insertion
+				x = startX = backward[center + k + 1];
+			} else {
+				// Moving left: removal
+				startX = backward[center + k - 1];
+				x = startX - 1;
+			}
+			int y = range[3] - ((range[1] - x) - k);
+			int startY = (d == 0 || x != startX) ? y : y + 1;
+			while (x > range[0] && y > range[2] && callback.areItemsTheSame(oldList.get(x - 1), newList.get(y - 1))) {
+				x--;
+				y--;
+			}
+			backward[center + k] = x;
+
+			if (checkForSnake) {
+				int forwardK = delta - k;
+				if (forwardK >= -d && forwardK <= d && forward[center + forwardK] >= x)
+					return new int[]{x, y, startX, startY, 1};
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Compute the diff on a background thread, then deliver it on main thread with {@link ThreadUtils}
+	 */
+	private abstract static class DiffRunnable implements Runnable {
+
+		private final ResultListener listener;
+
+		DiffRunnable(@NonNull ResultListener listener) {
+			this.listener = listener;
+		}
+
+		abstract DiffResult calculate();
+
+		@Override
+		public void run() {
+			final DiffResult result;
+			try {
+				result = calculate();
+			} catch (final RuntimeException e) {
+				Logger.error("Can't calculate list diff", e);
+				ThreadUtils.runOnUiThread(new Runnable() {
+					@Override
+					public void run() {
+						listener.onDiffFailed(e);
+					}
+				});
+				return;
+			}
+
+			ThreadUtils.runOnUiThread(new Runnable() {
+				@Override
+				public void run() {
+					listener.onDiffCalculated(result);
+				}
+			});
+		}
+	}
+
+	/**
+	 * Single update of the list
+	 */
+	public static class Operation {
+
+		public enum Type {
+			INSERT,
+			REMOVE,
+			MOVE,
+			CHANGE
+		}
+
+		private final Type type;
+		private final int position;
+		private final int count;
+		private final int toPosition;
+
+		Operation(@NonNull Type type, int position, int count, int toPosition) {
+			this.type = type;
+			this.position = position;
+			this.count = count;
+			this.toPosition = toPosition;
+		}
+
+		@NonNull
+		public Type getType() {
+			return type;
+		}
+
+		/**
+		 * @return the first position affected, or the origin position for {@link Type#MOVE}
+		 */
+		public int getPosition() {
+			return position;
+		}
+
+		/**
+		 * @return the number of items affected, always 1 for {@link Type#MOVE}
+		 */
+		public int getCount() {
+			return count;
+		}
+
+		/**
+		 * @return the destination position for {@link Type#MOVE}, -1 otherwise
+		 */
+		public int getToPosition() {
+			return toPosition;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) return true;
+			if (o == null || getClass() != o.getClass()) return false;
+
+			Operation operation = (Operation) o;
+			return type == operation.type && position == operation.position && count == operation.count && toPosition == operation.toPosition;
+		}
+
+		@Override
+		public int hashCode() {
+			int result = type.hashCode();
+			result = 31 * result + position;
+			result = 31 * result + count;
+			result = 31 * result + toPosition;
+			return result;
+		}
+
+		@Override
+		public String toString() {
+			return type == Type.MOVE ? type + "(" + position + " -> " + toPosition + ")" : type + "(" + position + ", " + count + ")";
+		}
+	}
+
+	/**
+	 * Ordered operations transforming the old list into the new one. Each operation position takes into account the previous operations,
+	 * so they can be dispatched as is to an adapter.
+	 * <p/>
+	 * Removals are emitted first, from the end of the list, then moves, insertions and finally changes.
+	 */
+	public static class DiffResult {
+
+		private final List<Operation> operations;
+
+		DiffResult(@NonNull List<Operation> operations) {
+			this.operations = Collections.unmodifiableList(operations);
+		}
+
+		@NonNull
+		public List<Operation> getOperations() {
+			return operations;
+		}
+
+		/**
+		 * Dispatch all operations to the given listener, such as an adapter wrapper
+		 *
+		 * @param listener the listener to notify
+		 */
+		@MainThread
+		public void dispatchTo(@NonNull UpdateListener listener) {
+			for (int i = 0, size = operations.size(); i < size; i++) {
+				Operation operation = operations.get(i);
+				switch (operation.type) {
+					case INSERT:
+						listener.onInserted(operation.position, operation.count);
+						break;
+					case REMOVE:
+						listener.onRemoved(operation.position, operation.count);
+						break;
+					case MOVE:
+						listener.onMoved(operation.position, operation.toPosition);
+						break;
+					case CHANGE:
+						listener.onChanged(operation.position, operation.count);
+						break;
+				}
+			}
+		}
+
+		/**
+		 * Build operations from the matching between old and new items.
+		 * <p/>
+		 * Matched items in the longest increasing subsequence of new positions stay in place, the others are moved right after their predecessor
+		 * in the new list. The current position of each item is tracked in a Fenwick tree over slots, each slot being either the initial place of an item
+		 * or the place right after an item staying in place.
+		 */
+		@NonNull
+		static <T> DiffResult build(List<T> oldList, List<T> newList, @Nullable ItemCallback<? super T> callback, int[] oldToNew, int[] newToOld) {
+			List<Operation> operations = new ArrayList<>();
+			int oldSize = oldToNew.length;
+			int newSize = newToOld.length;
+
+			// Removals, from the end so positions are not shifted
+			for (int i = oldSize - 1; i >= 0; ) {
+				if (oldToNew[i] >= 0) {
+					i--;
+					continue;
+				}
+				int end = i;
+				while (i >= 0 && oldToNew[i] < 0) {
+					i--;
+				}
+				operations.add(new Operation(Operation.Type.REMOVE, i + 1, end - i, -1));
+			}
+
+			addMoves(operations, oldToNew, newToOld);
+
+			// Insertions, from the start as all previous items are already in place
+			for (int j = 0; j < newSize; ) {
+				if (newToOld[j] >= 0) {
+					j++;
+					continue;
+				}
+				int start = j;
+				while (j < newSize && newToOld[j] < 0) {
+					j++;
+				}
+				operations.add(new Operation(Operation.Type.INSERT, start, j - start, -1));
+			}
+
+			if (callback != null) {
+				for (int j = 0; j < newSize; ) {
+					if (!isChanged(oldList, newList, callback, newToOld, j)) {
+						j++;
+						continue;
+					}
+					int start = j;
+					while (j < newSize && isChanged(oldList, newList, callback, newToOld, j)) {
+						j++;
+					}
+					operations.add(new Operation(Operation.Type.CHANGE, start, j - start, -1));
+				}
+			}
+
+			return new DiffResult(operations);
+		}
+
+		private static <T> boolean isChanged(List<T> oldList, List<T> newList, ItemCallback<? super T> callback, int[] newToOld, int newPosition) {
+			int oldPosition = newToOld[newPosition];
+			return oldPosition >= 0 && !callback.areContentsTheSame(oldList.get(oldPosition), newList.get(newPosition));
+		}
+
+		private static void addMoves(List<Operation> operations, int[] oldToNew, int[] newToOld) {
+			// Ranks of matched items, in old order (oldRank) and in new order (newRank)
+			int matchedCount = 0;
+			int[] newRankOfNew = new int[newToOld.length];
+			for (int j = 0; j < newToOld.length; j++) {
+				if (newToOld[j] >= 0) {
+					newRankOfNew[j] = matchedCount++;
+				}
+			}
+			if (matchedCount == 0)
+				return;
+
+			int[] newRanks = new int[matchedCount];
+			int[] oldRankAt = new int[matchedCount];
+			for (int i = 0, oldRank = 0; i < oldToNew.length; i++) {
+				if (oldToNew[i] >= 0) {
+					int newRank = newRankOfNew[oldToNew[i]];
+					newRanks[oldRank] = newRank;
+					oldRankAt[newRank] = oldRank;
+					oldRank++;
+				}
+			}
+
+			boolean[] stable = longestIncreasingSubsequence(newRanks);
+
+			// Count items moved after each stable item (or at the start, with anchor -1)
+			int[] chainSizes = new int[matchedCount + 1];
+			int[] chainIndexes = new int[matchedCount];
+			int[] anchors = new int[matchedCount];
+			int movedCount = 0;
+			int anchor = -1;
+			for (int newRank = 0; newRank < matchedCount; newRank++) {
+				int oldRank = oldRankAt[newRank];
+				if (stable[oldRank]) {
+					anchor = oldRank;
+				} else {
+					anchors[oldRank] = anchor;
+					chainIndexes[oldRank] = ++chainSizes[anchor + 1];
+					movedCount++;
+				}
+			}
+			if (movedCount == 0)
+				return;
+
+			// Slot layout: moved items anchored at start, then for each item its initial slot followed by items moved after it
+			int[] baseSlots = new int[matchedCount + 1];
+			int slot = 0;
+			for (int a = -1; a < matchedCount; a++) {
+				baseSlots[a + 1] = slot;
+				slot += (a >= 0 ? 1 : 0) + chainSizes[a + 1];
+			}
+
+			FenwickTree tree = new FenwickTree(slot);
+			for (int oldRank = 0; oldRank < matchedCount; oldRank++) {
+				tree.add(baseSlots[oldRank + 1], 1);
+			}
+
+			for (int newRank = 0; newRank < matchedCount; newRank++) {
+				int oldRank = oldRankAt[newRank];
+				if (stable[oldRank])
+					continue;
+
+				int initialSlot = baseSlots[oldRank + 1];
+				int fromPosition = tree.prefixSum(initialSlot);
+				tree.add(initialSlot, -1);
+
+				int targetAnchor = anchors[oldRank];
+				int targetSlot = baseSlots[targetAnchor + 1] + chainIndexes[oldRank] - (targetAnchor >= 0 ? 0 : 1);
+				int toPosition = tree.prefixSum(targetSlot);
+				tree.add(targetSlot, 1);
+
+				if (fromPosition != toPosition) {
+					operations.add(new Operation(Operation.Type.MOVE, fromPosition, 1, toPosition));
+				}
+			}
+		}
+
+		/**
+		 * @return for each index, whether it belongs to a longest increasing subsequence of the given distinct values
+		 */
+		private static boolean[] longestIncreasingSubsequence(int[] values) {
+			int length = values.length;
+			int[] tails = new int[length];
+			int[] previous = new int[length];
+			int tailCount = 0;
+			for (int i = 0; i < length; i++) {
+				int low = 0;
+				int high = tailCount;
+				while (low < high) {
+					int mid = (low + high) >>> 1;
+					if (values[tails[mid]] < values[i]) {
+						low = mid + 1;
+					} else {
+						high = mid;
+					}
+				}
+				previous[i] = low > 0 ? tails[low - 1] : -1;
+				tails[low] = i;
+				if (low == tailCount) {
+					tailCount++;
+				}
+			}
+
+			boolean[] result = new boolean[length];
+			for (int i = tailCount > 0 ? tails[tailCount - 1] : -1; i >= 0; i = previous[i]) {
+				result[i] = true;
+			}
+			return result;
+		}
+	}
+
+	/**
+	 * Binary indexed tree counting items before a slot
+	 */
+	private static class FenwickTree {
+
+		private final int[] tree;
+
+		FenwickTree(int size) {
+			tree = new int[size + 1];
+		}
+
+		void add(int index, int delta) {
+			for (int i = index + 1; i < tree.length; i += i & -i) {
+				tree[i] += delta;
+			}
+		}
+
+		/**
+		 * @return the sum of values strictly before the given index
+		 */
+		int prefixSum(int index) {
+			int sum = 0;
+			for (int i = index; i > 0; i -= i & -i) {
+				sum += tree[i];
+			}
+			return sum;
+		}
+	}
+
+}
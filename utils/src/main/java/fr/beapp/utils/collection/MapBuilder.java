@@ -1,5 +1,6 @@
 package fr.beapp.utils.collection;
 
+import androidx.annotation.NonNull;
 
 import java.util.HashMap;
 
@@ -16,4 +17,12 @@ public class MapBuilder<K, V> extends HashMap<K, V> {
 		return this;
 	}
 
+	/**
+	 * @return an immutable persistent copy of this map
+	 */
+	@NonNull
+	public PersistentHashMap<K, V> toPersistent() {
+		return PersistentHashMap.from(this);
+	}
+
 }
@@ -1,31 +1,93 @@
 package fr.beapp.utils.collection;
 
+import android.annotation.TargetApi;
+import android.os.Build;
+
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
+import java.io.Serializable;
+import java.util.AbstractCollection;
+import java.util.AbstractList;
+import java.util.AbstractSet;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
-import java.util.LinkedList;
+import java.util.Iterator;
 import java.util.List;
-import java.util.TreeSet;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 
 /**
  * Extension of {@link HashMap} class to work with {@link List} as values.
+ * <p/>
+ * Values are stored in array-based buckets, created according to the map {@link BucketStrategy}. The total number of values is maintained
+ * as buckets are modified, so {@link #fullSize()} doesn't need to iterate over all entries, and the sorted keys used by
+ * {@link #getAllValues(Comparator)} are cached until keys are added or removed.
+ * <p/>
+ * To keep them accurate, every change goes through {@link #put(Object, List)} or {@link #remove(Object)}, including the ones made with
+ * the default {@link Map} methods, like {@link #putIfAbsent(Object, List)} or {@link #compute(Object, BiFunction)}, and through the
+ * {@link #keySet()}, {@link #values()} and {@link #entrySet()} views.
+ * <p/>
+ * Unlike a plain {@link HashMap}, this map owns its lists: {@link #put(Object, List)} copies the given values, so later changes to the given list
+ * are not reflected in this map. Lists returned by {@link #get(Object)} are the stored ones and can be modified.
  *
  * @param <K> the key type
  * @param <V> the value type
  */
 public class MultiValueMap<K, V> extends HashMap<K, List<V>> {
 
+	/**
+	 * How values lists are stored for each key
+	 */
+	public enum BucketStrategy {
+		/**
+		 * Values are stored in an {@link ArrayList}
+		 */
+		ARRAY_LIST,
+		/**
+		 * Up to 2 values are stored inline in the bucket, then an {@link ArrayList} is allocated. Best suited when most keys have only 1 or 2 values.
+		 */
+		COMPACT
+	}
+
+	private final BucketStrategy bucketStrategy;
+
+	private int fullSize;
+
+	private transient int keysVersion;
+	private transient Set<K> keySet;
+	private transient Collection<List<V>> values;
+	private transient Set<Entry<K, List<V>>> entrySet;
+	private transient List<K> sortedKeys;
+	private transient Comparator<K> sortedKeysComparator;
+	private transient int sortedKeysVersion;
+
+	public MultiValueMap() {
+		this(BucketStrategy.ARRAY_LIST);
+	}
+
+	public MultiValueMap(@NonNull BucketStrategy bucketStrategy) {
+		this.bucketStrategy = bucketStrategy;
+	}
+
 	public static <K, V> MultiValueMap<K, V> build() {
 		return new MultiValueMap<>();
 	}
 
+	public static <K, V> MultiValueMap<K, V> build(@NonNull BucketStrategy bucketStrategy) {
+		return new MultiValueMap<>(bucketStrategy);
+	}
+
 	/**
 	 * Add a new value at the given key.
 	 * <p/>
-	 * If no entry was previously added for this key, a new {@link LinkedList} will be prepare to hold the value
+	 * If no entry was previously added for this key, a new bucket will be prepare to hold the value
 	 *
 	 * @param key   key with which the specified value is to be associated
 	 * @param value value to be associated with the specified key
@@ -33,12 +95,7 @@ public class MultiValueMap<K, V> extends HashMap<K, List<V>> {
 	 */
 	@NonNull
 	public MultiValueMap<K, V> add(@Nullable K key, @Nullable V value) {
-		List<V> values = get(key);
-		if (values == null && key != null) {
-			values = new LinkedList<>();
-			put(key, values);
-		}
-
+		List<V> values = getOrCreate(key);
 		if (values != null) {
 			values.add(value);
 		}
@@ -48,7 +105,7 @@ public class MultiValueMap<K, V> extends HashMap<K, List<V>> {
 	/**
 	 * Add a new value at a specific index in the list at the given key.
 	 * <p/>
-	 * If no entry was previously added for this key, a new {@link LinkedList} will be prepare to hold the value
+	 * If no entry was previously added for this key, a new bucket will be prepare to hold the value
 	 *
 	 * @param key   key with which the specified value is to be associated
 	 * @param index index at which the specified element is to be inserted
@@ -57,23 +114,206 @@ public class MultiValueMap<K, V> extends HashMap<K, List<V>> {
 	 */
 	@NonNull
 	public MultiValueMap<K, V> add(@Nullable K key, int index, @Nullable V value) {
-		List<V> values = get(key);
-		if (values == null && key != null) {
-			values = new LinkedList<>();
-			put(key, values);
-		}
-
+		List<V> values = getOrCreate(key);
 		if (values != null) {
 			values.add(index, value);
 		}
-
 		return this;
 	}
 
+	/**
+	 * Associate the given values to the key.
+	 * <p/>
+	 * Values are copied into a bucket owned by this map, so later changes to the given list are not reflected.
+	 */
 	@Nullable
 	@Override
 	public List<V> put(@NonNull K key, @Nullable List<V> value) {
-		return super.put(key, value);
+		List<V> current = super.get(key);
+		if (value != null && value == current)
+			return current;
+
+		Bucket bucket = null;
+		if (value != null) {
+			bucket = new Bucket();
+			bucket.addAll(value);
+		}
+
+		boolean newKey = !containsKey(key);
+		List<V> previous = super.put(key, bucket);
+		detach(previous);
+		if (newKey) {
+			keysVersion++;
+		}
+		return previous;
+	}
+
+	/**
+	 * @return a copy of this map, with copies of its lists
+	 */
+	@SuppressWarnings("unchecked")
+	@NonNull
+	@Override
+	public MultiValueMap<K, V> clone() {
+		MultiValueMap<K, V> clone = (MultiValueMap<K, V>) super.clone();
+		clone.copyBuckets();
+		return clone;
+	}
+
+	@Override
+	public void putAll(Map<? extends K, ? extends List<V>> map) {
+		for (Entry<? extends K, ? extends List<V>> entry : map.entrySet()) {
+			put(entry.getKey(), entry.getValue());
+		}
+	}
+
+	@Nullable
+	@Override
+	public List<V> remove(@Nullable Object key) {
+		boolean existingKey = containsKey(key);
+		List<V> removed = super.remove(key);
+		detach(removed);
+		if (existingKey) {
+			keysVersion++;
+		}
+		return removed;
+	}
+
+	@TargetApi(Build.VERSION_CODES.N)
+	@Override
+	public boolean remove(@Nullable Object key, @Nullable Object value) {
+		List<V> current = get(key);
+		if (!containsKey(key) || (current == null ? value != null : !current.equals(value)))
+			return false;
+
+		remove(key);
+		return true;
+	}
+
+	@TargetApi(Build.VERSION_CODES.N)
+	@Nullable
+	@Override
+	public List<V> putIfAbsent(@NonNull K key, @Nullable List<V> value) {
+		List<V> current = get(key);
+		if (current == null) {
+			put(key, value);
+		}
+		return current;
+	}
+
+	@TargetApi(Build.VERSION_CODES.N)
+	@Nullable
+	@Override
+	public List<V> replace(@NonNull K key, @Nullable List<V> value) {
+		if (!containsKey(key))
+			return null;
+		return put(key, value);
+	}
+
+	@TargetApi(Build.VERSION_CODES.N)
+	@Override
+	public boolean replace(@NonNull K key, @Nullable List<V> oldValue, @Nullable List<V> newValue) {
+		List<V> current = get(key);
+		if (!containsKey(key) || (current == null ? oldValue != null : !current.equals(oldValue)))
+			return false;
+
+		put(key, newValue);
+		return true;
+	}
+
+	@TargetApi(Build.VERSION_CODES.N)
+	@Nullable
+	@Override
+	public List<V> computeIfAbsent(@NonNull K key, @NonNull Function<? super K, ? extends List<V>> mappingFunction) {
+		List<V> current = get(key);
+		if (current != null)
+			return current;
+
+		List<V> value = mappingFunction.apply(key);
+		if (value == null)
+			return null;
+		put(key, value);
+		return get(key);
+	}
+
+	@TargetApi(Build.VERSION_CODES.N)
+	@Nullable
+	@Override
+	public List<V> computeIfPresent(@NonNull K key, @NonNull BiFunction<? super K, ? super List<V>, ? extends List<V>> remappingFunction) {
+		List<V> current = get(key);
+		if (current == null)
+			return null;
+
+		return update(key, remappingFunction.apply(key, current));
+	}
+
+	@TargetApi(Build.VERSION_CODES.N)
+	@Nullable
+	@Override
+	public List<V> compute(@NonNull K key, @NonNull BiFunction<? super K, ? super List<V>, ? extends List<V>> remappingFunction) {
+		return update(key, remappingFunction.apply(key, get(key)));
+	}
+
+	@TargetApi(Build.VERSION_CODES.N)
+	@Nullable
+	@Override
+	public List<V> merge(@NonNull K key, @NonNull List<V> value, @NonNull BiFunction<? super List<V>, ? super List<V>, ? extends List<V>> remappingFunction) {
+		List<V> current = get(key);
+		return update(key, current == null ? value : remappingFunction.apply(current, value));
+	}
+
+	@TargetApi(Build.VERSION_CODES.N)
+	@Override
+	public void replaceAll(@NonNull BiFunction<? super K, ? super List<V>, ? extends List<V>> function) {
+		for (Entry<K, List<V>> entry : entrySet()) {
+			entry.setValue(function.apply(entry.getKey(), entry.getValue()));
+		}
+	}
+
+	/**
+	 * Keys view, removing keys through {@link #remove(Object)}
+	 */
+	@NonNull
+	@Override
+	public Set<K> keySet() {
+		if (keySet == null) {
+			keySet = new KeySet();
+		}
+		return keySet;
+	}
+
+	/**
+	 * Values view, removing values through {@link #remove(Object)}
+	 */
+	@NonNull
+	@Override
+	public Collection<List<V>> values() {
+		if (values == null) {
+			values = new Values();
+		}
+		return values;
+	}
+
+	/**
+	 * Entries view, removing entries through {@link #remove(Object)} and setting their values through {@link #put(Object, List)}
+	 */
+	@NonNull
+	@Override
+	public Set<Entry<K, List<V>>> entrySet() {
+		if (entrySet == null) {
+			entrySet = new EntrySet();
+		}
+		return entrySet;
+	}
+
+	@Override
+	public void clear() {
+		for (List<V> values : values()) {
+			markDetached(values);
+		}
+		super.clear();
+		fullSize = 0;
+		keysVersion++;
 	}
 
 	/**
@@ -117,7 +357,7 @@ public class MultiValueMap<K, V> extends HashMap<K, List<V>> {
 	@Nullable
 	public V get(@Nullable K key, int index) {
 		List<V> values = get(key);
-		if (values == null || index < 0 || index > values.size())
+		if (values == null || index < 0 || index >= values.size())
 			return null;
 		return values.get(index);
 	}
@@ -166,12 +406,11 @@ public class MultiValueMap<K, V> extends HashMap<K, List<V>> {
 	 */
 	@NonNull
 	public List<V> getAllValues(@Nullable Comparator<K> keyComparator) {
-		TreeSet<K> orderedKeys = new TreeSet<>(keyComparator);
-		orderedKeys.addAll(keySet());
+		List<K> orderedKeys = sortedKeys(keyComparator);
 
 		List<V> allValues = new ArrayList<>(fullSize());
-		for (K key : orderedKeys) {
-			List<V> values = get(key);
+		for (int i = 0, size = orderedKeys.size(); i < size; i++) {
+			List<V> values = get(orderedKeys.get(i));
 			if (values != null) {
 				allValues.addAll(values);
 			}
@@ -196,11 +435,399 @@ public class MultiValueMap<K, V> extends HashMap<K, List<V>> {
 	 * @return size of all key's lists
 	 */
 	public int fullSize() {
-		int count = 0;
-		for (Entry<K, List<V>> entry : entrySet()) {
-			count += size(entry.getKey());
+		return fullSize;
+	}
+
+	/**
+	 * @return an immutable persistent copy of this map
+	 */
+	@NonNull
+	public PersistentHashMap<K, PersistentVector<V>> toPersistent() {
+		return PersistentHashMap.fromMultiValues(this);
+	}
+
+	@NonNull
+	public BucketStrategy getBucketStrategy() {
+		return bucketStrategy;
+	}
+
+	@Nullable
+	private List<V> getOrCreate(@Nullable K key) {
+		List<V> values = get(key);
+		if (values == null && key != null) {
+			values = new Bucket();
+			super.put(key, values);
+			keysVersion++;
+		}
+		return values;
+	}
+
+	/**
+	 * Replace the buckets shared with the cloned map by buckets owned by this map, and reset the views bound to the cloned map
+	 */
+	private void copyBuckets() {
+		keySet = null;
+		values = null;
+		entrySet = null;
+		sortedKeys = null;
+		fullSize = 0;
+		for (Entry<K, List<V>> entry : super.entrySet()) {
+			if (entry.getValue() != null) {
+				Bucket bucket = new Bucket();
+				bucket.addAll(entry.getValue());
+				entry.setValue(bucket);
+			}
+		}
+	}
+
+	@Nullable
+	private List<V> update(@NonNull K key, @Nullable List<V> value) {
+		if (value == null) {
+			remove(key);
+			return null;
+		}
+		put(key, value);
+		return get(key);
+	}
+
+	private void detach(@Nullable List<V> values) {
+		if (values != null) {
+			markDetached(values);
+			fullSize -= values.size();
+		}
+	}
+
+	/**
+	 * Stop counting the changes of the given bucket in {@link #fullSize()}, once removed from this map
+	 */
+	private static void markDetached(@Nullable List<?> values) {
+		if (values instanceof MultiValueMap<?, ?>.Bucket) {
+			((MultiValueMap<?, ?>.Bucket) values).attached = false;
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	@NonNull
+	private List<K> sortedKeys(@Nullable final Comparator<K> keyComparator) {
+		if (sortedKeys == null || sortedKeysVersion != keysVersion || sortedKeysComparator != keyComparator) {
+			List<K> keys = new ArrayList<>(keySet());
+			if (keyComparator != null) {
+				Collections.sort(keys, keyComparator);
+			} else {
+				Collections.sort((List<Comparable<Object>>) keys);
+			}
+			sortedKeys = keys;
+			sortedKeysComparator = keyComparator;
+			sortedKeysVersion = keysVersion;
+		}
+		return sortedKeys;
+	}
+
+	/**
+	 * Iterator over the entries of the underlying map, detaching the bucket of removed entries
+	 */
+	private abstract class ViewIterator<E> implements Iterator<E> {
+
+		private final Iterator<Entry<K, List<V>>> iterator = MultiValueMap.super.entrySet().iterator();
+		@Nullable
+		private Entry<K, List<V>> lastEntry;
+
+		@Override
+		public boolean hasNext() {
+			return iterator.hasNext();
+		}
+
+		@Override
+		public E next() {
+			lastEntry = iterator.next();
+			return get(lastEntry);
+		}
+
+		@Override
+		public void remove() {
+			if (lastEntry == null)
+				throw new IllegalStateException();
+			List<V> removed = lastEntry.getValue();
+			iterator.remove();
+			detach(removed);
+			keysVersion++;
+			lastEntry = null;
+		}
+
+		abstract E get(@NonNull Entry<K, List<V>> entry);
+	}
+
+	private class KeySet extends AbstractSet<K> {
+
+		@NonNull
+		@Override
+		public Iterator<K> iterator() {
+			return new ViewIterator<K>() {
+				@Override
+				K get(@NonNull Entry<K, List<V>> entry) {
+					return entry.getKey();
+				}
+			};
+		}
+
+		@Override
+		public int size() {
+			return MultiValueMap.this.size();
+		}
+
+		@Override
+		public boolean contains(Object key) {
+			return containsKey(key);
+		}
+
+		@Override
+		public boolean remove(Object key) {
+			if (!containsKey(key))
+				return false;
+			MultiValueMap.this.remove(key);
+			return true;
+		}
+
+		@Override
+		public void clear() {
+			MultiValueMap.this.clear();
+		}
+	}
+
+	private class Values extends AbstractCollection<List<V>> {
+
+		@NonNull
+		@Override
+		public Iterator<List<V>> iterator() {
+			return new ViewIterator<List<V>>() {
+				@Override
+				List<V> get(@NonNull Entry<K, List<V>> entry) {
+					return entry.getValue();
+				}
+			};
+		}
+
+		@Override
+		public int size() {
+			return MultiValueMap.this.size();
+		}
+
+		@Override
+		public boolean contains(Object value) {
+			return containsValue(value);
+		}
+
+		@Override
+		public void clear() {
+			MultiValueMap.this.clear();
+		}
+	}
+
+	private class EntrySet extends AbstractSet<Entry<K, List<V>>> {
+
+		@NonNull
+		@Override
+		public Iterator<Entry<K, List<V>>> iterator() {
+			return new ViewIterator<Entry<K, List<V>>>() {
+				@Override
+				Entry<K, List<V>> get(@NonNull Entry<K, List<V>> entry) {
+					return new ViewEntry(entry);
+				}
+			};
+		}
+
+		@Override
+		public int size() {
+			return MultiValueMap.this.size();
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			if (!(o instanceof Entry))
+				return false;
+			Entry<?, ?> entry = (Entry<?, ?>) o;
+			List<V> value = get(entry.getKey());
+			return containsKey(entry.getKey()) && (value == null ? entry.getValue() == null : value.equals(entry.getValue()));
+		}
+
+		@Override
+		public boolean remove(Object o) {
+			if (!contains(o))
+				return false;
+			MultiValueMap.this.remove(((Entry<?, ?>) o).getKey());
+			return true;
+		}
+
+		@Override
+		public void clear() {
+			MultiValueMap.this.clear();
+		}
+	}
+
+	/**
+	 * Entry of the underlying map, setting its value through {@link #put(Object, List)}
+	 */
+	private class ViewEntry implements Entry<K, List<V>> {
+
+		private final Entry<K, List<V>> entry;
+
+		ViewEntry(@NonNull Entry<K, List<V>> entry) {
+			this.entry = entry;
+		}
+
+		@Override
+		public K getKey() {
+			return entry.getKey();
+		}
+
+		@Override
+		public List<V> getValue() {
+			return entry.getValue();
+		}
+
+		@Override
+		public List<V> setValue(List<V> value) {
+			return put(entry.getKey(), value);
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			return entry.equals(o);
+		}
+
+		@Override
+		public int hashCode() {
+			return entry.hashCode();
+		}
+
+		@Override
+		public String toString() {
+			return entry.toString();
+		}
+	}
+
+	/**
+	 * List of values for a key, reporting its size changes to the owning map
+	 */
+	private class Bucket extends AbstractList<V> implements RandomAccess, Serializable {
+
+		private boolean attached = true;
+		private int size;
+		private V first;
+		private V second;
+		private ArrayList<V> overflow;
+
+		Bucket() {
+			if (bucketStrategy == BucketStrategy.ARRAY_LIST) {
+				overflow = new ArrayList<>();
+			}
+		}
+
+		@Override
+		public V get(int index) {
+			checkIndex(index, size);
+			if (overflow != null)
+				return overflow.get(index);
+			return index == 0 ? first : second;
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+
+		@Override
+		public V set(int index, V element) {
+			checkIndex(index, size);
+			if (overflow != null)
+				return overflow.set(index, element);
+
+			V previous;
+			if (index == 0) {
+				previous = first;
+				first = element;
+			} else {
+				previous = second;
+				second = element;
+			}
+			return previous;
+		}
+
+		@Override
+		public void add(int index, V element) {
+			checkIndex(index, size + 1);
+			if (overflow == null && size == 2) {
+				overflow = new ArrayList<>(4);
+				overflow.add(first);
+				overflow.add(second);
+				first = null;
+				second = null;
+			}
+
+			if (overflow != null) {
+				overflow.add(index, element);
+			} else if (index == 0) {
+				second = first;
+				first = element;
+			} else {
+				second = element;
+			}
+			sizeChanged(1);
+			modCount++;
+		}
+
+		@Override
+		public V remove(int index) {
+			checkIndex(index, size);
+			V removed;
+			if (overflow != null) {
+				removed = overflow.remove(index);
+			} else if (index == 0) {
+				removed = first;
+				first = second;
+				second = null;
+			} else {
+				removed = second;
+				second = null;
+			}
+			sizeChanged(-1);
+			modCount++;
+			return removed;
+		}
+
+		@Override
+		public void clear() {
+			if (overflow != null) {
+				overflow.clear();
+			}
+			first = null;
+			second = null;
+			sizeChanged(-size);
+			modCount++;
+		}
+
+		@Override
+		public boolean addAll(Collection<? extends V> values) {
+			if (overflow != null) {
+				overflow.addAll(values);
+				sizeChanged(values.size());
+				modCount++;
+				return !values.isEmpty();
+			}
+			return super.addAll(values);
+		}
+
+		private void sizeChanged(int delta) {
+			size += delta;
+			if (attached) {
+				fullSize += delta;
+			}
+		}
+
+		private void checkIndex(int index, int bound) {
+			if (index < 0 || index >= bound)
+				throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
 		}
-		return count;
 	}
 
-}
\ No newline at end of file
+}
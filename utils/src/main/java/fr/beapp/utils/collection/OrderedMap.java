@@ -7,63 +7,127 @@ import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 
+/**
+ * Extension of {@link HashMap} keeping track of keys insertion order, with positional access.
+ * <p/>
+ * Keys are kept in an array of slots, removed keys leaving an empty slot, and a Fenwick tree counts the keys left in the slots.
+ * While no slot is empty, positional reads and {@link #indexOfKey(Object)} are constant time; after removals, they are logarithmic until empty
+ * slots are compacted, which happens once they outnumber keys. Removals are thus logarithmic, amortized, while inserting at a given position
+ * shifts the following keys and is linear.
+ * <p/>
+ * Reads don't modify the map, so it can be read from several threads once filled. This class is not thread-safe for writes.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
 public class OrderedMap<K, V> extends HashMap<K, V> {
 
-	private final List<K> keys = new LinkedList<>();
+	private static final Object REMOVED = new Object();
+
+	private Object[] slots;
+	private int slotCount;
+	private int removedCount;
+
+	/**
+	 * Slot of each key
+	 */
+	private HashMap<Object, Integer> keySlots;
+
+	/**
+	 * Fenwick tree over slots, 1-based, counting the keys left in each range of slots.
+	 * While no slot is removed, each node holds the size of its range, its lowest one bit.
+	 */
+	private int[] tree;
+
+	public OrderedMap() {
+		this(16);
+	}
+
+	public OrderedMap(int initialCapacity) {
+		super(initialCapacity);
+		init(initialCapacity);
+	}
+
+	private void init(int capacity) {
+		slots = new Object[Math.max(8, capacity)];
+		tree = new int[slots.length + 1];
+		slotCount = 0;
+		removedCount = 0;
+		keySlots = new HashMap<>(Math.max(16, capacity));
+	}
 
 	private void writeObject(ObjectOutputStream out) throws IOException {
-		out.writeInt(keys.size());
-		for (K key : keys) {
-			out.writeObject(key);
+		out.writeInt(size());
+		for (int i = 0; i < slotCount; i++) {
+			if (slots[i] != REMOVED) {
+				out.writeObject(slots[i]);
+			}
 		}
 	}
 
 	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
 		int size = in.readInt();
+		init(size);
 		for (int i = 0; i < size; i++) {
-			keys.add((K) in.readObject());
+			append(in.readObject());
 		}
 	}
 
 	@Override
 	public V put(@NonNull K key, @Nullable V value) {
-		return put(size(), key, value);
+		if (containsKey(key))
+			return super.put(key, value);
+
+		append(key);
+		super.put(key, value);
+		return null;
 	}
 
 	@Nullable
 	public V put(int index, @NonNull K key, @Nullable V value) {
-		V previous = super.put(key, value);
-		if (previous == null) {
-			keys.add(index, key);
+		if (containsKey(key))
+			return super.put(key, value);
+		if (index < 0 || index > size())
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+
+		if (index == size()) {
+			append(key);
+		} else {
+			insert(index, key);
 		}
-		return previous;
+		super.put(key, value);
+		return null;
 	}
 
 	@Nullable
 	@Override
-	@SuppressWarnings({"unchecked", "RedundantCast"})
 	public V remove(Object key) {
-		V removed = super.remove(key);
-		if (removed != null) {
-			keys.remove((K) key);
-		}
-		return removed;
+		Integer slot = keySlots.remove(key);
+		if (slot == null)
+			return null;
+
+		removeSlot(slot);
+		return super.remove(key);
 	}
 
 	@Nullable
 	public V removeAt(int position) {
-		return position < 0 || position >= size() ? null : remove(keys.get(position));
+		return position < 0 || position >= size() ? null : remove(slots[slotAt(position)]);
 	}
 
 	@Override
 	public void clear() {
 		super.clear();
-		keys.clear();
+		Arrays.fill(slots, 0, slotCount, null);
+		slotCount = 0;
+		removedCount = 0;
+		keySlots.clear();
 	}
 
 	@NonNull
@@ -80,27 +144,136 @@ public class OrderedMap<K, V> extends HashMap<K, V> {
 		return keys;
 	}
 
+	@SuppressWarnings("unchecked")
 	@NonNull
 	public List<V> orderedValues() {
 		List<V> values = new ArrayList<>(size());
-		for (K key : keys) {
-			values.add(get(key));
+		for (int i = 0; i < slotCount; i++) {
+			if (slots[i] != REMOVED) {
+				values.add(get(slots[i]));
+			}
 		}
 		return values;
 	}
 
+	@SuppressWarnings("unchecked")
 	@Nullable
 	public K getKeyAt(int position) {
-		return position < 0 || position >= size() ? null : keys.get(position);
+		return position < 0 || position >= size() ? null : (K) slots[slotAt(position)];
 	}
 
 	@Nullable
 	public V getValueAt(int position) {
-		return position < 0 || position >= size() ? null : get(keys.get(position));
+		return position < 0 || position >= size() ? null : get(slots[slotAt(position)]);
 	}
 
 	public int indexOfKey(@Nullable K key) {
-		return keys.indexOf(key);
+		Integer slot = key != null ? keySlots.get(key) : null;
+		if (slot == null)
+			return -1;
+		return removedCount == 0 ? slot : countBefore(slot);
+	}
+
+	private void append(@NonNull Object key) {
+		ensureCapacity(slotCount + 1);
+		int node = slotCount + 1;
+		int lowestBit = node & -node;
+		// The new node covers the slots after node - lowestBit, including the new one
+		tree[node] = removedCount == 0 ? lowestBit : 1 + countBefore(slotCount) - countBefore(node - lowestBit);
+		slots[slotCount] = key;
+		keySlots.put(key, slotCount);
+		slotCount++;
+	}
+
+	private void insert(int index, @NonNull Object key) {
+		if (removedCount > 0) {
+			compact();
+		}
+		ensureCapacity(slotCount + 1);
+		System.arraycopy(slots, index, slots, index + 1, slotCount - index);
+		slots[index] = key;
+		slotCount++;
+		for (int i = index; i < slotCount; i++) {
+			keySlots.put(slots[i], i);
+			tree[i + 1] = (i + 1) & -(i + 1);
+		}
+	}
+
+	private void removeSlot(int slot) {
+		slots[slot] = REMOVED;
+		removedCount++;
+		for (int node = slot + 1; node <= slotCount; node += node & -node) {
+			tree[node]--;
+		}
+
+		// Empty slots at the end are dropped: nodes after slotCount are rebuilt on append
+		while (slotCount > 0 && slots[slotCount - 1] == REMOVED) {
+			slots[--slotCount] = null;
+			removedCount--;
+		}
+		if (removedCount > slotCount / 2) {
+			compact();
+		}
+	}
+
+	private void compact() {
+		int count = 0;
+		for (int i = 0; i < slotCount; i++) {
+			Object key = slots[i];
+			if (key != REMOVED) {
+				if (count != i) {
+					slots[count] = key;
+					keySlots.put(key, count);
+				}
+				count++;
+			}
+		}
+		Arrays.fill(slots, count, slotCount, null);
+		slotCount = count;
+		removedCount = 0;
+		for (int node = 1; node <= slotCount; node++) {
+			tree[node] = node & -node;
+		}
+	}
+
+	private void ensureCapacity(int capacity) {
+		if (capacity > slots.length) {
+			int length = Math.max(capacity, slots.length + (slots.length >> 1));
+			slots = Arrays.copyOf(slots, length);
+			// Nodes don't depend on the tree size, so they are kept as is
+			tree = Arrays.copyOf(tree, length + 1);
+		}
+	}
+
+	/**
+	 * @return the number of keys in the slots before the given one
+	 */
+	private int countBefore(int slot) {
+		int count = 0;
+		for (int node = slot; node > 0; node -= node & -node) {
+			count += tree[node];
+		}
+		return count;
+	}
+
+	/**
+	 * @return the slot of the key at the given position
+	 */
+	private int slotAt(int position) {
+		if (removedCount == 0)
+			return position;
+
+		// Descend the tree to the last node with at most position keys up to it
+		int node = 0;
+		int remaining = position;
+		for (int step = Integer.highestOneBit(slotCount); step > 0; step >>= 1) {
+			int next = node + step;
+			if (next <= slotCount && tree[next] <= remaining) {
+				node = next;
+				remaining -= tree[next];
+			}
+		}
+		return node;
 	}
 
 }
@@ -0,0 +1,318 @@
+package fr.beapp.utils.collection;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.NoSuchElementException;
+
+import fr.beapp.utils.io.IOUtils;
+
+/**
+ * Compact binary encoding of {@link OrderedMap}, writing keys and values together in order, in a single pass.
+ * <p/>
+ * Contrary to Java serialization, no class descriptor nor hash table layout is written: only the entry count then each key and value,
+ * encoded by the given {@link ElementCodec}s. The content can be read back as a whole with {@link #read(InputStream)}
+ * or entry by entry with {@link #openReader(InputStream)}, without building the map.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public class OrderedMapCodec<K, V> {
+
+	private static final int MAGIC = 0x4F4D4150;
+	private static final int VERSION = 1;
+	// Sizes and lengths are read from the stream, so allocations are capped until the data is actually read
+	private static final int MAX_INITIAL_CAPACITY = 1 << 16;
+	private static final int MAX_CHUNK_SIZE = 1 << 16;
+
+	private final ElementCodec<K> keyCodec;
+	private final ElementCodec<V> valueCodec;
+
+	public OrderedMapCodec(@NonNull ElementCodec<K> keyCodec, @NonNull ElementCodec<V> valueCodec) {
+		this.keyCodec = keyCodec;
+		this.valueCodec = valueCodec;
+	}
+
+	/**
+	 * Write the given map to a stream. The stream is flushed but not closed.
+	 *
+	 * @param map          the map to write
+	 * @param outputStream the OutputStream to write to
+	 * @throws IOException if an I/O error occurs
+	 */
+	public void write(@NonNull OrderedMap<K, V> map, @NonNull OutputStream outputStream) throws IOException {
+		DataOutputStream dataOutputStream = new DataOutputStream(new BufferedOutputStream(outputStream, IOUtils.DEFAULT_BUFFER_SIZE * 4));
+		dataOutputStream.writeInt(MAGIC);
+		dataOutputStream.writeInt(VERSION);
+
+		int size = map.size();
+		dataOutputStream.writeInt(size);
+		for (int i = 0; i < size; i++) {
+			K key = map.getKeyAt(i);
+			V value = map.get(key);
+			keyCodec.write(dataOutputStream, key);
+			dataOutputStream.writeBoolean(value != null);
+			if (value != null) {
+				valueCodec.write(dataOutputStream, value);
+			}
+		}
+		dataOutputStream.flush();
+	}
+
+	/**
+	 * Write the given map to a file, creating parent folders if needed.
+	 *
+	 * @param map        the map to write
+	 * @param outputFile the file to write to
+	 * @throws IOException if an I/O error occurs
+	 */
+	public void write(@NonNull OrderedMap<K, V> map, @NonNull File outputFile) throws IOException {
+		File parentFile = outputFile.getParentFile();
+		if (parentFile != null) {
+			parentFile.mkdirs();
+		}
+
+		FileOutputStream fileOutputStream = null;
+		try {
+			fileOutputStream = new FileOutputStream(outputFile);
+			write(map, fileOutputStream);
+		} finally {
+			IOUtils.closeQuietly(fileOutputStream);
+		}
+	}
+
+	/**
+	 * Read a whole map from a stream. The stream is not closed.
+	 * <p/>
+	 * The stream is not buffered, so no byte is read past the encoded map and the stream can be read further by the caller.
+	 * Give a {@link BufferedInputStream} if the stream is costly to read byte by byte.
+	 *
+	 * @param inputStream the InputStream to read from
+	 * @return the decoded map
+	 * @throws IOException if an I/O error occurs or the content is not a valid encoded map
+	 */
+	@NonNull
+	public OrderedMap<K, V> read(@NonNull InputStream inputStream) throws IOException {
+		EntryReader reader = openReader(inputStream);
+		OrderedMap<K, V> map = new OrderedMap<>(Math.max(16, (int) (Math.min(reader.size(), MAX_INITIAL_CAPACITY) / 0.75f) + 1));
+		while (reader.next()) {
+			map.put(reader.key(), reader.value());
+		}
+		return map;
+	}
+
+	/**
+	 * Read a whole map from a file.
+	 *
+	 * @param inputFile the file to read from
+	 * @return the decoded map
+	 * @throws IOException if an I/O error occurs or the content is not a valid encoded map
+	 */
+	@NonNull
+	public OrderedMap<K, V> read(@NonNull File inputFile) throws IOException {
+		FileInputStream fileInputStream = null;
+		try {
+			fileInputStream = new FileInputStream(inputFile);
+			return read(new BufferedInputStream(fileInputStream, IOUtils.DEFAULT_BUFFER_SIZE * 4));
+		} finally {
+			IOUtils.closeQuietly(fileInputStream);
+		}
+	}
+
+	/**
+	 * Open a lazy reader over an encoded map, decoding entries one at a time and values only when requested.
+	 * <p/>
+	 * The stream is not buffered, so no byte is read past the entries read so far.
+	 * Give a {@link BufferedInputStream} if the stream is costly to read byte by byte.
+	 *
+	 * @param inputStream the InputStream to read from, closed when the reader is closed
+	 * @return a reader positioned before the first entry
+	 * @throws IOException if an I/O error occurs or the content is not a valid encoded map
+	 */
+	@NonNull
+	public EntryReader openReader(@NonNull InputStream inputStream) throws IOException {
+		return new EntryReader(new DataInputStream(inputStream));
+	}
+
+	/**
+	 * Read the given number of bytes, in chunks for large lengths, so a corrupted length fails at the end of the stream instead of allocating it at once.
+	 */
+	@NonNull
+	private static byte[] readBytes(@NonNull DataInput input, int length) throws IOException {
+		if (length <= MAX_CHUNK_SIZE) {
+			byte[] bytes = new byte[length];
+			input.readFully(bytes);
+			return bytes;
+		}
+
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream(MAX_CHUNK_SIZE);
+		byte[] chunk = new byte[MAX_CHUNK_SIZE];
+		int remaining = length;
+		while (remaining > 0) {
+			int count = Math.min(remaining, chunk.length);
+			input.readFully(chunk, 0, count);
+			outputStream.write(chunk, 0, count);
+			remaining -= count;
+		}
+		return outputStream.toByteArray();
+	}
+
+	/**
+	 * Sequential reader over the entries of an encoded map.
+	 */
+	public class EntryReader implements Closeable {
+
+		private final DataInputStream dataInputStream;
+		private final int size;
+		private int position = -1;
+		private K key;
+		private boolean valueRead = true;
+		private V value;
+
+		EntryReader(@NonNull DataInputStream dataInputStream) throws IOException {
+			this.dataInputStream = dataInputStream;
+
+			if (dataInputStream.readInt() != MAGIC)
+				throw new IOException("Not an encoded OrderedMap");
+			int version = dataInputStream.readInt();
+			if (version != VERSION)
+				throw new IOException("Unsupported OrderedMap encoding version " + version);
+
+			size = dataInputStream.readInt();
+			if (size < 0)
+				throw new IOException("Invalid OrderedMap size " + size);
+		}
+
+		/**
+		 * @return the number of entries in the encoded map
+		 */
+		public int size() {
+			return size;
+		}
+
+		/**
+		 * Move to the next entry, skipping the value of the current one if it wasn't read.
+		 *
+		 * @return <code>true</code> if there is a current entry, <code>false</code> once all entries were read
+		 * @throws IOException if an I/O error occurs
+		 */
+		public boolean next() throws IOException {
+			if (!valueRead) {
+				value();
+			}
+			if (position + 1 >= size) {
+				position = size;
+				return false;
+			}
+
+			position++;
+			key = keyCodec.read(dataInputStream);
+			value = null;
+			valueRead = false;
+			return true;
+		}
+
+		@NonNull
+		public K key() {
+			ensureEntry();
+			return key;
+		}
+
+		@Nullable
+		public V value() throws IOException {
+			ensureEntry();
+			if (!valueRead) {
+				valueRead = true;
+				value = dataInputStream.readBoolean() ? valueCodec.read(dataInputStream) : null;
+			}
+			return value;
+		}
+
+		@Override
+		public void close() throws IOException {
+			dataInputStream.close();
+		}
+
+		private void ensureEntry() {
+			if (position < 0 || position >= size)
+				throw new NoSuchElementException();
+		}
+	}
+
+	/**
+	 * Encode and decode single keys or values.
+	 *
+	 * @param <T> the element type
+	 */
+	public interface ElementCodec<T> {
+
+		ElementCodec<String> STRING = new ElementCodec<String>() {
+			private final Charset utf8 = Charset.forName("UTF-8");
+
+			@Override
+			public void write(@NonNull DataOutput output, @NonNull String value) throws IOException {
+				// Not using writeUTF, limited to 64KB strings
+				byte[] bytes = value.getBytes(utf8);
+				output.writeInt(bytes.length);
+				output.write(bytes);
+			}
+
+			@NonNull
+			@Override
+			public String read(@NonNull DataInput input) throws IOException {
+				int length = input.readInt();
+				if (length < 0)
+					throw new IOException("Invalid string length " + length);
+				return new String(readBytes(input, length), utf8);
+			}
+		};
+
+		ElementCodec<Integer> INTEGER = new ElementCodec<Integer>() {
+			@Override
+			public void write(@NonNull DataOutput output, @NonNull Integer value) throws IOException {
+				output.writeInt(value);
+			}
+
+			@NonNull
+			@Override
+			public Integer read(@NonNull DataInput input) throws IOException {
+				return input.readInt();
+			}
+		};
+
+		ElementCodec<Long> LONG = new ElementCodec<Long>() {
+			@Override
+			public void write(@NonNull DataOutput output, @NonNull Long value) throws IOException {
+				output.writeLong(value);
+			}
+
+			@NonNull
+			@Override
+			public Long read(@NonNull DataInput input) throws IOException {
+				return input.readLong();
+			}
+		};
+
+		void write(@NonNull DataOutput output, @NonNull T value) throws IOException;
+
+		@NonNull
+		T read(@NonNull DataInput input) throws IOException;
+
+	}
+
+}
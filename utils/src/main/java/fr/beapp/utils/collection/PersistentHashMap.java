@@ -0,0 +1,409 @@
+package fr.beapp.utils.collection;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Immutable map with structural sharing, implemented as a Hash Array Mapped Trie (HAMT).
+ * <p/>
+ * Updating methods ({@link #plus(Object, Object)}, {@link #minus(Object)}) return a new map sharing all unchanged nodes with the original one,
+ * so they cost O(log32 n) instead of copying the whole map. Instances can safely be published to other threads.
+ * <p/>
+ * Keys can't be <code>null</code>. As a read-only {@link Map}, all mutating methods inherited from {@link AbstractMap} throw {@link UnsupportedOperationException}.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public final class PersistentHashMap<K, V> extends AbstractMap<K, V> {
+
+	private static final Object NOT_FOUND = new Object();
+	private static final PersistentHashMap<Object, Object> EMPTY = new PersistentHashMap<>(0, null);
+
+	private final int size;
+	@Nullable
+	private final Node root;
+
+	private PersistentHashMap(int size, @Nullable Node root) {
+		this.size = size;
+		this.root = root;
+	}
+
+	@SuppressWarnings("unchecked")
+	@NonNull
+	public static <K, V> PersistentHashMap<K, V> empty() {
+		return (PersistentHashMap<K, V>) EMPTY;
+	}
+
+	/**
+	 * Build a persistent copy of the given map, such as a {@link MapBuilder}.
+	 *
+	 * @param map the map to copy
+	 * @return a new persistent map
+	 */
+	@NonNull
+	public static <K, V> PersistentHashMap<K, V> from(@Nullable Map<? extends K, ? extends V> map) {
+		PersistentHashMap<K, V> result = empty();
+		if (map != null) {
+			for (Entry<? extends K, ? extends V> entry : map.entrySet()) {
+				result = result.plus(entry.getKey(), entry.getValue());
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Build a persistent copy of a multi-valued map, such as a {@link MultiValueMap}, values lists being converted to {@link PersistentVector}s.
+	 *
+	 * @param map the map to copy
+	 * @return a new persistent map
+	 */
+	@NonNull
+	public static <K, V> PersistentHashMap<K, PersistentVector<V>> fromMultiValues(@Nullable Map<? extends K, ? extends Collection<? extends V>> map) {
+		PersistentHashMap<K, PersistentVector<V>> result = empty();
+		if (map != null) {
+			for (Entry<? extends K, ? extends Collection<? extends V>> entry : map.entrySet()) {
+				result = result.plus(entry.getKey(), PersistentVector.<V>from(entry.getValue()));
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean containsKey(@Nullable Object key) {
+		return find(key) != NOT_FOUND;
+	}
+
+	@Nullable
+	@Override
+	@SuppressWarnings("unchecked")
+	public V get(@Nullable Object key) {
+		Object value = find(key);
+		return value != NOT_FOUND ? (V) value : null;
+	}
+
+	/**
+	 * @param key   the key
+	 * @param value the value to associate to the key
+	 * @return a new map with the given entry added or replaced, or this map if the entry was already present
+	 */
+	@NonNull
+	public PersistentHashMap<K, V> plus(@NonNull K key, @Nullable V value) {
+		boolean[] added = new boolean[1];
+		Node newRoot = (root != null ? root : BitmapNode.EMPTY).assoc(0, hash(key), key, value, added);
+		if (newRoot == root)
+			return this;
+		return new PersistentHashMap<>(added[0] ? size + 1 : size, newRoot);
+	}
+
+	/**
+	 * @param key the key to remove
+	 * @return a new map without the given key, or this map if the key was not present
+	 */
+	@NonNull
+	public PersistentHashMap<K, V> minus(@Nullable Object key) {
+		if (root == null || key == null)
+			return this;
+
+		Node newRoot = root.without(0, hash(key), key);
+		if (newRoot == root)
+			return this;
+		return new PersistentHashMap<>(size - 1, newRoot);
+	}
+
+	@NonNull
+	@Override
+	public Set<Entry<K, V>> entrySet() {
+		return new AbstractSet<Entry<K, V>>() {
+			@NonNull
+			@Override
+			public Iterator<Entry<K, V>> iterator() {
+				return new EntryIterator<>(root);
+			}
+
+			@Override
+			public int size() {
+				return size;
+			}
+		};
+	}
+
+	private Object find(@Nullable Object key) {
+		if (root == null || key == null)
+			return NOT_FOUND;
+		return root.find(0, hash(key), key);
+	}
+
+	private static int hash(@NonNull Object key) {
+		int h = key.hashCode();
+		return h ^ (h >>> 16);
+	}
+
+	/**
+	 * Trie node, holding an array of key/value pairs. A <code>null</code> key means the value is a child node.
+	 */
+	private abstract static class Node {
+
+		final Object[] array;
+
+		Node(Object[] array) {
+			this.array = array;
+		}
+
+		abstract Object find(int shift, int hash, Object key);
+
+		abstract Node assoc(int shift, int hash, Object key, Object value, boolean[] added);
+
+		@Nullable
+		abstract Node without(int shift, int hash, Object key);
+
+	}
+
+	private static final class BitmapNode extends Node {
+
+		static final BitmapNode EMPTY = new BitmapNode(0, new Object[0]);
+
+		final int bitmap;
+
+		BitmapNode(int bitmap, Object[] array) {
+			super(array);
+			this.bitmap = bitmap;
+		}
+
+		@Override
+		Object find(int shift, int hash, Object key) {
+			int bit = bitPosition(hash, shift);
+			if ((bitmap & bit) == 0)
+				return NOT_FOUND;
+
+			int index = index(bit);
+			Object currentKey = array[2 * index];
+			Object currentValue = array[2 * index + 1];
+			if (currentKey == null)
+				return ((Node) currentValue).find(shift + 5, hash, key);
+			return key.equals(currentKey) ? currentValue : NOT_FOUND;
+		}
+
+		@Override
+		Node assoc(int shift, int hash, Object key, Object value, boolean[] added) {
+			int bit = bitPosition(hash, shift);
+			int index = index(bit);
+
+			if ((bitmap & bit) == 0) {
+				int count = Integer.bitCount(bitmap);
+				Object[] newArray = new Object[2 * (count + 1)];
+				System.arraycopy(array, 0, newArray, 0, 2 * index);
+				newArray[2 * index] = key;
+				newArray[2 * index + 1] = value;
+				System.arraycopy(array, 2 * index, newArray, 2 * (index + 1), 2 * (count - index));
+				added[0] = true;
+				return new BitmapNode(bitmap | bit, newArray);
+			}
+
+			Object currentKey = array[2 * index];
+			Object currentValue = array[2 * index + 1];
+			if (currentKey == null) {
+				Node child = ((Node) currentValue).assoc(shift + 5, hash, key, value, added);
+				return child == currentValue ? this : new BitmapNode(bitmap, cloneAndSet(array, 2 * index + 1, child));
+			}
+
+			if (key.equals(currentKey)) {
+				return currentValue == value ? this : new BitmapNode(bitmap, cloneAndSet(array, 2 * index + 1, value));
+			}
+
+			added[0] = true;
+			Node child = createNode(shift + 5, currentKey, currentValue, hash, key, value);
+			Object[] newArray = cloneAndSet(array, 2 * index, null);
+			newArray[2 * index + 1] = child;
+			return new BitmapNode(bitmap, newArray);
+		}
+
+		@Nullable
+		@Override
+		Node without(int shift, int hash, Object key) {
+			int bit = bitPosition(hash, shift);
+			if ((bitmap & bit) == 0)
+				return this;
+
+			int index = index(bit);
+			Object currentKey = array[2 * index];
+			Object currentValue = array[2 * index + 1];
+			if (currentKey == null) {
+				Node child = ((Node) currentValue).without(shift + 5, hash, key);
+				if (child == currentValue)
+					return this;
+				if (child != null)
+					return new BitmapNode(bitmap, cloneAndSet(array, 2 * index + 1, child));
+			} else if (!key.equals(currentKey)) {
+				return this;
+			}
+
+			if (bitmap == bit)
+				return null;
+			return new BitmapNode(bitmap ^ bit, removePair(array, index));
+		}
+
+		private int index(int bit) {
+			return Integer.bitCount(bitmap & (bit - 1));
+		}
+
+		private static int bitPosition(int hash, int shift) {
+			return 1 << ((hash >>> shift) & 0x1f);
+		}
+
+		private static Node createNode(int shift, Object key1, Object value1, int hash2, Object key2, Object value2) {
+			int hash1 = hash(key1);
+			if (hash1 == hash2)
+				return new CollisionNode(hash1, new Object[]{key1, value1, key2, value2});
+
+			boolean[] added = new boolean[1];
+			return EMPTY.assoc(shift, hash1, key1, value1, added).assoc(shift, hash2, key2, value2, added);
+		}
+	}
+
+	/**
+	 * Leaf holding keys sharing the same full hash
+	 */
+	private static final class CollisionNode extends Node {
+
+		final int hash;
+
+		CollisionNode(int hash, Object[] array) {
+			super(array);
+			this.hash = hash;
+		}
+
+		@Override
+		Object find(int shift, int hash, Object key) {
+			int index = indexOf(key);
+			return index >= 0 ? array[2 * index + 1] : NOT_FOUND;
+		}
+
+		@Override
+		Node assoc(int shift, int hash, Object key, Object value, boolean[] added) {
+			if (hash != this.hash) {
+				// Nest this node into a bitmap node to discriminate on hash
+				return new BitmapNode(BitmapNode.bitPosition(this.hash, shift), new Object[]{null, this})
+						.assoc(shift, hash, key, value, added);
+			}
+
+			int index = indexOf(key);
+			if (index >= 0) {
+				return array[2 * index + 1] == value ? this : new CollisionNode(hash, cloneAndSet(array, 2 * index + 1, value));
+			}
+
+			Object[] newArray = new Object[array.length + 2];
+			System.arraycopy(array, 0, newArray, 0, array.length);
+			newArray[array.length] = key;
+			newArray[array.length + 1] = value;
+			added[0] = true;
+			return new CollisionNode(hash, newArray);
+		}
+
+		@Nullable
+		@Override
+		Node without(int shift, int hash, Object key) {
+			int index = indexOf(key);
+			if (index < 0)
+				return this;
+			if (array.length == 2)
+				return null;
+			return new CollisionNode(hash, removePair(array, index));
+		}
+
+		private int indexOf(Object key) {
+			for (int i = 0; i < array.length; i += 2) {
+				if (key.equals(array[i]))
+					return i / 2;
+			}
+			return -1;
+		}
+	}
+
+	private static final class EntryIterator<K, V> implements Iterator<Entry<K, V>> {
+
+		private final Deque<Node> nodes = new ArrayDeque<>();
+		private final Deque<Integer> positions = new ArrayDeque<>();
+		private Entry<K, V> next;
+
+		EntryIterator(@Nullable Node root) {
+			if (root != null) {
+				nodes.push(root);
+				positions.push(0);
+			}
+			advance();
+		}
+
+		@Override
+		public boolean hasNext() {
+			return next != null;
+		}
+
+		@Override
+		public Entry<K, V> next() {
+			if (next == null)
+				throw new NoSuchElementException();
+
+			Entry<K, V> result = next;
+			advance();
+			return result;
+		}
+
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+
+		@SuppressWarnings("unchecked")
+		private void advance() {
+			next = null;
+			while (!nodes.isEmpty()) {
+				Node node = nodes.peek();
+				int position = positions.pop();
+				if (position >= node.array.length) {
+					nodes.pop();
+					continue;
+				}
+
+				positions.push(position + 2);
+				Object key = node.array[position];
+				Object value = node.array[position + 1];
+				if (key == null) {
+					nodes.push((Node) value);
+					positions.push(0);
+				} else {
+					next = new SimpleImmutableEntry<>((K) key, (V) value);
+					return;
+				}
+			}
+		}
+	}
+
+	private static Object[] cloneAndSet(Object[] array, int index, Object value) {
+		Object[] result = array.clone();
+		result[index] = value;
+		return result;
+	}
+
+	private static Object[] removePair(Object[] array, int pairIndex) {
+		Object[] result = new Object[array.length - 2];
+		System.arraycopy(array, 0, result, 0, 2 * pairIndex);
+		System.arraycopy(array, 2 * (pairIndex + 1), result, 2 * pairIndex, result.length - 2 * pairIndex);
+		return result;
+	}
+
+}
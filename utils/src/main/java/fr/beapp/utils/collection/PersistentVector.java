@@ -0,0 +1,226 @@
+package fr.beapp.utils.collection;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.RandomAccess;
+
+/**
+ * Immutable list with structural sharing, implemented as a 32-way trie with a tail buffer.
+ * <p/>
+ * Updating methods ({@link #plus(Object)}, {@link #with(int, Object)}, {@link #minusLast()}) return a new vector sharing all unchanged nodes
+ * with the original one, so they cost O(log32 n) instead of copying the whole list. Instances can safely be published to other threads.
+ * <p/>
+ * As a read-only {@link java.util.List}, all mutating methods inherited from {@link AbstractList} throw {@link UnsupportedOperationException}.
+ *
+ * @param <E> the element type
+ */
+public final class PersistentVector<E> extends AbstractList<E> implements RandomAccess {
+
+	private static final int BITS = 5;
+	private static final int WIDTH = 1 << BITS;
+	private static final int MASK = WIDTH - 1;
+
+	private static final Object[] EMPTY_NODE = new Object[WIDTH];
+	private static final PersistentVector<Object> EMPTY = new PersistentVector<>(0, BITS, EMPTY_NODE, new Object[0]);
+
+	private final int count;
+	private final int shift;
+	private final Object[] root;
+	private final Object[] tail;
+
+	private PersistentVector(int count, int shift, @NonNull Object[] root, @NonNull Object[] tail) {
+		this.count = count;
+		this.shift = shift;
+		this.root = root;
+		this.tail = tail;
+	}
+
+	@SuppressWarnings("unchecked")
+	@NonNull
+	public static <E> PersistentVector<E> empty() {
+		return (PersistentVector<E>) EMPTY;
+	}
+
+	@NonNull
+	public static <E> PersistentVector<E> from(@Nullable Collection<? extends E> items) {
+		PersistentVector<E> vector = empty();
+		if (items != null) {
+			for (E item : items) {
+				vector = vector.plus(item);
+			}
+		}
+		return vector;
+	}
+
+	@SafeVarargs
+	@NonNull
+	public static <E> PersistentVector<E> of(E... items) {
+		return from(Arrays.asList(items));
+	}
+
+	@Override
+	public int size() {
+		return count;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public E get(int index) {
+		return (E) arrayFor(index)[index & MASK];
+	}
+
+	/**
+	 * @param item the item to append
+	 * @return a new vector with the item appended
+	 */
+	@NonNull
+	public PersistentVector<E> plus(@Nullable E item) {
+		if (count - tailOffset() < WIDTH) {
+			Object[] newTail = Arrays.copyOf(tail, tail.length + 1);
+			newTail[tail.length] = item;
+			return new PersistentVector<>(count + 1, shift, root, newTail);
+		}
+
+		// Tail is full, push it into the tree
+		Object[] newRoot;
+		int newShift = shift;
+		if ((count >>> BITS) > (1 << shift)) {
+			newRoot = new Object[WIDTH];
+			newRoot[0] = root;
+			newRoot[1] = newPath(shift, tail);
+			newShift += BITS;
+		} else {
+			newRoot = pushTail(shift, root, tail);
+		}
+		return new PersistentVector<>(count + 1, newShift, newRoot, new Object[]{item});
+	}
+
+	/**
+	 * @param index the index of the item to replace
+	 * @param item  the new item
+	 * @return a new vector with the item at the given index replaced
+	 */
+	@NonNull
+	public PersistentVector<E> with(int index, @Nullable E item) {
+		checkIndex(index);
+		if (index >= tailOffset()) {
+			Object[] newTail = tail.clone();
+			newTail[index & MASK] = item;
+			return new PersistentVector<>(count, shift, root, newTail);
+		}
+		return new PersistentVector<>(count, shift, assoc(shift, root, index, item), tail);
+	}
+
+	/**
+	 * @return a new vector without the last item
+	 * @throws IllegalStateException if the vector is empty
+	 */
+	@NonNull
+	public PersistentVector<E> minusLast() {
+		if (count == 0)
+			throw new IllegalStateException("Can't remove last item of an empty vector");
+		if (count == 1)
+			return empty();
+
+		if (count - tailOffset() > 1) {
+			return new PersistentVector<>(count - 1, shift, root, Arrays.copyOf(tail, tail.length - 1));
+		}
+
+		// Tail becomes empty, the last leaf of the tree becomes the new tail
+		Object[] newTail = arrayFor(count - 2);
+		Object[] newRoot = popTail(shift, root);
+		int newShift = shift;
+		if (newRoot == null) {
+			newRoot = EMPTY_NODE;
+		}
+		if (shift > BITS && newRoot[1] == null) {
+			newRoot = (Object[]) newRoot[0];
+			newShift -= BITS;
+		}
+		return new PersistentVector<>(count - 1, newShift, newRoot, newTail);
+	}
+
+	private int tailOffset() {
+		return count < WIDTH ? 0 : ((count - 1) >>> BITS) << BITS;
+	}
+
+	private void checkIndex(int index) {
+		if (index < 0 || index >= count)
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + count);
+	}
+
+	@NonNull
+	private Object[] arrayFor(int index) {
+		checkIndex(index);
+		if (index >= tailOffset())
+			return tail;
+
+		Object[] node = root;
+		for (int level = shift; level > 0; level -= BITS) {
+			node = (Object[]) node[(index >>> level) & MASK];
+		}
+		return node;
+	}
+
+	@NonNull
+	private Object[] pushTail(int level, @NonNull Object[] parent, @NonNull Object[] tailNode) {
+		int subIndex = ((count - 1) >>> level) & MASK;
+		Object[] result = parent.clone();
+		Object[] nodeToInsert;
+		if (level == BITS) {
+			nodeToInsert = tailNode;
+		} else {
+			Object[] child = (Object[]) parent[subIndex];
+			nodeToInsert = child != null ? pushTail(level - BITS, child, tailNode) : newPath(level - BITS, tailNode);
+		}
+		result[subIndex] = nodeToInsert;
+		return result;
+	}
+
+	@Nullable
+	private Object[] popTail(int level, @NonNull Object[] node) {
+		int subIndex = ((count - 2) >>> level) & MASK;
+		if (level > BITS) {
+			Object[] newChild = popTail(level - BITS, (Object[]) node[subIndex]);
+			if (newChild == null && subIndex == 0)
+				return null;
+
+			Object[] result = node.clone();
+			result[subIndex] = newChild;
+			return result;
+		} else if (subIndex == 0) {
+			return null;
+		}
+
+		Object[] result = node.clone();
+		result[subIndex] = null;
+		return result;
+	}
+
+	@NonNull
+	private static Object[] newPath(int level, @NonNull Object[] node) {
+		if (level == 0)
+			return node;
+
+		Object[] result = new Object[WIDTH];
+		result[0] = newPath(level - BITS, node);
+		return result;
+	}
+
+	@NonNull
+	private static Object[] assoc(int level, @NonNull Object[] node, int index, @Nullable Object item) {
+		Object[] result = node.clone();
+		if (level == 0) {
+			result[index & MASK] = item;
+		} else {
+			int subIndex = (index >>> level) & MASK;
+			result[subIndex] = assoc(level - BITS, (Object[]) node[subIndex], index, item);
+		}
+		return result;
+	}
+
+}
@@ -0,0 +1,144 @@
+package fr.beapp.utils.enums;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.lang.reflect.Array;
+import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lookup index of the constants of an enum, built once per enum class and cached.
+ * <p/>
+ * Names are stored in a {@link HashMap}, so unknown names are resolved without the exception thrown by {@link Enum#valueOf(Class, String)}.
+ * Keys are stored in an open-addressing table hashed on case-folded chars, so lookups ignore case like {@link String#equalsIgnoreCase(String)}
+ * but never allocate, and can be done on a range of a {@link CharSequence}.
+ *
+ * @param <E> the enum type
+ */
+final class EnumIndex<E extends Enum<E>> {
+
+	private static final ConcurrentHashMap<Class<?>, EnumIndex<?>> INDEXES = new ConcurrentHashMap<>();
+
+	private final E[] constants;
+	private final HashMap<String, E> names;
+	@Nullable
+	private final E[] keyTable;
+	private final int mask;
+
+	private EnumIndex(@NonNull Class<E> clazz) {
+		constants = clazz.getEnumConstants();
+		names = new HashMap<>((int) (constants.length / 0.75f) + 1);
+		for (E constant : constants) {
+			names.put(constant.name(), constant);
+		}
+
+		if (EnumFromWS.class.isAssignableFrom(clazz)) {
+			int capacity = Integer.highestOneBit(Math.max(2, constants.length) * 2 - 1) << 1;
+			keyTable = newArray(clazz, capacity);
+			mask = capacity - 1;
+			for (E constant : constants) {
+				String key = ((EnumFromWS) constant).getKey();
+				// Keep the first constant for duplicated keys, like a linear scan would
+				if (key != null && findByKey(key, 0, key.length()) == null) {
+					int slot = hash(key, 0, key.length()) & mask;
+					while (keyTable[slot] != null) {
+						slot = (slot + 1) & mask;
+					}
+					keyTable[slot] = constant;
+				}
+			}
+		} else {
+			keyTable = null;
+			mask = 0;
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	@NonNull
+	static <E extends Enum<E>> EnumIndex<E> of(@NonNull Class<E> clazz) {
+		EnumIndex<E> index = (EnumIndex<E>) INDEXES.get(clazz);
+		if (index == null) {
+			index = new EnumIndex<>(clazz);
+			EnumIndex<E> existing = (EnumIndex<E>) INDEXES.putIfAbsent(clazz, index);
+			if (existing != null) {
+				index = existing;
+			}
+		}
+		return index;
+	}
+
+	/**
+	 * @return the constants in declaration order, shared: must not be modified
+	 */
+	@NonNull
+	E[] constants() {
+		return constants;
+	}
+
+	/**
+	 * @return the constant with the exact given name, or <code>null</code>
+	 */
+	@Nullable
+	E findByName(@NonNull String name) {
+		return names.get(name);
+	}
+
+	/**
+	 * Find the constant whose {@link EnumFromWS#getKey()} equals, ignoring case, the given range of chars
+	 *
+	 * @return the constant, or <code>null</code> if none matches or the enum doesn't implement {@link EnumFromWS}
+	 */
+	@Nullable
+	E findByKey(@NonNull CharSequence value, int start, int end) {
+		if (keyTable == null)
+			return null;
+
+		int slot = hash(value, start, end) & mask;
+		E constant;
+		while ((constant = keyTable[slot]) != null) {
+			if (regionEqualsIgnoreCase(((EnumFromWS) constant).getKey(), value, start, end))
+				return constant;
+			slot = (slot + 1) & mask;
+		}
+		return null;
+	}
+
+	/**
+	 * Keys often only differ by their last chars, giving close polynomial hashes: they are scrambled, so they don't end up in a single probing run
+	 */
+	private static int hash(@NonNull CharSequence value, int start, int end) {
+		int hash = 0;
+		for (int i = start; i < end; i++) {
+			hash = 31 * hash + fold(value.charAt(i));
+		}
+		hash *= 0x9E3779B9;
+		return hash ^ (hash >>> 16);
+	}
+
+	private static boolean regionEqualsIgnoreCase(@NonNull String key, @NonNull CharSequence value, int start, int end) {
+		if (key.length() != end - start)
+			return false;
+
+		for (int i = start; i < end; i++) {
+			char c1 = key.charAt(i - start);
+			char c2 = value.charAt(i);
+			if (c1 != c2 && fold(c1) != fold(c2))
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Same folding than {@link String#equalsIgnoreCase(String)}, comparing upper then lower cases
+	 */
+	private static char fold(char c) {
+		return Character.toLowerCase(Character.toUpperCase(c));
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <E> E[] newArray(Class<E> clazz, int length) {
+		return (E[]) Array.newInstance(clazz, length);
+	}
+
+}
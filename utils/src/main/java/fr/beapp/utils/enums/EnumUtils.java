@@ -3,6 +3,11 @@ package fr.beapp.utils.enums;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+
 public class EnumUtils {
 
 	private EnumUtils() {
@@ -10,6 +15,9 @@ public class EnumUtils {
 
 	/**
 	 * Retrieve an {@link Enum} value according to the given key to look for.
+	 * <p/>
+	 * When <code>items</code> is the result of <code>values()</code>, the lookup is done in O(1) through an index cached per enum class.
+	 * Other arrays are scanned linearly.
 	 *
 	 * @param items a set of {@link Enum} values to look through
 	 * @param key   the key to search in items
@@ -21,16 +29,14 @@ public class EnumUtils {
 		if (key == null)
 			return null;
 
-		for (E item : items) {
-			if (key.equalsIgnoreCase(item.getKey()))
-				return item;
-		}
-
-		return null;
+		return findByKey(items, key);
 	}
 
 	/**
 	 * Retrieve an {@link Enum} value according to the given key to look for.
+	 * <p/>
+	 * When <code>items</code> is the result of <code>values()</code>, the lookup is done in O(1) through an index cached per enum class.
+	 * Other arrays are scanned linearly.
 	 *
 	 * @param items        a set of {@link Enum} values to look through
 	 * @param key          the key to search in items
@@ -43,16 +49,49 @@ public class EnumUtils {
 		if (key == null)
 			return defaultValue;
 
-		for (E item : items) {
-			if (key.equalsIgnoreCase(item.getKey()))
-				return item;
-		}
+		E item = findByKey(items, key);
+		return item != null ? item : defaultValue;
+	}
+
+	/**
+	 * Retrieve an {@link Enum} value according to the given key to look for, ignoring case.
+	 * <p/>
+	 * Keys are indexed once per enum class, so lookups are done in O(1) without allocation.
+	 *
+	 * @param clazz the class of {@link Enum} to search keys into
+	 * @param key   the key to search
+	 * @param <E>   the type of the Enum value to search, which must implement {@link EnumFromWS}
+	 * @return the item value if found, <code>null</code> otherwise
+	 */
+	@Nullable
+	public static <E extends Enum<E> & EnumFromWS> E fromKey(@NonNull Class<E> clazz, @Nullable String key) {
+		if (key == null)
+			return null;
 
-		return defaultValue;
+		return EnumIndex.of(clazz).findByKey(key, 0, key.length());
+	}
+
+	/**
+	 * Retrieve an {@link Enum} value according to the given key to look for, ignoring case.
+	 * <p/>
+	 * Keys are indexed once per enum class, so lookups are done in O(1) without allocation.
+	 *
+	 * @param clazz        the class of {@link Enum} to search keys into
+	 * @param key          the key to search
+	 * @param defaultValue the value to return if no match was found
+	 * @param <E>          the type of the Enum value to search, which must implement {@link EnumFromWS}
+	 * @return the item value if found, <code>defaultValue</code> otherwise
+	 */
+	@NonNull
+	public static <E extends Enum<E> & EnumFromWS> E fromKey(@NonNull Class<E> clazz, @Nullable String key, @NonNull E defaultValue) {
+		E item = fromKey(clazz, key);
+		return item != null ? item : defaultValue;
 	}
 
 	/**
 	 * Retrieve an {@link Enum} value according to his name.
+	 * <p/>
+	 * Names are indexed once per enum class, so unknown names are resolved without throwing any exception.
 	 *
 	 * @param clazz The class of {@link Enum} to search names into
 	 * @param name  the {@link Enum} name to search in items
@@ -64,16 +103,13 @@ public class EnumUtils {
 		if (name == null)
 			return null;
 
-		try {
-			return Enum.valueOf(clazz, name);
-		} catch (Exception ignored) {
-			// Nothing to do here. The enum was simply not found
-		}
-		return null;
+		return EnumIndex.of(clazz).findByName(name);
 	}
 
 	/**
 	 * Retrieve an {@link Enum} value according to his name.
+	 * <p/>
+	 * Names are indexed once per enum class, so unknown names are resolved without throwing any exception.
 	 *
 	 * @param clazz        The class of {@link Enum} to search names into
 	 * @param name         the {@link Enum} name to search in items
@@ -83,15 +119,219 @@ public class EnumUtils {
 	 */
 	@NonNull
 	public static <E extends Enum<E>> E fromName(@NonNull Class<E> clazz, @Nullable String name, @NonNull E defaultValue) {
-		if (name == null)
-			return defaultValue;
+		E item = fromName(clazz, name);
+		return item != null ? item : defaultValue;
+	}
+
+	/**
+	 * Retrieve the {@link Enum} values matching the given names, in the same order. Unknown and <code>null</code> names are skipped.
+	 *
+	 * @param clazz The class of {@link Enum} to search names into
+	 * @param names the {@link Enum} names to search, may be null
+	 * @param <E>   the type of the Enum value to search
+	 * @return a new list of found values
+	 */
+	@NonNull
+	public static <E extends Enum<E>> List<E> fromNames(@NonNull Class<E> clazz, @Nullable Collection<String> names) {
+		if (names == null)
+			return new ArrayList<>();
 
-		try {
-			return Enum.valueOf(clazz, name);
-		} catch (Exception ignored) {
-			// Nothing to do here. The enum was simply not found
+		EnumIndex<E> index = EnumIndex.of(clazz);
+		List<E> items = new ArrayList<>(names.size());
+		for (String name : names) {
+			E item = name != null ? index.findByName(name) : null;
+			if (item != null) {
+				items.add(item);
+			}
 		}
-		return defaultValue;
+		return items;
+	}
+
+	/**
+	 * Retrieve the {@link Enum} values matching the given names, in the same order. Unknown and <code>null</code> names are replaced by <code>defaultValue</code>.
+	 *
+	 * @param clazz        The class of {@link Enum} to search names into
+	 * @param names        the {@link Enum} names to search, may be null
+	 * @param defaultValue the value to use for names without match
+	 * @param <E>          the type of the Enum value to search
+	 * @return a new list, with as many values as names
+	 */
+	@NonNull
+	public static <E extends Enum<E>> List<E> fromNames(@NonNull Class<E> clazz, @Nullable Collection<String> names, @NonNull E defaultValue) {
+		if (names == null)
+			return new ArrayList<>();
+
+		EnumIndex<E> index = EnumIndex.of(clazz);
+		List<E> items = new ArrayList<>(names.size());
+		for (String name : names) {
+			E item = name != null ? index.findByName(name) : null;
+			items.add(item != null ? item : defaultValue);
+		}
+		return items;
+	}
+
+	/**
+	 * Decode a comma-delimited list of keys, such as <code>"val1,val3"</code>, into a new {@link EnumSet}.
+	 *
+	 * @see #fromDelimitedKeys(Class, CharSequence, char, EnumSet)
+	 */
+	@NonNull
+	public static <E extends Enum<E> & EnumFromWS> EnumSet<E> fromDelimitedKeys(@NonNull Class<E> clazz, @Nullable CharSequence value) {
+		return fromDelimitedKeys(clazz, value, ',', EnumSet.noneOf(clazz));
+	}
+
+	/**
+	 * Decode a delimited list of keys into the given {@link EnumSet}, without allocating any intermediate String.
+	 * <p/>
+	 * Keys are matched ignoring case like {@link #fromKey(Class, String)}, whitespaces around keys are ignored, as well as empty and unknown keys.
+	 *
+	 * @param clazz     the class of {@link Enum} to search keys into
+	 * @param value     the delimited keys, may be null
+	 * @param delimiter the char between keys
+	 * @param output    the set receiving found values
+	 * @param <E>       the type of the Enum value to search, which must implement {@link EnumFromWS}
+	 * @return the output set
+	 */
+	@NonNull
+	public static <E extends Enum<E> & EnumFromWS> EnumSet<E> fromDelimitedKeys(@NonNull Class<E> clazz, @Nullable CharSequence value, char delimiter, @NonNull EnumSet<E> output) {
+		if (value == null)
+			return output;
+
+		EnumIndex<E> index = EnumIndex.of(clazz);
+		int length = value.length();
+		int start = 0;
+		while (start <= length) {
+			int end = indexOf(value, delimiter, start);
+			E item = findTrimmedKey(index, value, start, end);
+			if (item != null) {
+				output.add(item);
+			}
+			start = end + 1;
+		}
+		return output;
+	}
+
+	/**
+	 * Decode a comma-delimited list of keys into a bitmask, where the bit at each found value's ordinal is set.
+	 * <p/>
+	 * Keys are matched ignoring case like {@link #fromKey(Class, String)}, whitespaces around keys are ignored, as well as empty and unknown keys.
+	 *
+	 * @param clazz the class of {@link Enum} to search keys into, with at most 64 values
+	 * @param value the delimited keys, may be null
+	 * @param <E>   the type of the Enum value to search, which must implement {@link EnumFromWS}
+	 * @return the bitmask of found values
+	 */
+	public static <E extends Enum<E> & EnumFromWS> long fromDelimitedKeysToMask(@NonNull Class<E> clazz, @Nullable CharSequence value) {
+		EnumIndex<E> index = EnumIndex.of(clazz);
+		checkMaskSize(index);
+		if (value == null)
+			return 0;
+
+		long mask = 0;
+		int length = value.length();
+		int start = 0;
+		while (start <= length) {
+			int end = indexOf(value, ',', start);
+			E item = findTrimmedKey(index, value, start, end);
+			if (item != null) {
+				mask |= 1L << item.ordinal();
+			}
+			start = end + 1;
+		}
+		return mask;
+	}
+
+	/**
+	 * Encode the given values as a comma-delimited list of keys, in iteration order.
+	 *
+	 * @param items the values to encode, may be null
+	 * @param <E>   the type of the Enum values, which must implement {@link EnumFromWS}
+	 * @return the delimited keys, empty if there is no value
+	 */
+	@NonNull
+	public static <E extends EnumFromWS> String toDelimitedKeys(@Nullable Collection<E> items) {
+		if (items == null || items.isEmpty())
+			return "";
+
+		StringBuilder builder = new StringBuilder(items.size() * 8);
+		for (E item : items) {
+			if (builder.length() > 0) {
+				builder.append(',');
+			}
+			builder.append(item.getKey());
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * Encode the values whose ordinal bit is set in the given mask as a comma-delimited list of keys, in declaration order.
+	 *
+	 * @param clazz the class of {@link Enum} of the mask, with at most 64 values
+	 * @param mask  the bitmask of values
+	 * @param <E>   the type of the Enum values, which must implement {@link EnumFromWS}
+	 * @return the delimited keys, empty if there is no value
+	 */
+	@NonNull
+	public static <E extends Enum<E> & EnumFromWS> String toDelimitedKeys(@NonNull Class<E> clazz, long mask) {
+		EnumIndex<E> index = EnumIndex.of(clazz);
+		checkMaskSize(index);
+
+		E[] constants = index.constants();
+		StringBuilder builder = new StringBuilder(Long.bitCount(mask) * 8);
+		for (long remaining = mask; remaining != 0; remaining &= remaining - 1) {
+			int ordinal = Long.numberOfTrailingZeros(remaining);
+			if (ordinal >= constants.length)
+				throw new IllegalArgumentException("No " + clazz.getSimpleName() + " value for bit " + ordinal);
+			if (builder.length() > 0) {
+				builder.append(',');
+			}
+			builder.append(constants[ordinal].getKey());
+		}
+		return builder.toString();
+	}
+
+	private static void checkMaskSize(@NonNull EnumIndex<?> index) {
+		if (index.constants().length > Long.SIZE)
+			throw new IllegalArgumentException("Enum has more than 64 values and can't be stored in a bitmask");
+	}
+
+	private static int indexOf(@NonNull CharSequence value, char c, int start) {
+		for (int i = start, length = value.length(); i < length; i++) {
+			if (value.charAt(i) == c)
+				return i;
+		}
+		return value.length();
+	}
+
+	@Nullable
+	private static <E extends Enum<E>> E findTrimmedKey(@NonNull EnumIndex<E> index, @NonNull CharSequence value, int start, int end) {
+		while (start < end && Character.isWhitespace(value.charAt(start))) {
+			start++;
+		}
+		while (end > start && Character.isWhitespace(value.charAt(end - 1))) {
+			end--;
+		}
+		return start < end ? index.findByKey(value, start, end) : null;
+	}
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	@Nullable
+	private static <E extends EnumFromWS> E findByKey(@NonNull E[] items, @NonNull String key) {
+		Class<?> componentType = items.getClass().getComponentType();
+		if (componentType.isEnum()) {
+			// All items are constants of this enum, a miss in the index is a miss in items
+			Enum<?> item = EnumIndex.of((Class) componentType).findByKey(key, 0, key.length());
+			if (item == null)
+				return null;
+			if (item.ordinal() < items.length && items[item.ordinal()] == item)
+				return (E) item;
+		}
+
+		for (E item : items) {
+			if (key.equalsIgnoreCase(item.getKey()))
+				return item;
+		}
+		return null;
 	}
 
 }
@@ -0,0 +1,267 @@
+package fr.beapp.utils.io;
+
+import androidx.annotation.NonNull;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import fr.beapp.logger.Logger;
+
+/**
+ * Reassemble a file downloaded as several byte ranges, possibly fetched in parallel.
+ * <p/>
+ * The target file is preallocated to its final length, then each chunk is written at its own offset using positional {@link FileChannel} writes,
+ * so {@link #writeChunk(long, InputStream)} can be called concurrently from several threads.
+ * <p/>
+ * Completed ranges are persisted in a sidecar <code>.parts</code> file next to the target, allowing to resume the download after process death
+ * by creating a new instance on the same file and fetching only {@link #getMissingRanges()}.
+ */
+public class ChunkedFileWriter implements Closeable {
+
+	private static final int STATE_VERSION = 1;
+
+	private final File file;
+	private final File stateFile;
+	private final long totalLength;
+	private final RandomAccessFile randomAccessFile;
+	private final FileChannel channel;
+
+	/**
+	 * Completed ranges, merged, as start offset (inclusive) to end offset (exclusive)
+	 */
+	private final TreeMap<Long, Long> completedRanges = new TreeMap<>();
+
+	/**
+	 * Open the given file for chunked writing, restoring previously completed ranges if a matching state file exists.
+	 *
+	 * @param file        the target file
+	 * @param totalLength the expected length of the complete file
+	 * @throws IOException if the file can't be opened or preallocated
+	 */
+	public ChunkedFileWriter(@NonNull File file, long totalLength) throws IOException {
+		if (totalLength < 0)
+			throw new IllegalArgumentException("Invalid total length: " + totalLength);
+
+		this.file = file;
+		this.stateFile = new File(file.getPath() + ".parts");
+		this.totalLength = totalLength;
+
+		File parentFile = file.getAbsoluteFile().getParentFile();
+		if (parentFile != null) {
+			parentFile.mkdirs();
+		}
+
+		if (!file.exists() || !readState()) {
+			completedRanges.clear();
+		}
+
+		randomAccessFile = new RandomAccessFile(file, "rw");
+		channel = randomAccessFile.getChannel();
+		if (randomAccessFile.length() != totalLength) {
+			randomAccessFile.setLength(totalLength);
+		}
+	}
+
+	/**
+	 * Copy the content of the given stream into the file, starting at the given offset.
+	 * <p/>
+	 * This method is thread-safe, several chunks can be written concurrently. Bytes written before an error are still recorded as completed.
+	 *
+	 * @param offset      the position in the file of the first byte of the chunk
+	 * @param inputStream the stream providing the chunk content, not closed by this method
+	 * @return the number of bytes written
+	 * @throws IOException if an I/O error occurs or the chunk overflows the expected length
+	 */
+	public long writeChunk(long offset, @NonNull InputStream inputStream) throws IOException {
+		if (offset < 0 || offset > totalLength)
+			throw new IllegalArgumentException("Invalid offset " + offset + " for length " + totalLength);
+
+		final byte[] buffer = new byte[IOUtils.DEFAULT_BUFFER_SIZE];
+		final ByteBuffer byteBuffer = ByteBuffer.wrap(buffer);
+		long position = offset;
+		try {
+			int n;
+			while ((n = inputStream.read(buffer)) != -1) {
+				if (position + n > totalLength)
+					throw new IOException("Chunk at offset " + offset + " overflows expected length " + totalLength);
+
+				byteBuffer.clear().limit(n);
+				while (byteBuffer.hasRemaining()) {
+					position += channel.write(byteBuffer, position);
+				}
+			}
+		} catch (IOException e) {
+			if (position > offset) {
+				try {
+					markCompleted(offset, position);
+				} catch (IOException stateException) {
+					Logger.warn("Can't record the %d bytes written before the error", stateException, position - offset);
+				}
+			}
+			throw e;
+		}
+
+		if (position > offset) {
+			markCompleted(offset, position);
+		}
+		return position - offset;
+	}
+
+	/**
+	 * @return the ranges still to be written, as <code>{start, end}</code> pairs with an exclusive end
+	 */
+	@NonNull
+	public synchronized List<long[]> getMissingRanges() {
+		List<long[]> missingRanges = new ArrayList<>();
+		long position = 0;
+		for (Map.Entry<Long, Long> range : completedRanges.entrySet()) {
+			if (range.getKey() > position) {
+				missingRanges.add(new long[]{position, range.getKey()});
+			}
+			position = range.getValue();
+		}
+		if (position < totalLength) {
+			missingRanges.add(new long[]{position, totalLength});
+		}
+		return missingRanges;
+	}
+
+	/**
+	 * @return the number of bytes written so far, across all chunks
+	 */
+	public synchronized long getCompletedLength() {
+		long length = 0;
+		for (Map.Entry<Long, Long> range : completedRanges.entrySet()) {
+			length += range.getValue() - range.getKey();
+		}
+		return length;
+	}
+
+	public synchronized boolean isComplete() {
+		return getCompletedLength() == totalLength;
+	}
+
+	/**
+	 * Verify that all bytes were written and that the file has the expected length, then close the file and delete the resume state.
+	 *
+	 * @return the complete file
+	 * @throws IOException if some ranges are missing or the file length doesn't match
+	 */
+	@NonNull
+	public File complete() throws IOException {
+		if (!isComplete())
+			throw new IOException("Incomplete file " + file + ": " + getCompletedLength() + "/" + totalLength + " bytes written");
+
+		channel.force(true);
+		long length = channel.size();
+		close();
+
+		if (length != totalLength)
+			throw new IOException("Unexpected length for file " + file + ": " + length + " instead of " + totalLength);
+
+		if (stateFile.exists() && !stateFile.delete())
+			throw new IOException("Unable to delete state file: " + stateFile);
+		return file;
+	}
+
+	@NonNull
+	public File getFile() {
+		return file;
+	}
+
+	public long getTotalLength() {
+		return totalLength;
+	}
+
+	@Override
+	public void close() throws IOException {
+		IOUtils.closeQuietly(channel);
+		randomAccessFile.close();
+	}
+
+	private synchronized void markCompleted(long start, long end) throws IOException {
+		Map.Entry<Long, Long> previous = completedRanges.floorEntry(start);
+		if (previous != null && previous.getValue() >= start) {
+			start = previous.getKey();
+			end = Math.max(end, previous.getValue());
+		}
+
+		Map.Entry<Long, Long> next = completedRanges.ceilingEntry(start);
+		while (next != null && next.getKey() <= end) {
+			end = Math.max(end, next.getValue());
+			completedRanges.remove(next.getKey());
+			next = completedRanges.higherEntry(start);
+		}
+		completedRanges.put(start, end);
+
+		// Data must be on disk before the state claims it is
+		channel.force(false);
+		writeState();
+	}
+
+	private void writeState() throws IOException {
+		File tmpFile = new File(stateFile.getPath() + ".tmp");
+		FileOutputStream fileOutputStream = new FileOutputStream(tmpFile);
+		try {
+			DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(fileOutputStream, IOUtils.DEFAULT_BUFFER_SIZE));
+			outputStream.writeInt(STATE_VERSION);
+			outputStream.writeLong(totalLength);
+			outputStream.writeInt(completedRanges.size());
+			for (Map.Entry<Long, Long> range : completedRanges.entrySet()) {
+				outputStream.writeLong(range.getKey());
+				outputStream.writeLong(range.getValue());
+			}
+			outputStream.flush();
+
+			// The new state must be on disk before it replaces the previous one, and closing errors must not be ignored
+			fileOutputStream.getFD().sync();
+			fileOutputStream.close();
+		} finally {
+			IOUtils.closeQuietly(fileOutputStream);
+		}
+
+		if (!tmpFile.renameTo(stateFile))
+			throw new IOException("Unable to write state file: " + stateFile);
+	}
+
+	private boolean readState() {
+		if (!stateFile.exists())
+			return false;
+
+		DataInputStream inputStream = null;
+		try {
+			inputStream = new DataInputStream(new FileInputStream(stateFile));
+			if (inputStream.readInt() != STATE_VERSION || inputStream.readLong() != totalLength)
+				return false;
+
+			int count = inputStream.readInt();
+			for (int i = 0; i < count; i++) {
+				long start = inputStream.readLong();
+				long end = inputStream.readLong();
+				if (start < 0 || end > totalLength || start >= end)
+					return false;
+				completedRanges.put(start, end);
+			}
+			return true;
+		} catch (IOException e) {
+			return false;
+		} finally {
+			IOUtils.closeQuietly(inputStream);
+		}
+	}
+
+}
@@ -0,0 +1,123 @@
+package fr.beapp.utils.io;
+
+import androidx.annotation.IntRange;
+import androidx.annotation.NonNull;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Compression formats supported by {@link IOUtils} read and write methods.
+ */
+public enum Compression {
+	/**
+	 * Content is stored as is
+	 */
+	NONE,
+	/**
+	 * Content is stored with gzip format, which can be detected when reading thanks to its magic bytes
+	 */
+	GZIP,
+	/**
+	 * Content is stored with zlib format (deflate with a small header), without any file metadata.
+	 * <p/>
+	 * As the zlib header can't be reliably distinguished from plain text, this format is never auto-detected.
+	 */
+	DEFLATE;
+
+	public static final int DEFAULT_LEVEL = Deflater.DEFAULT_COMPRESSION;
+
+	private static final int GZIP_MAGIC_BYTE_1 = 0x1f;
+	private static final int GZIP_MAGIC_BYTE_2 = 0x8b;
+
+	/**
+	 * Wrap the given stream to compress all bytes written to it. The returned stream must be closed to flush the compressed data.
+	 *
+	 * @param outputStream the OutputStream to write compressed bytes to
+	 * @param level        the compression level, from 0 to 9, or {@link #DEFAULT_LEVEL}
+	 * @return a compressing OutputStream
+	 * @throws IOException if an I/O error occurs
+	 */
+	@NonNull
+	public OutputStream compress(@NonNull OutputStream outputStream, @IntRange(from = -1, to = 9) final int level) throws IOException {
+		switch (this) {
+			case GZIP:
+				return new GZIPOutputStream(outputStream, IOUtils.DEFAULT_BUFFER_SIZE) {
+					{
+						def.setLevel(level);
+					}
+				};
+			case DEFLATE:
+				return new DeflaterOutputStream(outputStream, new Deflater(level), IOUtils.DEFAULT_BUFFER_SIZE) {
+					@Override
+					public void close() throws IOException {
+						try {
+							super.close();
+						} finally {
+							def.end();
+						}
+					}
+				};
+			default:
+				return outputStream;
+		}
+	}
+
+	/**
+	 * Wrap the given stream to decompress all bytes read from it.
+	 *
+	 * @param inputStream the InputStream providing compressed bytes
+	 * @return a decompressing InputStream
+	 * @throws IOException if an I/O error occurs
+	 */
+	@NonNull
+	public InputStream decompress(@NonNull InputStream inputStream) throws IOException {
+		switch (this) {
+			case GZIP:
+				return new GZIPInputStream(inputStream, IOUtils.DEFAULT_BUFFER_SIZE);
+			case DEFLATE:
+				return new InflaterInputStream(inputStream, new Inflater(), IOUtils.DEFAULT_BUFFER_SIZE) {
+					@Override
+					public void close() throws IOException {
+						try {
+							super.close();
+						} finally {
+							inf.end();
+						}
+					}
+				};
+			default:
+				return inputStream;
+		}
+	}
+
+	/**
+	 * Wrap the given stream to transparently decompress it if it starts with gzip magic bytes, otherwise bytes are returned as is.
+	 *
+	 * @param inputStream the InputStream to read from
+	 * @return a possibly decompressing InputStream
+	 * @throws IOException if an I/O error occurs
+	 */
+	@NonNull
+	public static InputStream detect(@NonNull InputStream inputStream) throws IOException {
+		InputStream markableInputStream = inputStream.markSupported() ? inputStream : new BufferedInputStream(inputStream, IOUtils.DEFAULT_BUFFER_SIZE);
+
+		markableInputStream.mark(2);
+		int b1 = markableInputStream.read();
+		int b2 = markableInputStream.read();
+		markableInputStream.reset();
+
+		if (b1 == GZIP_MAGIC_BYTE_1 && b2 == GZIP_MAGIC_BYTE_2)
+			return GZIP.decompress(markableInputStream);
+		return markableInputStream;
+	}
+
+}
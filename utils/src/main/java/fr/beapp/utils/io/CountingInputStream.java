@@ -0,0 +1,82 @@
+package fr.beapp.utils.io;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * {@link FilterInputStream} counting the number of bytes read, optionally reporting them to a {@link TransferMeter}.
+ */
+public class CountingInputStream extends FilterInputStream {
+
+	@Nullable
+	private final TransferMeter transferMeter;
+	private long byteCount;
+	private long markedByteCount;
+
+	public CountingInputStream(@NonNull InputStream in) {
+		this(in, null);
+	}
+
+	public CountingInputStream(@NonNull InputStream in, @Nullable TransferMeter transferMeter) {
+		super(in);
+		this.transferMeter = transferMeter;
+	}
+
+	@Override
+	public int read() throws IOException {
+		int result = super.read();
+		if (result != -1) {
+			count(1);
+		}
+		return result;
+	}
+
+	@Override
+	public int read(@NonNull byte[] b, int off, int len) throws IOException {
+		int n = super.read(b, off, len);
+		if (n > 0) {
+			count(n);
+		}
+		return n;
+	}
+
+	@Override
+	public long skip(long n) throws IOException {
+		long skipped = super.skip(n);
+		if (skipped > 0) {
+			count(skipped);
+		}
+		return skipped;
+	}
+
+	@Override
+	public synchronized void mark(int readLimit) {
+		super.mark(readLimit);
+		markedByteCount = byteCount;
+	}
+
+	@Override
+	public synchronized void reset() throws IOException {
+		super.reset();
+		byteCount = markedByteCount;
+	}
+
+	/**
+	 * @return the number of bytes read so far
+	 */
+	public long getByteCount() {
+		return byteCount;
+	}
+
+	private void count(long n) {
+		byteCount += n;
+		if (transferMeter != null) {
+			transferMeter.update(n);
+		}
+	}
+
+}
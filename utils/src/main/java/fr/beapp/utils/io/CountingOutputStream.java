@@ -0,0 +1,55 @@
+package fr.beapp.utils.io;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * {@link FilterOutputStream} counting the number of bytes written, optionally reporting them to a {@link TransferMeter}.
+ */
+public class CountingOutputStream extends FilterOutputStream {
+
+	@Nullable
+	private final TransferMeter transferMeter;
+	private long byteCount;
+
+	public CountingOutputStream(@NonNull OutputStream out) {
+		this(out, null);
+	}
+
+	public CountingOutputStream(@NonNull OutputStream out, @Nullable TransferMeter transferMeter) {
+		super(out);
+		this.transferMeter = transferMeter;
+	}
+
+	@Override
+	public void write(int b) throws IOException {
+		out.write(b);
+		count(1);
+	}
+
+	@Override
+	public void write(@NonNull byte[] b, int off, int len) throws IOException {
+		// FilterOutputStream writes byte per byte by default
+		out.write(b, off, len);
+		count(len);
+	}
+
+	/**
+	 * @return the number of bytes written so far
+	 */
+	public long getByteCount() {
+		return byteCount;
+	}
+
+	private void count(long n) {
+		byteCount += n;
+		if (transferMeter != null) {
+			transferMeter.update(n);
+		}
+	}
+
+}
@@ -0,0 +1,129 @@
+package fr.beapp.utils.io;
+
+import android.os.Build;
+
+import androidx.annotation.NonNull;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.zip.CRC32;
+
+/**
+ * Hash and checksum algorithms supported by {@link HashUtils} and the hashing streams.
+ */
+public enum HashAlgorithm {
+	MD5("MD5"),
+	SHA_1("SHA-1"),
+	SHA_256("SHA-256"),
+	CRC32(null);
+
+	private final String digestName;
+
+	HashAlgorithm(String digestName) {
+		this.digestName = digestName;
+	}
+
+	/**
+	 * Create a new stateful {@link Hasher} for this algorithm.
+	 *
+	 * @return a fresh hasher
+	 */
+	@NonNull
+	public Hasher newHasher() {
+		if (digestName == null)
+			return new ChecksumHasher();
+
+		try {
+			return new DigestHasher(MessageDigest.getInstance(digestName));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("Algorithm " + digestName + " not available", e);
+		}
+	}
+
+	/**
+	 * Incremental hash computation
+	 */
+	public interface Hasher {
+
+		void update(@NonNull byte[] bytes, int offset, int length);
+
+		/**
+		 * Hash the remaining bytes of the buffer. Heap buffers are hashed in place. Direct buffers, like memory-mapped ones, are usually read
+		 * through a small temporary array, except for CRC32 since Android O. The buffer position is moved to its limit.
+		 */
+		void update(@NonNull ByteBuffer buffer);
+
+		/**
+		 * Complete the computation and reset the hasher.
+		 *
+		 * @return the hash value
+		 */
+		@NonNull
+		byte[] digest();
+
+	}
+
+	private static class DigestHasher implements Hasher {
+		private final MessageDigest messageDigest;
+
+		DigestHasher(MessageDigest messageDigest) {
+			this.messageDigest = messageDigest;
+		}
+
+		@Override
+		public void update(@NonNull byte[] bytes, int offset, int length) {
+			messageDigest.update(bytes, offset, length);
+		}
+
+		@Override
+		public void update(@NonNull ByteBuffer buffer) {
+			messageDigest.update(buffer);
+		}
+
+		@NonNull
+		@Override
+		public byte[] digest() {
+			return messageDigest.digest();
+		}
+	}
+
+	private static class ChecksumHasher implements Hasher {
+		private final CRC32 checksum = new CRC32();
+		private byte[] copyBuffer;
+
+		@Override
+		public void update(@NonNull byte[] bytes, int offset, int length) {
+			checksum.update(bytes, offset, length);
+		}
+
+		@Override
+		public void update(@NonNull ByteBuffer buffer) {
+			if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+				checksum.update(buffer);
+			} else if (buffer.hasArray()) {
+				checksum.update(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+				buffer.position(buffer.limit());
+			} else {
+				// CRC32 only reads buffers directly since Android O
+				if (copyBuffer == null) {
+					copyBuffer = new byte[IOUtils.DEFAULT_BUFFER_SIZE];
+				}
+				while (buffer.hasRemaining()) {
+					int n = Math.min(copyBuffer.length, buffer.remaining());
+					buffer.get(copyBuffer, 0, n);
+					checksum.update(copyBuffer, 0, n);
+				}
+			}
+		}
+
+		@NonNull
+		@Override
+		public byte[] digest() {
+			long value = checksum.getValue();
+			checksum.reset();
+			return new byte[]{(byte) (value >>> 24), (byte) (value >>> 16), (byte) (value >>> 8), (byte) value};
+		}
+	}
+
+}
@@ -0,0 +1,201 @@
+package fr.beapp.utils.io;
+
+import androidx.annotation.IntRange;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Compute hashes and checksums of streams and files, formatted as lowercase hexadecimal Strings.
+ * <p/>
+ * Files bigger than {@link #MAPPED_READ_THRESHOLD} are memory-mapped instead of being read through a stream.
+ */
+public class HashUtils {
+
+	/**
+	 * Files bigger than this size are read through a memory-mapped buffer instead of stream reads
+	 */
+	public static final long MAPPED_READ_THRESHOLD = 1024 * 1024;
+
+	private static final long MAPPED_WINDOW_SIZE = 16 * 1024 * 1024;
+	private static final int HASH_BUFFER_SIZE = 64 * 1024;
+	private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+	private HashUtils() {
+	}
+
+	/**
+	 * Format the given bytes as a lowercase hexadecimal String.
+	 *
+	 * @param bytes the bytes to format
+	 * @return the hexadecimal representation
+	 */
+	@NonNull
+	public static String toHex(@NonNull byte[] bytes) {
+		char[] chars = new char[bytes.length * 2];
+		for (int i = 0; i < bytes.length; i++) {
+			chars[i * 2] = HEX_DIGITS[(bytes[i] >> 4) & 0x0F];
+			chars[i * 2 + 1] = HEX_DIGITS[bytes[i] & 0x0F];
+		}
+		return new String(chars);
+	}
+
+	/**
+	 * Copies bytes from an InputStream to an OutputStream, computing the hash of the content in the same pass.
+	 *
+	 * @param inputStream  the InputStream to read from
+	 * @param outputStream the OutputStream to write to
+	 * @param algorithm    the hash algorithm to use
+	 * @return the hexadecimal hash of the copied bytes
+	 * @throws IOException if an I/O error occurs
+	 */
+	@NonNull
+	public static String copy(@NonNull InputStream inputStream, @NonNull OutputStream outputStream, @NonNull HashAlgorithm algorithm) throws IOException {
+		HashingOutputStream hashingOutputStream = new HashingOutputStream(outputStream, algorithm);
+		IOUtils.copy(inputStream, hashingOutputStream);
+		return toHex(hashingOutputStream.digest());
+	}
+
+	/**
+	 * Compute the hash of the content of an InputStream. The stream is not closed.
+	 *
+	 * @param inputStream the InputStream to read from
+	 * @param algorithm   the hash algorithm to use
+	 * @return the hexadecimal hash, or <code>null</code> if the stream was <code>null</code>
+	 * @throws IOException if an I/O error occurs
+	 */
+	@Nullable
+	public static String hash(@Nullable InputStream inputStream, @NonNull HashAlgorithm algorithm) throws IOException {
+		if (inputStream == null)
+			return null;
+
+		HashAlgorithm.Hasher hasher = algorithm.newHasher();
+		hash(inputStream, hasher, new byte[IOUtils.DEFAULT_BUFFER_SIZE]);
+		return toHex(hasher.digest());
+	}
+
+	/**
+	 * Compute the hash of the content of a File. Files bigger than {@link #MAPPED_READ_THRESHOLD} are memory-mapped.
+	 *
+	 * @param file      the File to read from
+	 * @param algorithm the hash algorithm to use
+	 * @return the hexadecimal hash, or <code>null</code> if the file was <code>null</code>
+	 * @throws IOException if an I/O error occurs
+	 */
+	@Nullable
+	public static String hash(@Nullable File file, @NonNull HashAlgorithm algorithm) throws IOException {
+		if (file == null)
+			return null;
+
+		return hash(file, algorithm, new byte[HASH_BUFFER_SIZE]);
+	}
+
+	/**
+	 * Compute the hashes of many files concurrently.
+	 * <p/>
+	 * Each worker reuses a pooled buffer, so memory stays bounded by the parallelism whatever the number of files.
+	 *
+	 * @param files       the files to hash
+	 * @param algorithm   the hash algorithm to use
+	 * @param parallelism the maximum number of files hashed at the same time
+	 * @return the hexadecimal hash of each file, in the iteration order of <code>files</code>
+	 * @throws IOException if an I/O error occurs on any of the files
+	 */
+	@NonNull
+	public static Map<File, String> hashFiles(@NonNull Collection<File> files, @NonNull final HashAlgorithm algorithm, @IntRange(from = 1) int parallelism) throws IOException {
+		Map<File, String> hashes = new LinkedHashMap<>();
+		if (files.isEmpty())
+			return hashes;
+
+		int threads = Math.max(1, Math.min(parallelism, files.size()));
+		final BlockingQueue<byte[]> bufferPool = new ArrayBlockingQueue<>(threads);
+		for (int i = 0; i < threads; i++) {
+			bufferPool.add(new byte[HASH_BUFFER_SIZE]);
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<String>> futures = new ArrayList<>(files.size());
+			for (final File file : files) {
+				futures.add(executor.submit(new Callable<String>() {
+					@Override
+					public String call() throws Exception {
+						byte[] buffer = bufferPool.take();
+						try {
+							return hash(file, algorithm, buffer);
+						} finally {
+							bufferPool.add(buffer);
+						}
+					}
+				}));
+			}
+
+			int i = 0;
+			for (File file : files) {
+				hashes.put(file, futures.get(i++).get());
+			}
+			return hashes;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while hashing files", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof IOException)
+				throw (IOException) e.getCause();
+			throw new IOException("Failed to hash files", e.getCause());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private static String hash(@NonNull File file, @NonNull HashAlgorithm algorithm, @NonNull byte[] buffer) throws IOException {
+		HashAlgorithm.Hasher hasher = algorithm.newHasher();
+
+		FileInputStream fileInputStream = null;
+		try {
+			fileInputStream = new FileInputStream(file);
+			long length = file.length();
+			if (length > MAPPED_READ_THRESHOLD) {
+				hash(fileInputStream.getChannel(), length, hasher);
+			} else {
+				hash(fileInputStream, hasher, buffer);
+			}
+		} finally {
+			IOUtils.closeQuietly(fileInputStream);
+		}
+		return toHex(hasher.digest());
+	}
+
+	private static void hash(@NonNull InputStream inputStream, @NonNull HashAlgorithm.Hasher hasher, @NonNull byte[] buffer) throws IOException {
+		int n;
+		while ((n = inputStream.read(buffer)) != -1) {
+			hasher.update(buffer, 0, n);
+		}
+	}
+
+	private static void hash(@NonNull FileChannel channel, long length, @NonNull HashAlgorithm.Hasher hasher) throws IOException {
+		for (long position = 0; position < length; position += MAPPED_WINDOW_SIZE) {
+			MappedByteBuffer mappedBuffer = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(MAPPED_WINDOW_SIZE, length - position));
+			hasher.update(mappedBuffer);
+		}
+	}
+
+}
@@ -0,0 +1,93 @@
+package fr.beapp.utils.io;
+
+import androidx.annotation.NonNull;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * {@link FilterInputStream} computing a hash of all bytes read, so content can be verified in the same pass as it is consumed.
+ * <p/>
+ * Skipped bytes are read and hashed too. Mark and reset are not supported, as already hashed bytes can't be rewound.
+ */
+public class HashingInputStream extends FilterInputStream {
+
+	private final HashAlgorithm.Hasher hasher;
+	private byte[] skipBuffer;
+
+	public HashingInputStream(@NonNull InputStream in, @NonNull HashAlgorithm algorithm) {
+		this(in, algorithm.newHasher());
+	}
+
+	public HashingInputStream(@NonNull InputStream in, @NonNull HashAlgorithm.Hasher hasher) {
+		super(in);
+		this.hasher = hasher;
+	}
+
+	@Override
+	public int read() throws IOException {
+		int b = in.read();
+		if (b != -1) {
+			hasher.update(new byte[]{(byte) b}, 0, 1);
+		}
+		return b;
+	}
+
+	@Override
+	public int read(@NonNull byte[] b, int off, int len) throws IOException {
+		int n = in.read(b, off, len);
+		if (n > 0) {
+			hasher.update(b, off, n);
+		}
+		return n;
+	}
+
+	/**
+	 * Read and hash the skipped bytes, instead of skipping them in the underlying stream.
+	 */
+	@Override
+	public long skip(long n) throws IOException {
+		if (n <= 0)
+			return 0;
+
+		if (skipBuffer == null) {
+			skipBuffer = new byte[(int) Math.min(IOUtils.DEFAULT_BUFFER_SIZE, n)];
+		}
+
+		long skipped = 0;
+		while (skipped < n) {
+			int read = read(skipBuffer, 0, (int) Math.min(skipBuffer.length, n - skipped));
+			if (read == -1)
+				break;
+			skipped += read;
+		}
+		return skipped;
+	}
+
+	@Override
+	public boolean markSupported() {
+		return false;
+	}
+
+	@Override
+	public synchronized void mark(int readLimit) {
+		// Not supported
+	}
+
+	@Override
+	public synchronized void reset() throws IOException {
+		throw new IOException("reset not supported");
+	}
+
+	/**
+	 * Complete the hash computation of the bytes read so far.
+	 *
+	 * @return the hash value
+	 */
+	@NonNull
+	public byte[] digest() {
+		return hasher.digest();
+	}
+
+}
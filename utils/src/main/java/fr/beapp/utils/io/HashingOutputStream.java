@@ -0,0 +1,47 @@
+package fr.beapp.utils.io;
+
+import androidx.annotation.NonNull;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * {@link FilterOutputStream} computing a hash of all bytes written, so content can be hashed while it is copied.
+ */
+public class HashingOutputStream extends FilterOutputStream {
+
+	private final HashAlgorithm.Hasher hasher;
+
+	public HashingOutputStream(@NonNull OutputStream out, @NonNull HashAlgorithm algorithm) {
+		this(out, algorithm.newHasher());
+	}
+
+	public HashingOutputStream(@NonNull OutputStream out, @NonNull HashAlgorithm.Hasher hasher) {
+		super(out);
+		this.hasher = hasher;
+	}
+
+	@Override
+	public void write(int b) throws IOException {
+		out.write(b);
+		hasher.update(new byte[]{(byte) b}, 0, 1);
+	}
+
+	@Override
+	public void write(@NonNull byte[] b, int off, int len) throws IOException {
+		out.write(b, off, len);
+		hasher.update(b, off, len);
+	}
+
+	/**
+	 * Complete the hash computation of the bytes written so far.
+	 *
+	 * @return the hash value
+	 */
+	@NonNull
+	public byte[] digest() {
+		return hasher.digest();
+	}
+
+}
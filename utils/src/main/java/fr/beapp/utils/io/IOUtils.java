@@ -12,6 +12,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.Reader;
 import java.io.StringWriter;
 import java.io.Writer;
@@ -88,6 +89,44 @@ public class IOUtils {
 		}
 	}
 
+	/**
+	 * Gets the contents of an InputStream as a String using the default character encoding of the platform, decompressing it on the fly.
+	 *
+	 * @param inputStream the InputStream to read from
+	 * @param compression the compression used by the stream content, or <code>null</code> to detect gzip content by its magic bytes
+	 * @return the requested String
+	 * @throws IOException if an I/O error occurs
+	 */
+	@Nullable
+	public static String readFromStream(@Nullable InputStream inputStream, @Nullable Compression compression) throws IOException {
+		if (inputStream == null)
+			return null;
+
+		return readFromStream(compression == null ? Compression.detect(inputStream) : compression.decompress(inputStream));
+	}
+
+	/**
+	 * Gets the contents of a File as a String using the default character encoding of the platform, decompressing it on the fly.
+	 *
+	 * @param inputFile   the File to read from
+	 * @param compression the compression used by the file content, or <code>null</code> to detect gzip content by its magic bytes
+	 * @return the requested String
+	 * @throws IOException if an I/O error occurs
+	 */
+	@Nullable
+	public static String readFromFile(@Nullable File inputFile, @Nullable Compression compression) throws IOException {
+		if (inputFile == null)
+			return null;
+
+		FileInputStream fileInputStream = null;
+		try {
+			fileInputStream = new FileInputStream(inputFile);
+			return readFromStream(fileInputStream, compression);
+		} finally {
+			closeQuietly(fileInputStream);
+		}
+	}
+
 	/**
 	 * Writes chars from a String to bytes on an OutputStream using the default character encoding of the platform.
 	 * <p/>
@@ -141,6 +180,62 @@ public class IOUtils {
 		}
 	}
 
+	/**
+	 * Writes chars from a String to compressed bytes on an OutputStream using the default character encoding of the platform.
+	 * <p/>
+	 * Chars are encoded and compressed on the fly, without building an intermediate byte array.
+	 *
+	 * @param value        the String to write, <code>null</code> ignored
+	 * @param outputStream the OutputStream to write to
+	 * @param compression  the compression format to use
+	 * @param level        the compression level, from 0 to 9, or {@link Compression#DEFAULT_LEVEL}
+	 * @return <code>true</code> if the given value wasn't <code>null</code> and has been written, <code>false</code> if the value was <code>null</code>
+	 * @throws IOException if an I/O error occurs
+	 */
+	public static boolean writeToStream(@Nullable String value, @NonNull OutputStream outputStream, @NonNull Compression compression, int level) throws IOException {
+		if (value == null)
+			return false;
+
+		Writer writer = null;
+		try {
+			writer = new OutputStreamWriter(compression.compress(new BufferedOutputStream(outputStream), level));
+			writer.write(value);
+			writer.close();
+			return true;
+		} finally {
+			closeQuietly(writer);
+		}
+	}
+
+	/**
+	 * Writes chars from a String into a compressed file using the default character encoding of the platform.
+	 * <p/>
+	 * This method will try to create parents folders if needed.
+	 *
+	 * @param value       the String to write, <code>null</code> ignored
+	 * @param outputFile  the output file to write to
+	 * @param compression the compression format to use
+	 * @param level       the compression level, from 0 to 9, or {@link Compression#DEFAULT_LEVEL}
+	 * @return <code>true</code> if the given value wasn't <code>null</code> and has been written, <code>false</code> if the value was <code>null</code>
+	 * @throws IOException if an I/O error occurs
+	 */
+	public static boolean writeToFile(@Nullable String value, @NonNull File outputFile, @NonNull Compression compression, int level) throws IOException {
+		if (value == null)
+			return false;
+
+		File parentFile = outputFile.getParentFile();
+		parentFile.mkdirs();
+
+		FileOutputStream fileOutputStream = null;
+		try {
+			fileOutputStream = new FileOutputStream(outputFile);
+			writeToStream(value, fileOutputStream, compression, level);
+			return true;
+		} finally {
+			closeQuietly(fileOutputStream);
+		}
+	}
+
 	/**
 	 * Copies bytes from an InputStream to an OutputStream.
 	 * <p/>
@@ -162,6 +257,27 @@ public class IOUtils {
 		return count;
 	}
 
+	/**
+	 * Copies bytes from an InputStream to an OutputStream, reporting progress, transfer rate and ETA to the given listener.
+	 * <p/>
+	 * The listener is called at most once every <code>intervalMillis</code>, and a last time once the copy is complete.
+	 *
+	 * @param inputStream    the InputStream to read from
+	 * @param outputStream   the OutputStream to write to
+	 * @param totalBytes     the expected number of bytes to copy, or a negative value if unknown
+	 * @param intervalMillis the minimum delay between two listener calls
+	 * @param listener       the listener to notify
+	 * @return the number of bytes copied
+	 * @throws IOException if an I/O error occurs
+	 */
+	public static long copy(@NonNull InputStream inputStream, @NonNull OutputStream outputStream, long totalBytes, long intervalMillis, @NonNull TransferMeter.ProgressListener listener) throws IOException {
+		TransferMeter transferMeter = new TransferMeter(totalBytes, intervalMillis, listener);
+		transferMeter.start();
+		long count = copy(inputStream, new CountingOutputStream(outputStream, transferMeter));
+		transferMeter.finish();
+		return count;
+	}
+
 	/**
 	 * Copies chars from a Reader to a Writer.
 	 * <p/>
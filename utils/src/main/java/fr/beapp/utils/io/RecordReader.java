@@ -0,0 +1,212 @@
+package fr.beapp.utils.io;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+
+/**
+ * Read a character stream record by record, either line by line or split on a given delimiter, without loading the whole content in memory.
+ * <p/>
+ * Records are exposed as {@link CharSequence} views over a reusable internal buffer, so no String is allocated per record.
+ * <strong>A record returned by {@link #next()} is only valid until the next call</strong>: call {@link CharSequence#toString()} to keep it.
+ * <p/>
+ * Like {@link java.io.BufferedReader#readLine()}, an empty trailing record after the last delimiter is not reported.
+ */
+public class RecordReader implements Closeable {
+
+	private static final int LINE_MODE = -1;
+
+	private final Reader reader;
+	private final int delimiter;
+	private final RecordView recordView = new RecordView();
+
+	private char[] buffer;
+	private int start;
+	private int end;
+	private int scanPosition;
+	private boolean endOfStream;
+	private boolean skipLineFeed;
+
+	private RecordReader(@NonNull Reader reader, int delimiter, int bufferSize) {
+		if (bufferSize <= 0)
+			throw new IllegalArgumentException("Invalid buffer size: " + bufferSize);
+
+		this.reader = reader;
+		this.delimiter = delimiter;
+		this.buffer = new char[bufferSize];
+	}
+
+	/**
+	 * Read the given stream line by line, using the default character encoding of the platform.
+	 * Lines are terminated by either <code>\n</code>, <code>\r</code> or <code>\r\n</code>.
+	 *
+	 * @param inputStream the InputStream to read from
+	 * @return a new RecordReader, to be closed once done
+	 */
+	@NonNull
+	public static RecordReader lines(@NonNull InputStream inputStream) {
+		return lines(new InputStreamReader(inputStream));
+	}
+
+	/**
+	 * Read the given file line by line, using the default character encoding of the platform.
+	 * Lines are terminated by either <code>\n</code>, <code>\r</code> or <code>\r\n</code>.
+	 *
+	 * @param file the File to read from
+	 * @return a new RecordReader, to be closed once done
+	 * @throws IOException if the file can't be opened
+	 */
+	@NonNull
+	public static RecordReader lines(@NonNull File file) throws IOException {
+		return lines(new FileInputStream(file));
+	}
+
+	/**
+	 * Read the given reader line by line. Lines are terminated by either <code>\n</code>, <code>\r</code> or <code>\r\n</code>.
+	 *
+	 * @param reader the Reader to read from
+	 * @return a new RecordReader, to be closed once done
+	 */
+	@NonNull
+	public static RecordReader lines(@NonNull Reader reader) {
+		return new RecordReader(reader, LINE_MODE, IOUtils.DEFAULT_BUFFER_SIZE);
+	}
+
+	/**
+	 * Read the given reader record by record, records being separated by the given delimiter.
+	 *
+	 * @param reader    the Reader to read from
+	 * @param delimiter the record delimiter
+	 * @return a new RecordReader, to be closed once done
+	 */
+	@NonNull
+	public static RecordReader records(@NonNull Reader reader, char delimiter) {
+		return new RecordReader(reader, delimiter, IOUtils.DEFAULT_BUFFER_SIZE);
+	}
+
+	/**
+	 * Read the given reader record by record, records being separated by the given delimiter.
+	 *
+	 * @param reader     the Reader to read from
+	 * @param delimiter  the record delimiter
+	 * @param bufferSize the initial size of the internal buffer, which grows if a record doesn't fit in it
+	 * @return a new RecordReader, to be closed once done
+	 */
+	@NonNull
+	public static RecordReader records(@NonNull Reader reader, char delimiter, int bufferSize) {
+		return new RecordReader(reader, delimiter, bufferSize);
+	}
+
+	/**
+	 * Read the next record.
+	 *
+	 * @return a view over the next record, only valid until next call, or <code>null</code> if the end of the stream was reached
+	 * @throws IOException if an I/O error occurs
+	 */
+	@Nullable
+	public CharSequence next() throws IOException {
+		while (true) {
+			if (skipLineFeed && start < end) {
+				skipLineFeed = false;
+				if (buffer[start] == '\n') {
+					start++;
+					scanPosition = start;
+				}
+			}
+
+			for (int i = scanPosition; i < end; i++) {
+				char c = buffer[i];
+				if (delimiter == LINE_MODE ? (c == '\n' || c == '\r') : c == delimiter) {
+					recordView.set(start, i - start);
+					skipLineFeed = delimiter == LINE_MODE && c == '\r';
+					start = i + 1;
+					scanPosition = start;
+					return recordView;
+				}
+			}
+			scanPosition = end;
+
+			if (endOfStream) {
+				if (start < end) {
+					recordView.set(start, end - start);
+					start = end;
+					scanPosition = end;
+					return recordView;
+				}
+				return null;
+			}
+
+			fill();
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		reader.close();
+	}
+
+	private void fill() throws IOException {
+		int pending = end - start;
+		if (start > 0) {
+			System.arraycopy(buffer, start, buffer, 0, pending);
+			start = 0;
+			end = pending;
+			scanPosition = pending;
+		} else if (end == buffer.length) {
+			char[] newBuffer = new char[buffer.length * 2];
+			System.arraycopy(buffer, 0, newBuffer, 0, end);
+			buffer = newBuffer;
+		}
+
+		int n = reader.read(buffer, end, buffer.length - end);
+		if (n == -1) {
+			endOfStream = true;
+		} else {
+			end += n;
+		}
+	}
+
+	private class RecordView implements CharSequence {
+		private int offset;
+		private int length;
+
+		void set(int offset, int length) {
+			this.offset = offset;
+			this.length = length;
+		}
+
+		@Override
+		public int length() {
+			return length;
+		}
+
+		@Override
+		public char charAt(int index) {
+			if (index < 0 || index >= length)
+				throw new IndexOutOfBoundsException("Invalid index " + index + " for length " + length);
+			return buffer[offset + index];
+		}
+
+		@NonNull
+		@Override
+		public CharSequence subSequence(int start, int end) {
+			if (start < 0 || end > length || start > end)
+				throw new IndexOutOfBoundsException("Invalid range [" + start + ", " + end + "[ for length " + length);
+			return new String(buffer, offset + start, end - start);
+		}
+
+		@NonNull
+		@Override
+		public String toString() {
+			return new String(buffer, offset, length);
+		}
+	}
+
+}
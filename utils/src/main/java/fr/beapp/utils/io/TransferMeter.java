@@ -0,0 +1,137 @@
+package fr.beapp.utils.io;
+
+import androidx.annotation.NonNull;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keep track of the bytes transferred through a stream and periodically report progress, transfer rate and ETA to a {@link ProgressListener}.
+ * <p/>
+ * Listener calls are throttled to at most one every <code>intervalMillis</code>, so it can safely be used with small buffers without flooding the listener.
+ * The transfer rate is an exponential moving average computed at each notification.
+ * <p/>
+ * This class is not thread-safe, it's expected to be fed by a single copy loop.
+ */
+public class TransferMeter {
+
+	public static final long DEFAULT_INTERVAL_MILLIS = 250;
+
+	/**
+	 * Weight given to the last measured rate in the moving average
+	 */
+	private static final double SMOOTHING_FACTOR = 0.3;
+
+	private final long totalBytes;
+	private final long intervalNanos;
+	private final ProgressListener listener;
+
+	private long bytesTransferred;
+	private long lastNotificationNanos = -1;
+	private long lastNotificationBytes;
+	private double averageRate = -1;
+
+	/**
+	 * @param totalBytes     the expected number of bytes to transfer, or a negative value if unknown
+	 * @param intervalMillis the minimum delay between two listener calls
+	 * @param listener       the listener to notify
+	 */
+	public TransferMeter(long totalBytes, long intervalMillis, @NonNull ProgressListener listener) {
+		this.totalBytes = totalBytes;
+		this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, intervalMillis));
+		this.listener = listener;
+	}
+
+	/**
+	 * Start measuring, resetting the transfer clock. Calling this method is optional as the first {@link #update(long)} will start the clock.
+	 */
+	public void start() {
+		lastNotificationNanos = now();
+		lastNotificationBytes = bytesTransferred;
+	}
+
+	/**
+	 * Record newly transferred bytes and notify the listener if the throttling interval has elapsed.
+	 *
+	 * @param bytes the number of bytes transferred since last call
+	 */
+	public void update(long bytes) {
+		if (lastNotificationNanos < 0) {
+			start();
+		}
+
+		bytesTransferred += bytes;
+
+		long now = now();
+		if (now - lastNotificationNanos >= intervalNanos) {
+			notifyListener(now);
+		}
+	}
+
+	/**
+	 * Notify the listener with the final state of the transfer, whatever the throttling interval.
+	 */
+	public void finish() {
+		if (lastNotificationNanos < 0) {
+			start();
+		}
+		notifyListener(now());
+	}
+
+	public long getBytesTransferred() {
+		return bytesTransferred;
+	}
+
+	public long getTotalBytes() {
+		return totalBytes;
+	}
+
+	/**
+	 * @return the smoothed transfer rate, in bytes per second, or -1 if not measured yet
+	 */
+	public long getBytesPerSecond() {
+		return averageRate < 0 ? -1 : Math.round(averageRate);
+	}
+
+	/**
+	 * @return the estimated remaining time in milliseconds, or -1 if it can't be estimated
+	 */
+	public long getEtaMillis() {
+		if (totalBytes < 0 || averageRate <= 0)
+			return -1;
+
+		long remainingBytes = Math.max(0, totalBytes - bytesTransferred);
+		return Math.round(remainingBytes * 1000d / averageRate);
+	}
+
+	protected long now() {
+		return System.nanoTime();
+	}
+
+	private void notifyListener(long now) {
+		long elapsedNanos = now - lastNotificationNanos;
+		if (elapsedNanos > 0) {
+			double rate = (bytesTransferred - lastNotificationBytes) * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+			averageRate = averageRate < 0 ? rate : SMOOTHING_FACTOR * rate + (1 - SMOOTHING_FACTOR) * averageRate;
+		}
+
+		lastNotificationNanos = now;
+		lastNotificationBytes = bytesTransferred;
+
+		listener.onProgress(bytesTransferred, totalBytes, getBytesPerSecond(), getEtaMillis());
+	}
+
+	public interface ProgressListener {
+
+		/**
+		 * Called periodically while bytes are transferred.
+		 *
+		 * @param bytesTransferred the number of bytes transferred so far
+		 * @param totalBytes       the expected number of bytes, or a negative value if unknown
+		 * @param bytesPerSecond   the smoothed transfer rate, or -1 if not measured yet
+		 * @param etaMillis        the estimated remaining time in milliseconds, or -1 if unknown
+		 */
+		void onProgress(long bytesTransferred, long totalBytes, long bytesPerSecond, long etaMillis);
+
+	}
+
+}
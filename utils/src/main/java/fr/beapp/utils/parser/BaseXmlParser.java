@@ -11,12 +11,16 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.xpath.XPath;
 import javax.xml.xpath.XPathConstants;
+import javax.xml.xpath.XPathExpression;
+import javax.xml.xpath.XPathExpressionException;
 import javax.xml.xpath.XPathFactory;
 
 import androidx.annotation.NonNull;
@@ -25,10 +29,21 @@ import fr.beapp.logger.Logger;
 import fr.beapp.utils.io.IOUtils;
 import fr.beapp.utils.lang.StringUtils;
 
+/**
+ * Base class for DOM based XML parsers.
+ * <p/>
+ * Document builders are configured once per thread and reset between documents, and XPath expressions are compiled once per thread,
+ * so parsing many small documents doesn't pay their setup again and again.
+ */
 public abstract class BaseXmlParser {
 
-	private final XPathFactory xPathFactory = XPathFactory.newInstance();
-	private final XPath xPath = xPathFactory.newXPath();
+	private static final ThreadLocal<DocumentBuilder> documentBuilders = new ThreadLocal<>();
+	private static final ThreadLocal<XPathCache> xPathCaches = new ThreadLocal<XPathCache>() {
+		@Override
+		protected XPathCache initialValue() {
+			return new XPathCache();
+		}
+	};
 
 	protected Document parseDocument(@NonNull File file) throws ParserConfigurationException, IOException, SAXException {
 		FileInputStream fileInputStream = null;
@@ -41,6 +56,21 @@ public abstract class BaseXmlParser {
 	}
 
 	protected Document parseDocument(@NonNull InputStream inputStream) throws ParserConfigurationException, IOException, SAXException {
+		DocumentBuilder documentBuilder = documentBuilders.get();
+		if (documentBuilder == null) {
+			documentBuilder = newDocumentBuilder();
+			documentBuilders.set(documentBuilder);
+		}
+
+		try {
+			return documentBuilder.parse(inputStream);
+		} finally {
+			documentBuilder.reset();
+		}
+	}
+
+	@NonNull
+	private static DocumentBuilder newDocumentBuilder() throws ParserConfigurationException {
 		DocumentBuilderFactory dbFactory = DocumentBuilderFactory.newInstance();
 
 		// Protection against untrusted XML input
@@ -52,8 +82,7 @@ public abstract class BaseXmlParser {
 		dbFactory.setXIncludeAware(false);
 		dbFactory.setExpandEntityReferences(false);
 
-		DocumentBuilder dBuilder = dbFactory.newDocumentBuilder();
-		return dBuilder.parse(inputStream);
+		return dbFactory.newDocumentBuilder();
 	}
 
 	@Nullable
@@ -65,7 +94,7 @@ public abstract class BaseXmlParser {
 	@Nullable
 	protected Node getXNode(@Nullable Node parent, @NonNull String expression) {
 		try {
-			return (Node) xPath.evaluate(expression, parent, XPathConstants.NODE);
+			return (Node) xPathCaches.get().compile(expression).evaluate(parent, XPathConstants.NODE);
 		} catch (Exception e) {
 			Logger.error("Can't retrieve node from expression: %s", e, expression);
 		}
@@ -85,7 +114,7 @@ public abstract class BaseXmlParser {
 	@Nullable
 	protected NodeList getXNodes(@Nullable Node parent, @NonNull String expression) {
 		try {
-			return (NodeList) xPath.evaluate(expression, parent, XPathConstants.NODESET);
+			return (NodeList) xPathCaches.get().compile(expression).evaluate(parent, XPathConstants.NODESET);
 		} catch (Exception e) {
 			Logger.error("Can't retrieve nodes from expression: %s", e, expression);
 		}
@@ -195,4 +224,32 @@ public abstract class BaseXmlParser {
 		return ParserUtils.parseBoolean(getAttributeByName(parent, name));
 	}
 
-}
\ No newline at end of file
+	/**
+	 * Compiled expressions of a thread, least recently used ones being evicted
+	 */
+	private static class XPathCache extends LinkedHashMap<String, XPathExpression> {
+		private static final int MAX_SIZE = 64;
+
+		private final XPath xPath = XPathFactory.newInstance().newXPath();
+
+		XPathCache() {
+			super(16, 0.75f, true);
+		}
+
+		@NonNull
+		XPathExpression compile(@NonNull String expression) throws XPathExpressionException {
+			XPathExpression xPathExpression = get(expression);
+			if (xPathExpression == null) {
+				xPathExpression = xPath.compile(expression);
+				put(expression, xPathExpression);
+			}
+			return xPathExpression;
+		}
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, XPathExpression> eldest) {
+			return size() > MAX_SIZE;
+		}
+	}
+
+}
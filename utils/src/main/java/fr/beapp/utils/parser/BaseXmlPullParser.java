@@ -0,0 +1,383 @@
+package fr.beapp.utils.parser;
+
+import android.util.Xml;
+
+import org.xmlpull.v1.XmlPullParser;
+import org.xmlpull.v1.XmlPullParserException;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import fr.beapp.utils.io.IOUtils;
+import fr.beapp.utils.lang.StringUtils;
+
+/**
+ * Streaming alternative to {@link BaseXmlParser}, reading the document with an {@link XmlPullParser} instead of building a DOM.
+ * <p/>
+ * Subclasses register {@link ElementHandler}s on element paths, like <code>catalog/book/author</code>, and only these elements are dispatched.
+ * While a handler runs, accessors like {@link #getAttributeByName(String)} or {@link #getNodeContent()} are scoped to the current element.
+ * Only the path from the root to the current element is kept in memory, whatever the document size.
+ * <p/>
+ * When only a part of the document is needed, like a header, parsing can stop as soon as {@link #requireElements(String, int) required elements}
+ * were read, or when a handler calls {@link #stopParsing()}, without reading the rest of the document.
+ */
+public abstract class BaseXmlPullParser {
+
+	public interface ElementHandler {
+		/**
+		 * @param path the path of the current element, as registered
+		 */
+		void onElement(@NonNull String path) throws IOException, XmlPullParserException;
+	}
+
+	private final PathNode rootNode = new PathNode(null, "");
+	private final ArrayList<PathNode> stack = new ArrayList<>();
+	private final ArrayList<PathNode> requiredNodes = new ArrayList<>();
+	@Nullable
+	private XmlPullParser parser;
+	private boolean startTag;
+	private boolean stopped;
+	private int pendingRequirements;
+
+	/**
+	 * Register a handler called on the start tag of each element matching the given path, before its content is read.
+	 *
+	 * @param path    the slash separated names of the elements from the root, like <code>catalog/book</code>
+	 * @param handler the handler to call
+	 */
+	protected void onStartElement(@NonNull String path, @NonNull ElementHandler handler) {
+		getPathNode(path).startHandler = handler;
+	}
+
+	/**
+	 * Register a handler called on the end tag of each element matching the given path, once its content and children were dispatched.
+	 *
+	 * @param path    the slash separated names of the elements from the root, like <code>catalog/book</code>
+	 * @param handler the handler to call
+	 */
+	protected void onEndElement(@NonNull String path, @NonNull ElementHandler handler) {
+		getPathNode(path).endHandler = handler;
+	}
+
+	/**
+	 * @see #requireElements(String, int)
+	 */
+	protected void requireElement(@NonNull String path) {
+		requireElements(path, 1);
+	}
+
+	/**
+	 * Declare that the given number of elements matching the path are needed. Once all required elements were read up to their end tag,
+	 * parsing stops and the rest of the document is ignored. Without any requirement, the whole document is parsed.
+	 *
+	 * @param path  the slash separated names of the elements from the root, like <code>catalog/book</code>
+	 * @param count the number of elements needed
+	 */
+	protected void requireElements(@NonNull String path, int count) {
+		if (count < 1)
+			throw new IllegalArgumentException("Required count must be positive: " + count);
+
+		PathNode node = getPathNode(path);
+		if (node.requiredCount == 0) {
+			requiredNodes.add(node);
+		}
+		node.requiredCount = count;
+	}
+
+	/**
+	 * Stop parsing once the current handler returns, ignoring the rest of the document.
+	 */
+	protected void stopParsing() {
+		stopped = true;
+	}
+
+	/**
+	 * @return <code>true</code> if the last parsing stopped before the end of the document
+	 */
+	protected boolean isParsingStopped() {
+		return stopped;
+	}
+
+	protected void parse(@NonNull File file) throws IOException, XmlPullParserException {
+		FileInputStream fileInputStream = null;
+		try {
+			fileInputStream = new FileInputStream(file);
+			parse(fileInputStream);
+		} finally {
+			IOUtils.closeQuietly(fileInputStream);
+		}
+	}
+
+	/**
+	 * Parse the given stream, detecting its encoding, and dispatch registered elements.
+	 * The stream is closed if parsing stops before the end of the document, as the rest of it won't be read, and left open otherwise.
+	 */
+	protected void parse(@NonNull InputStream inputStream) throws IOException, XmlPullParserException {
+		XmlPullParser xmlPullParser = Xml.newPullParser();
+		xmlPullParser.setInput(inputStream, null);
+		parse(xmlPullParser);
+
+		if (stopped) {
+			IOUtils.closeQuietly(inputStream);
+		}
+	}
+
+	protected void parse(@NonNull XmlPullParser xmlPullParser) throws IOException, XmlPullParserException {
+		parser = xmlPullParser;
+		stopped = false;
+		pendingRequirements = 0;
+		for (PathNode requiredNode : requiredNodes) {
+			requiredNode.pendingCount = requiredNode.requiredCount;
+			pendingRequirements++;
+		}
+		stack.clear();
+		stack.add(rootNode);
+		try {
+			int eventType = xmlPullParser.getEventType();
+			while (eventType != XmlPullParser.END_DOCUMENT && !stopped) {
+				if (eventType == XmlPullParser.START_TAG) {
+					startElement(xmlPullParser);
+
+					// The handler may have consumed the element up to its end tag
+					eventType = xmlPullParser.getEventType();
+					if (eventType == XmlPullParser.END_TAG || stopped)
+						continue;
+				} else if (eventType == XmlPullParser.END_TAG) {
+					endElement();
+				}
+				eventType = xmlPullParser.next();
+			}
+		} finally {
+			parser = null;
+			startTag = false;
+			stack.clear();
+		}
+	}
+
+	/**
+	 * @return the name of the current element
+	 */
+	@NonNull
+	protected String getName() {
+		return requireParser().getName();
+	}
+
+	/**
+	 * @return the depth of the current element, 1 for the root element
+	 */
+	protected int getDepth() {
+		return stack.size() - 1;
+	}
+
+	/**
+	 * Skip the content of the current element, without dispatching its children. Must be called from a start handler.
+	 */
+	protected void skipElement() throws IOException, XmlPullParserException {
+		XmlPullParser xmlPullParser = requireStartTag();
+		int depth = 1;
+		while (depth > 0) {
+			int eventType = xmlPullParser.next();
+			if (eventType == XmlPullParser.START_TAG) {
+				depth++;
+			} else if (eventType == XmlPullParser.END_TAG) {
+				depth--;
+			} else if (eventType == XmlPullParser.END_DOCUMENT) {
+				throw new XmlPullParserException("Unexpected end of document in " + xmlPullParser.getPositionDescription());
+			}
+		}
+	}
+
+	/**
+	 * @see #getNodeContent(boolean, String)
+	 */
+	@Nullable
+	protected String getNodeContent() throws IOException, XmlPullParserException {
+		return getNodeContent(false, null);
+	}
+
+	/**
+	 * Read the text content of the current element, trimmed, consuming it up to its end tag: children are not dispatched. Must be called from a start handler.
+	 *
+	 * @param fetchSubContent <code>true</code> to concatenate the text of children elements, <code>false</code> to return the default value if there are some
+	 * @param defaultValue    the value to return if there is no content
+	 */
+	@Nullable
+	protected String getNodeContent(boolean fetchSubContent, @Nullable String defaultValue) throws IOException, XmlPullParserException {
+		XmlPullParser xmlPullParser = requireStartTag();
+		StringBuilder content = null;
+		boolean onlyContent = true;
+		int depth = 1;
+		while (depth > 0) {
+			int eventType = xmlPullParser.next();
+			if (eventType == XmlPullParser.TEXT) {
+				if (content == null) {
+					content = new StringBuilder();
+				}
+				content.append(xmlPullParser.getText());
+			} else if (eventType == XmlPullParser.START_TAG) {
+				onlyContent = false;
+				depth++;
+			} else if (eventType == XmlPullParser.END_TAG) {
+				depth--;
+			} else if (eventType == XmlPullParser.END_DOCUMENT) {
+				throw new XmlPullParserException("Unexpected end of document in " + xmlPullParser.getPositionDescription());
+			}
+		}
+
+		if (content != null && (fetchSubContent || onlyContent))
+			return StringUtils.trimToBlank(content.toString());
+		return defaultValue;
+	}
+
+	@Nullable
+	protected String getAttributeByName(@NonNull String name) {
+		return getAttributeByName(name, null);
+	}
+
+	@Nullable
+	protected String getAttributeByName(@NonNull String name, @Nullable String defaultValue) {
+		XmlPullParser xmlPullParser = requireParser();
+		if (!startTag)
+			return defaultValue;
+
+		String value = xmlPullParser.getAttributeValue(null, name);
+		return value != null ? value : defaultValue;
+	}
+
+	@Nullable
+	protected Integer getAttributeIntegerByName(@NonNull String name) {
+		return ParserUtils.parseInteger(getAttributeByName(name));
+	}
+
+	protected int getAttributeIntegerByName(@NonNull String name, int defaultValue) {
+		return ParserUtils.parseInteger(getAttributeByName(name), defaultValue);
+	}
+
+	@Nullable
+	protected Long getAttributeLongByName(@NonNull String name) {
+		return ParserUtils.parseLong(getAttributeByName(name));
+	}
+
+	protected long getAttributeLongByName(@NonNull String name, long defaultValue) {
+		return ParserUtils.parseLong(getAttributeByName(name), defaultValue);
+	}
+
+	@Nullable
+	protected Float getAttributeFloatByName(@NonNull String name) {
+		return ParserUtils.parseFloat(getAttributeByName(name));
+	}
+
+	protected float getAttributeFloatByName(@NonNull String name, float defaultValue) {
+		return ParserUtils.parseFloat(getAttributeByName(name), defaultValue);
+	}
+
+	@Nullable
+	protected Double getAttributeDoubleByName(@NonNull String name) {
+		return ParserUtils.parseDouble(getAttributeByName(name));
+	}
+
+	protected double getAttributeDoubleByName(@NonNull String name, double defaultValue) {
+		return ParserUtils.parseDouble(getAttributeByName(name), defaultValue);
+	}
+
+	protected boolean getAttributeBooleanByName(@NonNull String name) {
+		return ParserUtils.parseBoolean(getAttributeByName(name));
+	}
+
+	private void startElement(@NonNull XmlPullParser xmlPullParser) throws IOException, XmlPullParserException {
+		PathNode parentNode = stack.get(stack.size() - 1);
+		PathNode node = parentNode != null && parentNode.children != null ? parentNode.children.get(xmlPullParser.getName()) : null;
+		stack.add(node);
+
+		if (node != null && node.startHandler != null) {
+			startTag = true;
+			try {
+				node.startHandler.onElement(node.path);
+			} finally {
+				startTag = false;
+			}
+		}
+	}
+
+	private void endElement() throws IOException, XmlPullParserException {
+		PathNode node = stack.remove(stack.size() - 1);
+		if (node == null)
+			return;
+
+		if (node.endHandler != null) {
+			node.endHandler.onElement(node.path);
+		}
+		if (node.pendingCount > 0 && --node.pendingCount == 0 && --pendingRequirements == 0) {
+			stopped = true;
+		}
+	}
+
+	@NonNull
+	private PathNode getPathNode(@NonNull String path) {
+		PathNode node = rootNode;
+		for (String name : path.split("/")) {
+			if (!name.isEmpty()) {
+				node = node.getOrCreateChild(name);
+			}
+		}
+		if (node == rootNode)
+			throw new IllegalArgumentException("Invalid element path: " + path);
+		return node;
+	}
+
+	@NonNull
+	private XmlPullParser requireParser() {
+		if (parser == null)
+			throw new IllegalStateException("Accessors can only be used while parsing");
+		return parser;
+	}
+
+	@NonNull
+	private XmlPullParser requireStartTag() {
+		XmlPullParser xmlPullParser = requireParser();
+		if (!startTag)
+			throw new IllegalStateException("Element content can only be read from a start handler, once");
+		startTag = false;
+		return xmlPullParser;
+	}
+
+	/**
+	 * Node of the tree of registered paths, so elements are matched while streaming without building their path
+	 */
+	private static class PathNode {
+		@NonNull
+		final String path;
+		@Nullable
+		HashMap<String, PathNode> children;
+		@Nullable
+		ElementHandler startHandler;
+		@Nullable
+		ElementHandler endHandler;
+		int requiredCount;
+		int pendingCount;
+
+		PathNode(@Nullable PathNode parent, @NonNull String name) {
+			this.path = parent == null || parent.path.isEmpty() ? name : parent.path + "/" + name;
+		}
+
+		@NonNull
+		PathNode getOrCreateChild(@NonNull String name) {
+			if (children == null) {
+				children = new HashMap<>();
+			}
+			PathNode child = children.get(name);
+			if (child == null) {
+				child = new PathNode(this, name);
+				children.put(name, child);
+			}
+			return child;
+		}
+	}
+
+}
@@ -0,0 +1,126 @@
+package fr.beapp.utils.parser;
+
+import androidx.annotation.NonNull;
+
+import org.reactivestreams.Publisher;
+
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import io.reactivex.Flowable;
+import io.reactivex.Scheduler;
+import io.reactivex.functions.Action;
+import io.reactivex.functions.Function;
+import io.reactivex.schedulers.Schedulers;
+
+/**
+ * Parse batches of documents concurrently, emitting results as a {@link Flowable}.
+ * <p/>
+ * Parsers like {@link BaseXmlParser} or {@link BaseXmlPullParser} subclasses are not thread-safe: each thread doing the work creates its own instance
+ * from the given factory, and reuses it for the following documents. Parsers are released when the {@link Flowable} terminates or is cancelled.
+ * <p/>
+ * At most <code>maxConcurrency</code> documents are parsed at the same time. Parsing doesn't wait for downstream requests,
+ * but runs ahead of them by at most <code>maxConcurrency</code> documents, so pending results stay bounded in memory.
+ */
+public class BatchParser {
+
+	public interface Parser<S, T> {
+		/**
+		 * @param source the document to parse, like a {@link java.io.File}
+		 * @return the parsed result, which can't be <code>null</code>
+		 */
+		@NonNull
+		T parse(@NonNull S source) throws Exception;
+	}
+
+	private BatchParser() {
+	}
+
+	/**
+	 * Parse the given documents on the I/O {@link Scheduler}, as reading them blocks, but as many at a time as there are available processors.
+	 *
+	 * @see #parse(Flowable, Callable, int, boolean, Scheduler)
+	 */
+	@NonNull
+	public static <S, T> Flowable<T> parse(@NonNull Iterable<S> sources, @NonNull Callable<? extends Parser<? super S, ? extends T>> parserFactory, boolean ordered) {
+		return parse(Flowable.fromIterable(sources), parserFactory, Runtime.getRuntime().availableProcessors(), ordered, Schedulers.io());
+	}
+
+	/**
+	 * Parse the given documents concurrently.
+	 * <p/>
+	 * In ordered mode, results are emitted in the order of their sources, a slow document holding back the following ones already parsed.
+	 * Otherwise results are emitted as soon as they are parsed. The first parsing error terminates the {@link Flowable} and cancels pending documents.
+	 *
+	 * @param sources        the documents to parse
+	 * @param parserFactory  called once per thread to create the parser used on this thread
+	 * @param maxConcurrency the maximum number of documents parsed at the same time
+	 * @param ordered        <code>true</code> to emit results in the order of their sources
+	 * @param scheduler      the {@link Scheduler} to parse on
+	 * @return a {@link Flowable} emitting each parsed result
+	 */
+	@NonNull
+	public static <S, T> Flowable<T> parse(@NonNull final Flowable<S> sources, @NonNull final Callable<? extends Parser<? super S, ? extends T>> parserFactory,
+										   final int maxConcurrency, final boolean ordered, @NonNull final Scheduler scheduler) {
+		if (maxConcurrency < 1)
+			throw new IllegalArgumentException("Max concurrency must be positive: " + maxConcurrency);
+
+		return Flowable.defer(new Callable<Publisher<T>>() {
+			@Override
+			public Publisher<T> call() throws Exception {
+				// Threads of the scheduler outlive the subscription and keep their thread local values,
+				// so parsers are held through holders which are all emptied once the subscription ends
+				final AtomicBoolean terminated = new AtomicBoolean();
+				final Queue<AtomicReference<Parser<? super S, ? extends T>>> holders = new ConcurrentLinkedQueue<>();
+				final ThreadLocal<AtomicReference<Parser<? super S, ? extends T>>> parsers = new ThreadLocal<AtomicReference<Parser<? super S, ? extends T>>>() {
+					@Override
+					protected AtomicReference<Parser<? super S, ? extends T>> initialValue() {
+						AtomicReference<Parser<? super S, ? extends T>> holder = new AtomicReference<>();
+						holders.add(holder);
+						return holder;
+					}
+				};
+
+				Function<S, Publisher<T>> parseFunction = new Function<S, Publisher<T>>() {
+					@Override
+					public Publisher<T> apply(final S source) throws Exception {
+						return Flowable.fromCallable(new Callable<T>() {
+							@Override
+							public T call() throws Exception {
+								AtomicReference<Parser<? super S, ? extends T>> holder = parsers.get();
+								Parser<? super S, ? extends T> parser = holder.get();
+								if (parser == null) {
+									parser = parserFactory.call();
+									holder.set(parser);
+								}
+								try {
+									return parser.parse(source);
+								} finally {
+									// A cancelled parsing may still run here after the holders were emptied
+									if (terminated.get()) {
+										holder.set(null);
+									}
+								}
+							}
+						}).subscribeOn(scheduler);
+					}
+				};
+
+				Flowable<T> results = ordered ? sources.concatMapEager(parseFunction, maxConcurrency, 1) : sources.flatMap(parseFunction, maxConcurrency);
+				return results.doFinally(new Action() {
+					@Override
+					public void run() {
+						terminated.set(true);
+						for (AtomicReference<Parser<? super S, ? extends T>> holder : holders) {
+							holder.set(null);
+						}
+					}
+				});
+			}
+		});
+	}
+
+}
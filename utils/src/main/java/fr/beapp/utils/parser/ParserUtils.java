@@ -1,78 +1,179 @@
 package fr.beapp.utils.parser;
 
+import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+
 import fr.beapp.logger.Logger;
 
+/**
+ * Safe parsing of numbers, returning <code>null</code> or a default value instead of throwing.
+ * <p/>
+ * Values are validated and parsed in a single pass, without any exception, so malformed inputs cost no more than valid ones.
+ * Ranges of chars or of UTF-8 bytes can be parsed directly, so tokenizers don't have to create substrings.
+ * Parsing failures are logged as warnings, at most once per second: following failures are counted and reported with the next warning.
+ */
 public class ParserUtils {
 
+	private static final long WARNING_INTERVAL_MILLIS = 1000;
+	private static final WarningRateLimiter warningRateLimiter = new WarningRateLimiter(WARNING_INTERVAL_MILLIS);
+
+	/**
+	 * Quiet NaN with a payload never produced by parsing, marking failures internally
+	 */
+	private static final long DOUBLE_FAILURE_BITS = 0x7ff8deadbeef0001L;
+	private static final double DOUBLE_FAILURE = Double.longBitsToDouble(DOUBLE_FAILURE_BITS);
+
+	private static final long INTEGER_FAILURE = Long.MIN_VALUE;
+
+	private static final double[] DOUBLE_POWERS_OF_TEN = {
+			1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+			1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+	};
+	private static final float[] FLOAT_POWERS_OF_TEN = {1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f};
+
 	private ParserUtils() {
 	}
 
 	/**
-	 * Safely parses the specified string as a signed decimal integer value. The ASCII characters \u002d ('-') and \u002b ('+') are recognized as the minus and plus signs.
+	 * Safely parses the specified string as a signed decimal integer value. The ASCII characters - ('-') and + ('+') are recognized as the minus and plus signs.
 	 *
 	 * @param value the string representation of an integer value.
 	 * @return the integer object value represented by {@code string} or {@code null} in case of error.
 	 */
 	@Nullable
 	public static Integer parseInteger(@Nullable String value) {
-		try {
-			return Integer.parseInt(value);
-		} catch (Exception e) {
-			Logger.warn("Can't parse value %s to Integer", e, value);
+		long result = value != null ? parseDigits(value, 0, value.length(), Integer.MIN_VALUE, Integer.MAX_VALUE, INTEGER_FAILURE) : INTEGER_FAILURE;
+		if (result == INTEGER_FAILURE) {
+			warnParseFailure(value, "Integer");
+			return null;
 		}
-		return null;
+		return (int) result;
 	}
 
 	/**
-	 * Safely parses the specified string as a signed decimal integer value. The ASCII characters \u002d ('-') and \u002b ('+') are recognized as the minus and plus signs.
+	 * Safely parses the specified string as a signed decimal integer value. The ASCII characters - ('-') and + ('+') are recognized as the minus and plus signs.
 	 *
 	 * @param value        the string representation of an integer value.
 	 * @param defaultValue the value to return in case of error.
 	 * @return the primitive integer value represented by {@code string} or {@code defaultValue} in case of error.
 	 */
 	public static int parseInteger(@Nullable String value, int defaultValue) {
-		try {
-			return Integer.parseInt(value);
-		} catch (Exception e) {
-			Logger.warn("Can't parse value %s to Integer", e, value);
+		return parseInteger((CharSequence) value, 0, value != null ? value.length() : 0, defaultValue);
+	}
+
+	/**
+	 * Safely parses a range of the specified chars as a signed decimal integer value, without creating a substring.
+	 *
+	 * @param value        the chars holding an integer value.
+	 * @param start        the index of the first char, inclusive.
+	 * @param end          the index of the last char, exclusive.
+	 * @param defaultValue the value to return in case of error.
+	 * @return the primitive integer value represented by the range or {@code defaultValue} in case of error.
+	 */
+	public static int parseInteger(@Nullable CharSequence value, int start, int end, int defaultValue) {
+		long result = value != null ? parseDigits(value, start, end, Integer.MIN_VALUE, Integer.MAX_VALUE, INTEGER_FAILURE) : INTEGER_FAILURE;
+		if (result == INTEGER_FAILURE) {
+			warnParseFailure(value, start, end, "Integer");
+			return defaultValue;
 		}
-		return defaultValue;
+		return (int) result;
+	}
+
+	/**
+	 * @see #parseInteger(CharSequence, int, int, int)
+	 */
+	public static int parseInteger(@Nullable char[] value, int start, int end, int defaultValue) {
+		return parseInteger(wrap(value, start, end), 0, end - start, defaultValue);
+	}
+
+	/**
+	 * Safely parses a range of UTF-8 encoded bytes, like {@link #parseInteger(CharSequence, int, int, int)}, without decoding them into a string.
+	 */
+	public static int parseInteger(@Nullable byte[] value, int start, int end, int defaultValue) {
+		return parseInteger(wrap(value, start, end), 0, end - start, defaultValue);
 	}
 
 	/**
-	 * Safely parses the specified string as a signed decimal long value. The ASCII characters \u002d ('-') and \u002b ('+') are recognized as the minus and plus signs.
+	 * Safely parses a range of UTF-8 encoded bytes, like {@link #parseInteger(CharSequence, int, int, int)}, without decoding them into a string.
+	 * Indexes are absolute, the buffer position and limit are left unchanged.
+	 */
+	public static int parseInteger(@Nullable ByteBuffer value, int start, int end, int defaultValue) {
+		return parseInteger(wrap(value, start, end), 0, end - start, defaultValue);
+	}
+
+	/**
+	 * Safely parses the specified string as a signed decimal long value. The ASCII characters - ('-') and + ('+') are recognized as the minus and plus signs.
 	 *
 	 * @param value the string representation of a long value.
 	 * @return the long object value represented by {@code string} or {@code null} in case of error.
 	 */
 	@Nullable
 	public static Long parseLong(@Nullable String value) {
-		try {
-			return Long.parseLong(value);
-		} catch (Exception e) {
-			Logger.warn("Can't parse value %s to Long", e, value);
+		if (value != null) {
+			long result = parseDigits(value, 0, value.length(), Long.MIN_VALUE, Long.MAX_VALUE, Long.MIN_VALUE);
+			// Long.MIN_VALUE is either a failure or the actual value, which a second default tells apart
+			if (result != Long.MIN_VALUE || parseDigits(value, 0, value.length(), Long.MIN_VALUE, Long.MAX_VALUE, Long.MAX_VALUE) == Long.MIN_VALUE)
+				return result;
 		}
+		warnParseFailure(value, "Long");
 		return null;
 	}
 
 	/**
-	 * Safely parses the specified string as a signed decimal long value. The ASCII characters \u002d ('-') and \u002b ('+') are recognized as the minus and plus signs.
+	 * Safely parses the specified string as a signed decimal long value. The ASCII characters - ('-') and + ('+') are recognized as the minus and plus signs.
 	 *
 	 * @param value        the string representation of a long value.
 	 * @param defaultValue the value to return in case of error.
 	 * @return the primitive long value represented by {@code string} or {@code defaultValue} in case of error.
 	 */
 	public static long parseLong(@Nullable String value, long defaultValue) {
-		try {
-			return Long.parseLong(value);
-		} catch (Exception e) {
-			Logger.warn("Can't parse value %s to Long", e, value);
+		return parseLong((CharSequence) value, 0, value != null ? value.length() : 0, defaultValue);
+	}
+
+	/**
+	 * Safely parses a range of the specified chars as a signed decimal long value, without creating a substring.
+	 *
+	 * @param value        the chars holding a long value.
+	 * @param start        the index of the first char, inclusive.
+	 * @param end          the index of the last char, exclusive.
+	 * @param defaultValue the value to return in case of error.
+	 * @return the primitive long value represented by the range or {@code defaultValue} in case of error.
+	 */
+	public static long parseLong(@Nullable CharSequence value, int start, int end, long defaultValue) {
+		if (value != null) {
+			long result = parseDigits(value, start, end, Long.MIN_VALUE, Long.MAX_VALUE, defaultValue);
+			if (result != defaultValue || parseDigits(value, start, end, Long.MIN_VALUE, Long.MAX_VALUE, ~defaultValue) == defaultValue)
+				return result;
 		}
+		warnParseFailure(value, start, end, "Long");
 		return defaultValue;
 	}
 
+	/**
+	 * @see #parseLong(CharSequence, int, int, long)
+	 */
+	public static long parseLong(@Nullable char[] value, int start, int end, long defaultValue) {
+		return parseLong(wrap(value, start, end), 0, end - start, defaultValue);
+	}
+
+	/**
+	 * Safely parses a range of UTF-8 encoded bytes, like {@link #parseLong(CharSequence, int, int, long)}, without decoding them into a string.
+	 */
+	public static long parseLong(@Nullable byte[] value, int start, int end, long defaultValue) {
+		return parseLong(wrap(value, start, end), 0, end - start, defaultValue);
+	}
+
+	/**
+	 * Safely parses a range of UTF-8 encoded bytes, like {@link #parseLong(CharSequence, int, int, long)}, without decoding them into a string.
+	 * Indexes are absolute, the buffer position and limit are left unchanged.
+	 */
+	public static long parseLong(@Nullable ByteBuffer value, int start, int end, long defaultValue) {
+		return parseLong(wrap(value, start, end), 0, end - start, defaultValue);
+	}
+
 	/**
 	 * Safely parses the specified string as a float value.
 	 *
@@ -81,12 +182,12 @@ public class ParserUtils {
 	 */
 	@Nullable
 	public static Float parseFloat(@Nullable String value) {
-		try {
-			return Float.parseFloat(value);
-		} catch (Exception e) {
-			Logger.warn("Can't parse value %s to Float", e, value);
+		double result = value != null ? parseDecimal(value, 0, value.length(), true) : DOUBLE_FAILURE;
+		if (isFailure(result)) {
+			warnParseFailure(value, "Float");
+			return null;
 		}
-		return null;
+		return (float) result;
 	}
 
 	/**
@@ -97,12 +198,47 @@ public class ParserUtils {
 	 * @return the primitive float value represented by {@code string} or {@code defaultValue} in case of error.
 	 */
 	public static float parseFloat(@Nullable String value, float defaultValue) {
-		try {
-			return Float.parseFloat(value);
-		} catch (Exception e) {
-			Logger.warn("Can't parse value %s to Float", e, value);
+		return parseFloat((CharSequence) value, 0, value != null ? value.length() : 0, defaultValue);
+	}
+
+	/**
+	 * Safely parses a range of the specified chars as a float value, without creating a substring.
+	 *
+	 * @param value        the chars holding a float value.
+	 * @param start        the index of the first char, inclusive.
+	 * @param end          the index of the last char, exclusive.
+	 * @param defaultValue the value to return in case of error.
+	 * @return the primitive float value represented by the range or {@code defaultValue} in case of error.
+	 */
+	public static float parseFloat(@Nullable CharSequence value, int start, int end, float defaultValue) {
+		double result = value != null ? parseDecimal(value, start, end, true) : DOUBLE_FAILURE;
+		if (isFailure(result)) {
+			warnParseFailure(value, start, end, "Float");
+			return defaultValue;
 		}
-		return defaultValue;
+		return (float) result;
+	}
+
+	/**
+	 * @see #parseFloat(CharSequence, int, int, float)
+	 */
+	public static float parseFloat(@Nullable char[] value, int start, int end, float defaultValue) {
+		return parseFloat(wrap(value, start, end), 0, end - start, defaultValue);
+	}
+
+	/**
+	 * Safely parses a range of UTF-8 encoded bytes, like {@link #parseFloat(CharSequence, int, int, float)}, without decoding them into a string.
+	 */
+	public static float parseFloat(@Nullable byte[] value, int start, int end, float defaultValue) {
+		return parseFloat(wrap(value, start, end), 0, end - start, defaultValue);
+	}
+
+	/**
+	 * Safely parses a range of UTF-8 encoded bytes, like {@link #parseFloat(CharSequence, int, int, float)}, without decoding them into a string.
+	 * Indexes are absolute, the buffer position and limit are left unchanged.
+	 */
+	public static float parseFloat(@Nullable ByteBuffer value, int start, int end, float defaultValue) {
+		return parseFloat(wrap(value, start, end), 0, end - start, defaultValue);
 	}
 
 	/**
@@ -113,12 +249,12 @@ public class ParserUtils {
 	 */
 	@Nullable
 	public static Double parseDouble(@Nullable String value) {
-		try {
-			return Double.parseDouble(value);
-		} catch (Exception e) {
-			Logger.warn("Can't parse value %s to Double", e, value);
+		double result = value != null ? parseDecimal(value, 0, value.length(), false) : DOUBLE_FAILURE;
+		if (isFailure(result)) {
+			warnParseFailure(value, "Double");
+			return null;
 		}
-		return null;
+		return result;
 	}
 
 	/**
@@ -129,12 +265,50 @@ public class ParserUtils {
 	 * @return the primitive double value represented by {@code string} or {@code defaultValue} in case of error.
 	 */
 	public static double parseDouble(@Nullable String value, double defaultValue) {
-		try {
-			return Double.parseDouble(value);
-		} catch (Exception e) {
-			Logger.warn("Can't parse value %s to Double", e, value);
+		return parseDouble((CharSequence) value, 0, value != null ? value.length() : 0, defaultValue);
+	}
+
+	/**
+	 * Safely parses a range of the specified chars as a double value, without creating a substring.
+	 * <p/>
+	 * Common decimal values are computed exactly from their digits, other ones are delegated to {@link Double#parseDouble(String)},
+	 * so results are always identical to it.
+	 *
+	 * @param value        the chars holding a double value.
+	 * @param start        the index of the first char, inclusive.
+	 * @param end          the index of the last char, exclusive.
+	 * @param defaultValue the value to return in case of error.
+	 * @return the primitive double value represented by the range or {@code defaultValue} in case of error.
+	 */
+	public static double parseDouble(@Nullable CharSequence value, int start, int end, double defaultValue) {
+		double result = value != null ? parseDecimal(value, start, end, false) : DOUBLE_FAILURE;
+		if (isFailure(result)) {
+			warnParseFailure(value, start, end, "Double");
+			return defaultValue;
 		}
-		return defaultValue;
+		return result;
+	}
+
+	/**
+	 * @see #parseDouble(CharSequence, int, int, double)
+	 */
+	public static double parseDouble(@Nullable char[] value, int start, int end, double defaultValue) {
+		return parseDouble(wrap(value, start, end), 0, end - start, defaultValue);
+	}
+
+	/**
+	 * Safely parses a range of UTF-8 encoded bytes, like {@link #parseDouble(CharSequence, int, int, double)}, without decoding them into a string.
+	 */
+	public static double parseDouble(@Nullable byte[] value, int start, int end, double defaultValue) {
+		return parseDouble(wrap(value, start, end), 0, end - start, defaultValue);
+	}
+
+	/**
+	 * Safely parses a range of UTF-8 encoded bytes, like {@link #parseDouble(CharSequence, int, int, double)}, without decoding them into a string.
+	 * Indexes are absolute, the buffer position and limit are left unchanged.
+	 */
+	public static double parseDouble(@Nullable ByteBuffer value, int start, int end, double defaultValue) {
+		return parseDouble(wrap(value, start, end), 0, end - start, defaultValue);
 	}
 
 	/**
@@ -147,4 +321,331 @@ public class ParserUtils {
 		return Boolean.parseBoolean(value);
 	}
 
+	/**
+	 * Parses a range of the specified chars as a {@code boolean}, without creating a substring.
+	 *
+	 * @param value the chars holding a boolean value.
+	 * @param start the index of the first char, inclusive.
+	 * @param end   the index of the last char, exclusive.
+	 * @return {@code true} if {@code value} is not {@code null} and the range is equal to {@code "true"} using case insensitive comparison, {@code false} otherwise.
+	 */
+	public static boolean parseBoolean(@Nullable CharSequence value, int start, int end) {
+		if (value == null)
+			return false;
+		checkRange(value.length(), start, end);
+		if (end - start != 4)
+			return false;
+
+		for (int i = 0; i < 4; i++) {
+			if (Character.toLowerCase(value.charAt(start + i)) != "true".charAt(i))
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * @see #parseBoolean(CharSequence, int, int)
+	 */
+	public static boolean parseBoolean(@Nullable char[] value, int start, int end) {
+		return parseBoolean(wrap(value, start, end), 0, end - start);
+	}
+
+	/**
+	 * @see #parseBoolean(CharSequence, int, int)
+	 */
+	public static boolean parseBoolean(@Nullable byte[] value, int start, int end) {
+		return parseBoolean(wrap(value, start, end), 0, end - start);
+	}
+
+	/**
+	 * @see #parseBoolean(CharSequence, int, int)
+	 */
+	public static boolean parseBoolean(@Nullable ByteBuffer value, int start, int end) {
+		return parseBoolean(wrap(value, start, end), 0, end - start);
+	}
+
+	@Nullable
+	private static CharSequence wrap(@Nullable char[] value, int start, int end) {
+		if (value == null)
+			return null;
+		checkRange(value.length, start, end);
+		return CharBuffer.wrap(value, start, end - start);
+	}
+
+	@Nullable
+	private static CharSequence wrap(@Nullable byte[] value, int start, int end) {
+		if (value == null)
+			return null;
+		checkRange(value.length, start, end);
+		return new Utf8Sequence(value, null, start, end - start);
+	}
+
+	@Nullable
+	private static CharSequence wrap(@Nullable ByteBuffer value, int start, int end) {
+		if (value == null)
+			return null;
+		checkRange(value.limit(), start, end);
+		return new Utf8Sequence(null, value, start, end - start);
+	}
+
+	private static void checkRange(int length, int start, int end) {
+		if (start < 0 || end > length || start > end)
+			throw new IndexOutOfBoundsException("Range [" + start + ", " + end + ") out of bounds for length " + length);
+	}
+
+	/**
+	 * Parse digits with an optional sign, accumulating negatively to handle the minimum value, like {@link Long#parseLong(String)}.
+	 * <p/>
+	 * ASCII digits are parsed here. Like the JDK, other Unicode digits (e.g. Arabic-Indic ones) are accepted, by delegating to it.
+	 * UTF-8 bytes are viewed as ASCII only, so those digits are not accepted by the byte overloads.
+	 */
+	private static long parseDigits(@NonNull CharSequence value, int start, int end, long min, long max, long failure) {
+		checkRange(value.length(), start, end);
+		if (start >= end)
+			return failure;
+
+		int i = start;
+		boolean negative = false;
+		char first = value.charAt(i);
+		if (first == '-' || first == '+') {
+			negative = first == '-';
+			if (++i == end)
+				return failure;
+		}
+
+		long limit = negative ? min : -max;
+		long multiplyLimit = limit / 10;
+		long result = 0;
+		for (; i < end; i++) {
+			char c = value.charAt(i);
+			int digit = c - '0';
+			if (digit < 0 || digit > 9) {
+				return c > 0x7F && Character.isDigit(c) ? parseDigitsWithJdk(value, start, end, min, max, failure) : failure;
+			}
+			if (result < multiplyLimit)
+				return failure;
+			result *= 10;
+			if (result < limit + digit)
+				return failure;
+			result -= digit;
+		}
+		return negative ? result : -result;
+	}
+
+	private static long parseDigitsWithJdk(@NonNull CharSequence value, int start, int end, long min, long max, long failure) {
+		try {
+			long result = Long.parseLong(value.subSequence(start, end).toString());
+			return result < min || result > max ? failure : result;
+		} catch (NumberFormatException e) {
+			return failure;
+		}
+	}
+
+	/**
+	 * Parse a decimal number with the syntax accepted by {@link Double#parseDouble(String)}.
+	 * <p/>
+	 * When the significant digits fit in the mantissa and the power of ten is exactly representable, the result is computed with a single
+	 * correctly rounded operation. Other values, and special forms (NaN, Infinity, hexadecimal, type suffix) are delegated to the JDK.
+	 *
+	 * @return the parsed value, or {@link #DOUBLE_FAILURE}
+	 */
+	private static double parseDecimal(@NonNull CharSequence value, int start, int end, boolean asFloat) {
+		checkRange(value.length(), start, end);
+
+		// Whitespaces are trimmed by Double.parseDouble
+		while (start < end && value.charAt(start) <= ' ') {
+			start++;
+		}
+		while (end > start && value.charAt(end - 1) <= ' ') {
+			end--;
+		}
+		if (start >= end)
+			return DOUBLE_FAILURE;
+
+		int i = start;
+		boolean negative = false;
+		char c = value.charAt(i);
+		if (c == '-' || c == '+') {
+			negative = c == '-';
+			i++;
+		}
+
+		long mantissa = 0;
+		int significantDigits = 0;
+		int exponent = 0;
+		boolean truncated = false;
+		boolean hasDigits = false;
+
+		for (; i < end && (c = value.charAt(i)) >= '0' && c <= '9'; i++) {
+			hasDigits = true;
+			if (significantDigits < 18) {
+				mantissa = mantissa * 10 + (c - '0');
+				if (mantissa != 0) {
+					significantDigits++;
+				}
+			} else {
+				exponent++;
+				truncated |= c != '0';
+			}
+		}
+
+		if (i < end && value.charAt(i) == '.') {
+			for (i++; i < end && (c = value.charAt(i)) >= '0' && c <= '9'; i++) {
+				hasDigits = true;
+				if (significantDigits < 18) {
+					mantissa = mantissa * 10 + (c - '0');
+					if (mantissa != 0) {
+						significantDigits++;
+					}
+					exponent--;
+				} else {
+					truncated |= c != '0';
+				}
+			}
+		}
+
+		if (hasDigits && i < end && ((c = value.charAt(i)) == 'e' || c == 'E')) {
+			if (++i == end)
+				return DOUBLE_FAILURE;
+
+			boolean negativeExponent = false;
+			c = value.charAt(i);
+			if (c == '-' || c == '+') {
+				negativeExponent = c == '-';
+				if (++i == end)
+					return DOUBLE_FAILURE;
+			}
+
+			int explicitExponent = 0;
+			for (; i < end && (c = value.charAt(i)) >= '0' && c <= '9'; i++) {
+				if (explicitExponent < 100000) {
+					explicitExponent = explicitExponent * 10 + (c - '0');
+				}
+			}
+			if (i < end)
+				return parseSpecialDecimal(value, start, end, asFloat);
+			exponent += negativeExponent ? -explicitExponent : explicitExponent;
+		}
+
+		if (i < end)
+			return parseSpecialDecimal(value, start, end, asFloat);
+		if (!hasDigits)
+			return DOUBLE_FAILURE;
+
+		if (mantissa == 0)
+			return negative ? -0.0 : 0.0;
+
+		if (!truncated) {
+			if (asFloat) {
+				if (mantissa < (1L << 24) && exponent >= -10 && exponent <= 10) {
+					float result = exponent >= 0 ? mantissa * FLOAT_POWERS_OF_TEN[exponent] : mantissa / FLOAT_POWERS_OF_TEN[-exponent];
+					return negative ? -result : result;
+				}
+			} else if (mantissa < (1L << 53) && exponent >= -22 && exponent <= 22) {
+				double result = exponent >= 0 ? mantissa * DOUBLE_POWERS_OF_TEN[exponent] : mantissa / DOUBLE_POWERS_OF_TEN[-exponent];
+				return negative ? -result : result;
+			}
+		}
+
+		return parseWithJdk(value, start, end, asFloat);
+	}
+
+	/**
+	 * Values not matching plain decimal syntax: only delegate forms that {@link Double#parseDouble(String)} may accept
+	 */
+	private static double parseSpecialDecimal(@NonNull CharSequence value, int start, int end, boolean asFloat) {
+		char last = value.charAt(end - 1);
+		boolean suffixed = last == 'd' || last == 'D' || last == 'f' || last == 'F';
+		boolean special = false;
+		for (int i = start; i < end && !special; i++) {
+			char c = value.charAt(i);
+			special = c == 'N' || c == 'I' || c == 'x' || c == 'X';
+		}
+		return suffixed || special ? parseWithJdk(value, start, end, asFloat) : DOUBLE_FAILURE;
+	}
+
+	private static double parseWithJdk(@NonNull CharSequence value, int start, int end, boolean asFloat) {
+		String text = value.subSequence(start, end).toString();
+		try {
+			return asFloat ? Float.parseFloat(text) : Double.parseDouble(text);
+		} catch (NumberFormatException e) {
+			return DOUBLE_FAILURE;
+		}
+	}
+
+	private static boolean isFailure(double result) {
+		return Double.doubleToRawLongBits(result) == DOUBLE_FAILURE_BITS;
+	}
+
+	private static void warnParseFailure(@Nullable String value, @NonNull String type) {
+		warnParseFailure(value, 0, value != null ? value.length() : 0, type);
+	}
+
+	/**
+	 * Log a parsing failure, unless another one was logged less than {@link #WARNING_INTERVAL_MILLIS} ago. Skipped warnings are counted in the next one.
+	 */
+	private static void warnParseFailure(@Nullable CharSequence value, int start, int end, @NonNull String type) {
+		int suppressed = warningRateLimiter.tryAcquire(System.currentTimeMillis());
+		if (suppressed < 0)
+			return;
+
+		String text = value != null ? value.subSequence(start, end).toString() : null;
+		if (suppressed > 0) {
+			Logger.warn("Can't parse value %s to %s (%d similar warnings suppressed)", text, type, suppressed);
+		} else {
+			Logger.warn("Can't parse value %s to %s", text, type);
+		}
+	}
+
+	/**
+	 * View of UTF-8 bytes as chars, only keeping ASCII ones: other bytes are mapped to {@link #NON_ASCII}, which no parser accepts.
+	 * Numbers and booleans being pure ASCII, this is enough to parse them without decoding.
+	 */
+	private static final class Utf8Sequence implements CharSequence {
+
+		private static final char NON_ASCII = '\uFFFD';
+
+		@Nullable
+		private final byte[] array;
+		@Nullable
+		private final ByteBuffer buffer;
+		private final int offset;
+		private final int length;
+
+		Utf8Sequence(@Nullable byte[] array, @Nullable ByteBuffer buffer, int offset, int length) {
+			this.array = array;
+			this.buffer = buffer;
+			this.offset = offset;
+			this.length = length;
+		}
+
+		@Override
+		public int length() {
+			return length;
+		}
+
+		@Override
+		public char charAt(int index) {
+			byte b = array != null ? array[offset + index] : buffer.get(offset + index);
+			return b >= 0 ? (char) b : NON_ASCII;
+		}
+
+		@NonNull
+		@Override
+		public CharSequence subSequence(int start, int end) {
+			checkRange(length, start, end);
+			return new Utf8Sequence(array, buffer, offset + start, end - start);
+		}
+
+		@NonNull
+		@Override
+		public String toString() {
+			char[] chars = new char[length];
+			for (int i = 0; i < length; i++) {
+				chars[i] = charAt(i);
+			}
+			return new String(chars);
+		}
+	}
+
 }
@@ -0,0 +1,32 @@
+package fr.beapp.utils.parser;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Let at most one warning through per interval, counting the ones suppressed in between so they can be reported with the next one.
+ */
+final class WarningRateLimiter {
+
+	private final long intervalMillis;
+	private final AtomicLong nextWarningTime = new AtomicLong(Long.MIN_VALUE);
+	private final AtomicInteger suppressedWarnings = new AtomicInteger();
+
+	WarningRateLimiter(long intervalMillis) {
+		this.intervalMillis = intervalMillis;
+	}
+
+	/**
+	 * @param now the current time, in milliseconds
+	 * @return the number of warnings suppressed since the last one let through, or -1 if this warning must be suppressed
+	 */
+	int tryAcquire(long now) {
+		long next = nextWarningTime.get();
+		if (now < next || !nextWarningTime.compareAndSet(next, now + intervalMillis)) {
+			suppressedWarnings.incrementAndGet();
+			return -1;
+		}
+		return suppressedWarnings.getAndSet(0);
+	}
+
+}
@@ -0,0 +1,20 @@
+package fr.beapp.utils.parser;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Populate the field of a {@link XmlMapped} class with an attribute of the bound element.
+ * <p/>
+ * Supported types are {@link String}, numbers and booleans, primitive or boxed. Primitive fields keep their value if the attribute can't be parsed.
+ */
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.FIELD)
+public @interface XmlAttribute {
+	/**
+	 * @return the name of the attribute
+	 */
+	String value();
+}
@@ -0,0 +1,422 @@
+package fr.beapp.utils.parser;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import org.xmlpull.v1.XmlPullParserException;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import fr.beapp.utils.io.IOUtils;
+
+/**
+ * Declarative mapping of XML elements to objects, read in a single streaming pass by a {@link BaseXmlPullParser}.
+ * <p/>
+ * A binding declares how to create an object, which attributes and children texts populate it, and which child elements are bound to nested objects.
+ * Setters are plain callbacks, so no reflection is involved and no tree is ever built:
+ * <pre>
+ * XmlBinding&lt;Book&gt; bookBinding = XmlBinding.builder(new XmlBinding.Factory&lt;Book&gt;() {...})
+ *         .attribute("id", new XmlBinding.Setter&lt;Book&gt;() {...})
+ *         .text("price", new XmlBinding.DoubleSetter&lt;Book&gt;() {...}, 0)
+ *         .build();
+ * List&lt;Book&gt; books = bookBinding.parseList(file, "catalog/book");
+ * </pre>
+ * Setters are only called for attributes and texts present in the document. Bindings are immutable and can be shared between threads.
+ * <p/>
+ * Instead of writing them by hand, bindings can be generated at compile time for classes annotated with {@link XmlMapped}, by adding
+ * the <code>utils-processor</code> annotation processor: <code>Book_XmlBinding.BINDING.parseList(file, "catalog/book")</code>.
+ *
+ * @param <T> the type of bound objects
+ */
+public class XmlBinding<T> {
+
+	public interface Factory<T> {
+		@NonNull
+		T create();
+	}
+
+	public interface Receiver<T> {
+		void onBound(@NonNull T value);
+	}
+
+	public interface ChildAdder<T, C> {
+		void add(@NonNull T target, @NonNull C child);
+	}
+
+	public interface Setter<T> {
+		void set(@NonNull T target, @NonNull String value);
+	}
+
+	public interface IntegerSetter<T> {
+		void set(@NonNull T target, int value);
+	}
+
+	public interface LongSetter<T> {
+		void set(@NonNull T target, long value);
+	}
+
+	public interface FloatSetter<T> {
+		void set(@NonNull T target, float value);
+	}
+
+	public interface DoubleSetter<T> {
+		void set(@NonNull T target, double value);
+	}
+
+	public interface BooleanSetter<T> {
+		void set(@NonNull T target, boolean value);
+	}
+
+	private final Factory<T> factory;
+	private final Map<String, Setter<T>> attributes;
+	private final Map<String, Setter<T>> texts;
+	private final Map<String, ChildBinding<T, ?>> children;
+
+	private XmlBinding(@NonNull Builder<T> builder) {
+		this.factory = builder.factory;
+		this.attributes = new LinkedHashMap<>(builder.attributes);
+		this.texts = new LinkedHashMap<>(builder.texts);
+		this.children = new LinkedHashMap<>(builder.children);
+	}
+
+	@NonNull
+	public static <T> Builder<T> builder(@NonNull Factory<T> factory) {
+		return new Builder<>(factory);
+	}
+
+	/**
+	 * Bind each element matching the given path, passing them to the receiver as soon as their end tag is read.
+	 *
+	 * @param inputStream the document to read, which is not closed
+	 * @param path        the slash separated names of the bound elements from the root, like <code>catalog/book</code>
+	 * @param receiver    called with each bound object, in document order
+	 */
+	public void parse(@NonNull InputStream inputStream, @NonNull String path, @NonNull Receiver<? super T> receiver) throws IOException, XmlPullParserException {
+		BindingParser parser = new BindingParser();
+		parser.register(path, this, receiver);
+		parser.parse(inputStream);
+	}
+
+	/**
+	 * @see #parse(InputStream, String, Receiver)
+	 */
+	public void parse(@NonNull File file, @NonNull String path, @NonNull Receiver<? super T> receiver) throws IOException, XmlPullParserException {
+		FileInputStream fileInputStream = null;
+		try {
+			fileInputStream = new FileInputStream(file);
+			parse(fileInputStream, path, receiver);
+		} finally {
+			IOUtils.closeQuietly(fileInputStream);
+		}
+	}
+
+	/**
+	 * @return all objects bound from the elements matching the given path, in document order
+	 * @see #parse(InputStream, String, Receiver)
+	 */
+	@NonNull
+	public List<T> parseList(@NonNull File file, @NonNull String path) throws IOException, XmlPullParserException {
+		FileInputStream fileInputStream = null;
+		try {
+			fileInputStream = new FileInputStream(file);
+			return parseList(fileInputStream, path, 0);
+		} finally {
+			IOUtils.closeQuietly(fileInputStream);
+		}
+	}
+
+	/**
+	 * Bind the elements matching the given path, stopping after <code>maxCount</code> of them without reading the rest of the document.
+	 *
+	 * @param inputStream the document to read, closed if parsing stops before its end
+	 * @param path        the slash separated names of the bound elements from the root, like <code>catalog/book</code>
+	 * @param maxCount    the maximum number of elements to bind, or 0 to bind all of them
+	 * @return the bound objects, in document order
+	 */
+	@NonNull
+	public List<T> parseList(@NonNull InputStream inputStream, @NonNull String path, int maxCount) throws IOException, XmlPullParserException {
+		if (maxCount < 0)
+			throw new IllegalArgumentException("Max count can't be negative: " + maxCount);
+
+		final List<T> values = new ArrayList<>();
+		BindingParser parser = new BindingParser();
+		parser.register(path, this, new Receiver<T>() {
+			@Override
+			public void onBound(@NonNull T value) {
+				values.add(value);
+			}
+		});
+		if (maxCount > 0) {
+			parser.requireElements(path, maxCount);
+		}
+		parser.parse(inputStream);
+		return values;
+	}
+
+	public static class Builder<T> {
+		private final Factory<T> factory;
+		private final Map<String, Setter<T>> attributes = new LinkedHashMap<>();
+		private final Map<String, Setter<T>> texts = new LinkedHashMap<>();
+		private final Map<String, ChildBinding<T, ?>> children = new LinkedHashMap<>();
+
+		private Builder(@NonNull Factory<T> factory) {
+			this.factory = factory;
+		}
+
+		/**
+		 * Populate bound objects with the value of an attribute of their element
+		 */
+		@NonNull
+		public Builder<T> attribute(@NonNull String name, @NonNull Setter<T> setter) {
+			if (attributes.containsKey(name))
+				throw new IllegalArgumentException("Attribute already bound: " + name);
+			attributes.put(name, setter);
+			return this;
+		}
+
+		@NonNull
+		public Builder<T> attribute(@NonNull String name, @NonNull IntegerSetter<T> setter, int defaultValue) {
+			return attribute(name, toSetter(setter, defaultValue));
+		}
+
+		@NonNull
+		public Builder<T> attribute(@NonNull String name, @NonNull LongSetter<T> setter, long defaultValue) {
+			return attribute(name, toSetter(setter, defaultValue));
+		}
+
+		@NonNull
+		public Builder<T> attribute(@NonNull String name, @NonNull FloatSetter<T> setter, float defaultValue) {
+			return attribute(name, toSetter(setter, defaultValue));
+		}
+
+		@NonNull
+		public Builder<T> attribute(@NonNull String name, @NonNull DoubleSetter<T> setter, double defaultValue) {
+			return attribute(name, toSetter(setter, defaultValue));
+		}
+
+		@NonNull
+		public Builder<T> attribute(@NonNull String name, @NonNull BooleanSetter<T> setter) {
+			return attribute(name, toSetter(setter));
+		}
+
+		/**
+		 * Populate bound objects with the trimmed text content of a child element. Elements below it are not dispatched.
+		 *
+		 * @param path the slash separated names of the child element, relative to the bound element
+		 */
+		@NonNull
+		public Builder<T> text(@NonNull String path, @NonNull Setter<T> setter) {
+			String relativePath = normalizePath(path);
+			checkPath(relativePath);
+			texts.put(relativePath, setter);
+			return this;
+		}
+
+		@NonNull
+		public Builder<T> text(@NonNull String path, @NonNull IntegerSetter<T> setter, int defaultValue) {
+			return text(path, toSetter(setter, defaultValue));
+		}
+
+		@NonNull
+		public Builder<T> text(@NonNull String path, @NonNull LongSetter<T> setter, long defaultValue) {
+			return text(path, toSetter(setter, defaultValue));
+		}
+
+		@NonNull
+		public Builder<T> text(@NonNull String path, @NonNull FloatSetter<T> setter, float defaultValue) {
+			return text(path, toSetter(setter, defaultValue));
+		}
+
+		@NonNull
+		public Builder<T> text(@NonNull String path, @NonNull DoubleSetter<T> setter, double defaultValue) {
+			return text(path, toSetter(setter, defaultValue));
+		}
+
+		@NonNull
+		public Builder<T> text(@NonNull String path, @NonNull BooleanSetter<T> setter) {
+			return text(path, toSetter(setter));
+		}
+
+		/**
+		 * Bind child elements to nested objects, added to bound objects once complete.
+		 *
+		 * @param path    the slash separated names of the child elements, relative to the bound element
+		 * @param binding the binding of the child elements
+		 * @param adder   called with each nested object once its end tag is read
+		 */
+		@NonNull
+		public <C> Builder<T> child(@NonNull String path, @NonNull XmlBinding<C> binding, @NonNull ChildAdder<T, C> adder) {
+			String relativePath = normalizePath(path);
+			checkPath(relativePath);
+			children.put(relativePath, new ChildBinding<>(binding, adder));
+			return this;
+		}
+
+		@NonNull
+		public XmlBinding<T> build() {
+			return new XmlBinding<>(this);
+		}
+
+		/**
+		 * Texts and children of a same element must not overlap, as only one handler is called per element and texts consume their element
+		 */
+		private void checkPath(@NonNull String relativePath) {
+			if (relativePath.isEmpty())
+				throw new IllegalArgumentException("Path must name a child element");
+
+			for (String existingPath : texts.keySet()) {
+				checkOverlap(existingPath, relativePath);
+			}
+			for (String existingPath : children.keySet()) {
+				checkOverlap(existingPath, relativePath);
+			}
+		}
+
+		private static void checkOverlap(@NonNull String existingPath, @NonNull String path) {
+			if (existingPath.equals(path) || existingPath.startsWith(path + "/") || path.startsWith(existingPath + "/"))
+				throw new IllegalArgumentException("Path " + path + " overlaps already bound path " + existingPath);
+		}
+
+		@NonNull
+		private static String normalizePath(@NonNull String path) {
+			StringBuilder normalizedPath = new StringBuilder(path.length());
+			for (String name : path.split("/")) {
+				if (!name.isEmpty()) {
+					if (normalizedPath.length() > 0) {
+						normalizedPath.append('/');
+					}
+					normalizedPath.append(name);
+				}
+			}
+			return normalizedPath.toString();
+		}
+
+		@NonNull
+		private Setter<T> toSetter(@NonNull final IntegerSetter<T> setter, final int defaultValue) {
+			return new Setter<T>() {
+				@Override
+				public void set(@NonNull T target, @NonNull String value) {
+					setter.set(target, ParserUtils.parseInteger(value, defaultValue));
+				}
+			};
+		}
+
+		@NonNull
+		private Setter<T> toSetter(@NonNull final LongSetter<T> setter, final long defaultValue) {
+			return new Setter<T>() {
+				@Override
+				public void set(@NonNull T target, @NonNull String value) {
+					setter.set(target, ParserUtils.parseLong(value, defaultValue));
+				}
+			};
+		}
+
+		@NonNull
+		private Setter<T> toSetter(@NonNull final FloatSetter<T> setter, final float defaultValue) {
+			return new Setter<T>() {
+				@Override
+				public void set(@NonNull T target, @NonNull String value) {
+					setter.set(target, ParserUtils.parseFloat(value, defaultValue));
+				}
+			};
+		}
+
+		@NonNull
+		private Setter<T> toSetter(@NonNull final DoubleSetter<T> setter, final double defaultValue) {
+			return new Setter<T>() {
+				@Override
+				public void set(@NonNull T target, @NonNull String value) {
+					setter.set(target, ParserUtils.parseDouble(value, defaultValue));
+				}
+			};
+		}
+
+		@NonNull
+		private Setter<T> toSetter(@NonNull final BooleanSetter<T> setter) {
+			return new Setter<T>() {
+				@Override
+				public void set(@NonNull T target, @NonNull String value) {
+					setter.set(target, ParserUtils.parseBoolean(value));
+				}
+			};
+		}
+	}
+
+	private static class ChildBinding<T, C> {
+		final XmlBinding<C> binding;
+		final ChildAdder<T, C> adder;
+
+		ChildBinding(@NonNull XmlBinding<C> binding, @NonNull ChildAdder<T, C> adder) {
+			this.binding = binding;
+			this.adder = adder;
+		}
+	}
+
+	/**
+	 * Registers the handlers of a binding tree on their absolute paths, keeping the objects being bound in a stack
+	 */
+	private static class BindingParser extends BaseXmlPullParser {
+		private final ArrayList<Object> targets = new ArrayList<>();
+
+		<X> void register(@NonNull String path, @NonNull final XmlBinding<X> binding, @NonNull final Receiver<? super X> receiver) {
+			onStartElement(path, new ElementHandler() {
+				@Override
+				public void onElement(@NonNull String path) {
+					X target = binding.factory.create();
+					for (Map.Entry<String, Setter<X>> attribute : binding.attributes.entrySet()) {
+						String value = getAttributeByName(attribute.getKey());
+						if (value != null) {
+							attribute.getValue().set(target, value);
+						}
+					}
+					targets.add(target);
+				}
+			});
+			onEndElement(path, new ElementHandler() {
+				@Override
+				public void onElement(@NonNull String path) {
+					@SuppressWarnings("unchecked")
+					X target = (X) targets.remove(targets.size() - 1);
+					receiver.onBound(target);
+				}
+			});
+
+			for (final Map.Entry<String, Setter<X>> text : binding.texts.entrySet()) {
+				onStartElement(path + "/" + text.getKey(), new ElementHandler() {
+					@Override
+					public void onElement(@NonNull String path) throws IOException, XmlPullParserException {
+						String value = getNodeContent();
+						if (value != null) {
+							@SuppressWarnings("unchecked")
+							X target = (X) targets.get(targets.size() - 1);
+							text.getValue().set(target, value);
+						}
+					}
+				});
+			}
+
+			for (Map.Entry<String, ChildBinding<X, ?>> child : binding.children.entrySet()) {
+				registerChild(path + "/" + child.getKey(), child.getValue());
+			}
+		}
+
+		private <X, C> void registerChild(@NonNull String path, @NonNull final ChildBinding<X, C> childBinding) {
+			register(path, childBinding.binding, new Receiver<C>() {
+				@Override
+				public void onBound(@NonNull C child) {
+					@SuppressWarnings("unchecked")
+					X target = (X) targets.get(targets.size() - 1);
+					childBinding.adder.add(target, child);
+				}
+			});
+		}
+	}
+
+}
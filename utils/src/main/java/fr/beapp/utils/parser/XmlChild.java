@@ -0,0 +1,23 @@
+package fr.beapp.utils.parser;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Populate the field of a {@link XmlMapped} class with nested objects bound from child elements.
+ * <p/>
+ * The field type is either another {@link XmlMapped} class, set to the last matching child, or a {@link java.util.List} or {@link java.util.Collection} of it,
+ * to which each matching child is added. A <code>null</code> collection field is initialized with an {@link java.util.ArrayList}.
+ *
+ * @see XmlBinding.Builder#child(String, XmlBinding, XmlBinding.ChildAdder)
+ */
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.FIELD)
+public @interface XmlChild {
+	/**
+	 * @return the slash separated names of the child elements, relative to the bound element
+	 */
+	String value();
+}
@@ -0,0 +1,18 @@
+package fr.beapp.utils.parser;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Mark a class whose {@link XmlBinding} is generated at compile time by the <code>utils-processor</code> annotation processor,
+ * as the <code>BINDING</code> field of a <code>ClassName_XmlBinding</code> class in the same package (<code>Outer_Inner_XmlBinding</code> for nested classes).
+ * <p/>
+ * Fields annotated with {@link XmlAttribute}, {@link XmlText} or {@link XmlChild} are assigned directly by the generated code, without reflection,
+ * so they must be neither private, final nor static. The class must have a non-private constructor without parameters.
+ */
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface XmlMapped {
+}
@@ -0,0 +1,22 @@
+package fr.beapp.utils.parser;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Populate the field of a {@link XmlMapped} class with the trimmed text content of a child element.
+ * <p/>
+ * Supported types are {@link String}, numbers and booleans, primitive or boxed. Primitive fields keep their value if the text can't be parsed.
+ *
+ * @see XmlBinding.Builder#text(String, XmlBinding.Setter)
+ */
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.FIELD)
+public @interface XmlText {
+	/**
+	 * @return the slash separated names of the child element, relative to the bound element
+	 */
+	String value();
+}
@@ -9,6 +9,8 @@ import org.reactivestreams.Publisher;
 import java.util.Collection;
 import java.util.concurrent.Callable;
 
+import fr.beapp.utils.io.IOUtils;
+import fr.beapp.utils.io.RecordReader;
 import io.reactivex.Emitter;
 import io.reactivex.Flowable;
 import io.reactivex.FlowableTransformer;
@@ -17,6 +19,7 @@ import io.reactivex.Observer;
 import io.reactivex.Single;
 import io.reactivex.functions.BiConsumer;
 import io.reactivex.functions.BiFunction;
+import io.reactivex.functions.Consumer;
 import io.reactivex.schedulers.Schedulers;
 
 public class RxUtils {
@@ -84,6 +87,34 @@ public class RxUtils {
 				.subscribeOn(Schedulers.computation());
 	}
 
+	/**
+	 * Returns a {@link Flowable} that emits each record read from the {@link RecordReader} provided by <code>readerSupplier</code>, honoring backpressure.
+	 * <p/>
+	 * Records are read only when requested downstream, so memory stays flat whatever the size of the source. The reader is closed on completion, error or cancellation.
+	 *
+	 * @param readerSupplier called on subscription to open the {@link RecordReader} to read from
+	 * @return a {@link Flowable} that emits all records as Strings
+	 */
+	@NonNull
+	public static Flowable<String> fromRecords(@NonNull Callable<RecordReader> readerSupplier) {
+		return Flowable.generate(readerSupplier, new BiConsumer<RecordReader, Emitter<String>>() {
+			@Override
+			public void accept(RecordReader recordReader, Emitter<String> emitter) throws Exception {
+				CharSequence record = recordReader.next();
+				if (record == null) {
+					emitter.onComplete();
+				} else {
+					emitter.onNext(record.toString());
+				}
+			}
+		}, new Consumer<RecordReader>() {
+			@Override
+			public void accept(RecordReader recordReader) throws Exception {
+				IOUtils.closeQuietly(recordReader);
+			}
+		});
+	}
+
 	public static <T> FlowableTransformer<T, Pair<Integer, T>> toIndexedValues() {
 		return new FlowableTransformer<T, Pair<Integer, T>>() {
 			@Override
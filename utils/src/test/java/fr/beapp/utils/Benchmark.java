@@ -0,0 +1,58 @@
+package fr.beapp.utils;
+
+import java.util.Locale;
+
+/**
+ * Minimal timing helper for the <code>@Ignore</code>d benchmark tests, which are meant to be run manually on a quiet JVM.
+ * <p/>
+ * Each task is run a few times to warm up, then measured over several runs, and the average time per run is printed.
+ * Results computed by tasks are consumed, so the JIT can't optimize the measured code away.
+ */
+public class Benchmark {
+
+	public interface Task {
+		Object run() throws Exception;
+	}
+
+	private static final int WARMUP_RUNS = 5;
+	private static final int MEASURED_RUNS = 10;
+
+	private static volatile int sink;
+
+	private Benchmark() {
+	}
+
+	/**
+	 * Measure the given task and print its average time per run.
+	 *
+	 * @param name name of the measure
+	 * @param task task to measure
+	 * @return the average time per run, in nanoseconds
+	 */
+	public static long measure(String name, Task task) throws Exception {
+		for (int i = 0; i < WARMUP_RUNS; i++) {
+			consume(task.run());
+		}
+
+		long start = System.nanoTime();
+		for (int i = 0; i < MEASURED_RUNS; i++) {
+			consume(task.run());
+		}
+		long average = (System.nanoTime() - start) / MEASURED_RUNS;
+
+		System.out.println(String.format(Locale.US, "%-60s %12.3f ms", name, average / 1e6));
+		return average;
+	}
+
+	/**
+	 * Print a value computed by a benchmark, such as a hit rate or a memory usage.
+	 */
+	public static void report(String name, String value) {
+		System.out.println(String.format(Locale.US, "%-60s %15s", name, value));
+	}
+
+	private static void consume(Object result) {
+		sink += result != null ? System.identityHashCode(result) : 0;
+	}
+
+}
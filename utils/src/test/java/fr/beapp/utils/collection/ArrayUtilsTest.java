@@ -2,9 +2,16 @@ package fr.beapp.utils.collection;
 
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
 import fr.beapp.utils.BaseRobolectric;
 import fr.beapp.utils.collection.ArrayUtils;
 
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
@@ -28,4 +35,49 @@ public class ArrayUtilsTest extends BaseRobolectric {
 		assertTrue(ArrayUtils.isNotEmpty(new String[]{"a", "b"}));
 	}
 
-}
\ No newline at end of file
+	@Test
+	public void testForEachIndexed() throws Exception {
+		final List<String> visited = new ArrayList<>();
+		CollectionUtils.IndexedConsumer<String> consumer = new CollectionUtils.IndexedConsumer<String>() {
+			@Override
+			public void accept(int index, String item) {
+				visited.add(index + item);
+			}
+		};
+
+		ArrayUtils.forEachIndexed(new String[]{"a", "b"}, consumer);
+		ArrayUtils.forEachIndexed(null, consumer);
+		assertEquals(asList("0a", "1b"), visited);
+	}
+
+	@Test
+	public void testForEachChunk() throws Exception {
+		final List<String> bounds = new ArrayList<>();
+		ArrayUtils.forEachChunk(new String[5], 2, new CollectionUtils.ChunkConsumer() {
+			@Override
+			public void accept(int chunkIndex, int fromIndex, int toIndex) {
+				bounds.add(chunkIndex + ":" + fromIndex + "-" + toIndex);
+			}
+		});
+		assertEquals(asList("0:0-2", "1:2-4", "2:4-5"), bounds);
+	}
+
+	@Test
+	public void testMergeSorted() throws Exception {
+		assertArrayEquals(new int[]{1, 2, 3, 4, 5, 0}, ArrayUtils.mergeSorted(new int[]{1, 4}, new int[]{2, 3, 5}, new int[6]));
+
+		String[] merged = ArrayUtils.mergeSorted(new String[]{"b"}, new String[]{"a", "c"}, new Comparator<String>() {
+			@Override
+			public int compare(String o1, String o2) {
+				return o1.compareTo(o2);
+			}
+		}, new String[3]);
+		assertArrayEquals(new String[]{"a", "b", "c"}, merged);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testMergeSorted_outputTooSmall() throws Exception {
+		ArrayUtils.mergeSorted(new int[]{1}, new int[]{2}, new int[1]);
+	}
+
+}
@@ -0,0 +1,119 @@
+package fr.beapp.utils.collection;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+
+public class BloomFilterTest {
+
+	@Test
+	public void putAndMightContain() throws Exception {
+		BloomFilter filter = BloomFilter.create(10000, 0.01);
+		for (int i = 0; i < 10000; i++) {
+			Assert.assertTrue(filter.put("notification-" + i) || filter.mightContain("notification-" + i));
+			filter.put(i * 7L);
+		}
+
+		for (int i = 0; i < 10000; i++) {
+			Assert.assertTrue(filter.mightContain("notification-" + i));
+			Assert.assertTrue(filter.mightContain(new StringBuilder("notification-").append(i)));
+			Assert.assertTrue(filter.mightContain(i * 7L));
+		}
+		Assert.assertFalse(filter.put("notification-42"));
+	}
+
+	@Test
+	public void falsePositiveRate() throws Exception {
+		BloomFilter filter = BloomFilter.create(10000, 0.01);
+		for (int i = 0; i < 10000; i++) {
+			filter.put("id-" + i);
+		}
+
+		int falsePositives = 0;
+		for (int i = 0; i < 100000; i++) {
+			if (filter.mightContain("other-" + i)) {
+				falsePositives++;
+			}
+		}
+		Assert.assertTrue("Too many false positives: " + falsePositives, falsePositives < 2000);
+		Assert.assertEquals(0.01, filter.expectedFalsePositiveRate(), 0.005);
+	}
+
+	@Test
+	public void writeAndRead() throws Exception {
+		BloomFilter filter = BloomFilter.create(1000, 0.001);
+		for (int i = 0; i < 1000; i++) {
+			filter.put("id-" + i);
+		}
+
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		filter.writeTo(outputStream);
+		BloomFilter read = BloomFilter.readFrom(new ByteArrayInputStream(outputStream.toByteArray()));
+		Assert.assertEquals(filter.getHashFunctionCount(), read.getHashFunctionCount());
+		Assert.assertEquals(filter.getSizeInBytes(), read.getSizeInBytes());
+		for (int i = 0; i < 1000; i++) {
+			Assert.assertTrue(read.mightContain("id-" + i));
+		}
+
+		File file = File.createTempFile("beapp", null);
+		file.deleteOnExit();
+		filter.writeTo(file);
+		Assert.assertTrue(BloomFilter.readFrom(file).mightContain("id-999"));
+	}
+
+	@Test
+	public void read_trailingData() throws Exception {
+		BloomFilter filter = BloomFilter.create(100, 0.01);
+		filter.put("id");
+
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		filter.writeTo(outputStream);
+		outputStream.write(42);
+
+		ByteArrayInputStream inputStream = new ByteArrayInputStream(outputStream.toByteArray());
+		Assert.assertTrue(BloomFilter.readFrom(inputStream).mightContain("id"));
+		Assert.assertEquals(42, inputStream.read());
+	}
+
+	@Test(expected = IOException.class)
+	public void read_invalid() throws Exception {
+		BloomFilter.readFrom(new ByteArrayInputStream(new byte[]{1, 2, 3, 4, 5, 6, 7, 8}));
+	}
+
+	@Test(expected = IOException.class)
+	public void read_corruptedSize() throws Exception {
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		DataOutputStream dataOutputStream = new DataOutputStream(outputStream);
+		dataOutputStream.writeInt(0x424C4F4D);
+		dataOutputStream.writeInt(1);
+		dataOutputStream.writeInt(7);
+		dataOutputStream.writeInt(Integer.MAX_VALUE - 8);
+		dataOutputStream.writeLong(42);
+
+		BloomFilter.readFrom(new ByteArrayInputStream(outputStream.toByteArray()));
+	}
+
+	@Test(expected = IOException.class)
+	public void read_invalidHashFunctionCount() throws Exception {
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		DataOutputStream dataOutputStream = new DataOutputStream(outputStream);
+		dataOutputStream.writeInt(0x424C4F4D);
+		dataOutputStream.writeInt(1);
+		dataOutputStream.writeInt(Integer.MAX_VALUE);
+		dataOutputStream.writeInt(1);
+		dataOutputStream.writeLong(42);
+
+		BloomFilter.readFrom(new ByteArrayInputStream(outputStream.toByteArray()));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void create_invalidRate() throws Exception {
+		BloomFilter.create(100, 1);
+	}
+
+}
@@ -0,0 +1,173 @@
+package fr.beapp.utils.collection;
+
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+
+import fr.beapp.utils.Benchmark;
+
+@Ignore("Benchmark, run manually")
+public class CacheBenchmark {
+
+	private static final int KEY_COUNT = 100000;
+	private static final int MAXIMUM_SIZE = 1000;
+	private static final int TRACE_LENGTH = 1000000;
+	private static final int THREAD_COUNT = 4;
+
+	private interface Store {
+		Integer get(Integer key);
+
+		void put(Integer key, Integer value);
+	}
+
+	private static class CacheStore implements Store {
+		private final Cache<Integer, Integer> cache;
+
+		CacheStore(Cache.Policy policy) {
+			cache = Cache.<Integer, Integer>builder().policy(policy).maximumSize(MAXIMUM_SIZE).concurrencyLevel(THREAD_COUNT).build();
+		}
+
+		@Override
+		public Integer get(Integer key) {
+			return cache.get(key);
+		}
+
+		@Override
+		public void put(Integer key, Integer value) {
+			cache.put(key, value);
+		}
+	}
+
+	/**
+	 * Usual manual eviction: an access-ordered LinkedHashMap behind a single lock
+	 */
+	private static class LinkedHashMapStore implements Store {
+		private final Map<Integer, Integer> map = Collections.synchronizedMap(new LinkedHashMap<Integer, Integer>(MAXIMUM_SIZE * 2, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Integer, Integer> eldest) {
+				return size() > MAXIMUM_SIZE;
+			}
+		});
+
+		@Override
+		public Integer get(Integer key) {
+			return map.get(key);
+		}
+
+		@Override
+		public void put(Integer key, Integer value) {
+			map.put(key, value);
+		}
+	}
+
+	private interface StoreFactory {
+		Store create();
+	}
+
+	@Test
+	public void hitRateAndThroughput() throws Exception {
+		Random random = new Random(42);
+		Integer[] zipfTrace = zipfTrace(random, 0);
+		// Same popular keys, interrupted by scans over keys read only once, which pollute an LRU cache
+		Integer[] scanTrace = zipfTrace(random, 20000);
+
+		for (String name : new String[]{"LRU", "W_TINY_LFU", "LinkedHashMap"}) {
+			StoreFactory storeFactory = storeFactory(name);
+			reportHitRate(name + " hit rate, zipf", storeFactory.create(), zipfTrace);
+			reportHitRate(name + " hit rate, zipf with scans", storeFactory.create(), scanTrace);
+			measureThroughput(name + ", 1 thread", storeFactory, zipfTrace, 1);
+			measureThroughput(name + ", " + THREAD_COUNT + " threads", storeFactory, zipfTrace, THREAD_COUNT);
+		}
+	}
+
+	private static StoreFactory storeFactory(final String name) {
+		return new StoreFactory() {
+			@Override
+			public Store create() {
+				return "LinkedHashMap".equals(name) ? new LinkedHashMapStore() : new CacheStore(Cache.Policy.valueOf(name));
+			}
+		};
+	}
+
+	private static void reportHitRate(String name, Store store, Integer[] trace) {
+		int hitCount = 0;
+		for (Integer key : trace) {
+			if (store.get(key) != null) {
+				hitCount++;
+			} else {
+				store.put(key, key);
+			}
+		}
+		Benchmark.report(name, String.format(Locale.US, "%.2f%%", hitCount * 100.0 / trace.length));
+	}
+
+	private static void measureThroughput(String name, final StoreFactory storeFactory, final Integer[] trace, final int threadCount) throws Exception {
+		Benchmark.measure(name + ", 1M accesses", new Benchmark.Task() {
+			@Override
+			public Object run() throws Exception {
+				final Store store = storeFactory.create();
+				final CountDownLatch startLatch = new CountDownLatch(1);
+				final int accessesPerThread = trace.length / threadCount;
+
+				Thread[] threads = new Thread[threadCount];
+				for (int t = 0; t < threadCount; t++) {
+					final int offset = t * accessesPerThread;
+					threads[t] = new Thread(new Runnable() {
+						@Override
+						public void run() {
+							try {
+								startLatch.await();
+							} catch (InterruptedException e) {
+								return;
+							}
+							for (int i = offset; i < offset + accessesPerThread; i++) {
+								Integer key = trace[i];
+								if (store.get(key) == null) {
+									store.put(key, key);
+								}
+							}
+						}
+					});
+					threads[t].start();
+				}
+				startLatch.countDown();
+				for (Thread thread : threads) {
+					thread.join();
+				}
+				return store;
+			}
+		});
+	}
+
+	/**
+	 * Build a trace of keys following a Zipf distribution (exponent 0.99), optionally interrupted every 100k accesses by a scan of unique keys
+	 */
+	private static Integer[] zipfTrace(Random random, int scanLength) {
+		double[] cumulative = new double[KEY_COUNT];
+		double sum = 0;
+		for (int i = 0; i < KEY_COUNT; i++) {
+			sum += 1 / Math.pow(i + 1, 0.99);
+			cumulative[i] = sum;
+		}
+
+		Integer[] trace = new Integer[TRACE_LENGTH];
+		int scanKey = KEY_COUNT;
+		for (int i = 0; i < TRACE_LENGTH; i++) {
+			if (scanLength > 0 && i % 100000 < scanLength) {
+				trace[i] = scanKey++;
+			} else {
+				int index = Arrays.binarySearch(cumulative, random.nextDouble() * sum);
+				trace[i] = index >= 0 ? index : Math.min(-index - 1, KEY_COUNT - 1);
+			}
+		}
+		return trace;
+	}
+
+}
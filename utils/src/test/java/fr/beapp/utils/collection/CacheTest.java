@@ -0,0 +1,204 @@
+package fr.beapp.utils.collection;
+
+import androidx.annotation.NonNull;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class CacheTest {
+
+	@Test
+	public void lru() throws Exception {
+		Cache<String, String> cache = Cache.<String, String>builder()
+				.policy(Cache.Policy.LRU)
+				.maximumSize(3)
+				.concurrencyLevel(1)
+				.build();
+
+		cache.put("k1", "v1");
+		cache.put("k2", "v2");
+		cache.put("k3", "v3");
+		Assert.assertEquals("v1", cache.get("k1"));
+		cache.put("k4", "v4");
+
+		Assert.assertEquals(3, cache.size());
+		Assert.assertNull(cache.get("k2"));
+		Assert.assertEquals("v1", cache.get("k1"));
+		Assert.assertEquals("v3", cache.get("k3"));
+		Assert.assertEquals("v4", cache.get("k4"));
+
+		Cache.Stats stats = cache.stats();
+		Assert.assertEquals(4, stats.getHitCount());
+		Assert.assertEquals(1, stats.getMissCount());
+		Assert.assertEquals(1, stats.getEvictionCount());
+		Assert.assertEquals(0.8, stats.getHitRate(), 0.001);
+	}
+
+	@Test
+	public void wTinyLfu_resistsScan() throws Exception {
+		Cache<Integer, Integer> cache = Cache.<Integer, Integer>builder()
+				.maximumSize(100)
+				.concurrencyLevel(1)
+				.build();
+
+		// Hot keys accessed frequently
+		for (int round = 0; round < 10; round++) {
+			for (int key = 0; key < 50; key++) {
+				if (cache.get(key) == null) {
+					cache.put(key, key);
+				}
+			}
+		}
+
+		// Scan of keys used once
+		for (int key = 1000; key < 3000; key++) {
+			cache.put(key, key);
+		}
+
+		int hotHits = 0;
+		for (int key = 0; key < 50; key++) {
+			if (cache.get(key) != null) {
+				hotHits++;
+			}
+		}
+		Assert.assertTrue("Only " + hotHits + " hot keys kept", hotHits >= 45);
+		Assert.assertTrue(cache.size() <= 100);
+	}
+
+	@Test
+	public void expiration() throws Exception {
+		final AtomicInteger time = new AtomicInteger();
+		Cache<String, String> cache = Cache.<String, String>builder()
+				.maximumSize(10)
+				.expireAfterWrite(10, TimeUnit.NANOSECONDS)
+				.ticker(new Cache.Ticker() {
+					@Override
+					public long read() {
+						return time.get();
+					}
+				})
+				.build();
+
+		cache.put("k1", "v1");
+		cache.put("k2", "v2", 20, TimeUnit.NANOSECONDS);
+		cache.put("k3", "v3", 0, TimeUnit.NANOSECONDS);
+
+		time.set(15);
+		Assert.assertNull(cache.get("k1"));
+		Assert.assertEquals("v2", cache.get("k2"));
+		Assert.assertEquals("v3", cache.get("k3"));
+
+		time.set(25);
+		Assert.assertFalse(cache.containsKey("k2"));
+		cache.cleanUp();
+		Assert.assertEquals(1, cache.size());
+		Assert.assertEquals(2, cache.stats().getExpirationCount());
+	}
+
+	@Test
+	public void weigher() throws Exception {
+		Cache<String, String> cache = Cache.<String, String>builder()
+				.policy(Cache.Policy.LRU)
+				.maximumWeight(10)
+				.concurrencyLevel(1)
+				.weigher(new Cache.Weigher<String, String>() {
+					@Override
+					public int weigh(@NonNull String key, @NonNull String value) {
+						return value.length();
+					}
+				})
+				.build();
+
+		cache.put("k1", "aaaa");
+		cache.put("k2", "bbbb");
+		Assert.assertEquals(8, cache.weightedSize());
+		cache.put("k3", "cccc");
+		Assert.assertEquals(8, cache.weightedSize());
+		Assert.assertNull(cache.get("k1"));
+
+		cache.put("k4", "too long value");
+		Assert.assertNull(cache.get("k4"));
+		Assert.assertTrue(cache.weightedSize() <= 10);
+	}
+
+	@Test
+	public void removeAndInvalidate() throws Exception {
+		Cache<String, String> cache = Cache.<String, String>builder().maximumSize(10).build();
+		Assert.assertNull(cache.put("k1", "v1"));
+		Assert.assertEquals("v1", cache.put("k1", "v1.1"));
+		cache.put("k2", "v2");
+
+		Assert.assertEquals("v1.1", cache.remove("k1"));
+		Assert.assertNull(cache.remove("k1"));
+		cache.invalidateAll();
+		Assert.assertEquals(0, cache.size());
+		Assert.assertEquals(0, cache.weightedSize());
+	}
+
+	@Test
+	public void concurrentAccess() throws Exception {
+		final Cache<Integer, Integer> cache = Cache.<Integer, Integer>builder()
+				.maximumSize(500)
+				.concurrencyLevel(8)
+				.build();
+
+		List<Thread> threads = new ArrayList<>();
+		for (int t = 0; t < 8; t++) {
+			final int seed = t;
+			Thread thread = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					for (int i = 0; i < 20000; i++) {
+						int key = (i * 31 + seed) % 2000;
+						Integer value = cache.get(key);
+						if (value == null) {
+							cache.put(key, key);
+						} else if (value != key) {
+							throw new IllegalStateException("Wrong value for " + key);
+						}
+					}
+				}
+			});
+			threads.add(thread);
+			thread.start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		Assert.assertTrue(cache.size() <= 500);
+		Assert.assertEquals(8 * 20000, cache.stats().getRequestCount());
+	}
+
+	@Test
+	public void wTinyLfu_sketchSizedByEntries() throws Exception {
+		Cache<String, byte[]> weightedCache = Cache.<String, byte[]>builder()
+				.maximumWeight(32 * 1024 * 1024)
+				.weigher(new Cache.Weigher<String, byte[]>() {
+					@Override
+					public int weigh(@NonNull String key, @NonNull byte[] value) {
+						return value.length;
+					}
+				})
+				.build();
+		Assert.assertTrue(weightedCache.sketchSizeInBytes() <= 16 * 1024);
+
+		Cache<String, byte[]> expectedCache = Cache.<String, byte[]>builder()
+				.maximumWeight(32 * 1024 * 1024)
+				.expectedEntryCount(100000)
+				.build();
+		Assert.assertTrue(expectedCache.sketchSizeInBytes() >= 100000 * 8);
+		Assert.assertTrue(expectedCache.sketchSizeInBytes() < 32 * 1024 * 1024);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void build_withoutMaximum() throws Exception {
+		Cache.builder().build();
+	}
+
+}
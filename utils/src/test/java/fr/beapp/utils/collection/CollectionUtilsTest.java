@@ -4,7 +4,12 @@ import android.util.SparseArray;
 
 import org.junit.Test;
 
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
 
 import fr.beapp.utils.BaseRobolectric;
@@ -83,4 +88,135 @@ public class CollectionUtilsTest extends BaseRobolectric {
 		assertEquals("b", CollectionUtils.getItemAt(asList("a", "b"), 1, defaultValue));
 	}
 
-}
\ No newline at end of file
+	@Test
+	public void testForEachIndexed() throws Exception {
+		final List<String> visited = new ArrayList<>();
+		CollectionUtils.IndexedConsumer<String> consumer = new CollectionUtils.IndexedConsumer<String>() {
+			@Override
+			public void accept(int index, String item) {
+				visited.add(index + item);
+			}
+		};
+
+		CollectionUtils.forEachIndexed(asList("a", "b"), consumer);
+		CollectionUtils.forEachIndexed(new LinkedList<>(asList("c", "d")), consumer);
+		CollectionUtils.forEachIndexed(null, consumer);
+		assertEquals(asList("0a", "1b", "0c", "1d"), visited);
+	}
+
+	@Test
+	public void testForEachSparseArray() throws Exception {
+		SparseArray<String> sparseArray = new SparseArray<>();
+		sparseArray.put(10, "b");
+		sparseArray.put(2, "a");
+
+		final List<String> visited = new ArrayList<>();
+		CollectionUtils.forEach(sparseArray, new CollectionUtils.KeyedConsumer<String>() {
+			@Override
+			public void accept(int key, String value) {
+				visited.add(key + value);
+			}
+		});
+		assertEquals(asList("2a", "10b"), visited);
+	}
+
+	@Test
+	public void testChunk() throws Exception {
+		List<String> items = new ArrayList<>(asList("a", "b", "c", "d", "e"));
+		List<List<String>> chunks = CollectionUtils.chunk(items, 2);
+		assertEquals(3, chunks.size());
+		assertEquals(asList("c", "d"), chunks.get(1));
+		assertEquals(singletonList("e"), chunks.get(2));
+
+		items.add("f");
+		assertEquals(asList("e", "f"), chunks.get(2));
+		assertTrue(CollectionUtils.chunk(null, 2).isEmpty());
+
+		final List<String> bounds = new ArrayList<>();
+		CollectionUtils.forEachChunk(items, 4, new CollectionUtils.ChunkConsumer() {
+			@Override
+			public void accept(int chunkIndex, int fromIndex, int toIndex) {
+				bounds.add(chunkIndex + ":" + fromIndex + "-" + toIndex);
+			}
+		});
+		assertEquals(asList("0:0-4", "1:4-6"), bounds);
+	}
+
+	@Test
+	public void testGetPage() throws Exception {
+		List<String> items = asList("a", "b", "c", "d", "e");
+		assertEquals(asList("c", "d"), CollectionUtils.getPage(items, 1, 2));
+		assertEquals(singletonList("e"), CollectionUtils.getPage(items, 2, 2));
+		assertTrue(CollectionUtils.getPage(items, 3, 2).isEmpty());
+		assertTrue(CollectionUtils.getPage(items, -1, 2).isEmpty());
+		assertTrue(CollectionUtils.getPage(null, 0, 2).isEmpty());
+	}
+
+	@Test
+	public void testMergeSorted() throws Exception {
+		Comparator<String> comparator = new Comparator<String>() {
+			@Override
+			public int compare(String o1, String o2) {
+				return o1.compareTo(o2);
+			}
+		};
+		assertEquals(asList("a", "b", "c", "d", "e"), CollectionUtils.mergeSorted(asList("a", "d"), asList("b", "c", "e"), comparator));
+		assertEquals(asList("a", "b"), CollectionUtils.mergeSorted(new LinkedList<>(asList("a", "b")), null, comparator));
+		assertTrue(CollectionUtils.mergeSorted(null, null, comparator).isEmpty());
+	}
+
+	@Test
+	public void testNoAllocation() throws Exception {
+		final List<Integer> items = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			items.add(i);
+		}
+		final List<Integer> output = new ArrayList<>(300);
+		final Comparator<Integer> comparator = new Comparator<Integer>() {
+			@Override
+			public int compare(Integer o1, Integer o2) {
+				return o1.compareTo(o2);
+			}
+		};
+		final CollectionUtils.IndexedConsumer<Integer> indexedConsumer = new CollectionUtils.IndexedConsumer<Integer>() {
+			@Override
+			public void accept(int index, Integer item) {
+			}
+		};
+		final CollectionUtils.ChunkConsumer chunkConsumer = new CollectionUtils.ChunkConsumer() {
+			@Override
+			public void accept(int chunkIndex, int fromIndex, int toIndex) {
+			}
+		};
+
+		assertEquals(0, allocatedBytesPerCall(new Runnable() {
+			@Override
+			public void run() {
+				CollectionUtils.forEachIndexed(items, indexedConsumer);
+				CollectionUtils.forEachChunk(items, 7, chunkConsumer);
+				output.clear();
+				CollectionUtils.mergeSorted(items, items, comparator, output);
+			}
+		}));
+	}
+
+	/**
+	 * Measure the bytes allocated by the current thread while running the given code, once warmed up
+	 */
+	private static long allocatedBytesPerCall(Runnable runnable) {
+		com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long threadId = Thread.currentThread().getId();
+		int calls = 10000;
+		for (int i = 0; i < calls; i++) {
+			runnable.run();
+		}
+
+		long before = threadMXBean.getThreadAllocatedBytes(threadId);
+		for (int i = 0; i < calls; i++) {
+			runnable.run();
+		}
+		long after = threadMXBean.getThreadAllocatedBytes(threadId);
+		return (after - before) / calls;
+	}
+
+}
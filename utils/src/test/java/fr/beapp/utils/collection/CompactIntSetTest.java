@@ -0,0 +1,143 @@
+package fr.beapp.utils.collection;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+import java.util.TreeSet;
+
+public class CompactIntSetTest {
+
+	@Test
+	public void addRemoveContains() throws Exception {
+		CompactIntSet set = CompactIntSet.of(5, -3, 70000, Integer.MIN_VALUE, Integer.MAX_VALUE);
+		Assert.assertEquals(5, set.size());
+		Assert.assertTrue(set.contains(70000));
+		Assert.assertFalse(set.contains(70001));
+		Assert.assertFalse(set.add(5));
+		Assert.assertArrayEquals(new int[]{Integer.MIN_VALUE, -3, 5, 70000, Integer.MAX_VALUE}, set.toArray());
+
+		Assert.assertTrue(set.remove(-3));
+		Assert.assertFalse(set.remove(-3));
+		Assert.assertFalse(set.contains(-3));
+		Assert.assertEquals(4, set.size());
+
+		set.clear();
+		Assert.assertTrue(set.isEmpty());
+		Assert.assertFalse(set.contains(5));
+	}
+
+	@Test
+	public void denseValues() throws Exception {
+		CompactIntSet set = new CompactIntSet();
+		for (int i = 0; i < 200000; i++) {
+			set.add(i);
+		}
+		Assert.assertEquals(200000, set.size());
+		Assert.assertTrue(set.getSizeInBytes() < 200000 / 4);
+
+		for (int i = 0; i < 200000; i += 2) {
+			set.remove(i);
+		}
+		Assert.assertEquals(100000, set.size());
+		Assert.assertFalse(set.contains(1000));
+		Assert.assertTrue(set.contains(1001));
+	}
+
+	@Test
+	public void randomValues() throws Exception {
+		Random random = new Random(42);
+		TreeSet<Integer> expected = new TreeSet<>();
+		CompactIntSet set = new CompactIntSet();
+		for (int i = 0; i < 100000; i++) {
+			int value = random.nextInt(1 << 18) - (1 << 17);
+			if (random.nextInt(4) > 0) {
+				Assert.assertEquals(expected.add(value), set.add(value));
+			} else {
+				Assert.assertEquals(expected.remove(value), set.remove(value));
+			}
+		}
+
+		Assert.assertEquals(expected.size(), set.size());
+		int[] values = set.toArray();
+		int index = 0;
+		for (Integer value : expected) {
+			Assert.assertEquals(value.intValue(), values[index++]);
+		}
+	}
+
+	@Test
+	public void writeAndRead() throws Exception {
+		CompactIntSet set = new CompactIntSet();
+		for (int i = 0; i < 10000; i++) {
+			set.add(i * 3);
+		}
+		set.add(-1);
+		set.add(1 << 24);
+
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		set.writeTo(outputStream);
+		CompactIntSet read = CompactIntSet.readFrom(new ByteArrayInputStream(outputStream.toByteArray()));
+		Assert.assertArrayEquals(set.toArray(), read.toArray());
+		Assert.assertEquals(set.size(), read.size());
+
+		File file = File.createTempFile("beapp", null);
+		file.deleteOnExit();
+		set.writeTo(file);
+		Assert.assertArrayEquals(set.toArray(), CompactIntSet.readFrom(file).toArray());
+	}
+
+	@Test
+	public void read_trailingData() throws Exception {
+		CompactIntSet set = new CompactIntSet();
+		set.add(7);
+
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		set.writeTo(outputStream);
+		outputStream.write(42);
+
+		ByteArrayInputStream inputStream = new ByteArrayInputStream(outputStream.toByteArray());
+		Assert.assertArrayEquals(new int[]{7}, CompactIntSet.readFrom(inputStream).toArray());
+		Assert.assertEquals(42, inputStream.read());
+	}
+
+	@Test(expected = IOException.class)
+	public void read_unorderedKeys() throws Exception {
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		DataOutputStream dataOutputStream = new DataOutputStream(outputStream);
+		dataOutputStream.writeInt(0x43495354);
+		dataOutputStream.writeInt(1);
+		dataOutputStream.writeInt(2);
+		for (char key : new char[]{2, 1}) {
+			dataOutputStream.writeChar(key);
+			dataOutputStream.writeBoolean(false);
+			dataOutputStream.writeInt(1);
+			dataOutputStream.writeChar(7);
+		}
+
+		CompactIntSet.readFrom(new ByteArrayInputStream(outputStream.toByteArray()));
+	}
+
+	@Test(expected = IOException.class)
+	public void read_duplicateValues() throws Exception {
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		DataOutputStream dataOutputStream = new DataOutputStream(outputStream);
+		dataOutputStream.writeInt(0x43495354);
+		dataOutputStream.writeInt(1);
+		dataOutputStream.writeInt(1);
+		dataOutputStream.writeChar(0);
+		dataOutputStream.writeBoolean(false);
+		dataOutputStream.writeInt(3);
+		dataOutputStream.writeChar(1);
+		dataOutputStream.writeChar(5);
+		dataOutputStream.writeChar(5);
+
+		CompactIntSet.readFrom(new ByteArrayInputStream(outputStream.toByteArray()));
+	}
+
+}
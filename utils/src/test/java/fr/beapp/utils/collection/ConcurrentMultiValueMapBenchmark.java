@@ -0,0 +1,86 @@
+package fr.beapp.utils.collection;
+
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+
+import fr.beapp.utils.Benchmark;
+
+@Ignore("Benchmark, run manually")
+public class ConcurrentMultiValueMapBenchmark {
+
+	private static final int VALUE_COUNT = 1000000;
+	private static final int KEY_COUNT = 100;
+
+	private interface Producer {
+		void add(int key, int value);
+	}
+
+	@Test
+	public void contention() throws Exception {
+		for (final int threadCount : new int[]{1, 2, 4, 8}) {
+			Benchmark.measure("ConcurrentMultiValueMap, " + threadCount + " producers", new Benchmark.Task() {
+				@Override
+				public Object run() throws Exception {
+					final ConcurrentMultiValueMap<Integer, Integer> map = new ConcurrentMultiValueMap<>(KEY_COUNT, threadCount);
+					produce(threadCount, new Producer() {
+						@Override
+						public void add(int key, int value) {
+							map.add(key, value);
+						}
+					});
+					return map.fullSize();
+				}
+			});
+
+			Benchmark.measure("synchronized MultiValueMap, " + threadCount + " producers", new Benchmark.Task() {
+				@Override
+				public Object run() throws Exception {
+					final MultiValueMap<Integer, Integer> map = MultiValueMap.build();
+					produce(threadCount, new Producer() {
+						@Override
+						public void add(int key, int value) {
+							synchronized (map) {
+								map.add(key, value);
+							}
+						}
+					});
+					return map.fullSize();
+				}
+			});
+		}
+	}
+
+	/**
+	 * Add {@link #VALUE_COUNT} values split among the given number of threads, and wait for them to complete
+	 */
+	private static void produce(int threadCount, final Producer producer) throws InterruptedException {
+		final int valuesPerThread = VALUE_COUNT / threadCount;
+		final CountDownLatch startLatch = new CountDownLatch(1);
+
+		Thread[] threads = new Thread[threadCount];
+		for (int t = 0; t < threadCount; t++) {
+			final int threadIndex = t;
+			threads[t] = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						startLatch.await();
+					} catch (InterruptedException e) {
+						return;
+					}
+					for (int i = 0; i < valuesPerThread; i++) {
+						producer.add((i + threadIndex) % KEY_COUNT, i);
+					}
+				}
+			});
+			threads[t].start();
+		}
+		startLatch.countDown();
+		for (Thread thread : threads) {
+			thread.join();
+		}
+	}
+
+}
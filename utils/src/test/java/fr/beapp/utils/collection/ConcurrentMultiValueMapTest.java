@@ -0,0 +1,159 @@
+package fr.beapp.utils.collection;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ConcurrentMultiValueMapTest {
+
+	@Test
+	public void add() throws Exception {
+		ConcurrentMultiValueMap<String, String> map = new ConcurrentMultiValueMap<String, String>()
+				.add("k1", "v1.1")
+				.add("k2", "v2.1")
+				.add("k1", "v1.2")
+				.addAll("k1", Arrays.asList("v1.3", "v1.4", "v1.5", "v1.6"));
+
+		Assert.assertEquals(Arrays.asList("v1.1", "v1.2", "v1.3", "v1.4", "v1.5", "v1.6"), map.get("k1"));
+		Assert.assertEquals(6, map.size("k1"));
+		Assert.assertEquals(7, map.fullSize());
+		Assert.assertEquals(2, map.size());
+		Assert.assertNull(map.get("unknown"));
+		Assert.assertNull(map.get(null));
+	}
+
+	@Test
+	public void remove() throws Exception {
+		ConcurrentMultiValueMap<String, String> map = new ConcurrentMultiValueMap<String, String>()
+				.add("k1", "v1.1")
+				.add("k2", "v2.1");
+
+		Assert.assertEquals(Arrays.asList("v1.1"), map.remove("k1"));
+		Assert.assertNull(map.remove("k1"));
+		Assert.assertEquals(1, map.fullSize());
+
+		map.clear();
+		Assert.assertEquals(0, map.fullSize());
+		Assert.assertTrue(map.isEmpty());
+	}
+
+	@Test
+	public void snapshot() throws Exception {
+		ConcurrentMultiValueMap<String, String> map = new ConcurrentMultiValueMap<String, String>()
+				.add("k1", "v1.1")
+				.add("k2", "v2.1");
+
+		Map<String, List<String>> snapshot = map.snapshot();
+		map.add("k1", "v1.2").add("k3", "v3.1");
+
+		Assert.assertEquals(2, snapshot.size());
+		Assert.assertEquals(Arrays.asList("v1.1"), snapshot.get("k1"));
+		Assert.assertEquals(Arrays.asList("v1.1", "v1.2"), map.toMultiValueMap().get("k1"));
+		Assert.assertEquals(4, map.toMultiValueMap().fullSize());
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void snapshot_immutable() throws Exception {
+		new ConcurrentMultiValueMap<String, String>().add("k1", "v1.1").get("k1").add("v1.2");
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void keySet_immutable() throws Exception {
+		new ConcurrentMultiValueMap<String, String>().add("k1", "v1.1").keySet().remove("k1");
+	}
+
+	@Test
+	public void concurrentAdd() throws Exception {
+		final ConcurrentMultiValueMap<Integer, Integer> map = new ConcurrentMultiValueMap<>();
+		final int threadCount = 8;
+		final int valuesPerThread = 10000;
+		final CountDownLatch startLatch = new CountDownLatch(1);
+
+		Thread[] threads = new Thread[threadCount];
+		for (int t = 0; t < threadCount; t++) {
+			final int threadIndex = t;
+			threads[t] = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						startLatch.await();
+					} catch (InterruptedException e) {
+						return;
+					}
+					for (int i = 0; i < valuesPerThread; i++) {
+						map.add(i % 10, threadIndex);
+					}
+				}
+			});
+			threads[t].start();
+		}
+		startLatch.countDown();
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		Assert.assertEquals(threadCount * valuesPerThread, map.fullSize());
+		Assert.assertEquals(10, map.size());
+		for (int key = 0; key < 10; key++) {
+			Assert.assertEquals(threadCount * valuesPerThread / 10, map.get(key).size());
+		}
+	}
+
+	@Test
+	public void concurrentAddRemove() throws Exception {
+		final ConcurrentMultiValueMap<Integer, Integer> map = new ConcurrentMultiValueMap<>();
+		final int valueCount = 100000;
+		final AtomicBoolean negativeSize = new AtomicBoolean();
+		final AtomicInteger removedCount = new AtomicInteger();
+		final CountDownLatch startLatch = new CountDownLatch(1);
+
+		Thread producer = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					startLatch.await();
+				} catch (InterruptedException e) {
+					return;
+				}
+				for (int i = 0; i < valueCount; i++) {
+					map.add(i % 2, i);
+				}
+			}
+		});
+		Thread consumer = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					startLatch.await();
+				} catch (InterruptedException e) {
+					return;
+				}
+				for (int i = 0; removedCount.get() < valueCount; i++) {
+					List<Integer> removed = map.remove(i % 2);
+					if (removed != null) {
+						removedCount.addAndGet(removed.size());
+					}
+					if (map.fullSize() < 0) {
+						negativeSize.set(true);
+					}
+				}
+			}
+		});
+		producer.start();
+		consumer.start();
+		startLatch.countDown();
+		producer.join();
+		consumer.join();
+
+		Assert.assertFalse(negativeSize.get());
+		Assert.assertEquals(valueCount, removedCount.get());
+		Assert.assertEquals(0, map.fullSize());
+	}
+
+}
@@ -0,0 +1,47 @@
+package fr.beapp.utils.collection;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class IntIntMapTest {
+
+	@Test
+	public void putGetRemove() throws Exception {
+		IntIntMap map = new IntIntMap(4, -1);
+		Assert.assertEquals(-1, map.put(1, 10));
+		Assert.assertEquals(-1, map.put(0, 0));
+		Assert.assertEquals(10, map.put(1, 11));
+
+		Assert.assertEquals(11, map.get(1));
+		Assert.assertEquals(0, map.get(0));
+		Assert.assertEquals(-1, map.get(2));
+		Assert.assertEquals(5, map.get(2, 5));
+
+		Assert.assertEquals(11, map.remove(1));
+		Assert.assertEquals(-1, map.remove(1));
+		Assert.assertEquals(1, map.size());
+	}
+
+	@Test
+	public void increment() throws Exception {
+		IntIntMap map = new IntIntMap();
+		for (int i = 0; i < 1000; i++) {
+			map.increment(i % 10, 1);
+		}
+		Assert.assertEquals(10, map.size());
+		for (int slot = map.firstSlot(); slot >= 0; slot = map.nextSlot(slot)) {
+			Assert.assertEquals(100, map.valueAt(slot));
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void tooLargeExpectedSize() throws Exception {
+		new IntIntMap(Integer.MAX_VALUE);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void negativeExpectedSize() throws Exception {
+		new IntIntMap(-1);
+	}
+
+}
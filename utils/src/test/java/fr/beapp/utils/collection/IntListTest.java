@@ -0,0 +1,38 @@
+package fr.beapp.utils.collection;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class IntListTest {
+
+	@Test
+	public void addRemove() throws Exception {
+		IntList list = new IntList();
+		list.add(3);
+		list.add(1);
+		list.add(0, 5);
+		list.addAll(new int[]{7, 9});
+		Assert.assertArrayEquals(new int[]{5, 3, 1, 7, 9}, list.toArray());
+
+		Assert.assertEquals(1, list.removeAt(2));
+		Assert.assertEquals(3, list.set(1, 4));
+		Assert.assertArrayEquals(new int[]{5, 4, 7, 9}, list.toArray());
+		Assert.assertEquals(2, list.indexOf(7));
+		Assert.assertFalse(list.contains(1));
+		Assert.assertEquals("[5, 4, 7, 9]", list.toString());
+
+		list.sort();
+		Assert.assertEquals(2, list.binarySearch(7));
+
+		list.clear();
+		Assert.assertTrue(list.isEmpty());
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void get_outOfBounds() throws Exception {
+		IntList list = new IntList(10);
+		list.add(1);
+		list.get(1);
+	}
+
+}
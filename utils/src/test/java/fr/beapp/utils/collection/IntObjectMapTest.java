@@ -0,0 +1,92 @@
+package fr.beapp.utils.collection;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+public class IntObjectMapTest {
+
+	@Test
+	public void putGetRemove() throws Exception {
+		IntObjectMap<String> map = new IntObjectMap<>();
+		Assert.assertNull(map.put(1, "one"));
+		Assert.assertNull(map.put(0, "zero"));
+		Assert.assertNull(map.put(-5, "minus five"));
+		Assert.assertEquals("one", map.put(1, "un"));
+
+		Assert.assertEquals(3, map.size());
+		Assert.assertEquals("un", map.get(1));
+		Assert.assertEquals("zero", map.get(0));
+		Assert.assertEquals("minus five", map.get(-5));
+		Assert.assertNull(map.get(2));
+		Assert.assertEquals("default", map.get(2, "default"));
+		Assert.assertTrue(map.containsKey(0));
+
+		Assert.assertEquals("zero", map.remove(0));
+		Assert.assertNull(map.remove(0));
+		Assert.assertFalse(map.containsKey(0));
+		Assert.assertEquals(2, map.size());
+
+		map.clear();
+		Assert.assertTrue(map.isEmpty());
+		Assert.assertNull(map.get(1));
+	}
+
+	@Test
+	public void iteration() throws Exception {
+		IntObjectMap<String> map = new IntObjectMap<>();
+		map.put(0, "0");
+		map.put(42, "42");
+		map.put(7, "7");
+
+		Map<Integer, String> iterated = new HashMap<>();
+		for (int slot = map.firstSlot(); slot >= 0; slot = map.nextSlot(slot)) {
+			iterated.put(map.keyAt(slot), map.valueAt(slot));
+		}
+		Assert.assertEquals(3, iterated.size());
+		Assert.assertEquals("42", iterated.get(42));
+		Assert.assertEquals("0", iterated.get(0));
+		Assert.assertEquals(3, map.keys().length);
+
+		Assert.assertEquals(-1, new IntObjectMap<String>().firstSlot());
+	}
+
+	@Test
+	public void randomOperations() throws Exception {
+		Random random = new Random(42);
+		IntObjectMap<Integer> map = new IntObjectMap<>(4);
+		Map<Integer, Integer> expected = new HashMap<>();
+
+		for (int i = 0; i < 100000; i++) {
+			int key = random.nextInt(2000) - 1000;
+			switch (random.nextInt(3)) {
+				case 0:
+					Assert.assertEquals(expected.put(key, i), map.put(key, i));
+					break;
+				case 1:
+					Assert.assertEquals(expected.remove(key), map.remove(key));
+					break;
+				default:
+					Assert.assertEquals(expected.get(key), map.get(key));
+			}
+			Assert.assertEquals(expected.size(), map.size());
+		}
+		for (Map.Entry<Integer, Integer> entry : expected.entrySet()) {
+			Assert.assertEquals(entry.getValue(), map.get(entry.getKey()));
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void tooLargeExpectedSize() throws Exception {
+		new IntObjectMap<String>(Integer.MAX_VALUE);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void negativeExpectedSize() throws Exception {
+		new IntObjectMap<String>(-1);
+	}
+
+}
@@ -0,0 +1,86 @@
+package fr.beapp.utils.collection;
+
+import androidx.annotation.Nullable;
+
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import fr.beapp.utils.BaseRobolectric;
+import fr.beapp.utils.Benchmark;
+
+@Ignore("Benchmark, run manually")
+public class ListDiffBenchmark extends BaseRobolectric {
+
+	private static final int ITEM_COUNT = 10000;
+
+	private static final ListDiff.KeyExtractor<String> IDENTITY_KEY = new ListDiff.KeyExtractor<String>() {
+		@Override
+		public Object getKey(@Nullable String item) {
+			return item;
+		}
+	};
+
+	@Test
+	public void calculate() throws Exception {
+		final List<String> oldList = new ArrayList<>(ITEM_COUNT);
+		for (int i = 0; i < ITEM_COUNT; i++) {
+			oldList.add("item" + i);
+		}
+
+		Random random = new Random(42);
+		measure("10 edits", oldList, edit(oldList, 10, random));
+		measure("1000 edits", oldList, edit(oldList, 1000, random));
+
+		List<String> shuffledList = new ArrayList<>(oldList);
+		Collections.shuffle(shuffledList, random);
+		measure("shuffled", oldList, shuffledList);
+	}
+
+	private static void measure(String name, final List<String> oldList, final List<String> newList) throws Exception {
+		Benchmark.measure("calculate 10k, " + name, new Benchmark.Task() {
+			@Override
+			public Object run() {
+				return ListDiff.calculate(oldList, newList, ListDiff.<String>equalsCallback(), false);
+			}
+		});
+		Benchmark.measure("calculate 10k with moves, " + name, new Benchmark.Task() {
+			@Override
+			public Object run() {
+				return ListDiff.calculate(oldList, newList, ListDiff.<String>equalsCallback(), true);
+			}
+		});
+		Benchmark.measure("calculateKeyed 10k, " + name, new Benchmark.Task() {
+			@Override
+			public Object run() {
+				return ListDiff.calculateKeyed(oldList, newList, IDENTITY_KEY, null);
+			}
+		});
+	}
+
+	/**
+	 * Apply the given number of random removals, insertions and moves to a copy of the list
+	 */
+	private static List<String> edit(List<String> list, int editCount, Random random) {
+		List<String> editedList = new ArrayList<>(list);
+		for (int i = 0; i < editCount; i++) {
+			switch (i % 3) {
+				case 0:
+					editedList.remove(random.nextInt(editedList.size()));
+					break;
+				case 1:
+					editedList.add(random.nextInt(editedList.size()), "new" + i);
+					break;
+				default:
+					editedList.add(random.nextInt(editedList.size()), editedList.remove(random.nextInt(editedList.size())));
+					break;
+			}
+		}
+		return editedList;
+	}
+
+}
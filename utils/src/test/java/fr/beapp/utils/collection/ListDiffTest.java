@@ -0,0 +1,214 @@
+package fr.beapp.utils.collection;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Executor;
+
+import fr.beapp.utils.BaseRobolectric;
+
+public class ListDiffTest extends BaseRobolectric {
+
+	private static final ListDiff.KeyExtractor<String> FIRST_CHAR_KEY = new ListDiff.KeyExtractor<String>() {
+		@Override
+		public Object getKey(@Nullable String item) {
+			return item != null ? item.charAt(0) : null;
+		}
+	};
+
+	private static final ListDiff.ItemCallback<String> FIRST_CHAR_CALLBACK = new ListDiff.ItemCallback<String>() {
+		@Override
+		public boolean areItemsTheSame(@Nullable String oldItem, @Nullable String newItem) {
+			return oldItem != null && newItem != null && oldItem.charAt(0) == newItem.charAt(0);
+		}
+
+		@Override
+		public boolean areContentsTheSame(@Nullable String oldItem, @Nullable String newItem) {
+			return oldItem != null && oldItem.equals(newItem);
+		}
+	};
+
+	@Test
+	public void calculate() throws Exception {
+		List<String> oldList = Arrays.asList("a", "b", "c", "d");
+		List<String> newList = Arrays.asList("a", "c", "x", "d", "y");
+
+		ListDiff.DiffResult result = ListDiff.calculate(oldList, newList, ListDiff.<String>equalsCallback());
+		Assert.assertEquals(Arrays.asList(
+				new ListDiff.Operation(ListDiff.Operation.Type.REMOVE, 1, 1, -1),
+				new ListDiff.Operation(ListDiff.Operation.Type.INSERT, 2, 1, -1),
+				new ListDiff.Operation(ListDiff.Operation.Type.INSERT, 4, 1, -1)
+		), result.getOperations());
+		assertApplies(oldList, newList, result);
+	}
+
+	@Test
+	public void calculate_identical() throws Exception {
+		List<String> list = Arrays.asList("a", "b", "c");
+		Assert.assertTrue(ListDiff.calculate(list, list, ListDiff.<String>equalsCallback()).getOperations().isEmpty());
+		Assert.assertTrue(ListDiff.calculate(Collections.<String>emptyList(), Collections.<String>emptyList(), ListDiff.<String>equalsCallback()).getOperations().isEmpty());
+	}
+
+	@Test
+	public void calculate_detectMovesAndChanges() throws Exception {
+		List<String> oldList = Arrays.asList("a1", "b1", "c1", "d1");
+		List<String> newList = Arrays.asList("b1", "c2", "d1", "a1");
+
+		ListDiff.DiffResult result = ListDiff.calculate(oldList, newList, FIRST_CHAR_CALLBACK, true);
+		Assert.assertEquals(Arrays.asList(
+				new ListDiff.Operation(ListDiff.Operation.Type.MOVE, 0, 1, 3),
+				new ListDiff.Operation(ListDiff.Operation.Type.CHANGE, 1, 1, -1)
+		), result.getOperations());
+		assertApplies(oldList, newList, result);
+	}
+
+	@Test
+	public void calculateKeyed() throws Exception {
+		List<String> oldList = Arrays.asList("a1", "b1", "c1", "d1", "e1");
+		List<String> newList = Arrays.asList("e1", "b2", "f1", "a1", "c1");
+
+		ListDiff.DiffResult result = ListDiff.calculateKeyed(oldList, newList, FIRST_CHAR_KEY, FIRST_CHAR_CALLBACK);
+		Assert.assertEquals(Arrays.asList(
+				new ListDiff.Operation(ListDiff.Operation.Type.REMOVE, 3, 1, -1),
+				new ListDiff.Operation(ListDiff.Operation.Type.MOVE, 3, 1, 0),
+				new ListDiff.Operation(ListDiff.Operation.Type.MOVE, 1, 1, 2),
+				new ListDiff.Operation(ListDiff.Operation.Type.INSERT, 2, 1, -1),
+				new ListDiff.Operation(ListDiff.Operation.Type.CHANGE, 1, 1, -1)
+		), result.getOperations());
+		assertApplies(oldList, newList, result);
+	}
+
+	@Test
+	public void randomLists() throws Exception {
+		Random random = new Random(42);
+		for (int iteration = 0; iteration < 300; iteration++) {
+			List<String> oldList = new ArrayList<>();
+			int size = random.nextInt(60);
+			for (int i = 0; i < size; i++) {
+				oldList.add(String.valueOf(i));
+			}
+
+			List<String> newList = new ArrayList<>(oldList);
+			int edits = random.nextInt(20);
+			for (int i = 0; i < edits; i++) {
+				int action = random.nextInt(3);
+				if (action == 0 || newList.isEmpty()) {
+					newList.add(random.nextInt(newList.size() + 1), "new" + iteration + "-" + i);
+				} else if (action == 1) {
+					newList.remove(random.nextInt(newList.size()));
+				} else {
+					newList.add(random.nextInt(newList.size()), newList.remove(random.nextInt(newList.size())));
+				}
+			}
+
+			assertApplies(oldList, newList, ListDiff.calculate(oldList, newList, ListDiff.<String>equalsCallback()));
+			assertApplies(oldList, newList, ListDiff.calculate(oldList, newList, ListDiff.<String>equalsCallback(), true));
+
+			ListDiff.KeyExtractor<String> identity = new ListDiff.KeyExtractor<String>() {
+				@Override
+				public Object getKey(@Nullable String item) {
+					return item;
+				}
+			};
+			assertApplies(oldList, newList, ListDiff.calculateKeyed(oldList, newList, identity, null));
+		}
+	}
+
+	@Test
+	public void calculateKeyed_shuffledLargeList() throws Exception {
+		List<Integer> oldList = new ArrayList<>();
+		for (int i = 0; i < 10000; i++) {
+			oldList.add(i);
+		}
+		List<Integer> newList = new ArrayList<>(oldList);
+		Collections.shuffle(newList, new Random(42));
+
+		ListDiff.DiffResult result = ListDiff.calculateKeyed(oldList, newList, new ListDiff.KeyExtractor<Integer>() {
+			@Override
+			public Object getKey(@Nullable Integer item) {
+				return item;
+			}
+		}, null);
+		assertApplies(oldList, newList, result);
+	}
+
+	private static <T> void assertApplies(List<T> oldList, List<T> newList, ListDiff.DiffResult result) {
+		final List<Object> list = new ArrayList<>();
+		for (T item : oldList) {
+			list.add(item);
+		}
+
+		result.dispatchTo(new ListDiff.UpdateListener() {
+			@Override
+			public void onInserted(int position, int count) {
+				for (int i = 0; i < count; i++) {
+					list.add(position, null);
+				}
+			}
+
+			@Override
+			public void onRemoved(int position, int count) {
+				list.subList(position, position + count).clear();
+			}
+
+			@Override
+			public void onMoved(int fromPosition, int toPosition) {
+				list.add(toPosition, list.remove(fromPosition));
+			}
+
+			@Override
+			public void onChanged(int position, int count) {
+				for (int i = 0; i < count; i++) {
+					list.set(position + i, null);
+				}
+			}
+		});
+
+		Assert.assertEquals(newList.size(), list.size());
+		for (int i = 0; i < list.size(); i++) {
+			if (list.get(i) != null) {
+				Assert.assertEquals(newList.get(i), list.get(i));
+			}
+		}
+	}
+
+	@Test
+	public void calculateAsync_failure() throws Exception {
+		final List<Object> results = new ArrayList<>();
+		Executor directExecutor = new Executor() {
+			@Override
+			public void execute(Runnable command) {
+				command.run();
+			}
+		};
+
+		ListDiff.calculateKeyedAsync(directExecutor, Arrays.asList("a1", null), Arrays.asList("a2", "b"), new ListDiff.KeyExtractor<String>() {
+			@Override
+			public Object getKey(@Nullable String item) {
+				return item.charAt(0);
+			}
+		}, null, new ListDiff.ResultListener() {
+			@Override
+			public void onDiffCalculated(@NonNull ListDiff.DiffResult result) {
+				results.add(result);
+			}
+
+			@Override
+			public void onDiffFailed(@NonNull RuntimeException exception) {
+				results.add(exception);
+			}
+		});
+
+		Assert.assertEquals(1, results.size());
+		Assert.assertTrue(results.get(0) instanceof NullPointerException);
+	}
+
+}
@@ -0,0 +1,25 @@
+package fr.beapp.utils.collection;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class LongListTest {
+
+	@Test
+	public void addRemove() throws Exception {
+		LongList list = new LongList();
+		for (long i = 0; i < 100; i++) {
+			list.add(i << 33);
+		}
+		Assert.assertEquals(100, list.size());
+		Assert.assertEquals(5L << 33, list.get(5));
+		Assert.assertEquals(5L << 33, list.removeAt(5));
+		Assert.assertEquals(99, list.size());
+
+		LongList other = new LongList(99);
+		other.addAll(list.toArray());
+		Assert.assertEquals(list, other);
+		Assert.assertEquals(list.hashCode(), other.hashCode());
+	}
+
+}
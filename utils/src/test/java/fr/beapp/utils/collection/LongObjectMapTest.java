@@ -0,0 +1,58 @@
+package fr.beapp.utils.collection;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+public class LongObjectMapTest {
+
+	@Test
+	public void putGetRemove() throws Exception {
+		LongObjectMap<String> map = new LongObjectMap<>();
+		Assert.assertNull(map.put(Long.MAX_VALUE, "max"));
+		Assert.assertNull(map.put(0L, "zero"));
+		Assert.assertNull(map.put(1L << 40, "big"));
+
+		Assert.assertEquals(3, map.size());
+		Assert.assertEquals("max", map.get(Long.MAX_VALUE));
+		Assert.assertEquals("big", map.get(1L << 40));
+		Assert.assertNull(map.get(1L));
+
+		Assert.assertEquals("big", map.remove(1L << 40));
+		Assert.assertEquals(2, map.size());
+	}
+
+	@Test
+	public void randomOperations() throws Exception {
+		Random random = new Random(42);
+		LongObjectMap<Integer> map = new LongObjectMap<>();
+		Map<Long, Integer> expected = new HashMap<>();
+
+		for (int i = 0; i < 50000; i++) {
+			long key = (random.nextInt(1000) - 500) * 0x100000001L;
+			if (random.nextBoolean()) {
+				Assert.assertEquals(expected.put(key, i), map.put(key, i));
+			} else {
+				Assert.assertEquals(expected.remove(key), map.remove(key));
+			}
+		}
+		Assert.assertEquals(expected.size(), map.size());
+		for (Map.Entry<Long, Integer> entry : expected.entrySet()) {
+			Assert.assertEquals(entry.getValue(), map.get(entry.getKey()));
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void tooLargeExpectedSize() throws Exception {
+		new LongObjectMap<String>(Integer.MAX_VALUE);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void negativeExpectedSize() throws Exception {
+		new LongObjectMap<String>(-1);
+	}
+
+}
@@ -0,0 +1,157 @@
+package fr.beapp.utils.collection;
+
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+
+import fr.beapp.utils.Benchmark;
+
+@Ignore("Benchmark, run manually")
+public class MembershipSetBenchmark {
+
+	private static final int[] SIZES = {100000, 500000};
+
+	@Test
+	public void bloomFilterVsHashSet() throws Exception {
+		for (int size : SIZES) {
+			final String[] ids = buildIds(size);
+			Random random = new Random(1);
+			// Half of the lookups are for ids never added
+			final String[] lookups = new String[size];
+			for (int i = 0; i < size; i++) {
+				lookups[i] = i % 2 == 0 ? ids[i] : "notification-" + Long.toHexString(random.nextLong());
+			}
+
+			// Ids are built again, so the memory of the strings held by the set is counted
+			long heapBefore = usedHeap();
+			final Set<String> hashSet = new HashSet<>();
+			for (String id : buildIds(size)) {
+				hashSet.add(id);
+			}
+			reportMemory("HashSet<String> " + size, usedHeap() - heapBefore, size);
+
+			final BloomFilter bloomFilter = BloomFilter.create(size, 0.01);
+			for (String id : ids) {
+				bloomFilter.put(id);
+			}
+			reportMemory("BloomFilter 1% " + size, bloomFilter.getSizeInBytes(), size);
+
+			int falsePositiveCount = 0;
+			for (int i = 1; i < size; i += 2) {
+				if (bloomFilter.mightContain(lookups[i])) {
+					falsePositiveCount++;
+				}
+			}
+			Benchmark.report("BloomFilter 1% " + size + " false positives", String.format(Locale.US, "%.3f%%", falsePositiveCount * 100.0 / (size / 2)));
+
+			Benchmark.measure("HashSet<String> " + size + " lookups", new Benchmark.Task() {
+				@Override
+				public Object run() {
+					int found = 0;
+					for (String lookup : lookups) {
+						if (hashSet.contains(lookup)) {
+							found++;
+						}
+					}
+					return found;
+				}
+			});
+			Benchmark.measure("BloomFilter 1% " + size + " lookups", new Benchmark.Task() {
+				@Override
+				public Object run() {
+					int found = 0;
+					for (String lookup : lookups) {
+						if (bloomFilter.mightContain(lookup)) {
+							found++;
+						}
+					}
+					return found;
+				}
+			});
+		}
+	}
+
+	@Test
+	public void compactIntSetVsHashSet() throws Exception {
+		for (int size : SIZES) {
+			// Ids spread over a range 20 times larger than their count, as item ids usually are
+			Random random = new Random(42);
+			final int[] ids = new int[size];
+			for (int i = 0; i < size; i++) {
+				ids[i] = random.nextInt(size * 20);
+			}
+			final int[] lookups = new int[size];
+			for (int i = 0; i < size; i++) {
+				lookups[i] = i % 2 == 0 ? ids[i] : random.nextInt(size * 20);
+			}
+
+			long heapBefore = usedHeap();
+			final Set<Integer> hashSet = new HashSet<>();
+			for (int id : ids) {
+				hashSet.add(id);
+			}
+			reportMemory("HashSet<Integer> " + size, usedHeap() - heapBefore, hashSet.size());
+
+			final CompactIntSet compactIntSet = new CompactIntSet();
+			for (int id : ids) {
+				compactIntSet.add(id);
+			}
+			reportMemory("CompactIntSet " + size, compactIntSet.getSizeInBytes(), compactIntSet.size());
+
+			Benchmark.measure("HashSet<Integer> " + size + " lookups", new Benchmark.Task() {
+				@Override
+				public Object run() {
+					int found = 0;
+					for (int lookup : lookups) {
+						if (hashSet.contains(lookup)) {
+							found++;
+						}
+					}
+					return found;
+				}
+			});
+			Benchmark.measure("CompactIntSet " + size + " lookups", new Benchmark.Task() {
+				@Override
+				public Object run() {
+					int found = 0;
+					for (int lookup : lookups) {
+						if (compactIntSet.contains(lookup)) {
+							found++;
+						}
+					}
+					return found;
+				}
+			});
+		}
+	}
+
+	private static String[] buildIds(int size) {
+		Random random = new Random(42);
+		String[] ids = new String[size];
+		for (int i = 0; i < size; i++) {
+			ids[i] = "notification-" + Long.toHexString(random.nextLong());
+		}
+		return ids;
+	}
+
+	private static void reportMemory(String name, long bytes, int elementCount) {
+		Benchmark.report(name + " memory", String.format(Locale.US, "%.1f bytes/element", (double) bytes / elementCount));
+	}
+
+	/**
+	 * Approximate heap usage, after asking for a few garbage collections
+	 */
+	private static long usedHeap() throws InterruptedException {
+		Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+			Thread.sleep(50);
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+}
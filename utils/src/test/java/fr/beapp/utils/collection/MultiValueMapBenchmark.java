@@ -0,0 +1,84 @@
+package fr.beapp.utils.collection;
+
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeSet;
+
+import fr.beapp.utils.Benchmark;
+
+@Ignore("Benchmark, run manually")
+public class MultiValueMapBenchmark {
+
+	private static final int RESULT_COUNT = 100000;
+
+	private static class SearchResult {
+		final String category;
+
+		SearchResult(String category) {
+			this.category = category;
+		}
+	}
+
+	@Test
+	public void groupSearchResultsByCategory() throws Exception {
+		// Few categories with many results each, then many categories with 1 or 2 results each
+		for (int categoryCount : new int[]{50, RESULT_COUNT / 2}) {
+			final List<SearchResult> results = buildResults(categoryCount);
+
+			for (final MultiValueMap.BucketStrategy bucketStrategy : MultiValueMap.BucketStrategy.values()) {
+				Benchmark.measure("MultiValueMap " + bucketStrategy + ", " + categoryCount + " categories", new Benchmark.Task() {
+					@Override
+					public Object run() {
+						MultiValueMap<String, SearchResult> map = MultiValueMap.build(bucketStrategy);
+						for (SearchResult result : results) {
+							map.add(result.category, result);
+						}
+						return map.fullSize() + map.getAllValues().size();
+					}
+				});
+			}
+
+			// Previous implementation: LinkedList buckets, full size computed by iterating over them, and keys sorted with a TreeSet
+			Benchmark.measure("HashMap of LinkedList, " + categoryCount + " categories", new Benchmark.Task() {
+				@Override
+				public Object run() {
+					Map<String, List<SearchResult>> map = new HashMap<>();
+					for (SearchResult result : results) {
+						List<SearchResult> values = map.get(result.category);
+						if (values == null) {
+							values = new LinkedList<>();
+							map.put(result.category, values);
+						}
+						values.add(result);
+					}
+					int fullSize = 0;
+					for (List<SearchResult> values : map.values()) {
+						fullSize += values.size();
+					}
+					List<SearchResult> allValues = new ArrayList<>(fullSize);
+					for (String key : new TreeSet<>(map.keySet())) {
+						allValues.addAll(map.get(key));
+					}
+					return fullSize + allValues.size();
+				}
+			});
+		}
+	}
+
+	private static List<SearchResult> buildResults(int categoryCount) {
+		Random random = new Random(42);
+		List<SearchResult> results = new ArrayList<>(RESULT_COUNT);
+		for (int i = 0; i < RESULT_COUNT; i++) {
+			results.add(new SearchResult("category" + random.nextInt(categoryCount)));
+		}
+		return results;
+	}
+
+}
@@ -3,9 +3,15 @@ package fr.beapp.utils.collection;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 
 import fr.beapp.utils.lang.ComparatorUtils;
 
@@ -199,4 +205,189 @@ public class MultiValueMapTest {
 		Assert.assertEquals(0, MultiValueMap.<String, String>build().fullSize());
 		Assert.assertEquals(5, map.fullSize());
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void fullSize_tracking() throws Exception {
+		MultiValueMap<String, String> map = MultiValueMap.<String, String>build()
+				.add("k1", "v1.1")
+				.add("k2", "v2.1")
+				.add("k1", "v1.2");
+
+		map.get("k1").add("v1.3");
+		Assert.assertEquals(4, map.fullSize());
+
+		map.put("k3", Arrays.asList("v3.1", "v3.2"));
+		Assert.assertEquals(6, map.fullSize());
+
+		map.put("k1", Collections.singletonList("v1"));
+		Assert.assertEquals(4, map.fullSize());
+
+		List<String> removed = map.remove("k3");
+		removed.clear();
+		Assert.assertEquals(2, map.fullSize());
+
+		map.keySet().remove("k2");
+		Assert.assertEquals(1, map.fullSize());
+
+		map.clear();
+		Assert.assertEquals(0, map.fullSize());
+	}
+
+	@Test
+	public void compactBuckets() throws Exception {
+		MultiValueMap<String, String> map = MultiValueMap.<String, String>build(MultiValueMap.BucketStrategy.COMPACT)
+				.add("k1", "v1.2")
+				.add("k1", 0, "v1.1")
+				.add("k2", "v2.1");
+		Assert.assertEquals(Arrays.asList("v1.1", "v1.2"), map.get("k1"));
+
+		map.add("k1", 1, "v1.1.5").add("k1", "v1.3");
+		Assert.assertEquals(Arrays.asList("v1.1", "v1.1.5", "v1.2", "v1.3"), map.get("k1"));
+		Assert.assertEquals(5, map.fullSize());
+
+		map.removeValue("k2", "v2.1");
+		map.removeValue("k1", "v1.1");
+		Assert.assertEquals(Arrays.asList("v1.1.5", "v1.2", "v1.3"), map.get("k1"));
+		Assert.assertEquals(Collections.emptyList(), map.get("k2"));
+		Assert.assertEquals(3, map.fullSize());
+		Assert.assertEquals(Arrays.asList("v1.1.5", "v1.2", "v1.3"), map.getAllValues());
+	}
+
+	@Test
+	public void getAllValues_cachedKeys() throws Exception {
+		MultiValueMap<String, String> map = MultiValueMap.<String, String>build()
+				.add("k2", "v2")
+				.add("k1", "v1");
+		Assert.assertEquals(Arrays.asList("v1", "v2"), map.getAllValues());
+
+		map.add("k0", "v0");
+		Assert.assertEquals(Arrays.asList("v0", "v1", "v2"), map.getAllValues());
+
+		map.remove("k1");
+		Assert.assertEquals(Arrays.asList("v0", "v2"), map.getAllValues());
+	}
+
+	@Test
+	public void fullSize_views() throws Exception {
+		MultiValueMap<String, String> map = MultiValueMap.<String, String>build()
+				.add("k1", "v1.1")
+				.add("k1", "v1.2")
+				.add("k2", "v2.1");
+		List<String> k1 = map.get("k1");
+
+		map.keySet().remove("k1");
+		map.putIfAbsent("k3", Arrays.asList("v3.1", "v3.2", "v3.3"));
+		Assert.assertEquals(4, map.fullSize());
+		Assert.assertEquals(Arrays.asList("v2.1", "v3.1", "v3.2", "v3.3"), map.getAllValues());
+
+		// Detached buckets don't count anymore
+		k1.add("v1.3");
+		Assert.assertEquals(4, map.fullSize());
+
+		map.replace("k2", Arrays.asList("v2", "v2"));
+		Assert.assertEquals(5, map.fullSize());
+
+		for (Map.Entry<String, List<String>> entry : map.entrySet()) {
+			if (entry.getKey().equals("k3")) {
+				entry.setValue(Collections.singletonList("v3"));
+			}
+		}
+		Assert.assertEquals(3, map.fullSize());
+		Assert.assertEquals(Arrays.asList("v2", "v2", "v3"), map.getAllValues());
+
+		Iterator<List<String>> iterator = map.values().iterator();
+		iterator.next();
+		iterator.remove();
+		Assert.assertEquals(1, map.size());
+		Assert.assertEquals(map.get(map.keySet().iterator().next()).size(), map.fullSize());
+		Assert.assertEquals(map.get(map.keySet().iterator().next()), map.getAllValues());
+
+		map.entrySet().clear();
+		Assert.assertEquals(0, map.fullSize());
+		Assert.assertEquals(Collections.emptyList(), map.getAllValues());
+	}
+
+	@Test
+	public void fullSize_defaultMethods() throws Exception {
+		MultiValueMap<String, String> map = MultiValueMap.<String, String>build()
+				.add("k1", "v1.1")
+				.add("k2", "v2.1");
+
+		map.computeIfAbsent("k0", new Function<String, List<String>>() {
+			@Override
+			public List<String> apply(String key) {
+				return Arrays.asList("v0.1", "v0.2");
+			}
+		}).add("v0.3");
+		Assert.assertEquals(5, map.fullSize());
+		Assert.assertEquals(Arrays.asList("v0.1", "v0.2", "v0.3", "v1.1", "v2.1"), map.getAllValues());
+
+		map.merge("k1", Collections.singletonList("v1.2"), new BiFunction<List<String>, List<String>, List<String>>() {
+			@Override
+			public List<String> apply(List<String> current, List<String> value) {
+				List<String> merged = new ArrayList<>(current);
+				merged.addAll(value);
+				return merged;
+			}
+		});
+		Assert.assertEquals(6, map.fullSize());
+
+		map.compute("k0", new BiFunction<String, List<String>, List<String>>() {
+			@Override
+			public List<String> apply(String key, List<String> current) {
+				return null;
+			}
+		});
+		Assert.assertEquals(3, map.fullSize());
+		Assert.assertEquals(Arrays.asList("v1.1", "v1.2", "v2.1"), map.getAllValues());
+
+		Assert.assertTrue(map.remove("k2", Collections.singletonList("v2.1")));
+		Assert.assertEquals(2, map.fullSize());
+		Assert.assertEquals(Arrays.asList("v1.1", "v1.2"), map.getAllValues());
+	}
+
+	@Test
+	public void put_copiesValues() throws Exception {
+		List<String> values = new ArrayList<>(Arrays.asList("v0.1", "v0.2"));
+		MultiValueMap<String, String> map = new MultiValueMap<>();
+		map.put("k0", values);
+
+		// The given list is copied, so later changes to it are not reflected in the map
+		values.add("v0.3");
+		Assert.assertEquals(Arrays.asList("v0.1", "v0.2"), map.get("k0"));
+		Assert.assertEquals(2, map.fullSize());
+
+		// Changes go through the stored list instead
+		map.get("k0").add("v0.3");
+		Assert.assertEquals(Arrays.asList("v0.1", "v0.2", "v0.3"), map.get("k0"));
+		Assert.assertEquals(3, map.fullSize());
+	}
+
+	@Test
+	public void clone_copiesBuckets() throws Exception {
+		MultiValueMap<String, String> map = new MultiValueMap<>();
+		map.add("k0", "v0.1");
+		map.add("k0", "v0.2");
+		map.add("k1", "v1.1");
+		// Views are cached by the map before cloning
+		Assert.assertEquals(2, map.keySet().size());
+
+		MultiValueMap<String, String> clone = map.clone();
+		Assert.assertEquals(map, clone);
+		Assert.assertEquals(3, clone.fullSize());
+
+		clone.get("k0").add("v0.3");
+		clone.add("k2", "v2.1");
+		clone.keySet().remove("k1");
+		Assert.assertEquals(Arrays.asList("v0.1", "v0.2"), map.get("k0"));
+		Assert.assertEquals(3, map.fullSize());
+		Assert.assertEquals(Arrays.asList("v0.1", "v0.2", "v1.1"), map.getAllValues());
+		Assert.assertEquals(4, clone.fullSize());
+		Assert.assertEquals(Arrays.asList("v0.1", "v0.2", "v0.3", "v2.1"), clone.getAllValues());
+
+		map.get("k0").remove("v0.1");
+		Assert.assertEquals(2, map.fullSize());
+		Assert.assertEquals(4, clone.fullSize());
+	}
+
+}
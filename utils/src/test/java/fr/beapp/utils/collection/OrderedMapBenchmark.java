@@ -0,0 +1,144 @@
+package fr.beapp.utils.collection;
+
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+
+import fr.beapp.utils.Benchmark;
+
+@Ignore("Benchmark, run manually")
+public class OrderedMapBenchmark {
+
+	private static final int ENTRY_COUNT = 10000;
+
+	/**
+	 * Previous layout of {@link OrderedMap}: a HashMap with keys order kept in a LinkedList
+	 */
+	private static class LinkedListOrderedMap<K, V> extends HashMap<K, V> {
+		private final List<K> keys = new LinkedList<>();
+
+		@Override
+		public V put(K key, V value) {
+			V previous = super.put(key, value);
+			if (previous == null) {
+				keys.add(key);
+			}
+			return previous;
+		}
+
+		@Override
+		public V remove(Object key) {
+			V removed = super.remove(key);
+			if (removed != null) {
+				keys.remove(key);
+			}
+			return removed;
+		}
+
+		V removeAt(int position) {
+			return remove(keys.get(position));
+		}
+
+		K getKeyAt(int position) {
+			return keys.get(position);
+		}
+
+		int indexOfKey(K key) {
+			return keys.indexOf(key);
+		}
+	}
+
+	@Test
+	public void positionalOperations() throws Exception {
+		final List<String> keys = new ArrayList<>(ENTRY_COUNT);
+		for (int i = 0; i < ENTRY_COUNT; i++) {
+			keys.add("key" + i);
+		}
+		final int[] removedPositions = new int[ENTRY_COUNT / 2];
+		Random random = new Random(42);
+		for (int i = 0; i < removedPositions.length; i++) {
+			removedPositions[i] = random.nextInt(ENTRY_COUNT - i);
+		}
+
+		Benchmark.measure("OrderedMap put 10k", new Benchmark.Task() {
+			@Override
+			public Object run() {
+				return fillOrderedMap(keys);
+			}
+		});
+		Benchmark.measure("LinkedList-backed put 10k", new Benchmark.Task() {
+			@Override
+			public Object run() {
+				return fillLinkedListMap(keys);
+			}
+		});
+
+		final OrderedMap<String, Integer> orderedMap = fillOrderedMap(keys);
+		final LinkedListOrderedMap<String, Integer> linkedListMap = fillLinkedListMap(keys);
+		Benchmark.measure("OrderedMap getKeyAt + indexOfKey 10k", new Benchmark.Task() {
+			@Override
+			public Object run() {
+				int sum = 0;
+				for (int i = 0; i < ENTRY_COUNT; i++) {
+					sum += orderedMap.indexOfKey(orderedMap.getKeyAt(i));
+				}
+				return sum;
+			}
+		});
+		Benchmark.measure("LinkedList-backed getKeyAt + indexOfKey 10k", new Benchmark.Task() {
+			@Override
+			public Object run() {
+				int sum = 0;
+				for (int i = 0; i < ENTRY_COUNT; i++) {
+					sum += linkedListMap.indexOfKey(linkedListMap.getKeyAt(i));
+				}
+				return sum;
+			}
+		});
+
+		Benchmark.measure("OrderedMap removeAt 5k + getKeyAt", new Benchmark.Task() {
+			@Override
+			public Object run() {
+				OrderedMap<String, Integer> map = fillOrderedMap(keys);
+				for (int position : removedPositions) {
+					map.removeAt(position);
+					map.getKeyAt(position / 2);
+				}
+				return map;
+			}
+		});
+		Benchmark.measure("LinkedList-backed removeAt 5k + getKeyAt", new Benchmark.Task() {
+			@Override
+			public Object run() {
+				LinkedListOrderedMap<String, Integer> map = fillLinkedListMap(keys);
+				for (int position : removedPositions) {
+					map.removeAt(position);
+					map.getKeyAt(position / 2);
+				}
+				return map;
+			}
+		});
+	}
+
+	private static OrderedMap<String, Integer> fillOrderedMap(List<String> keys) {
+		OrderedMap<String, Integer> map = new OrderedMap<>();
+		for (int i = 0; i < keys.size(); i++) {
+			map.put(keys.get(i), i);
+		}
+		return map;
+	}
+
+	private static LinkedListOrderedMap<String, Integer> fillLinkedListMap(List<String> keys) {
+		LinkedListOrderedMap<String, Integer> map = new LinkedListOrderedMap<>();
+		for (int i = 0; i < keys.size(); i++) {
+			map.put(keys.get(i), i);
+		}
+		return map;
+	}
+
+}
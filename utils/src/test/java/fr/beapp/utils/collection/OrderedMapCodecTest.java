@@ -0,0 +1,108 @@
+package fr.beapp.utils.collection;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+public class OrderedMapCodecTest {
+
+	private final OrderedMapCodec<String, Integer> codec = new OrderedMapCodec<>(OrderedMapCodec.ElementCodec.STRING, OrderedMapCodec.ElementCodec.INTEGER);
+
+	private static OrderedMap<String, Integer> buildMap() {
+		OrderedMap<String, Integer> map = new OrderedMap<>();
+		map.put("k2", 2);
+		map.put("k1", 1);
+		map.put("kNull", null);
+		map.put("k3 éçè", 3);
+		return map;
+	}
+
+	@Test
+	public void testWriteRead_stream() throws Exception {
+		OrderedMap<String, Integer> map = buildMap();
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		codec.write(map, outputStream);
+
+		OrderedMap<String, Integer> readMap = codec.read(new ByteArrayInputStream(outputStream.toByteArray()));
+		Assert.assertEquals(map, readMap);
+		Assert.assertEquals(Arrays.asList(2, 1, null, 3), readMap.orderedValues());
+	}
+
+	@Test
+	public void testWriteRead_trailingData() throws Exception {
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		codec.write(buildMap(), outputStream);
+		codec.write(new OrderedMap<String, Integer>(), outputStream);
+		outputStream.write(42);
+
+		ByteArrayInputStream inputStream = new ByteArrayInputStream(outputStream.toByteArray());
+		Assert.assertEquals(4, codec.read(inputStream).size());
+		Assert.assertEquals(0, codec.read(inputStream).size());
+		Assert.assertEquals(42, inputStream.read());
+	}
+
+	@Test
+	public void testWriteRead_file() throws Exception {
+		OrderedMap<String, Integer> map = buildMap();
+		File file = File.createTempFile("beapp", null);
+		codec.write(map, file);
+
+		Assert.assertEquals(Arrays.asList(2, 1, null, 3), codec.read(file).orderedValues());
+	}
+
+	@Test
+	public void testOpenReader_lazy() throws Exception {
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		codec.write(buildMap(), outputStream);
+
+		OrderedMapCodec<String, Integer>.EntryReader reader = codec.openReader(new ByteArrayInputStream(outputStream.toByteArray()));
+		Assert.assertEquals(4, reader.size());
+		Assert.assertTrue(reader.next());
+		Assert.assertEquals("k2", reader.key());
+		Assert.assertTrue(reader.next());
+		Assert.assertTrue(reader.next());
+		Assert.assertEquals("kNull", reader.key());
+		Assert.assertNull(reader.value());
+		Assert.assertTrue(reader.next());
+		Assert.assertEquals(Integer.valueOf(3), reader.value());
+		Assert.assertFalse(reader.next());
+		reader.close();
+	}
+
+	@Test(expected = IOException.class)
+	public void testRead_invalid() throws Exception {
+		codec.read(new ByteArrayInputStream("not a map".getBytes()));
+	}
+
+	@Test(expected = IOException.class)
+	public void testRead_corruptedSize() throws Exception {
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		DataOutputStream dataOutputStream = new DataOutputStream(outputStream);
+		dataOutputStream.writeInt(0x4F4D4150);
+		dataOutputStream.writeInt(1);
+		dataOutputStream.writeInt(Integer.MAX_VALUE);
+		dataOutputStream.writeInt(Integer.MAX_VALUE - 1);
+		dataOutputStream.write("truncated".getBytes());
+
+		codec.read(new ByteArrayInputStream(outputStream.toByteArray()));
+	}
+
+	@Test(expected = IOException.class)
+	public void testRead_negativeLength() throws Exception {
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		DataOutputStream dataOutputStream = new DataOutputStream(outputStream);
+		dataOutputStream.writeInt(0x4F4D4150);
+		dataOutputStream.writeInt(1);
+		dataOutputStream.writeInt(1);
+		dataOutputStream.writeInt(-1);
+
+		codec.read(new ByteArrayInputStream(outputStream.toByteArray()));
+	}
+
+}
@@ -0,0 +1,129 @@
+package fr.beapp.utils.collection;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+public class OrderedMapTest {
+
+	@Test
+	public void put() throws Exception {
+		OrderedMap<String, String> map = new OrderedMap<>();
+		map.put("k1", "v1");
+		map.put("k3", "v3");
+		map.put(1, "k2", "v2");
+		map.put(0, "k0", "v0");
+		Assert.assertEquals("v1", map.put("k1", "v1.1"));
+
+		Assert.assertEquals(Arrays.asList("v0", "v1.1", "v2", "v3"), map.orderedValues());
+		Assert.assertEquals("k2", map.getKeyAt(2));
+		Assert.assertEquals("v3", map.getValueAt(3));
+		Assert.assertNull(map.getKeyAt(4));
+		Assert.assertNull(map.getValueAt(-1));
+	}
+
+	@Test
+	public void indexOfKey() throws Exception {
+		OrderedMap<String, String> map = new OrderedMap<>();
+		map.put("k1", "v1");
+		map.put("k3", "v3");
+		Assert.assertEquals(1, map.indexOfKey("k3"));
+
+		map.put(1, "k2", "v2");
+		map.put(0, "k0", "v0");
+		Assert.assertEquals(0, map.indexOfKey("k0"));
+		Assert.assertEquals(1, map.indexOfKey("k1"));
+		Assert.assertEquals(2, map.indexOfKey("k2"));
+		Assert.assertEquals(3, map.indexOfKey("k3"));
+		Assert.assertEquals(-1, map.indexOfKey("unknown"));
+		Assert.assertEquals(-1, map.indexOfKey(null));
+	}
+
+	@Test
+	public void remove() throws Exception {
+		OrderedMap<String, String> map = new OrderedMap<>();
+		map.put("k0", "v0");
+		map.put("k1", null);
+		map.put("k2", "v2");
+		map.put("k3", "v3");
+
+		Assert.assertNull(map.remove("unknown"));
+		Assert.assertNull(map.remove("k1"));
+		Assert.assertEquals(Arrays.asList("v0", "v2", "v3"), map.orderedValues());
+		Assert.assertEquals("v3", map.removeAt(2));
+		Assert.assertNull(map.removeAt(2));
+		Assert.assertEquals(Arrays.asList("v0", "v2"), map.orderedValues());
+		Assert.assertEquals(1, map.indexOfKey("k2"));
+
+		map.clear();
+		Assert.assertEquals(Collections.emptyList(), map.orderedValues());
+		Assert.assertEquals(-1, map.indexOfKey("k2"));
+	}
+
+	@Test
+	public void randomOperations() throws Exception {
+		Random random = new Random(42);
+		OrderedMap<Integer, Integer> map = new OrderedMap<>();
+		List<Integer> expectedKeys = new ArrayList<>();
+
+		for (int i = 0; i < 5000; i++) {
+			int key = random.nextInt(500);
+			int operation = random.nextInt(6);
+			if (operation == 0 && !map.containsKey(key)) {
+				int index = random.nextInt(expectedKeys.size() + 1);
+				map.put(index, key, key);
+				expectedKeys.add(index, key);
+			} else if (operation == 1) {
+				map.remove(key);
+				expectedKeys.remove((Integer) key);
+			} else if (operation == 2 && !map.containsKey(key)) {
+				map.put(key, key);
+				expectedKeys.add(key);
+			} else if (operation == 3 && !expectedKeys.isEmpty()) {
+				int position = random.nextInt(expectedKeys.size());
+				Assert.assertEquals(expectedKeys.remove(position), map.removeAt(position));
+			} else if (operation == 4 && !expectedKeys.isEmpty()) {
+				int position = random.nextInt(expectedKeys.size());
+				Assert.assertEquals(expectedKeys.get(position), map.getKeyAt(position));
+			} else {
+				Assert.assertEquals(expectedKeys.indexOf(key), map.indexOfKey(key));
+			}
+		}
+
+		for (int i = 0; i < expectedKeys.size(); i++) {
+			Assert.assertEquals(expectedKeys.get(i), map.getKeyAt(i));
+			Assert.assertEquals(i, map.indexOfKey(expectedKeys.get(i)));
+		}
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void serialization() throws Exception {
+		OrderedMap<String, String> map = new OrderedMap<>();
+		map.put("k2", "v2");
+		map.put("k1", "v1");
+		map.put("k3", "v3");
+
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		ObjectOutputStream objectOutputStream = new ObjectOutputStream(outputStream);
+		objectOutputStream.writeObject(map);
+		objectOutputStream.close();
+
+		ObjectInputStream objectInputStream = new ObjectInputStream(new ByteArrayInputStream(outputStream.toByteArray()));
+		OrderedMap<String, String> readMap = (OrderedMap<String, String>) objectInputStream.readObject();
+
+		Assert.assertEquals(map, readMap);
+		Assert.assertEquals(Arrays.asList("v2", "v1", "v3"), readMap.orderedValues());
+		Assert.assertEquals(2, readMap.indexOfKey("k3"));
+	}
+
+}
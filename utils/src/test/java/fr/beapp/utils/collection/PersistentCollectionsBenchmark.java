@@ -0,0 +1,94 @@
+package fr.beapp.utils.collection;
+
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import fr.beapp.utils.Benchmark;
+
+@Ignore("Benchmark, run manually")
+public class PersistentCollectionsBenchmark {
+
+	private static final int[] SIZES = {1000, 10000, 100000};
+	private static final int EMISSION_COUNT = 1000;
+
+	@Test
+	public void listEmissions() throws Exception {
+		for (final int size : SIZES) {
+			final List<Integer> initialList = new ArrayList<>(size);
+			for (int i = 0; i < size; i++) {
+				initialList.add(i);
+			}
+
+			// Each emission updates one item and publishes a snapshot of the whole list
+			Benchmark.measure("ArrayList copy per emission, " + size + " items", new Benchmark.Task() {
+				@Override
+				public Object run() {
+					List<Integer> list = initialList;
+					for (int i = 0; i < EMISSION_COUNT; i++) {
+						List<Integer> copy = new ArrayList<>(list);
+						copy.set(i * 31 % size, i);
+						list = copy;
+					}
+					return list;
+				}
+			});
+
+			final PersistentVector<Integer> initialVector = PersistentVector.from(initialList);
+			Benchmark.measure("PersistentVector per emission, " + size + " items", new Benchmark.Task() {
+				@Override
+				public Object run() {
+					PersistentVector<Integer> vector = initialVector;
+					for (int i = 0; i < EMISSION_COUNT; i++) {
+						vector = vector.with(i * 31 % size, i);
+					}
+					return vector;
+				}
+			});
+		}
+	}
+
+	@Test
+	public void mapEmissions() throws Exception {
+		for (final int size : SIZES) {
+			final Map<String, Integer> initialMap = new HashMap<>();
+			for (int i = 0; i < size; i++) {
+				initialMap.put("key" + i, i);
+			}
+			final String[] updatedKeys = new String[EMISSION_COUNT];
+			for (int i = 0; i < EMISSION_COUNT; i++) {
+				updatedKeys[i] = "key" + i * 31 % size;
+			}
+
+			Benchmark.measure("HashMap copy per emission, " + size + " entries", new Benchmark.Task() {
+				@Override
+				public Object run() {
+					Map<String, Integer> map = initialMap;
+					for (int i = 0; i < EMISSION_COUNT; i++) {
+						Map<String, Integer> copy = new HashMap<>(map);
+						copy.put(updatedKeys[i], i);
+						map = copy;
+					}
+					return map;
+				}
+			});
+
+			final PersistentHashMap<String, Integer> initialPersistentMap = PersistentHashMap.from(initialMap);
+			Benchmark.measure("PersistentHashMap per emission, " + size + " entries", new Benchmark.Task() {
+				@Override
+				public Object run() {
+					PersistentHashMap<String, Integer> map = initialPersistentMap;
+					for (int i = 0; i < EMISSION_COUNT; i++) {
+						map = map.plus(updatedKeys[i], i);
+					}
+					return map;
+				}
+			});
+		}
+	}
+
+}
@@ -0,0 +1,101 @@
+package fr.beapp.utils.collection;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+public class PersistentHashMapTest {
+
+	@Test
+	public void plusMinus() throws Exception {
+		PersistentHashMap<String, String> empty = PersistentHashMap.empty();
+		PersistentHashMap<String, String> map = empty.plus("k1", "v1").plus("k2", "v2");
+
+		Assert.assertTrue(empty.isEmpty());
+		Assert.assertEquals(2, map.size());
+		Assert.assertEquals("v1", map.get("k1"));
+		Assert.assertNull(map.get("unknown"));
+		Assert.assertNull(map.get(null));
+
+		PersistentHashMap<String, String> updated = map.plus("k1", "v1.1").minus("k2");
+		Assert.assertEquals("v1", map.get("k1"));
+		Assert.assertEquals("v1.1", updated.get("k1"));
+		Assert.assertFalse(updated.containsKey("k2"));
+		Assert.assertEquals(1, updated.size());
+
+		Assert.assertSame(map, map.minus("unknown"));
+		Assert.assertSame(map, map.plus("k1", "v1"));
+	}
+
+	@Test
+	public void collisions() throws Exception {
+		PersistentHashMap<CollidingKey, Integer> map = PersistentHashMap.empty();
+		for (int i = 0; i < 100; i++) {
+			map = map.plus(new CollidingKey(i), i);
+		}
+		Assert.assertEquals(100, map.size());
+		Assert.assertEquals(Integer.valueOf(42), map.get(new CollidingKey(42)));
+
+		for (int i = 0; i < 100; i += 2) {
+			map = map.minus(new CollidingKey(i));
+		}
+		Assert.assertEquals(50, map.size());
+		Assert.assertNull(map.get(new CollidingKey(42)));
+		Assert.assertEquals(Integer.valueOf(43), map.get(new CollidingKey(43)));
+	}
+
+	@Test
+	public void randomOperations() throws Exception {
+		Random random = new Random(42);
+		Map<Integer, Integer> expected = new HashMap<>();
+		PersistentHashMap<Integer, Integer> map = PersistentHashMap.empty();
+
+		for (int i = 0; i < 50000; i++) {
+			int key = random.nextInt(5000) * (random.nextBoolean() ? 1 : 65536);
+			if (random.nextInt(3) > 0) {
+				expected.put(key, i);
+				map = map.plus(key, i);
+			} else {
+				expected.remove(key);
+				map = map.minus(key);
+			}
+		}
+
+		Assert.assertEquals(expected.size(), map.size());
+		Assert.assertEquals(expected, map);
+		Assert.assertEquals(map, expected);
+	}
+
+	@Test
+	public void conversions() throws Exception {
+		MapBuilder<String, Integer> builder = MapBuilder.<String, Integer>builder().add("k1", 1).add("k2", 2);
+		Assert.assertEquals(builder, builder.toPersistent());
+
+		MultiValueMap<String, String> multiValueMap = MultiValueMap.<String, String>build().add("k1", "v1.1").add("k1", "v1.2");
+		PersistentHashMap<String, PersistentVector<String>> persistent = multiValueMap.toPersistent();
+		Assert.assertEquals(Arrays.asList("v1.1", "v1.2"), persistent.get("k1"));
+	}
+
+	private static class CollidingKey {
+		private final int value;
+
+		CollidingKey(int value) {
+			this.value = value;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			return o instanceof CollidingKey && ((CollidingKey) o).value == value;
+		}
+
+		@Override
+		public int hashCode() {
+			return value % 3;
+		}
+	}
+
+}
@@ -0,0 +1,80 @@
+package fr.beapp.utils.collection;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class PersistentVectorTest {
+
+	@Test
+	public void plus() throws Exception {
+		PersistentVector<String> empty = PersistentVector.empty();
+		PersistentVector<String> vector = empty.plus("a").plus("b");
+
+		Assert.assertEquals(Collections.emptyList(), empty);
+		Assert.assertEquals(Arrays.asList("a", "b"), vector);
+		Assert.assertEquals(Arrays.asList("a", "b", "c"), vector.plus("c"));
+		Assert.assertEquals(Arrays.asList("a", "b"), vector);
+	}
+
+	@Test
+	public void largeVector() throws Exception {
+		List<Integer> expected = new ArrayList<>();
+		PersistentVector<Integer> vector = PersistentVector.empty();
+		List<PersistentVector<Integer>> versions = new ArrayList<>();
+
+		for (int i = 0; i < 40000; i++) {
+			expected.add(i);
+			vector = vector.plus(i);
+			if (i % 1000 == 0) {
+				versions.add(vector);
+			}
+		}
+		Assert.assertEquals(expected, vector);
+
+		for (int i = 0; i < versions.size(); i++) {
+			PersistentVector<Integer> version = versions.get(i);
+			Assert.assertEquals(i * 1000 + 1, version.size());
+			Assert.assertEquals(Integer.valueOf(i * 1000), version.get(version.size() - 1));
+		}
+
+		PersistentVector<Integer> updated = vector.with(12345, -1).with(39999, -2);
+		Assert.assertEquals(Integer.valueOf(12345), vector.get(12345));
+		Assert.assertEquals(Integer.valueOf(-1), updated.get(12345));
+		Assert.assertEquals(Integer.valueOf(-2), updated.get(39999));
+	}
+
+	@Test
+	public void minusLast() throws Exception {
+		List<Integer> expected = new ArrayList<>();
+		for (int i = 0; i < 2000; i++) {
+			expected.add(i);
+		}
+		PersistentVector<Integer> vector = PersistentVector.from(expected);
+
+		while (!expected.isEmpty()) {
+			expected.remove(expected.size() - 1);
+			vector = vector.minusLast();
+			Assert.assertEquals(expected.size(), vector.size());
+			if (expected.size() % 97 == 0) {
+				Assert.assertEquals(expected, vector);
+			}
+		}
+		Assert.assertEquals(Integer.valueOf(7), vector.plus(7).get(0));
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void get_outOfBounds() throws Exception {
+		PersistentVector.of("a").get(1);
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void add_unsupported() throws Exception {
+		PersistentVector.of("a").add("b");
+	}
+
+}
@@ -0,0 +1,226 @@
+package fr.beapp.utils.collection;
+
+import android.util.SparseArray;
+import android.util.SparseIntArray;
+
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import fr.beapp.utils.BaseRobolectric;
+import fr.beapp.utils.Benchmark;
+
+@Ignore("Benchmark, run manually")
+public class PrimitiveMapBenchmark extends BaseRobolectric {
+
+	private static final int[] SIZES = {1000, 100000, 1000000};
+	private static final String VALUE = "value";
+
+	@Test
+	public void intObjectMap() throws Exception {
+		for (int size : SIZES) {
+			final int[] keys = buildKeys(size);
+			final int[] sortedKeys = sortedCopy(keys);
+
+			Benchmark.measure("IntObjectMap put " + size, new Benchmark.Task() {
+				@Override
+				public Object run() {
+					IntObjectMap<String> map = new IntObjectMap<>();
+					for (int key : keys) {
+						map.put(key, VALUE);
+					}
+					return map;
+				}
+			});
+			final IntObjectMap<String> intObjectMap = new IntObjectMap<>();
+			for (int key : keys) {
+				intObjectMap.put(key, VALUE);
+			}
+			Benchmark.measure("IntObjectMap get " + size, new Benchmark.Task() {
+				@Override
+				public Object run() {
+					int found = 0;
+					for (int key : keys) {
+						if (intObjectMap.get(key) != null) {
+							found++;
+						}
+					}
+					return found;
+				}
+			});
+
+			Benchmark.measure("HashMap<Integer, String> put " + size, new Benchmark.Task() {
+				@Override
+				public Object run() {
+					Map<Integer, String> map = new HashMap<>();
+					for (int key : keys) {
+						map.put(key, VALUE);
+					}
+					return map;
+				}
+			});
+			final Map<Integer, String> hashMap = new HashMap<>();
+			for (int key : keys) {
+				hashMap.put(key, VALUE);
+			}
+			Benchmark.measure("HashMap<Integer, String> get " + size, new Benchmark.Task() {
+				@Override
+				public Object run() {
+					int found = 0;
+					for (int key : keys) {
+						if (hashMap.get(key) != null) {
+							found++;
+						}
+					}
+					return found;
+				}
+			});
+
+			// Random insertion into a SparseArray shifts half of the array on each put, which is impractical with 1M entries
+			final boolean sortedInsertion = size > 100000;
+			Benchmark.measure("SparseArray " + (sortedInsertion ? "append (sorted keys) " : "put ") + size, new Benchmark.Task() {
+				@Override
+				public Object run() {
+					SparseArray<String> array = new SparseArray<>();
+					if (sortedInsertion) {
+						for (int key : sortedKeys) {
+							array.append(key, VALUE);
+						}
+					} else {
+						for (int key : keys) {
+							array.put(key, VALUE);
+						}
+					}
+					return array;
+				}
+			});
+			final SparseArray<String> sparseArray = new SparseArray<>();
+			for (int key : sortedKeys) {
+				sparseArray.append(key, VALUE);
+			}
+			Benchmark.measure("SparseArray get " + size, new Benchmark.Task() {
+				@Override
+				public Object run() {
+					int found = 0;
+					for (int key : keys) {
+						if (sparseArray.get(key) != null) {
+							found++;
+						}
+					}
+					return found;
+				}
+			});
+		}
+	}
+
+	@Test
+	public void intIntMap() throws Exception {
+		for (int size : SIZES) {
+			final int[] keys = buildKeys(size);
+			final int[] sortedKeys = sortedCopy(keys);
+
+			Benchmark.measure("IntIntMap put " + size, new Benchmark.Task() {
+				@Override
+				public Object run() {
+					IntIntMap map = new IntIntMap();
+					for (int key : keys) {
+						map.put(key, key);
+					}
+					return map;
+				}
+			});
+			final IntIntMap intIntMap = new IntIntMap();
+			for (int key : keys) {
+				intIntMap.put(key, key);
+			}
+			Benchmark.measure("IntIntMap get " + size, new Benchmark.Task() {
+				@Override
+				public Object run() {
+					int sum = 0;
+					for (int key : keys) {
+						sum += intIntMap.get(key);
+					}
+					return sum;
+				}
+			});
+
+			Benchmark.measure("HashMap<Integer, Integer> put " + size, new Benchmark.Task() {
+				@Override
+				public Object run() {
+					Map<Integer, Integer> map = new HashMap<>();
+					for (int key : keys) {
+						map.put(key, key);
+					}
+					return map;
+				}
+			});
+			final Map<Integer, Integer> hashMap = new HashMap<>();
+			for (int key : keys) {
+				hashMap.put(key, key);
+			}
+			Benchmark.measure("HashMap<Integer, Integer> get " + size, new Benchmark.Task() {
+				@Override
+				public Object run() {
+					int sum = 0;
+					for (int key : keys) {
+						sum += hashMap.get(key);
+					}
+					return sum;
+				}
+			});
+
+			final boolean sortedInsertion = size > 100000;
+			Benchmark.measure("SparseIntArray " + (sortedInsertion ? "append (sorted keys) " : "put ") + size, new Benchmark.Task() {
+				@Override
+				public Object run() {
+					SparseIntArray array = new SparseIntArray();
+					if (sortedInsertion) {
+						for (int key : sortedKeys) {
+							array.append(key, key);
+						}
+					} else {
+						for (int key : keys) {
+							array.put(key, key);
+						}
+					}
+					return array;
+				}
+			});
+			final SparseIntArray sparseIntArray = new SparseIntArray();
+			for (int key : sortedKeys) {
+				sparseIntArray.append(key, key);
+			}
+			Benchmark.measure("SparseIntArray get " + size, new Benchmark.Task() {
+				@Override
+				public Object run() {
+					int sum = 0;
+					for (int key : keys) {
+						sum += sparseIntArray.get(key);
+					}
+					return sum;
+				}
+			});
+		}
+	}
+
+	/**
+	 * Distinct keys spread over the whole int range, as a multiplicative hash is a bijection
+	 */
+	private static int[] buildKeys(int size) {
+		int[] keys = new int[size];
+		for (int i = 0; i < size; i++) {
+			keys[i] = (int) (i * 2654435761L);
+		}
+		return keys;
+	}
+
+	private static int[] sortedCopy(int[] keys) {
+		int[] sortedKeys = keys.clone();
+		Arrays.sort(sortedKeys);
+		return sortedKeys;
+	}
+
+}
@@ -0,0 +1,202 @@
+package fr.beapp.utils.enums;
+
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import fr.beapp.utils.Benchmark;
+
+@Ignore("Benchmark, run manually")
+public class EnumUtilsBenchmark {
+
+	private static final int LOOKUP_COUNT = 100000;
+
+	private enum Enum5 implements EnumFromWS {
+		K0, K1, K2, K3, K4;
+
+		private final String key = "key_" + name().toLowerCase(Locale.US);
+
+		@Override
+		public String getKey() {
+			return key;
+		}
+	}
+
+	private enum Enum50 implements EnumFromWS {
+		K0, K1, K2, K3, K4, K5, K6, K7, K8, K9, K10, K11, K12, K13, K14, K15, K16, K17, K18, K19,
+		K20, K21, K22, K23, K24, K25, K26, K27, K28, K29, K30, K31, K32, K33, K34, K35, K36, K37, K38, K39,
+		K40, K41, K42, K43, K44, K45, K46, K47, K48, K49;
+
+		private final String key = "key_" + name().toLowerCase(Locale.US);
+
+		@Override
+		public String getKey() {
+			return key;
+		}
+	}
+
+	private enum Enum500 implements EnumFromWS {
+		K0, K1, K2, K3, K4, K5, K6, K7, K8, K9, K10, K11, K12, K13, K14, K15, K16, K17, K18, K19,
+		K20, K21, K22, K23, K24, K25, K26, K27, K28, K29, K30, K31, K32, K33, K34, K35, K36, K37, K38, K39,
+		K40, K41, K42, K43, K44, K45, K46, K47, K48, K49, K50, K51, K52, K53, K54, K55, K56, K57, K58, K59,
+		K60, K61, K62, K63, K64, K65, K66, K67, K68, K69, K70, K71, K72, K73, K74, K75, K76, K77, K78, K79,
+		K80, K81, K82, K83, K84, K85, K86, K87, K88, K89, K90, K91, K92, K93, K94, K95, K96, K97, K98, K99,
+		K100, K101, K102, K103, K104, K105, K106, K107, K108, K109, K110, K111, K112, K113, K114, K115, K116, K117, K118, K119,
+		K120, K121, K122, K123, K124, K125, K126, K127, K128, K129, K130, K131, K132, K133, K134, K135, K136, K137, K138, K139,
+		K140, K141, K142, K143, K144, K145, K146, K147, K148, K149, K150, K151, K152, K153, K154, K155, K156, K157, K158, K159,
+		K160, K161, K162, K163, K164, K165, K166, K167, K168, K169, K170, K171, K172, K173, K174, K175, K176, K177, K178, K179,
+		K180, K181, K182, K183, K184, K185, K186, K187, K188, K189, K190, K191, K192, K193, K194, K195, K196, K197, K198, K199,
+		K200, K201, K202, K203, K204, K205, K206, K207, K208, K209, K210, K211, K212, K213, K214, K215, K216, K217, K218, K219,
+		K220, K221, K222, K223, K224, K225, K226, K227, K228, K229, K230, K231, K232, K233, K234, K235, K236, K237, K238, K239,
+		K240, K241, K242, K243, K244, K245, K246, K247, K248, K249, K250, K251, K252, K253, K254, K255, K256, K257, K258, K259,
+		K260, K261, K262, K263, K264, K265, K266, K267, K268, K269, K270, K271, K272, K273, K274, K275, K276, K277, K278, K279,
+		K280, K281, K282, K283, K284, K285, K286, K287, K288, K289, K290, K291, K292, K293, K294, K295, K296, K297, K298, K299,
+		K300, K301, K302, K303, K304, K305, K306, K307, K308, K309, K310, K311, K312, K313, K314, K315, K316, K317, K318, K319,
+		K320, K321, K322, K323, K324, K325, K326, K327, K328, K329, K330, K331, K332, K333, K334, K335, K336, K337, K338, K339,
+		K340, K341, K342, K343, K344, K345, K346, K347, K348, K349, K350, K351, K352, K353, K354, K355, K356, K357, K358, K359,
+		K360, K361, K362, K363, K364, K365, K366, K367, K368, K369, K370, K371, K372, K373, K374, K375, K376, K377, K378, K379,
+		K380, K381, K382, K383, K384, K385, K386, K387, K388, K389, K390, K391, K392, K393, K394, K395, K396, K397, K398, K399,
+		K400, K401, K402, K403, K404, K405, K406, K407, K408, K409, K410, K411, K412, K413, K414, K415, K416, K417, K418, K419,
+		K420, K421, K422, K423, K424, K425, K426, K427, K428, K429, K430, K431, K432, K433, K434, K435, K436, K437, K438, K439,
+		K440, K441, K442, K443, K444, K445, K446, K447, K448, K449, K450, K451, K452, K453, K454, K455, K456, K457, K458, K459,
+		K460, K461, K462, K463, K464, K465, K466, K467, K468, K469, K470, K471, K472, K473, K474, K475, K476, K477, K478, K479,
+		K480, K481, K482, K483, K484, K485, K486, K487, K488, K489, K490, K491, K492, K493, K494, K495, K496, K497, K498, K499;
+
+		private final String key = "key_" + name().toLowerCase(Locale.US);
+
+		@Override
+		public String getKey() {
+			return key;
+		}
+	}
+
+	@Test
+	public void fromKey() throws Exception {
+		measureFromKey(Enum5.class);
+		measureFromKey(Enum50.class);
+		measureFromKey(Enum500.class);
+	}
+
+	private static <E extends Enum<E> & EnumFromWS> void measureFromKey(final Class<E> clazz) throws Exception {
+		final E[] values = clazz.getEnumConstants();
+
+		// 80% of known keys, half of them with another case, and 20% of unknown keys
+		Random random = new Random(42);
+		final String[] keys = new String[LOOKUP_COUNT];
+		for (int i = 0; i < LOOKUP_COUNT; i++) {
+			String key = values[random.nextInt(values.length)].getKey();
+			if (i % 5 == 4) {
+				keys[i] = "unknown_" + i;
+			} else {
+				keys[i] = i % 2 == 0 ? key : key.toUpperCase(Locale.US);
+			}
+		}
+
+		Benchmark.measure("fromKey(Class), " + values.length + " constants", new Benchmark.Task() {
+			@Override
+			public Object run() {
+				int found = 0;
+				for (String key : keys) {
+					if (EnumUtils.fromKey(clazz, key) != null) {
+						found++;
+					}
+				}
+				return found;
+			}
+		});
+		Benchmark.measure("fromKey(values()), " + values.length + " constants", new Benchmark.Task() {
+			@Override
+			public Object run() {
+				int found = 0;
+				for (String key : keys) {
+					if (EnumUtils.fromKey(values, key) != null) {
+						found++;
+					}
+				}
+				return found;
+			}
+		});
+		Benchmark.measure("linear scan, " + values.length + " constants", new Benchmark.Task() {
+			@Override
+			public Object run() {
+				int found = 0;
+				for (String key : keys) {
+					if (linearFromKey(values, key) != null) {
+						found++;
+					}
+				}
+				return found;
+			}
+		});
+	}
+
+	@Test
+	public void fromName() throws Exception {
+		final Enum50[] values = Enum50.values();
+		for (final int unknownPercent : new int[]{10, 50, 90}) {
+			Random random = new Random(42);
+			final List<String> names = new ArrayList<>(LOOKUP_COUNT);
+			for (int i = 0; i < LOOKUP_COUNT; i++) {
+				names.add(random.nextInt(100) < unknownPercent ? "UNKNOWN_" + i : values[random.nextInt(values.length)].name());
+			}
+
+			Benchmark.measure("fromName, " + unknownPercent + "% unknown", new Benchmark.Task() {
+				@Override
+				public Object run() {
+					int found = 0;
+					for (String name : names) {
+						if (EnumUtils.fromName(Enum50.class, name) != null) {
+							found++;
+						}
+					}
+					return found;
+				}
+			});
+			Benchmark.measure("fromNames, " + unknownPercent + "% unknown", new Benchmark.Task() {
+				@Override
+				public Object run() {
+					return EnumUtils.fromNames(Enum50.class, names);
+				}
+			});
+			Benchmark.measure("Enum.valueOf, " + unknownPercent + "% unknown", new Benchmark.Task() {
+				@Override
+				public Object run() {
+					int found = 0;
+					for (String name : names) {
+						if (valueOfFromName(Enum50.class, name) != null) {
+							found++;
+						}
+					}
+					return found;
+				}
+			});
+		}
+	}
+
+	/**
+	 * Previous implementation of {@link EnumUtils#fromKey(EnumFromWS[], String)}
+	 */
+	private static <E extends EnumFromWS> E linearFromKey(E[] items, String key) {
+		for (E item : items) {
+			if (key.equalsIgnoreCase(item.getKey()))
+				return item;
+		}
+		return null;
+	}
+
+	/**
+	 * Previous implementation of {@link EnumUtils#fromName(Class, String)}
+	 */
+	private static <E extends Enum<E>> E valueOfFromName(Class<E> clazz, String name) {
+		try {
+			return Enum.valueOf(clazz, name);
+		} catch (IllegalArgumentException e) {
+			return null;
+		}
+	}
+
+}
@@ -2,6 +2,10 @@ package fr.beapp.utils.enums;
 
 import org.junit.Test;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+
 import static org.junit.Assert.assertEquals;
 
 public class EnumUtilsTest {
@@ -24,6 +28,28 @@ public class EnumUtilsTest {
 		assertEquals(TestEnum.VALUE_2, EnumUtils.fromKey(TestEnum.values(), "VAL2", TestEnum.VALUE_3));
 	}
 
+	@Test
+	public void testFromKeyWithClass() throws Exception {
+		assertEquals(null, EnumUtils.fromKey(TestEnum.class, null));
+		assertEquals(null, EnumUtils.fromKey(TestEnum.class, "unknown"));
+		assertEquals(null, EnumUtils.fromKey(TestEnum.class, "val"));
+
+		assertEquals(TestEnum.VALUE_1, EnumUtils.fromKey(TestEnum.class, "val1"));
+		assertEquals(TestEnum.VALUE_2, EnumUtils.fromKey(TestEnum.class, "VAL2"));
+		assertEquals(TestEnum.VALUE_3, EnumUtils.fromKey(TestEnum.class, "unknown", TestEnum.VALUE_3));
+	}
+
+	@Test
+	public void testFromKeyWithSubset() throws Exception {
+		TestEnum[] subset = {TestEnum.VALUE_3, TestEnum.VALUE_1};
+		assertEquals(TestEnum.VALUE_1, EnumUtils.fromKey(subset, "val1"));
+		assertEquals(TestEnum.VALUE_3, EnumUtils.fromKey(subset, "VAL3"));
+		assertEquals(null, EnumUtils.fromKey(subset, "val2"));
+
+		EnumFromWS[] mixed = {OtherEnum.OTHER, TestEnum.VALUE_2};
+		assertEquals(TestEnum.VALUE_2, EnumUtils.fromKey(mixed, "val2"));
+	}
+
 	@Test
 	public void testFromName() throws Exception {
 		assertEquals(null, EnumUtils.fromName(TestEnum.class, null));
@@ -42,6 +68,44 @@ public class EnumUtilsTest {
 		assertEquals(TestEnum.VALUE_2, EnumUtils.fromName(TestEnum.class, "VALUE_2", TestEnum.VALUE_3));
 	}
 
+	@Test
+	public void testFromNames() throws Exception {
+		assertEquals(Collections.emptyList(), EnumUtils.fromNames(TestEnum.class, null));
+		assertEquals(Arrays.asList(TestEnum.VALUE_3, TestEnum.VALUE_1), EnumUtils.fromNames(TestEnum.class, Arrays.asList("VALUE_3", "unknown", null, "VALUE_1")));
+		assertEquals(Arrays.asList(TestEnum.VALUE_3, TestEnum.VALUE_2, TestEnum.VALUE_2), EnumUtils.fromNames(TestEnum.class, Arrays.asList("VALUE_3", "unknown", null), TestEnum.VALUE_2));
+	}
+
+	@Test
+	public void testFromDelimitedKeys() throws Exception {
+		assertEquals(EnumSet.noneOf(TestEnum.class), EnumUtils.fromDelimitedKeys(TestEnum.class, null));
+		assertEquals(EnumSet.noneOf(TestEnum.class), EnumUtils.fromDelimitedKeys(TestEnum.class, ""));
+		assertEquals(EnumSet.of(TestEnum.VALUE_1, TestEnum.VALUE_3), EnumUtils.fromDelimitedKeys(TestEnum.class, "val3, VAL1,,unknown,"));
+
+		EnumSet<TestEnum> output = EnumSet.of(TestEnum.VALUE_2);
+		assertEquals(EnumSet.allOf(TestEnum.class), EnumUtils.fromDelimitedKeys(TestEnum.class, new StringBuilder("val1|val3"), '|', output));
+	}
+
+	@Test
+	public void testDelimitedKeysMask() throws Exception {
+		assertEquals(0L, EnumUtils.fromDelimitedKeysToMask(TestEnum.class, null));
+		assertEquals(0b101L, EnumUtils.fromDelimitedKeysToMask(TestEnum.class, "val3,val1"));
+
+		assertEquals("val1,val3", EnumUtils.toDelimitedKeys(TestEnum.class, 0b101L));
+		assertEquals("", EnumUtils.toDelimitedKeys(TestEnum.class, 0L));
+	}
+
+	@Test
+	public void testToDelimitedKeys() throws Exception {
+		assertEquals("", EnumUtils.toDelimitedKeys(null));
+		assertEquals("val2,val1", EnumUtils.toDelimitedKeys(Arrays.asList(TestEnum.VALUE_2, TestEnum.VALUE_1)));
+		assertEquals("val1,val2", EnumUtils.toDelimitedKeys(EnumSet.of(TestEnum.VALUE_2, TestEnum.VALUE_1)));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testToDelimitedKeys_unknownBit() throws Exception {
+		EnumUtils.toDelimitedKeys(TestEnum.class, 0b1000L);
+	}
+
 	public enum TestEnum implements EnumFromWS {
 		VALUE_1("val1"),
 		VALUE_2("val2"),
@@ -58,4 +122,13 @@ public class EnumUtilsTest {
 			return key;
 		}
 	}
-}
\ No newline at end of file
+
+	public enum OtherEnum implements EnumFromWS {
+		OTHER;
+
+		@Override
+		public String getKey() {
+			return "other";
+		}
+	}
+}
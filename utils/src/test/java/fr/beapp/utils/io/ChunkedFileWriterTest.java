@@ -0,0 +1,136 @@
+package fr.beapp.utils.io;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class ChunkedFileWriterTest {
+
+	private static byte[] randomBytes(int length) {
+		byte[] bytes = new byte[length];
+		new Random(42).nextBytes(bytes);
+		return bytes;
+	}
+
+	private static byte[] readFile(File file) throws IOException {
+		byte[] bytes = new byte[(int) file.length()];
+		FileInputStream inputStream = new FileInputStream(file);
+		try {
+			int offset = 0;
+			int n;
+			while (offset < bytes.length && (n = inputStream.read(bytes, offset, bytes.length - offset)) != -1) {
+				offset += n;
+			}
+		} finally {
+			IOUtils.closeQuietly(inputStream);
+		}
+		return bytes;
+	}
+
+	@Test
+	public void testWriteChunk_parallel() throws Exception {
+		final byte[] data = randomBytes(100000);
+		final int chunkSize = 7000;
+		File file = File.createTempFile("beapp", null);
+
+		final ChunkedFileWriter writer = new ChunkedFileWriter(file, data.length);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<Long>> futures = new ArrayList<>();
+			for (int offset = data.length - data.length % chunkSize; offset >= 0; offset -= chunkSize) {
+				final int start = offset;
+				futures.add(executor.submit(new Callable<Long>() {
+					@Override
+					public Long call() throws Exception {
+						int length = Math.min(chunkSize, data.length - start);
+						return writer.writeChunk(start, new ByteArrayInputStream(data, start, length));
+					}
+				}));
+			}
+			for (Future<Long> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		Assert.assertTrue(writer.isComplete());
+		Assert.assertEquals(0, writer.getMissingRanges().size());
+		Assert.assertArrayEquals(data, readFile(writer.complete()));
+		Assert.assertFalse(new File(file.getPath() + ".parts").exists());
+	}
+
+	@Test
+	public void testResume() throws Exception {
+		byte[] data = randomBytes(1000);
+		File file = File.createTempFile("beapp", null);
+
+		ChunkedFileWriter writer = new ChunkedFileWriter(file, data.length);
+		writer.writeChunk(0, new ByteArrayInputStream(data, 0, 200));
+		writer.writeChunk(500, new ByteArrayInputStream(data, 500, 100));
+		writer.close();
+
+		writer = new ChunkedFileWriter(file, data.length);
+		List<long[]> missingRanges = writer.getMissingRanges();
+		Assert.assertEquals(2, missingRanges.size());
+		Assert.assertArrayEquals(new long[]{200, 500}, missingRanges.get(0));
+		Assert.assertArrayEquals(new long[]{600, 1000}, missingRanges.get(1));
+
+		for (long[] range : missingRanges) {
+			writer.writeChunk(range[0], new ByteArrayInputStream(data, (int) range[0], (int) (range[1] - range[0])));
+		}
+		Assert.assertArrayEquals(data, readFile(writer.complete()));
+	}
+
+	@Test(expected = IOException.class)
+	public void testComplete_missingRanges() throws Exception {
+		ChunkedFileWriter writer = new ChunkedFileWriter(File.createTempFile("beapp", null), 100);
+		writer.writeChunk(0, new ByteArrayInputStream(new byte[50]));
+		writer.complete();
+	}
+
+	@Test(expected = IOException.class)
+	public void testWriteChunk_overflow() throws Exception {
+		ChunkedFileWriter writer = new ChunkedFileWriter(File.createTempFile("beapp", null), 100);
+		writer.writeChunk(80, new ByteArrayInputStream(new byte[50]));
+	}
+
+	@Test
+	public void testWriteChunk_streamError() throws Exception {
+		File file = File.createTempFile("beapp", null);
+		ChunkedFileWriter writer = new ChunkedFileWriter(file, 10000);
+		InputStream failingStream = new SequenceInputStream(new ByteArrayInputStream(new byte[5000]), new InputStream() {
+			@Override
+			public int read() throws IOException {
+				throw new IOException("Connection reset");
+			}
+		});
+
+		try {
+			writer.writeChunk(0, failingStream);
+			Assert.fail("Stream error must be rethrown");
+		} catch (IOException e) {
+			Assert.assertEquals("Connection reset", e.getMessage());
+		}
+		writer.close();
+
+		// Bytes written before the error are persisted
+		writer = new ChunkedFileWriter(file, 10000);
+		Assert.assertEquals(5000, writer.getCompletedLength());
+		writer.close();
+	}
+
+}
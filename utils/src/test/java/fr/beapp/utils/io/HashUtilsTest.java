@@ -0,0 +1,106 @@
+package fr.beapp.utils.io;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+public class HashUtilsTest {
+
+	private static final byte[] CONTENT = "The quick brown fox jumps over the lazy dog".getBytes();
+
+	private static File createFile(byte[] content) throws Exception {
+		File file = File.createTempFile("beapp", null);
+		FileOutputStream outputStream = new FileOutputStream(file);
+		try {
+			outputStream.write(content);
+		} finally {
+			IOUtils.closeQuietly(outputStream);
+		}
+		return file;
+	}
+
+	@Test
+	public void testHash_stream() throws Exception {
+		Assert.assertNull(HashUtils.hash((ByteArrayInputStream) null, HashAlgorithm.MD5));
+		Assert.assertEquals("9e107d9d372bb6826bd81d3542a419d6", HashUtils.hash(new ByteArrayInputStream(CONTENT), HashAlgorithm.MD5));
+		Assert.assertEquals("2fd4e1c67a2d28fced849ee1bb76e7391b93eb12", HashUtils.hash(new ByteArrayInputStream(CONTENT), HashAlgorithm.SHA_1));
+		Assert.assertEquals("d7a8fbb307d7809469ca9abcb0082e4f8d5651e46d3cdb762d02d0bf37c9e592", HashUtils.hash(new ByteArrayInputStream(CONTENT), HashAlgorithm.SHA_256));
+		Assert.assertEquals("414fa339", HashUtils.hash(new ByteArrayInputStream(CONTENT), HashAlgorithm.CRC32));
+	}
+
+	@Test
+	public void testCopy() throws Exception {
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		Assert.assertEquals("9e107d9d372bb6826bd81d3542a419d6", HashUtils.copy(new ByteArrayInputStream(CONTENT), outputStream, HashAlgorithm.MD5));
+		Assert.assertArrayEquals(CONTENT, outputStream.toByteArray());
+	}
+
+	@Test
+	public void testHashingInputStream() throws Exception {
+		HashingInputStream inputStream = new HashingInputStream(new ByteArrayInputStream(CONTENT), HashAlgorithm.CRC32);
+		IOUtils.copy(inputStream, new ByteArrayOutputStream());
+		Assert.assertEquals("414fa339", HashUtils.toHex(inputStream.digest()));
+	}
+
+	@Test
+	public void testHashingInputStream_skip() throws Exception {
+		HashingInputStream inputStream = new HashingInputStream(new ByteArrayInputStream(CONTENT), HashAlgorithm.CRC32);
+		Assert.assertFalse(inputStream.markSupported());
+		Assert.assertEquals('T', inputStream.read());
+		Assert.assertEquals(10, inputStream.skip(10));
+		Assert.assertEquals(0, inputStream.skip(0));
+		Assert.assertEquals(CONTENT.length - 11, inputStream.skip(1000));
+		Assert.assertEquals(-1, inputStream.read());
+		Assert.assertEquals("414fa339", HashUtils.toHex(inputStream.digest()));
+	}
+
+	@Test
+	public void testHash_file() throws Exception {
+		Assert.assertEquals("9e107d9d372bb6826bd81d3542a419d6", HashUtils.hash(createFile(CONTENT), HashAlgorithm.MD5));
+
+		byte[] bigContent = new byte[(int) HashUtils.MAPPED_READ_THRESHOLD * 2 + 17];
+		new Random(42).nextBytes(bigContent);
+		Assert.assertEquals(HashUtils.hash(new ByteArrayInputStream(bigContent), HashAlgorithm.SHA_256), HashUtils.hash(createFile(bigContent), HashAlgorithm.SHA_256));
+		Assert.assertEquals(HashUtils.hash(new ByteArrayInputStream(bigContent), HashAlgorithm.CRC32), HashUtils.hash(createFile(bigContent), HashAlgorithm.CRC32));
+	}
+
+	@Test
+	public void testHasher_byteBuffer() throws Exception {
+		for (HashAlgorithm algorithm : HashAlgorithm.values()) {
+			HashAlgorithm.Hasher hasher = algorithm.newHasher();
+			ByteBuffer directBuffer = ByteBuffer.allocateDirect(CONTENT.length);
+			directBuffer.put(CONTENT).flip();
+			hasher.update(directBuffer);
+			Assert.assertFalse(directBuffer.hasRemaining());
+			Assert.assertEquals(HashUtils.hash(new ByteArrayInputStream(CONTENT), algorithm), HashUtils.toHex(hasher.digest()));
+
+			hasher.update(ByteBuffer.wrap(CONTENT, 4, CONTENT.length - 4));
+			Assert.assertEquals(HashUtils.hash(new ByteArrayInputStream(CONTENT, 4, CONTENT.length - 4), algorithm), HashUtils.toHex(hasher.digest()));
+		}
+	}
+
+	@Test
+	public void testHashFiles() throws Exception {
+		List<File> files = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			files.add(createFile(Arrays.copyOf(CONTENT, CONTENT.length - i)));
+		}
+
+		Map<File, String> hashes = HashUtils.hashFiles(files, HashAlgorithm.SHA_256, 3);
+		Assert.assertEquals(files, new ArrayList<>(hashes.keySet()));
+		for (File file : files) {
+			Assert.assertEquals(HashUtils.hash(file, HashAlgorithm.SHA_256), hashes.get(file));
+		}
+	}
+
+}
@@ -0,0 +1,69 @@
+package fr.beapp.utils.io;
+
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.Random;
+
+import fr.beapp.utils.Benchmark;
+
+@Ignore("Benchmark, run manually")
+public class IOUtilsBenchmark {
+
+	private static final int[] CACHE_SIZES = {100 * 1024, 1024 * 1024, 5 * 1024 * 1024};
+
+	@Test
+	public void readFromFile_compressedVsUncompressed() throws Exception {
+		for (int cacheSize : CACHE_SIZES) {
+			String json = buildJsonCache(cacheSize);
+
+			for (final Compression compression : Compression.values()) {
+				final File file = File.createTempFile("beapp", null);
+				file.deleteOnExit();
+				if (compression == Compression.NONE) {
+					IOUtils.writeToFile(json, file);
+				} else {
+					IOUtils.writeToFile(json, file, compression, Compression.DEFAULT_LEVEL);
+				}
+
+				String label = compression + " " + cacheSize / 1024 + "KB";
+				Benchmark.report(label + " file size", file.length() / 1024 + "KB");
+				Benchmark.measure(label + " read", new Benchmark.Task() {
+					@Override
+					public Object run() throws Exception {
+						return IOUtils.readFromFile(file, compression);
+					}
+				});
+				if (compression != Compression.DEFLATE) {
+					Benchmark.measure(label + " read, auto-detected", new Benchmark.Task() {
+						@Override
+						public Object run() throws Exception {
+							return IOUtils.readFromFile(file, null);
+						}
+					});
+				}
+			}
+		}
+	}
+
+	/**
+	 * Build a JSON array of objects looking like an API response, until it reaches the given size
+	 */
+	private static String buildJsonCache(int size) {
+		Random random = new Random(42);
+		StringBuilder builder = new StringBuilder(size + 256).append('[');
+		for (int i = 0; builder.length() < size; i++) {
+			if (i > 0) {
+				builder.append(',');
+			}
+			builder.append("{\"id\":").append(i)
+					.append(",\"title\":\"Item ").append(Long.toHexString(random.nextLong()))
+					.append("\",\"price\":").append(random.nextInt(10000) / 100.0)
+					.append(",\"available\":").append(random.nextBoolean())
+					.append(",\"tags\":[\"tag").append(random.nextInt(50)).append("\",\"tag").append(random.nextInt(50)).append("\"]}");
+		}
+		return builder.append(']').toString();
+	}
+
+}
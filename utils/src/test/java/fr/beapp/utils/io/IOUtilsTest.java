@@ -106,6 +106,28 @@ public class IOUtilsTest extends BaseRobolectric {
 	}
 
 
+	@Test
+	public void testWriteToFile_compressed() throws Exception {
+		String value = "{\"items\": [\"test\", \"test\", \"test\", \"test\"]}";
+		for (Compression compression : Compression.values()) {
+			File file = File.createTempFile("beapp", null);
+			Assert.assertFalse(IOUtils.writeToFile(null, file, compression, Compression.DEFAULT_LEVEL));
+			Assert.assertTrue(IOUtils.writeToFile(value, file, compression, 9));
+			Assert.assertEquals(value, IOUtils.readFromFile(file, compression));
+		}
+	}
+
+	@Test
+	public void testReadFromStream_detectCompression() throws Exception {
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		IOUtils.writeToStream("test", outputStream, Compression.GZIP, Compression.DEFAULT_LEVEL);
+		Assert.assertEquals("test", IOUtils.readFromStream(new ByteArrayInputStream(outputStream.toByteArray()), null));
+
+		Assert.assertEquals("test", IOUtils.readFromStream(new ByteArrayInputStream("test".getBytes()), null));
+		Assert.assertEquals("", IOUtils.readFromStream(new ByteArrayInputStream(new byte[0]), null));
+		Assert.assertNull(IOUtils.readFromStream(null, null));
+	}
+
 	@Test
 	public void testCopy_stream_empty() throws Exception {
 		ByteArrayInputStream inputStream = new ByteArrayInputStream(new byte[0]);
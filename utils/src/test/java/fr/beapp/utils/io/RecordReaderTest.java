@@ -0,0 +1,68 @@
+package fr.beapp.utils.io;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class RecordReaderTest {
+
+	private static List<String> readAll(RecordReader recordReader) throws Exception {
+		List<String> records = new ArrayList<>();
+		try {
+			CharSequence record;
+			while ((record = recordReader.next()) != null) {
+				records.add(record.toString());
+			}
+		} finally {
+			IOUtils.closeQuietly(recordReader);
+		}
+		return records;
+	}
+
+	@Test
+	public void testLines() throws Exception {
+		Assert.assertEquals(Collections.emptyList(), readAll(RecordReader.lines(new StringReader(""))));
+		Assert.assertEquals(Collections.singletonList("test"), readAll(RecordReader.lines(new StringReader("test"))));
+		Assert.assertEquals(Collections.singletonList("test"), readAll(RecordReader.lines(new StringReader("test\n"))));
+		Assert.assertEquals(Arrays.asList("a", "", "b", "c", "d"), readAll(RecordReader.lines(new StringReader("a\n\nb\r\nc\rd"))));
+		Assert.assertEquals(Arrays.asList("a", "b"), readAll(RecordReader.lines(new ByteArrayInputStream("a\r\nb".getBytes()))));
+	}
+
+	@Test
+	public void testRecords() throws Exception {
+		Assert.assertEquals(Arrays.asList("a", "", "bc"), readAll(RecordReader.records(new StringReader("a;;bc;"), ';')));
+	}
+
+	@Test
+	public void testRecords_growingBuffer() throws Exception {
+		StringBuilder content = new StringBuilder();
+		List<String> expected = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			StringBuilder record = new StringBuilder();
+			for (int j = 0; j < i % 37; j++) {
+				record.append((char) ('a' + j % 26));
+			}
+			expected.add(record.toString());
+			content.append(record).append('|');
+		}
+
+		Assert.assertEquals(expected, readAll(RecordReader.records(new StringReader(content.toString()), '|', 4)));
+	}
+
+	@Test
+	public void testRecordView() throws Exception {
+		RecordReader recordReader = RecordReader.records(new StringReader("hello,world"), ',');
+		CharSequence record = recordReader.next();
+		Assert.assertNotNull(record);
+		Assert.assertEquals(5, record.length());
+		Assert.assertEquals('e', record.charAt(1));
+		Assert.assertEquals("ell", record.subSequence(1, 4).toString());
+	}
+
+}
@@ -0,0 +1,102 @@
+package fr.beapp.utils.io;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+public class TransferMeterTest {
+
+	@Test
+	public void testUpdate_throttled() throws Exception {
+		RecordingListener listener = new RecordingListener();
+		FakeClockTransferMeter meter = new FakeClockTransferMeter(1000, 100, listener);
+		meter.start();
+
+		meter.advance(50);
+		meter.update(100);
+		Assert.assertEquals(0, listener.calls.size());
+
+		meter.advance(50);
+		meter.update(100);
+		Assert.assertEquals(1, listener.calls.size());
+		Assert.assertEquals(200, listener.calls.get(0)[0]);
+		Assert.assertEquals(2000, listener.calls.get(0)[2]);
+		Assert.assertEquals(400, listener.calls.get(0)[3]);
+
+		meter.advance(10);
+		meter.update(100);
+		Assert.assertEquals(1, listener.calls.size());
+
+		meter.finish();
+		Assert.assertEquals(2, listener.calls.size());
+		Assert.assertEquals(300, listener.calls.get(1)[0]);
+	}
+
+	@Test
+	public void testEta_unknownTotal() throws Exception {
+		RecordingListener listener = new RecordingListener();
+		FakeClockTransferMeter meter = new FakeClockTransferMeter(-1, 0, listener);
+		meter.start();
+		meter.advance(100);
+		meter.update(100);
+
+		Assert.assertEquals(1000, meter.getBytesPerSecond());
+		Assert.assertEquals(-1, meter.getEtaMillis());
+	}
+
+	@Test
+	public void testCopy_withListener() throws Exception {
+		byte[] data = new byte[IOUtils.DEFAULT_BUFFER_SIZE * 3 + 10];
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		RecordingListener listener = new RecordingListener();
+
+		long count = IOUtils.copy(new ByteArrayInputStream(data), outputStream, data.length, 0, listener);
+
+		Assert.assertEquals(data.length, count);
+		Assert.assertEquals(data.length, outputStream.size());
+		Assert.assertEquals(5, listener.calls.size());
+		Assert.assertEquals(data.length, listener.calls.get(4)[0]);
+		Assert.assertEquals(data.length, listener.calls.get(4)[1]);
+	}
+
+	@Test
+	public void testCountingStreams() throws Exception {
+		CountingInputStream inputStream = new CountingInputStream(new ByteArrayInputStream("test".getBytes()));
+		CountingOutputStream outputStream = new CountingOutputStream(new ByteArrayOutputStream());
+		IOUtils.copy(inputStream, outputStream);
+
+		Assert.assertEquals(4, inputStream.getByteCount());
+		Assert.assertEquals(4, outputStream.getByteCount());
+	}
+
+	private static class RecordingListener implements TransferMeter.ProgressListener {
+		final List<long[]> calls = new ArrayList<>();
+
+		@Override
+		public void onProgress(long bytesTransferred, long totalBytes, long bytesPerSecond, long etaMillis) {
+			calls.add(new long[]{bytesTransferred, totalBytes, bytesPerSecond, etaMillis});
+		}
+	}
+
+	private static class FakeClockTransferMeter extends TransferMeter {
+		private long nowNanos;
+
+		FakeClockTransferMeter(long totalBytes, long intervalMillis, ProgressListener listener) {
+			super(totalBytes, intervalMillis, listener);
+		}
+
+		void advance(long millis) {
+			nowNanos += millis * 1000000L;
+		}
+
+		@Override
+		protected long now() {
+			return nowNanos;
+		}
+	}
+
+}
@@ -0,0 +1,76 @@
+package fr.beapp.utils.parser;
+
+import org.junit.Ignore;
+import org.junit.Test;
+import org.w3c.dom.Document;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.xpath.XPath;
+import javax.xml.xpath.XPathFactory;
+
+import fr.beapp.utils.Benchmark;
+
+@Ignore("Benchmark, run manually")
+public class BaseXmlParserBenchmark {
+
+	private static final int DOCUMENT_COUNT = 10000;
+
+	@Test
+	public void parseSmallDocuments() throws Exception {
+		final byte[][] documents = new byte[DOCUMENT_COUNT][];
+		for (int i = 0; i < DOCUMENT_COUNT; i++) {
+			documents[i] = ("<?xml version=\"1.0\"?>\n" +
+					"<book id=\"bk" + i + "\">\n" +
+					"  <author>Author " + i + "</author>\n" +
+					"  <title>Title " + i + "</title>\n" +
+					"  <price>" + (i % 100) + ".95</price>\n" +
+					"</book>").getBytes(Charset.forName("UTF-8"));
+		}
+
+		final BaseXmlParser xmlParser = new BaseXmlParser() {
+		};
+		Benchmark.measure("BaseXmlParser, 10k documents", new Benchmark.Task() {
+			@Override
+			public Object run() throws Exception {
+				int length = 0;
+				for (byte[] document : documents) {
+					Document dom = xmlParser.parseDocument(new ByteArrayInputStream(document));
+					length += xmlParser.getXNodeContent(dom, "/book/title").length();
+					length += xmlParser.getXNodeContent(dom, "/book/price").length();
+				}
+				return length;
+			}
+		});
+
+		// Previous implementation: a new factory per document, and XPath expressions compiled on each evaluation
+		final XPath xPath = XPathFactory.newInstance().newXPath();
+		Benchmark.measure("New factory and XPath compilation, 10k documents", new Benchmark.Task() {
+			@Override
+			public Object run() throws Exception {
+				int length = 0;
+				for (byte[] document : documents) {
+					Document dom = parseWithNewFactory(new ByteArrayInputStream(document));
+					length += xPath.evaluate("/book/title", dom).length();
+					length += xPath.evaluate("/book/price", dom).length();
+				}
+				return length;
+			}
+		});
+	}
+
+	private static Document parseWithNewFactory(InputStream inputStream) throws Exception {
+		DocumentBuilderFactory dbFactory = DocumentBuilderFactory.newInstance();
+		dbFactory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+		dbFactory.setFeature("http://xml.org/sax/features/external-general-entities", false);
+		dbFactory.setFeature("http://xml.org/sax/features/external-parameter-entities", false);
+		dbFactory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+		dbFactory.setXIncludeAware(false);
+		dbFactory.setExpandEntityReferences(false);
+		return dbFactory.newDocumentBuilder().parse(inputStream);
+	}
+
+}
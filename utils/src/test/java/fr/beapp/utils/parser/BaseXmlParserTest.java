@@ -6,7 +6,9 @@ import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 import org.xml.sax.SAXParseException;
 
+import java.io.ByteArrayInputStream;
 import java.io.FileNotFoundException;
+import java.nio.charset.Charset;
 
 import fr.beapp.utils.TestUtils;
 
@@ -15,6 +17,7 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 public class BaseXmlParserTest {
 
@@ -36,6 +39,24 @@ public class BaseXmlParserTest {
 		xmlParser.parseDocument(TestUtils.resourceFile("plaintext"));
 	}
 
+	@Test
+	public void testParseDocument_reused() throws Exception {
+		Charset utf8 = Charset.forName("UTF-8");
+		for (int i = 0; i < 100; i++) {
+			if (i == 50) {
+				try {
+					xmlParser.parseDocument(new ByteArrayInputStream("<item".getBytes(utf8)));
+					fail();
+				} catch (SAXParseException ignored) {
+				}
+			}
+
+			Document document = xmlParser.parseDocument(new ByteArrayInputStream(("<item id=\"" + i + "\"><name>Item " + i + "</name></item>").getBytes(utf8)));
+			assertEquals(i, xmlParser.getAttributeIntegerByName(xmlParser.getXNode(document, "item"), "id", -1));
+			assertEquals("Item " + i, xmlParser.getXNodeContent(document, "item/name"));
+		}
+	}
+
 	@Test
 	public void testGetNode() throws Exception {
 		Document document = xmlParser.parseDocument(TestUtils.resourceFile("xmlparser.xml"));
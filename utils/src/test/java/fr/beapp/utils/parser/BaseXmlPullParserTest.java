@@ -0,0 +1,246 @@
+package fr.beapp.utils.parser;
+
+import org.junit.Test;
+import org.xmlpull.v1.XmlPullParserException;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import fr.beapp.utils.BaseRobolectric;
+import fr.beapp.utils.TestUtils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class BaseXmlPullParserTest extends BaseRobolectric {
+
+	private static class Book {
+		String id;
+		String author;
+		String title;
+		double price;
+		String description;
+	}
+
+	private static class CatalogParser extends BaseXmlPullParser {
+		final List<Book> books = new ArrayList<>();
+		final List<String> events = new ArrayList<>();
+		Book book;
+
+		CatalogParser() {
+			onStartElement("catalog", new ElementHandler() {
+				@Override
+				public void onElement(String path) {
+					events.add("start " + path + " " + getDepth());
+				}
+			});
+			onStartElement("/catalog/book", new ElementHandler() {
+				@Override
+				public void onElement(String path) {
+					book = new Book();
+					book.id = getAttributeByName("id");
+					assertNull(getAttributeIntegerByName("id"));
+					assertEquals(-1, getAttributeIntegerByName("id", -1));
+					assertEquals("default", getAttributeByName("unknown", "default"));
+				}
+			});
+			onStartElement("catalog/book/author", new ElementHandler() {
+				@Override
+				public void onElement(String path) throws IOException, XmlPullParserException {
+					book.author = getNodeContent();
+				}
+			});
+			onStartElement("catalog/book/title", new ElementHandler() {
+				@Override
+				public void onElement(String path) throws IOException, XmlPullParserException {
+					book.title = getNodeContent(false, "default");
+				}
+			});
+			onStartElement("catalog/book/price", new ElementHandler() {
+				@Override
+				public void onElement(String path) throws IOException, XmlPullParserException {
+					book.price = ParserUtils.parseDouble(getNodeContent(), -1);
+				}
+			});
+			onStartElement("catalog/book/description", new ElementHandler() {
+				@Override
+				public void onElement(String path) throws IOException, XmlPullParserException {
+					book.description = getNodeContent(false, "default");
+				}
+			});
+			onEndElement("catalog/book", new ElementHandler() {
+				@Override
+				public void onElement(String path) {
+					books.add(book);
+				}
+			});
+			onEndElement("catalog", new ElementHandler() {
+				@Override
+				public void onElement(String path) {
+					events.add("end " + path + " " + getDepth());
+				}
+			});
+		}
+	}
+
+	@Test
+	public void testParse() throws Exception {
+		CatalogParser parser = new CatalogParser();
+		parser.parse(TestUtils.resourceFile("xmlparser.xml"));
+
+		assertEquals(12, parser.books.size());
+		assertEquals("[start catalog 1, end catalog 0]", parser.events.toString());
+
+		Book book = parser.books.get(0);
+		assertEquals("bk101", book.id);
+		assertEquals("Gambardella, Matthew", book.author);
+		assertEquals("XML Developer's Guide", book.title);
+		assertEquals(44.95, book.price, 0);
+		assertEquals("An in-depth look at creating applications with XML.", book.description);
+
+		assertEquals("default", parser.books.get(2).description);
+		assertEquals("A deep sea diver finds true love twenty thousand leagues beneath the sea.", parser.books.get(6).description);
+		assertEquals("bk112", parser.books.get(11).id);
+
+		// Parsers can be reused
+		parser.parse(TestUtils.resourceFile("xmlparser.xml"));
+		assertEquals(24, parser.books.size());
+	}
+
+	@Test
+	public void testParse_subContentAndSkip() throws Exception {
+		final List<String> contents = new ArrayList<>();
+		BaseXmlPullParser parser = new BaseXmlPullParser() {
+			{
+				onStartElement("catalog/book", new ElementHandler() {
+					@Override
+					public void onElement(String path) throws IOException, XmlPullParserException {
+						if ("bk101".equals(getAttributeByName("id"))) {
+							contents.add(getNodeContent(true, null));
+						} else if ("bk102".equals(getAttributeByName("id"))) {
+							contents.add(getNodeContent(false, "default"));
+						} else {
+							skipElement();
+						}
+					}
+				});
+				onStartElement("catalog/book/author", new ElementHandler() {
+					@Override
+					public void onElement(String path) throws IOException, XmlPullParserException {
+						contents.add(getNodeContent());
+					}
+				});
+			}
+		};
+		parser.parse(TestUtils.resourceFile("xmlparser.xml"));
+
+		assertEquals(2, contents.size());
+		assertEquals("Gambardella, Matthew\n" +
+				"        XML Developer's Guide\n" +
+				"        Computer\n" +
+				"        44.95\n" +
+				"        2000-10-01\n" +
+				"        An in-depth look at creating applications with XML.", contents.get(0));
+		assertEquals("default", contents.get(1));
+	}
+
+	@Test
+	public void testParse_requiredElements() throws Exception {
+		CatalogParser parser = new CatalogParser();
+		parser.requireElements("catalog/book", 3);
+
+		TrackingInputStream inputStream = new TrackingInputStream(TestUtils.resourceFile("xmlparser.xml"));
+		parser.parse(inputStream);
+
+		assertTrue(parser.isParsingStopped());
+		assertTrue(inputStream.closed);
+		assertEquals(3, parser.books.size());
+		assertEquals("bk103", parser.books.get(2).id);
+		assertEquals("[start catalog 1]", parser.events.toString());
+
+		// Requirements apply again on each parsing
+		parser.parse(TestUtils.resourceFile("xmlparser.xml"));
+		assertEquals(6, parser.books.size());
+	}
+
+	@Test
+	public void testParse_stopParsing() throws Exception {
+		final List<String> ids = new ArrayList<>();
+		BaseXmlPullParser parser = new BaseXmlPullParser() {
+			{
+				onStartElement("catalog/book", new ElementHandler() {
+					@Override
+					public void onElement(String path) {
+						ids.add(getAttributeByName("id"));
+						stopParsing();
+					}
+				});
+			}
+		};
+
+		TrackingInputStream inputStream = new TrackingInputStream(TestUtils.resourceFile("xmlparser.xml"));
+		parser.parse(inputStream);
+
+		assertEquals(Collections.singletonList("bk101"), ids);
+		assertTrue(parser.isParsingStopped());
+		assertTrue(inputStream.closed);
+	}
+
+	@Test
+	public void testParse_notStopped() throws Exception {
+		CatalogParser parser = new CatalogParser();
+		parser.requireElement("catalog/unknown");
+
+		TrackingInputStream inputStream = new TrackingInputStream(TestUtils.resourceFile("xmlparser.xml"));
+		parser.parse(inputStream);
+
+		assertFalse(parser.isParsingStopped());
+		assertEquals(12, parser.books.size());
+		inputStream.close();
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testOnStartElement_invalidPath() throws Exception {
+		new BaseXmlPullParser() {
+			{
+				onStartElement("/", new ElementHandler() {
+					@Override
+					public void onElement(String path) {
+					}
+				});
+			}
+		};
+	}
+
+	@Test(expected = FileNotFoundException.class)
+	public void testParse_notfound() throws Exception {
+		new CatalogParser().parse(TestUtils.resourceFile("notfound"));
+	}
+
+	@Test(expected = XmlPullParserException.class)
+	public void testParse_notxml() throws Exception {
+		new CatalogParser().parse(TestUtils.resourceFile("plaintext"));
+	}
+
+	private static class TrackingInputStream extends FileInputStream {
+		boolean closed;
+
+		TrackingInputStream(File file) throws FileNotFoundException {
+			super(file);
+		}
+
+		@Override
+		public void close() throws IOException {
+			closed = true;
+			super.close();
+		}
+	}
+
+}
@@ -0,0 +1,213 @@
+package fr.beapp.utils.parser;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.reactivex.Flowable;
+import io.reactivex.schedulers.Schedulers;
+import io.reactivex.subscribers.TestSubscriber;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class BatchParserTest {
+
+	private final AtomicInteger parserCount = new AtomicInteger();
+	private final AtomicInteger running = new AtomicInteger();
+	private final AtomicInteger maxRunning = new AtomicInteger();
+	private final Set<Thread> threads = Collections.newSetFromMap(new ConcurrentHashMap<Thread, Boolean>());
+	private final List<WeakReference<Object>> parsers = Collections.synchronizedList(new ArrayList<WeakReference<Object>>());
+	private List<Integer> sources;
+
+	private final Callable<BatchParser.Parser<Integer, String>> parserFactory = new Callable<BatchParser.Parser<Integer, String>>() {
+		@Override
+		public BatchParser.Parser<Integer, String> call() throws Exception {
+			parserCount.incrementAndGet();
+			return track(new BatchParser.Parser<Integer, String>() {
+				private Thread thread;
+
+				@Override
+				public String parse(Integer source) throws Exception {
+					// Each parser must stay on the thread which created it
+					if (thread == null) {
+						thread = Thread.currentThread();
+					}
+					assertEquals(thread, Thread.currentThread());
+					threads.add(thread);
+
+					int current = running.incrementAndGet();
+					while (true) {
+						int max = maxRunning.get();
+						if (current <= max || maxRunning.compareAndSet(max, current))
+							break;
+					}
+					try {
+						if (source == 13)
+							throw new IOException("Corrupted document " + source);
+						Thread.sleep(source % 3);
+						return "document" + source;
+					} finally {
+						running.decrementAndGet();
+					}
+				}
+			});
+		}
+	};
+
+	@Before
+	public void initTest() {
+		sources = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			if (i != 13) {
+				sources.add(i);
+			}
+		}
+	}
+
+	@Test
+	public void testParse_ordered() throws Exception {
+		TestSubscriber<String> testSubscriber = BatchParser.parse(Flowable.fromIterable(sources), parserFactory, 4, true, Schedulers.io()).test();
+
+		testSubscriber.awaitDone(10, TimeUnit.SECONDS);
+		testSubscriber.assertComplete();
+		testSubscriber.assertNoErrors();
+		testSubscriber.assertValueCount(sources.size());
+		for (int i = 0; i < sources.size(); i++) {
+			assertEquals("document" + sources.get(i), testSubscriber.values().get(i));
+		}
+
+		assertTrue(maxRunning.get() <= 4);
+		assertEquals(threads.size(), parserCount.get());
+		assertParsersReleased();
+	}
+
+	@Test
+	public void testParse_unordered() throws Exception {
+		TestSubscriber<String> testSubscriber = BatchParser.parse(Flowable.fromIterable(sources), parserFactory, 3, false, Schedulers.io()).test();
+
+		testSubscriber.awaitDone(10, TimeUnit.SECONDS);
+		testSubscriber.assertComplete();
+		testSubscriber.assertNoErrors();
+		testSubscriber.assertValueCount(sources.size());
+
+		List<String> expected = new ArrayList<>();
+		for (Integer source : sources) {
+			expected.add("document" + source);
+		}
+		List<String> values = new ArrayList<>(testSubscriber.values());
+		Collections.sort(expected);
+		Collections.sort(values);
+		assertEquals(expected, values);
+
+		assertTrue(maxRunning.get() <= 3);
+		assertEquals(threads.size(), parserCount.get());
+		assertParsersReleased();
+	}
+
+	@Test
+	public void testParse_backpressure() throws Exception {
+		TestSubscriber<String> testSubscriber = BatchParser.parse(sources, parserFactory, true).test(5);
+
+		testSubscriber.awaitCount(5);
+		testSubscriber.assertValueCount(5);
+		testSubscriber.assertNotComplete();
+		testSubscriber.cancel();
+		assertParsersReleased();
+	}
+
+	@Test
+	public void testParse_error() throws Exception {
+		TestSubscriber<String> testSubscriber = BatchParser.parse(Flowable.range(0, 100), parserFactory, 4, false, Schedulers.io()).test();
+
+		testSubscriber.awaitDone(10, TimeUnit.SECONDS);
+		testSubscriber.assertError(IOException.class);
+		assertParsersReleased();
+	}
+
+	@Test
+	public void testParse_cancelWhileCreatingParser() throws Exception {
+		final CountDownLatch creating = new CountDownLatch(1);
+		final CountDownLatch cancelled = new CountDownLatch(1);
+		final CountDownLatch parsed = new CountDownLatch(1);
+		Callable<BatchParser.Parser<Integer, String>> slowParserFactory = new Callable<BatchParser.Parser<Integer, String>>() {
+			@Override
+			public BatchParser.Parser<Integer, String> call() throws Exception {
+				creating.countDown();
+				awaitUninterruptibly(cancelled);
+				return track(new BatchParser.Parser<Integer, String>() {
+					@Override
+					public String parse(Integer source) throws Exception {
+						parsed.countDown();
+						return "document" + source;
+					}
+				});
+			}
+		};
+
+		TestSubscriber<String> testSubscriber = BatchParser.parse(Flowable.just(1), slowParserFactory, 1, true, Schedulers.io()).test();
+		assertTrue(creating.await(10, TimeUnit.SECONDS));
+
+		// The parser is created once the subscription already ended and emptied its holders
+		testSubscriber.cancel();
+		cancelled.countDown();
+		assertTrue(parsed.await(10, TimeUnit.SECONDS));
+		assertParsersReleased();
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testParse_invalidConcurrency() throws Exception {
+		BatchParser.parse(Flowable.fromIterable(sources), parserFactory, 0, true, Schedulers.io());
+	}
+
+	private <P> P track(P parser) {
+		parsers.add(new WeakReference<Object>(parser));
+		return parser;
+	}
+
+	private void assertParsersReleased() throws InterruptedException {
+		assertTrue(parsers.size() > 0);
+		for (int i = 0; i < 50 && !parsersReleased(); i++) {
+			System.gc();
+			Thread.sleep(100);
+		}
+		assertTrue(parsersReleased());
+	}
+
+	private boolean parsersReleased() {
+		synchronized (parsers) {
+			for (WeakReference<Object> parser : parsers) {
+				if (parser.get() != null)
+					return false;
+			}
+			return true;
+		}
+	}
+
+	private static void awaitUninterruptibly(CountDownLatch latch) {
+		boolean interrupted = false;
+		while (true) {
+			try {
+				latch.await();
+				break;
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
@@ -0,0 +1,103 @@
+package fr.beapp.utils.parser;
+
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.util.Random;
+
+import fr.beapp.utils.Benchmark;
+
+@Ignore("Benchmark, run manually")
+public class ParserUtilsBenchmark {
+
+	private static final int VALUE_COUNT = 100000;
+
+	@Test
+	public void parseInteger() throws Exception {
+		Random random = new Random(42);
+		String[] validValues = new String[VALUE_COUNT];
+		String[] emptyValues = new String[VALUE_COUNT];
+		String[] malformedValues = new String[VALUE_COUNT];
+		for (int i = 0; i < VALUE_COUNT; i++) {
+			validValues[i] = Integer.toString(random.nextInt());
+			emptyValues[i] = i % 2 == 0 ? "" : null;
+			malformedValues[i] = random.nextInt(1000) + "px";
+		}
+
+		measureInteger("valid", validValues);
+		measureInteger("empty", emptyValues);
+		measureInteger("malformed", malformedValues);
+	}
+
+	@Test
+	public void parseDouble() throws Exception {
+		Random random = new Random(42);
+		String[] validValues = new String[VALUE_COUNT];
+		String[] emptyValues = new String[VALUE_COUNT];
+		String[] malformedValues = new String[VALUE_COUNT];
+		for (int i = 0; i < VALUE_COUNT; i++) {
+			validValues[i] = Double.toString(random.nextInt(1000000) / 100.0);
+			emptyValues[i] = i % 2 == 0 ? "" : null;
+			malformedValues[i] = random.nextInt(1000) / 100.0 + "%";
+		}
+
+		measureDouble("valid", validValues);
+		measureDouble("empty", emptyValues);
+		measureDouble("malformed", malformedValues);
+	}
+
+	private static void measureInteger(String name, final String[] values) throws Exception {
+		Benchmark.measure("parseInteger, " + name, new Benchmark.Task() {
+			@Override
+			public Object run() {
+				int sum = 0;
+				for (String value : values) {
+					sum += ParserUtils.parseInteger(value, -1);
+				}
+				return sum;
+			}
+		});
+		Benchmark.measure("Integer.parseInt and catch, " + name, new Benchmark.Task() {
+			@Override
+			public Object run() {
+				int sum = 0;
+				for (String value : values) {
+					try {
+						sum += Integer.parseInt(value);
+					} catch (NumberFormatException e) {
+						sum--;
+					}
+				}
+				return sum;
+			}
+		});
+	}
+
+	private static void measureDouble(String name, final String[] values) throws Exception {
+		Benchmark.measure("parseDouble, " + name, new Benchmark.Task() {
+			@Override
+			public Object run() {
+				double sum = 0;
+				for (String value : values) {
+					sum += ParserUtils.parseDouble(value, -1);
+				}
+				return sum;
+			}
+		});
+		Benchmark.measure("Double.parseDouble and catch, " + name, new Benchmark.Task() {
+			@Override
+			public Object run() {
+				double sum = 0;
+				for (String value : values) {
+					try {
+						sum += Double.parseDouble(value);
+					} catch (NumberFormatException | NullPointerException e) {
+						sum--;
+					}
+				}
+				return sum;
+			}
+		});
+	}
+
+}
@@ -2,9 +2,16 @@ package fr.beapp.utils.parser;
 
 import org.junit.Test;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Random;
+
 import fr.beapp.utils.BaseRobolectric;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 public class ParserUtilsTest extends BaseRobolectric {
 
@@ -104,6 +111,139 @@ public class ParserUtilsTest extends BaseRobolectric {
 		assertEquals(-10, ParserUtils.parseDouble("-10.0", 25.0f), 0.00001f);
 	}
 
+	@Test
+	public void testParseInteger_bounds() throws Exception {
+		assertEquals(Integer.valueOf(Integer.MAX_VALUE), ParserUtils.parseInteger("2147483647"));
+		assertEquals(Integer.valueOf(Integer.MIN_VALUE), ParserUtils.parseInteger("-2147483648"));
+		assertNull(ParserUtils.parseInteger("2147483648"));
+		assertNull(ParserUtils.parseInteger("-2147483649"));
+		assertNull(ParserUtils.parseInteger("-"));
+		assertNull(ParserUtils.parseInteger(" 10"));
+		assertEquals(Integer.valueOf(7), ParserUtils.parseInteger("0007"));
+	}
+
+	@Test
+	public void testParseLong_bounds() throws Exception {
+		assertEquals(Long.valueOf(Long.MAX_VALUE), ParserUtils.parseLong("9223372036854775807"));
+		assertEquals(Long.valueOf(Long.MIN_VALUE), ParserUtils.parseLong("-9223372036854775808"));
+		assertNull(ParserUtils.parseLong("9223372036854775808"));
+		assertNull(ParserUtils.parseLong("-9223372036854775809"));
+
+		assertEquals(Long.MIN_VALUE, ParserUtils.parseLong("-9223372036854775808", Long.MIN_VALUE));
+		assertEquals(25L, ParserUtils.parseLong("abc", 25L));
+		assertEquals(-1L, ParserUtils.parseLong("-1", -1L));
+	}
+
+	@Test
+	public void testParseInteger_unicodeDigits() throws Exception {
+		// Arabic-Indic digits, accepted by Integer.parseInt and Long.parseLong
+		assertEquals(Integer.valueOf(12), ParserUtils.parseInteger("\u0661\u0662"));
+		assertEquals(-12, ParserUtils.parseInteger("-\u0661\u0662", 25));
+		assertEquals(Long.valueOf(122), ParserUtils.parseLong("\u0661\u06622"));
+		assertNull(ParserUtils.parseInteger("\u0661\u0662a"));
+		assertNull(ParserUtils.parseInteger("\u0662\u0661\u0664\u0667\u0664\u0668\u0663\u0666\u0664\u0668"));
+		// Not a digit
+		assertNull(ParserUtils.parseInteger("1\u00B2"));
+	}
+
+	@Test
+	public void testParse_range() throws Exception {
+		String value = "id=42;ratio=-1.5e3;size=9999999999";
+		assertEquals(42, ParserUtils.parseInteger(value, 3, 5, -1));
+		assertEquals(-1500.0, ParserUtils.parseDouble(value, 12, 18, 0), 0);
+		assertEquals(-1500f, ParserUtils.parseFloat(value, 12, 18, 0f), 0);
+		assertEquals(9999999999L, ParserUtils.parseLong(value, 24, 34, -1L));
+		assertEquals(-1, ParserUtils.parseInteger(value, 24, 34, -1));
+		assertEquals(-1, ParserUtils.parseInteger(value, 0, 5, -1));
+
+		char[] chars = value.toCharArray();
+		assertEquals(42, ParserUtils.parseInteger(chars, 3, 5, -1));
+		assertEquals(9999999999L, ParserUtils.parseLong(chars, 24, 34, -1L));
+		assertEquals(-1500.0, ParserUtils.parseDouble(chars, 12, 18, 0), 0);
+		assertEquals(-1500f, ParserUtils.parseFloat(chars, 12, 18, 0f), 0);
+	}
+
+	@Test
+	public void testParse_utf8Range() throws Exception {
+		byte[] bytes = "é=42;ratio=-1.5e3;size=9999999999;ok=TRUE;n=4\u00B2".getBytes(Charset.forName("UTF-8"));
+		assertEquals(42, ParserUtils.parseInteger(bytes, 3, 5, -1));
+		assertEquals(-1500.0, ParserUtils.parseDouble(bytes, 12, 18, 0), 0);
+		assertEquals(-1500f, ParserUtils.parseFloat(bytes, 12, 18, 0f), 0);
+		assertEquals(9999999999L, ParserUtils.parseLong(bytes, 24, 34, -1L));
+		assertTrue(ParserUtils.parseBoolean(bytes, 38, 42));
+		assertFalse(ParserUtils.parseBoolean(bytes, 37, 42));
+		assertEquals(-1, ParserUtils.parseInteger(bytes, 0, 5, -1));
+		assertEquals(-1, ParserUtils.parseInteger(bytes, 45, bytes.length, -1));
+		assertEquals(4, ParserUtils.parseInteger(bytes, 45, 46, -1));
+
+		ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+		buffer.put(bytes);
+		buffer.position(20);
+		assertEquals(42, ParserUtils.parseInteger(buffer, 3, 5, -1));
+		assertEquals(-1500.0, ParserUtils.parseDouble(buffer, 12, 18, 0), 0);
+		assertEquals(-1500f, ParserUtils.parseFloat(buffer, 12, 18, 0f), 0);
+		assertEquals(9999999999L, ParserUtils.parseLong(buffer, 24, 34, -1L));
+		assertTrue(ParserUtils.parseBoolean(buffer, 38, 42));
+		assertEquals(20, buffer.position());
+	}
+
+	@Test
+	public void testParseBoolean_range() throws Exception {
+		assertTrue(ParserUtils.parseBoolean("[True]", 1, 5));
+		assertTrue(ParserUtils.parseBoolean("[True]".toCharArray(), 1, 5));
+		assertFalse(ParserUtils.parseBoolean("[True]", 0, 5));
+		assertFalse(ParserUtils.parseBoolean("[false]", 1, 6));
+		assertFalse(ParserUtils.parseBoolean((CharSequence) null, 0, 0));
+	}
+
+	@Test
+	public void testParseDouble_utf8SameAsJdk() throws Exception {
+		Charset utf8 = Charset.forName("UTF-8");
+		Random random = new Random(7);
+		for (int i = 0; i < 10000; i++) {
+			double expected = Double.longBitsToDouble(random.nextLong());
+			if (Double.isNaN(expected))
+				continue;
+			byte[] bytes = (" " + expected + " ").getBytes(utf8);
+			assertEquals(expected, ParserUtils.parseDouble(bytes, 0, bytes.length, Double.NaN), 0);
+		}
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testParse_invalidRange() throws Exception {
+		ParserUtils.parseInteger("10", 1, 3, 0);
+	}
+
+	@Test
+	public void testParseDouble_sameAsJdk() throws Exception {
+		String[] values = {"0", "-0", "0.0", ".5", "5.", "+.5", "1e10", "1E-10", "-1.5e+3", " 12.5 ", "0.1", "0.30000000000000004",
+				"123456789012345678901234567890", "1e308", "1e309", "4.9e-324", "1e-400", "NaN", "-Infinity", "1.5f", "2d", "0x1.8p1",
+				"9007199254740993", "1.7976931348623157E308", "2.2250738585072014E-308"};
+		for (String value : values) {
+			assertEquals(value, Double.valueOf(Double.parseDouble(value)), ParserUtils.parseDouble(value));
+			assertEquals(value, Float.valueOf(Float.parseFloat(value)), ParserUtils.parseFloat(value));
+		}
+
+		String[] invalidValues = {".", "e5", "1e", "1e+", "1.5.5", "1,5", "--1", "+", "Infinit", "0x"};
+		for (String value : invalidValues) {
+			assertNull(value, ParserUtils.parseDouble(value));
+			assertNull(value, ParserUtils.parseFloat(value));
+		}
+
+		Random random = new Random(42);
+		for (int i = 0; i < 10000; i++) {
+			double expected = Double.longBitsToDouble(random.nextLong());
+			if (Double.isNaN(expected))
+				continue;
+			String value = Double.toString(expected);
+			assertEquals(value, Double.valueOf(expected), ParserUtils.parseDouble(value));
+
+			String decimal = (random.nextInt(2000000) - 1000000) + "." + random.nextInt(1000);
+			assertEquals(decimal, Double.valueOf(Double.parseDouble(decimal)), ParserUtils.parseDouble(decimal));
+			assertEquals(decimal, Float.valueOf(Float.parseFloat(decimal)), ParserUtils.parseFloat(decimal));
+		}
+	}
+
 	@Test
 	public void testParseBoolean() throws Exception {
 		assertEquals(Boolean.FALSE, ParserUtils.parseBoolean(null));
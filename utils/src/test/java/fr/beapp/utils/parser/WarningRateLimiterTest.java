@@ -0,0 +1,32 @@
+package fr.beapp.utils.parser;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class WarningRateLimiterTest {
+
+	@Test
+	public void testTryAcquire_first() throws Exception {
+		assertEquals(0, new WarningRateLimiter(1000).tryAcquire(0));
+		assertEquals(0, new WarningRateLimiter(1000).tryAcquire(System.currentTimeMillis()));
+		assertEquals(0, new WarningRateLimiter(1000).tryAcquire(Long.MIN_VALUE));
+	}
+
+	@Test
+	public void testTryAcquire_burst() throws Exception {
+		WarningRateLimiter rateLimiter = new WarningRateLimiter(1000);
+		long now = System.currentTimeMillis();
+
+		assertEquals(0, rateLimiter.tryAcquire(now));
+		for (int i = 1; i <= 10; i++) {
+			assertEquals(-1, rateLimiter.tryAcquire(now + i * 50));
+		}
+
+		assertEquals(10, rateLimiter.tryAcquire(now + 1000));
+		assertEquals(-1, rateLimiter.tryAcquire(now + 1500));
+		assertEquals(1, rateLimiter.tryAcquire(now + 5000));
+		assertEquals(0, rateLimiter.tryAcquire(now + 10000));
+	}
+
+}
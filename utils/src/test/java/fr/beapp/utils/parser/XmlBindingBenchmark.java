@@ -0,0 +1,87 @@
+package fr.beapp.utils.parser;
+
+import org.junit.Ignore;
+import org.junit.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
+import fr.beapp.utils.BaseRobolectric;
+import fr.beapp.utils.Benchmark;
+import fr.beapp.utils.TestUtils;
+import fr.beapp.utils.io.IOUtils;
+
+@Ignore("Benchmark, run manually")
+public class XmlBindingBenchmark extends BaseRobolectric {
+
+	private static final int FEED_REPETITIONS = 100;
+
+	@XmlMapped
+	static class FeedBook {
+		@XmlAttribute("id")
+		String id;
+		@XmlText("author")
+		String author;
+		@XmlText("title")
+		String title;
+		@XmlText("genre")
+		String genre;
+		@XmlText("price")
+		double price = -1;
+		@XmlText("publish_date")
+		String publishDate;
+		@XmlText("description")
+		String description;
+	}
+
+	@Test
+	public void generatedBindingVsDom() throws Exception {
+		// Feed of 1200 books, built by repeating the content of the test catalog
+		String catalog = IOUtils.readFromFile(TestUtils.resourceFile("xmlparser.xml"));
+		String content = catalog.substring(catalog.indexOf("<catalog>") + "<catalog>".length(), catalog.lastIndexOf("</catalog>"));
+		StringBuilder feedBuilder = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<catalog>\n");
+		for (int i = 0; i < FEED_REPETITIONS; i++) {
+			feedBuilder.append(content).append('\n');
+		}
+		final byte[] feed = feedBuilder.append("</catalog>").toString().getBytes(Charset.forName("UTF-8"));
+		Benchmark.report("Feed size", feed.length / 1024 + "KB");
+
+		Benchmark.measure("Generated XmlBinding", new Benchmark.Task() {
+			@Override
+			public Object run() throws Exception {
+				return XmlBindingBenchmark_FeedBook_XmlBinding.BINDING.parseList(new ByteArrayInputStream(feed), "catalog/book", 0);
+			}
+		});
+
+		final BaseXmlParser xmlParser = new BaseXmlParser() {
+		};
+		Benchmark.measure("Hand-written DOM parsing", new Benchmark.Task() {
+			@Override
+			public Object run() throws Exception {
+				Document document = xmlParser.parseDocument(new ByteArrayInputStream(feed));
+				NodeList bookNodes = xmlParser.getNodes(document, "book");
+
+				List<FeedBook> feedBooks = new ArrayList<>(bookNodes.getLength());
+				for (int i = 0, size = bookNodes.getLength(); i < size; i++) {
+					Node bookNode = bookNodes.item(i);
+					FeedBook book = new FeedBook();
+					book.id = xmlParser.getAttributeByName(bookNode, "id");
+					book.author = xmlParser.getNodeContent(bookNode, "author");
+					book.title = xmlParser.getNodeContent(bookNode, "title");
+					book.genre = xmlParser.getNodeContent(bookNode, "genre");
+					book.price = ParserUtils.parseDouble(xmlParser.getNodeContent(bookNode, "price"), -1);
+					book.publishDate = xmlParser.getNodeContent(bookNode, "publish_date");
+					book.description = xmlParser.getNodeContent(bookNode, "description");
+					feedBooks.add(book);
+				}
+				return feedBooks;
+			}
+		});
+	}
+
+}
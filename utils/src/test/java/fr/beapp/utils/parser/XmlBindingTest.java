@@ -0,0 +1,184 @@
+package fr.beapp.utils.parser;
+
+import org.junit.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+import java.io.FileInputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import fr.beapp.utils.BaseRobolectric;
+import fr.beapp.utils.TestUtils;
+import fr.beapp.utils.io.IOUtils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class XmlBindingTest extends BaseRobolectric {
+
+	private static class Catalog {
+		final List<Book> books = new ArrayList<>();
+	}
+
+	private static class Book {
+		String id;
+		String author;
+		String title;
+		double price;
+		String description;
+	}
+
+	@XmlMapped
+	static class MappedCatalog {
+		@XmlChild("book")
+		List<MappedBook> books;
+	}
+
+	@XmlMapped
+	static class MappedBook {
+		@XmlAttribute("id")
+		String id;
+		@XmlText("author")
+		String author;
+		@XmlText("title")
+		String title;
+		@XmlText("price")
+		double price = -1;
+		@XmlText("description")
+		String description;
+	}
+
+	private static final XmlBinding<Book> BOOK_BINDING = XmlBinding.builder(new XmlBinding.Factory<Book>() {
+		@Override
+		public Book create() {
+			return new Book();
+		}
+	}).attribute("id", new XmlBinding.Setter<Book>() {
+		@Override
+		public void set(Book target, String value) {
+			target.id = value;
+		}
+	}).text("author", new XmlBinding.Setter<Book>() {
+		@Override
+		public void set(Book target, String value) {
+			target.author = value;
+		}
+	}).text("/title", new XmlBinding.Setter<Book>() {
+		@Override
+		public void set(Book target, String value) {
+			target.title = value;
+		}
+	}).text("price", new XmlBinding.DoubleSetter<Book>() {
+		@Override
+		public void set(Book target, double value) {
+			target.price = value;
+		}
+	}, -1).text("description", new XmlBinding.Setter<Book>() {
+		@Override
+		public void set(Book target, String value) {
+			target.description = value;
+		}
+	}).build();
+
+	private static final XmlBinding<Catalog> CATALOG_BINDING = XmlBinding.builder(new XmlBinding.Factory<Catalog>() {
+		@Override
+		public Catalog create() {
+			return new Catalog();
+		}
+	}).child("book", BOOK_BINDING, new XmlBinding.ChildAdder<Catalog, Book>() {
+		@Override
+		public void add(Catalog target, Book child) {
+			target.books.add(child);
+		}
+	}).build();
+
+	@Test
+	public void testParseList_sameAsDom() throws Exception {
+		List<Book> books = BOOK_BINDING.parseList(TestUtils.resourceFile("xmlparser.xml"), "catalog/book");
+
+		BaseXmlParser xmlParser = new BaseXmlParser() {
+		};
+		Document document = xmlParser.parseDocument(TestUtils.resourceFile("xmlparser.xml"));
+		NodeList bookNodes = xmlParser.getNodes(document, "book");
+
+		assertEquals(bookNodes.getLength(), books.size());
+		for (int i = 0; i < books.size(); i++) {
+			Book book = books.get(i);
+			Node bookNode = bookNodes.item(i);
+			assertEquals(xmlParser.getAttributeByName(bookNode, "id"), book.id);
+			assertEquals(xmlParser.getNodeContent(bookNode, "author"), book.author);
+			assertEquals(xmlParser.getNodeContent(bookNode, "title"), book.title);
+			assertEquals(ParserUtils.parseDouble(xmlParser.getNodeContent(bookNode, "price"), -1), book.price, 0);
+			assertEquals(xmlParser.getNodeContent(bookNode, "description"), book.description);
+		}
+		assertNull(books.get(2).description);
+	}
+
+	@Test
+	public void testParseList_maxCount() throws Exception {
+		FileInputStream inputStream = new FileInputStream(TestUtils.resourceFile("xmlparser.xml"));
+		try {
+			List<Book> books = BOOK_BINDING.parseList(inputStream, "catalog/book", 2);
+			assertEquals(2, books.size());
+			assertEquals("bk102", books.get(1).id);
+			assertEquals("Midnight Rain", books.get(1).title);
+		} finally {
+			IOUtils.closeQuietly(inputStream);
+		}
+	}
+
+	@Test
+	public void testParse_nested() throws Exception {
+		final List<Catalog> catalogs = new ArrayList<>();
+		CATALOG_BINDING.parse(TestUtils.resourceFile("xmlparser.xml"), "catalog", new XmlBinding.Receiver<Catalog>() {
+			@Override
+			public void onBound(Catalog value) {
+				catalogs.add(value);
+			}
+		});
+
+		assertEquals(1, catalogs.size());
+		assertEquals(12, catalogs.get(0).books.size());
+		assertEquals("bk107", catalogs.get(0).books.get(6).id);
+		assertEquals("Thurman, Paula", catalogs.get(0).books.get(6).author);
+		assertEquals(4.95, catalogs.get(0).books.get(6).price, 0);
+	}
+
+	@Test
+	public void testGeneratedBinding() throws Exception {
+		List<Book> books = BOOK_BINDING.parseList(TestUtils.resourceFile("xmlparser.xml"), "catalog/book");
+		List<MappedCatalog> catalogs = XmlBindingTest_MappedCatalog_XmlBinding.BINDING.parseList(TestUtils.resourceFile("xmlparser.xml"), "catalog");
+
+		assertEquals(1, catalogs.size());
+		List<MappedBook> mappedBooks = catalogs.get(0).books;
+		assertEquals(books.size(), mappedBooks.size());
+		for (int i = 0; i < books.size(); i++) {
+			assertEquals(books.get(i).id, mappedBooks.get(i).id);
+			assertEquals(books.get(i).author, mappedBooks.get(i).author);
+			assertEquals(books.get(i).title, mappedBooks.get(i).title);
+			assertEquals(books.get(i).price, mappedBooks.get(i).price, 0);
+			assertEquals(books.get(i).description, mappedBooks.get(i).description);
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testBuilder_overlappingPaths() throws Exception {
+		XmlBinding.builder(new XmlBinding.Factory<Catalog>() {
+			@Override
+			public Catalog create() {
+				return new Catalog();
+			}
+		}).child("book", BOOK_BINDING, new XmlBinding.ChildAdder<Catalog, Book>() {
+			@Override
+			public void add(Catalog target, Book child) {
+			}
+		}).text("book/title", new XmlBinding.Setter<Catalog>() {
+			@Override
+			public void set(Catalog target, String value) {
+			}
+		});
+	}
+
+}
@@ -3,10 +3,13 @@ package fr.beapp.utils.rx;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.StringReader;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.concurrent.Callable;
 
+import fr.beapp.utils.io.RecordReader;
 import io.reactivex.observers.TestObserver;
 import io.reactivex.subscribers.TestSubscriber;
 
@@ -73,4 +76,20 @@ public class RxUtilsTest {
 		testSubscriber.assertValueCount(3);
 		testSubscriber.assertValues(1, 2, 3);
 	}
+
+	@Test
+	public void testFromRecords() throws Exception {
+		RxUtils.fromRecords(new Callable<RecordReader>() {
+			@Override
+			public RecordReader call() throws Exception {
+				return RecordReader.lines(new StringReader("line1\nline2\nline3"));
+			}
+		}).subscribe(testSubscriber);
+
+		testSubscriber.awaitTerminalEvent();
+		testSubscriber.assertComplete();
+		testSubscriber.assertNoErrors();
+		testSubscriber.assertValues("line1", "line2", "line3");
+	}
+
 }
\ No newline at end of file